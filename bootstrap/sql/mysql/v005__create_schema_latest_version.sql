@@ -0,0 +1,45 @@
+-- Copyright 2017 Hortonworks.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CREATE TABLE IF NOT EXISTS schema_latest_version (
+  `schemaMetadataId`       BIGINT(20)     NOT NULL,
+  `schemaBranchId`         BIGINT(20)     NOT NULL,
+  `latestVersionId`        BIGINT(20)     NOT NULL,
+  `latestVersion`          INT            NOT NULL,
+  `latestEnabledVersionId` BIGINT(20),
+  `latestEnabledVersion`   INT,
+  `enabledVersionsStamp`   BIGINT(20)     NOT NULL DEFAULT 0,
+  PRIMARY KEY (`schemaMetadataId`, `schemaBranchId`),
+  FOREIGN KEY (schemaMetadataId) REFERENCES `schema_metadata_info` (id) ON DELETE CASCADE ON UPDATE CASCADE,
+  FOREIGN KEY (schemaBranchId) REFERENCES `schema_branch` (id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+-- latest versions of the existing schema versions in each branch, enabled state id is 5
+
+INSERT INTO schema_latest_version (`schemaMetadataId`, `schemaBranchId`, `latestVersionId`, `latestVersion`)
+SELECT v.`schemaMetadataId`, m.`schemaBranchId`, v.`id`, v.`version`
+FROM schema_version_info v JOIN schema_branch_version_mapping m ON m.`schemaVersionInfoId` = v.`id`
+WHERE v.`version` = (SELECT MAX(lv.`version`)
+                     FROM schema_version_info lv JOIN schema_branch_version_mapping lm ON lm.`schemaVersionInfoId` = lv.`id`
+                     WHERE lv.`schemaMetadataId` = v.`schemaMetadataId` AND lm.`schemaBranchId` = m.`schemaBranchId`);
+
+UPDATE schema_latest_version l SET l.`latestEnabledVersion` =
+  (SELECT MAX(v.`version`)
+   FROM schema_version_info v JOIN schema_branch_version_mapping m ON m.`schemaVersionInfoId` = v.`id`
+   WHERE v.`schemaMetadataId` = l.`schemaMetadataId` AND m.`schemaBranchId` = l.`schemaBranchId` AND v.`state` = 5);
+
+UPDATE schema_latest_version l SET l.`latestEnabledVersionId` =
+  (SELECT v.`id` FROM schema_version_info v
+   WHERE v.`schemaMetadataId` = l.`schemaMetadataId` AND v.`version` = l.`latestEnabledVersion`);
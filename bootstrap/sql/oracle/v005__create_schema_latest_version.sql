@@ -0,0 +1,45 @@
+-- Copyright 2017 Hortonworks.;
+-- ;
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.;
+-- You may obtain a copy of the License at;
+-- ;
+--    http://www.apache.org/licenses/LICENSE-2.0;
+-- ;
+-- Unless required by applicable law or agreed to in writing, software;
+-- distributed under the License is distributed on an "AS IS" BASIS,;
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.;
+-- See the License for the specific language governing permissions and;
+-- limitations under the License.;
+-- ;
+
+CREATE TABLE "schema_latest_version" (
+  "schemaMetadataId"       NUMBER(19,0)          NOT NULL,
+  "schemaBranchId"         NUMBER(19,0)          NOT NULL,
+  "latestVersionId"        NUMBER(19,0)          NOT NULL,
+  "latestVersion"          NUMBER(10,0)          NOT NULL,
+  "latestEnabledVersionId" NUMBER(19,0),
+  "latestEnabledVersion"   NUMBER(10,0),
+  "enabledVersionsStamp"   NUMBER(19,0)          DEFAULT 0 NOT NULL,
+  CONSTRAINT schema_latest_version_pk PRIMARY KEY ("schemaMetadataId", "schemaBranchId"),
+  CONSTRAINT schema_latest_version_fk_smi FOREIGN KEY ("schemaMetadataId") REFERENCES "schema_metadata_info" ("id") ON DELETE CASCADE,
+  CONSTRAINT schema_latest_version_fk_sb FOREIGN KEY ("schemaBranchId") REFERENCES "schema_branch" ("id") ON DELETE CASCADE
+);
+
+-- latest versions of the existing schema versions in each branch, enabled state id is 5
+
+INSERT INTO "schema_latest_version" ("schemaMetadataId", "schemaBranchId", "latestVersionId", "latestVersion")
+SELECT v."schemaMetadataId", m."schemaBranchId", v."id", v."version"
+FROM "schema_version_info" v JOIN "schema_branch_version_mapping" m ON m."schemaVersionInfoId" = v."id"
+WHERE v."version" = (SELECT MAX(lv."version")
+                     FROM "schema_version_info" lv JOIN "schema_branch_version_mapping" lm ON lm."schemaVersionInfoId" = lv."id"
+                     WHERE lv."schemaMetadataId" = v."schemaMetadataId" AND lm."schemaBranchId" = m."schemaBranchId");
+
+UPDATE "schema_latest_version" l SET "latestEnabledVersion" =
+  (SELECT MAX(v."version")
+   FROM "schema_version_info" v JOIN "schema_branch_version_mapping" m ON m."schemaVersionInfoId" = v."id"
+   WHERE v."schemaMetadataId" = l."schemaMetadataId" AND m."schemaBranchId" = l."schemaBranchId" AND v."state" = 5);
+
+UPDATE "schema_latest_version" l SET "latestEnabledVersionId" =
+  (SELECT v."id" FROM "schema_version_info" v
+   WHERE v."schemaMetadataId" = l."schemaMetadataId" AND v."version" = l."latestEnabledVersion");
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.common.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Concurrent map with primitive {@code long} keys backed by an open addressing table with linear probing.
+ * <p>
+ * Lookups are lock free and neither box the key nor allocate. Updates are serialized on the map instance, so this
+ * map is meant for read mostly workloads like caches keyed by ids. Each key occupies a single slot in the table for
+ * its lifetime, removed entries are marked with a tombstone which is dropped when the table is rebuilt. A new table
+ * is published when it runs out of free slots, readers holding the earlier table still see a consistent view.
+ * <p>
+ * Null values are not permitted.
+ *
+ * @param <V> type of the values
+ */
+public final class ConcurrentLongObjectMap<V> {
+    private static final Object TOMBSTONE = new Object();
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private volatile Table table;
+
+    // guarded by this
+    private int size;
+
+    public ConcurrentLongObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public ConcurrentLongObjectMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must be non negative.");
+        }
+        table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the value associated with the given key or null if there is no such value.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Table t = table;
+        int mask = t.mask;
+        for (int i = index(key, mask); ; i = (i + 1) & mask) {
+            // value is read before its key as the key is always written before the value is published.
+            Object value = t.values.get(i);
+            if (value == null) {
+                return null;
+            }
+            if (t.keys[i] == key) {
+                return value == TOMBSTONE ? null : (V) value;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates the given value with the given key and returns the earlier value if any.
+     */
+    public synchronized V put(long key, V value) {
+        return doPut(key, value, false);
+    }
+
+    /**
+     * Associates the given value with the given key only if there is no value for that key and returns the existing
+     * value if any.
+     */
+    public synchronized V putIfAbsent(long key, V value) {
+        return doPut(key, value, true);
+    }
+
+    /**
+     * Returns the value associated with the given key, computing it with the given function if there is no such value.
+     * Function is invoked without holding any lock, so it may be invoked more than once for the same key by concurrent
+     * callers but only one of the computed values is retained and returned to all of them.
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            V newValue = mappingFunction.apply(key);
+            if (newValue != null) {
+                V existingValue = putIfAbsent(key, newValue);
+                value = existingValue != null ? existingValue : newValue;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value associated with the given key and returns it if any.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized V remove(long key) {
+        Table t = table;
+        int slot = t.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        Object value = t.values.get(slot);
+        if (value == TOMBSTONE) {
+            return null;
+        }
+        t.values.set(slot, TOMBSTONE);
+        size--;
+        return (V) value;
+    }
+
+    /**
+     * Invokes the given action for each entry of this map. Entries added or removed while iterating may or may not be
+     * visited.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjLongConsumer<? super V> action) {
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++) {
+            Object value = t.values.get(i);
+            if (value != null && value != TOMBSTONE) {
+                action.accept((V) value, t.keys[i]);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        table = new Table(MIN_CAPACITY);
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V doPut(long key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(value, "value can not be null");
+
+        Table t = table;
+        int slot = t.find(key);
+        if (slot >= 0) {
+            Object existingValue = t.values.get(slot);
+            if (existingValue == TOMBSTONE) {
+                t.values.set(slot, value);
+                size++;
+                return null;
+            }
+            if (!onlyIfAbsent) {
+                t.values.set(slot, value);
+            }
+            return (V) existingValue;
+        }
+
+        if (t.used >= t.threshold) {
+            t = rebuild(t, size + 1);
+            table = t;
+        }
+        t.insert(key, value);
+        size++;
+        return null;
+    }
+
+    private static Table rebuild(Table current, int expectedSize) {
+        Table newTable = new Table(capacityFor(expectedSize));
+        for (int i = 0; i < current.keys.length; i++) {
+            Object value = current.values.get(i);
+            if (value != null && value != TOMBSTONE) {
+                newTable.insert(current.keys[i], value);
+            }
+        }
+        return newTable;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        // keep the table at most half full after it is built.
+        long minCapacity = Math.max(MIN_CAPACITY, 2L * expectedSize);
+        if (minCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Map can not hold more than " + MAX_CAPACITY / 2 + " entries");
+        }
+        return Integer.highestOneBit((int) minCapacity - 1) << 1;
+    }
+
+    private static int index(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final AtomicReferenceArray<Object> values;
+        private final int mask;
+        private final int threshold;
+
+        // number of slots having a key including tombstones, guarded by the map instance.
+        private int used;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            values = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+            threshold = capacity - (capacity >>> 2);
+        }
+
+        private int find(long key) {
+            for (int i = index(key, mask); ; i = (i + 1) & mask) {
+                if (values.get(i) == null) {
+                    return -1;
+                }
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+        }
+
+        private void insert(long key, Object value) {
+            int i = index(key, mask);
+            while (values.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values.set(i, value);
+            used++;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ */
+public class ConcurrentLongObjectMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        int count = 1000;
+        for (long i = -count; i < count; i++) {
+            Assert.assertNull(map.put(i, "value-" + i));
+        }
+        Assert.assertEquals(2 * count, map.size());
+
+        for (long i = -count; i < count; i++) {
+            Assert.assertEquals("value-" + i, map.get(i));
+        }
+        Assert.assertNull(map.get(Long.MAX_VALUE));
+
+        Assert.assertEquals("value-1", map.put(1L, "new-value-1"));
+        Assert.assertEquals("new-value-1", map.putIfAbsent(1L, "ignored"));
+        Assert.assertEquals("new-value-1", map.get(1L));
+
+        for (long i = 0; i < count; i++) {
+            Assert.assertNotNull(map.remove(i));
+        }
+        Assert.assertNull(map.remove(0L));
+        Assert.assertEquals(count, map.size());
+        Assert.assertNull(map.get(0L));
+        Assert.assertEquals("value--1", map.get(-1L));
+
+        // removed keys can be added again
+        Assert.assertNull(map.putIfAbsent(0L, "value-0"));
+        Assert.assertEquals("value-0", map.get(0L));
+        Assert.assertEquals(count + 1, map.size());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(-1L));
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        Assert.assertEquals("42", map.computeIfAbsent(42L, Long::toString));
+        Assert.assertEquals("42", map.computeIfAbsent(42L, key -> "other"));
+        Assert.assertNull(map.computeIfAbsent(43L, key -> null));
+        Assert.assertFalse(map.containsKey(43L));
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws Exception {
+        ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>();
+        int threads = 4;
+        int keysPerThread = 10_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long start = (long) t * keysPerThread;
+                futures.add(executorService.submit(() -> {
+                    for (long key = start; key < start + keysPerThread; key++) {
+                        map.put(key, key);
+                        Assert.assertEquals(Long.valueOf(key), map.get(key));
+                        if (key % 3 == 0) {
+                            Assert.assertEquals(Long.valueOf(key), map.remove(key));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        for (long key = 0; key < threads * keysPerThread; key++) {
+            Assert.assertEquals(key % 3 == 0 ? null : Long.valueOf(key), map.get(key));
+        }
+    }
+}
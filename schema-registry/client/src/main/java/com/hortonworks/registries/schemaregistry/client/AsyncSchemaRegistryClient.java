@@ -0,0 +1,278 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfoCache;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous variant of {@link SchemaRegistryClient} whose methods return {@link CompletableFuture}s, so that
+ * callers like event loop or stream processing threads are not blocked while schemas are retrieved from schema
+ * registry.
+ * <p>
+ * Results which are already available in the caches of the underlying {@link SchemaRegistryClient} are returned as
+ * completed futures without switching threads. Others are retrieved with the underlying client on the given executor.
+ * Concurrent requests for the same key are coalesced so that only one request for that key is in flight at any time.
+ * Each caller gets its own future which is completed with the result of that request, so completing or cancelling it
+ * does not affect the other callers.
+ * <p>
+ * Futures are completed exceptionally with the exception thrown by the respective {@link SchemaRegistryClient} method,
+ * for ex: {@link com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException}.
+ */
+public class AsyncSchemaRegistryClient implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncSchemaRegistryClient.class);
+
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final ExecutorService executorService;
+    private final boolean ownsClientAndExecutor;
+    private final ConcurrentMap<RequestKey, CompletableFuture<?>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an instance with a new {@link SchemaRegistryClient} for the given configuration. Number of threads used
+     * for retrieving schemas is configured with {@link SchemaRegistryClient.Configuration#ASYNC_CLIENT_THREADS}.
+     */
+    public AsyncSchemaRegistryClient(Map<String, ?> conf) {
+        this.schemaRegistryClient = new SchemaRegistryClient(conf);
+        int threads = ((Number) schemaRegistryClient.getConfiguration()
+                                                    .getValue(SchemaRegistryClient.Configuration.ASYNC_CLIENT_THREADS.name())).intValue();
+        this.executorService = Executors.newFixedThreadPool(threads, new DaemonThreadFactory());
+        this.ownsClientAndExecutor = true;
+    }
+
+    /**
+     * Creates an instance which uses the given client and its caches. Requests are run on the given executor, neither
+     * of them is closed when this instance is closed.
+     */
+    public AsyncSchemaRegistryClient(SchemaRegistryClient schemaRegistryClient, ExecutorService executorService) {
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.executorService = executorService;
+        this.ownsClientAndExecutor = false;
+    }
+
+    public SchemaRegistryClient getSchemaRegistryClient() {
+        return schemaRegistryClient;
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        SchemaVersionInfo schemaVersionInfo =
+                schemaRegistryClient.getSchemaVersionInfoIfPresent(SchemaVersionInfoCache.Key.of(schemaIdVersion));
+        if (schemaVersionInfo != null) {
+            return CompletableFuture.completedFuture(schemaVersionInfo);
+        }
+
+        return submit(new RequestKey("getSchemaVersionInfo", schemaIdVersion),
+                      () -> schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion));
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        SchemaVersionInfo schemaVersionInfo =
+                schemaRegistryClient.getSchemaVersionInfoIfPresent(SchemaVersionInfoCache.Key.of(schemaVersionKey));
+        if (schemaVersionInfo != null) {
+            return CompletableFuture.completedFuture(schemaVersionInfo);
+        }
+
+        return submit(new RequestKey("getSchemaVersionInfo", schemaVersionKey),
+                      () -> schemaRegistryClient.getSchemaVersionInfo(schemaVersionKey));
+    }
+
+    /**
+     * Returns existing schema versions for the given {@code schemaIdVersions}, see
+     * {@link SchemaRegistryClient#getSchemaVersionInfos(Collection)}. These requests are not coalesced.
+     */
+    public CompletableFuture<Collection<SchemaVersionInfo>> getSchemaVersionInfos(Collection<SchemaIdVersion> schemaIdVersions) {
+        return submit(null, () -> schemaRegistryClient.getSchemaVersionInfos(schemaIdVersions));
+    }
+
+    public CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(String schemaName) {
+        SchemaMetadataInfo schemaMetadataInfo = schemaRegistryClient.getSchemaMetadataInfoIfPresent(SchemaMetadataCache.Key.of(schemaName));
+        if (schemaMetadataInfo != null) {
+            return CompletableFuture.completedFuture(schemaMetadataInfo);
+        }
+
+        return submit(new RequestKey("getSchemaMetadataInfo", schemaName),
+                      () -> schemaRegistryClient.getSchemaMetadataInfo(schemaName));
+    }
+
+    public CompletableFuture<SchemaMetadataInfo> getSchemaMetadataInfo(Long schemaMetadataId) {
+        SchemaMetadataInfo schemaMetadataInfo = schemaRegistryClient.getSchemaMetadataInfoIfPresent(SchemaMetadataCache.Key.of(schemaMetadataId));
+        if (schemaMetadataInfo != null) {
+            return CompletableFuture.completedFuture(schemaMetadataInfo);
+        }
+
+        return submit(new RequestKey("getSchemaMetadataInfo", schemaMetadataId),
+                      () -> schemaRegistryClient.getSchemaMetadataInfo(schemaMetadataId));
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getLatestSchemaVersionInfo(String schemaName) {
+        return getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName);
+    }
+
+    public CompletableFuture<SchemaVersionInfo> getLatestSchemaVersionInfo(String schemaBranchName, String schemaName) {
+        return submit(new RequestKey("getLatestSchemaVersionInfo", schemaBranchName, schemaName),
+                      () -> schemaRegistryClient.getLatestSchemaVersionInfo(schemaBranchName, schemaName));
+    }
+
+    public CompletableFuture<SchemaIdVersion> addSchemaVersion(SchemaMetadata schemaMetadata, SchemaVersion schemaVersion) {
+        return addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata, schemaVersion);
+    }
+
+    public CompletableFuture<SchemaIdVersion> addSchemaVersion(String schemaBranchName,
+                                                               SchemaMetadata schemaMetadata,
+                                                               SchemaVersion schemaVersion) {
+        // requests are coalesced only when they would register the same schema metadata and schema version.
+        return submit(new RequestKey("addSchemaVersion",
+                                     schemaBranchName,
+                                     schemaMetadata,
+                                     schemaVersion.getSchemaText(),
+                                     schemaVersion.getDescription(),
+                                     schemaVersion.getInitialState(),
+                                     schemaVersion.getStateDetails()),
+                      () -> schemaRegistryClient.addSchemaVersion(schemaBranchName, schemaMetadata, schemaVersion));
+    }
+
+    /**
+     * Runs the given request on the executor. If a request with the same non null key is already in flight then a
+     * future completed with the result of that request is returned instead.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(RequestKey requestKey, Callable<T> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (requestKey != null) {
+            CompletableFuture<?> existingFuture = inFlightRequests.putIfAbsent(requestKey, future);
+            if (existingFuture != null) {
+                LOG.debug("Request [{}] is already in flight", requestKey);
+                return copyOf((CompletableFuture<T>) existingFuture);
+            }
+        }
+
+        try {
+            executorService.execute(() -> {
+                try {
+                    T result = request.call();
+                    complete(requestKey, future);
+                    future.complete(result);
+                } catch (Throwable t) {
+                    complete(requestKey, future);
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            complete(requestKey, future);
+            future.completeExceptionally(e);
+        }
+
+        // coalesced requests share the future, which should not be completed by any of the callers.
+        return requestKey != null ? copyOf(future) : future;
+    }
+
+    /**
+     * Returns a new future which is completed with the same result or exception as the given future.
+     */
+    private static <T> CompletableFuture<T> copyOf(CompletableFuture<T> future) {
+        CompletableFuture<T> copy = new CompletableFuture<>();
+        future.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                copy.completeExceptionally(throwable);
+            } else {
+                copy.complete(result);
+            }
+        });
+        return copy;
+    }
+
+    private void complete(RequestKey requestKey, CompletableFuture<?> future) {
+        // removed before the future is completed, so that callers reacting to the completion send a new request.
+        if (requestKey != null) {
+            inFlightRequests.remove(requestKey, future);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ownsClientAndExecutor) {
+            executorService.shutdownNow();
+            schemaRegistryClient.close();
+        }
+    }
+
+    private static final class RequestKey {
+        private final String operation;
+        private final Object[] args;
+
+        private RequestKey(String operation, Object... args) {
+            this.operation = operation;
+            this.args = args;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            RequestKey that = (RequestKey) o;
+
+            if (!operation.equals(that.operation)) return false;
+            return Arrays.deepEquals(args, that.args);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = operation.hashCode();
+            result = 31 * result + Arrays.deepHashCode(args);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "RequestKey{" +
+                    "operation='" + operation + '\'' +
+                    ", args=" + Arrays.deepToString(args) +
+                    '}';
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "async-schema-registry-client-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
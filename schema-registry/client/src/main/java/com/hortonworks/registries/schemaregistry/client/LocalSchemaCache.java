@@ -0,0 +1,357 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local persistent cache of schema versions and schema metadata retrieved from schema registry, so that a client can
+ * keep resolving the schemas it used earlier, even after a restart, while schema registry is not reachable.
+ * <p>
+ * Entries are stored in an append only file in the given directory, each line is a JSON record of an added or removed
+ * entry. The file is loaded lazily on the first access and the records written later by other processes sharing the
+ * same directory are not seen by this instance. A partially written record, for ex: when the process dies while
+ * writing it, is ignored while loading. When the loaded file has more obsolete records than live entries, it is
+ * rewritten with only the live entries. Records appended concurrently by other processes sharing the same directory
+ * may be lost by that, which only causes those entries to be retrieved from schema registry again. When the file is
+ * replaced or truncated by another process, it is reopened before the next record is appended.
+ * <p>
+ * Schema text of a schema version never changes but its state can change, so the state of a schema version returned
+ * by this cache is the state when it was stored. A version number of a schema can also be reused once that version is
+ * deleted. So, entries of this cache should be used only when schema registry is not reachable.
+ */
+public class LocalSchemaCache implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalSchemaCache.class);
+
+    public static final String FILE_NAME = "schemas.log";
+
+    private static final String TYPE = "type";
+    private static final String VALUE = "value";
+    private static final String SCHEMA_VERSION_TYPE = "schemaVersion";
+    private static final String SCHEMA_METADATA_TYPE = "schemaMetadata";
+    private static final String REMOVED_SCHEMA_VERSION_TYPE = "removedSchemaVersion";
+
+    private final File file;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, SchemaVersionInfo> schemaVersions = new ConcurrentHashMap<>();
+    private final Map<SchemaVersionKey, Long> schemaVersionIdsByNameVersion = new ConcurrentHashMap<>();
+    private final Map<SchemaIdVersion, Long> schemaVersionIdsByMetadataIdVersion = new ConcurrentHashMap<>();
+    private final Map<String, SchemaMetadataInfo> schemaMetadatas = new ConcurrentHashMap<>();
+    private final Map<Long, String> schemaNamesByMetadataId = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+    private FileOutputStream outputStream;
+    // identity and size of the file as last seen by this instance, to detect it being replaced by another process.
+    private Object fileKey;
+    private long fileSize;
+
+    public LocalSchemaCache(File dir) {
+        if (!dir.exists() && !dir.mkdirs()) {
+            LOG.error("Could not create given local schema cache dir: [{}]", dir.getAbsolutePath());
+        }
+        this.file = new File(dir, FILE_NAME);
+    }
+
+    public SchemaVersionInfo getSchemaVersionInfo(Long schemaVersionId) {
+        ensureLoaded();
+        return schemaVersions.get(schemaVersionId);
+    }
+
+    public SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        ensureLoaded();
+        Long schemaVersionId = schemaIdVersion.getSchemaVersionId() != null
+                               ? schemaIdVersion.getSchemaVersionId()
+                               : schemaVersionIdsByMetadataIdVersion.get(new SchemaIdVersion(schemaIdVersion.getSchemaMetadataId(),
+                                                                                            schemaIdVersion.getVersion()));
+        return schemaVersionId != null ? schemaVersions.get(schemaVersionId) : null;
+    }
+
+    public SchemaVersionInfo getSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        ensureLoaded();
+        Long schemaVersionId = schemaVersionIdsByNameVersion.get(schemaVersionKey);
+        return schemaVersionId != null ? schemaVersions.get(schemaVersionId) : null;
+    }
+
+    public SchemaMetadataInfo getSchemaMetadataInfo(String schemaName) {
+        ensureLoaded();
+        return schemaMetadatas.get(schemaName);
+    }
+
+    public SchemaMetadataInfo getSchemaMetadataInfo(Long schemaMetadataId) {
+        ensureLoaded();
+        String schemaName = schemaNamesByMetadataId.get(schemaMetadataId);
+        return schemaName != null ? schemaMetadatas.get(schemaName) : null;
+    }
+
+    /**
+     * Stores the given schema version if it is not already stored with the same values.
+     */
+    public synchronized void putSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo) {
+        ensureLoaded();
+        if (schemaVersionInfo.getId() == null || schemaVersionInfo.equals(schemaVersions.get(schemaVersionInfo.getId()))) {
+            return;
+        }
+        addSchemaVersionInfo(schemaVersionInfo);
+        append(SCHEMA_VERSION_TYPE, objectMapper.valueToTree(schemaVersionInfo));
+    }
+
+    /**
+     * Stores the given schema metadata if it is not already stored with the same values.
+     */
+    public synchronized void putSchemaMetadataInfo(SchemaMetadataInfo schemaMetadataInfo) {
+        ensureLoaded();
+        if (schemaMetadataInfo.getSchemaMetadata() == null
+                || schemaMetadataInfo.equals(schemaMetadatas.get(schemaMetadataInfo.getSchemaMetadata().getName()))) {
+            return;
+        }
+        addSchemaMetadataInfo(schemaMetadataInfo);
+        append(SCHEMA_METADATA_TYPE, objectMapper.valueToTree(schemaMetadataInfo));
+    }
+
+    public synchronized void removeSchemaVersionInfo(SchemaVersionKey schemaVersionKey) {
+        ensureLoaded();
+        Long schemaVersionId = schemaVersionIdsByNameVersion.get(schemaVersionKey);
+        if (schemaVersionId != null) {
+            removeSchemaVersionInfo(schemaVersionId);
+        }
+    }
+
+    public synchronized void removeSchemaVersionInfo(Long schemaVersionId) {
+        ensureLoaded();
+        if (removeSchemaVersion(schemaVersionId)) {
+            append(REMOVED_SCHEMA_VERSION_TYPE, objectMapper.getNodeFactory().numberNode(schemaVersionId));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeOutputStream();
+    }
+
+    private void closeOutputStream() throws IOException {
+        if (outputStream != null) {
+            outputStream.close();
+            outputStream = null;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        LOG.info("Loading local schema cache from [{}]", file);
+        int count = 0;
+        int records = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()),
+                                                                              StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                records++;
+                try {
+                    JsonNode record = objectMapper.readTree(line);
+                    JsonNode value = record.get(VALUE);
+                    switch (record.get(TYPE).asText()) {
+                        case SCHEMA_VERSION_TYPE:
+                            addSchemaVersionInfo(objectMapper.treeToValue(value, SchemaVersionInfo.class));
+                            break;
+                        case SCHEMA_METADATA_TYPE:
+                            addSchemaMetadataInfo(objectMapper.treeToValue(value, SchemaMetadataInfo.class));
+                            break;
+                        case REMOVED_SCHEMA_VERSION_TYPE:
+                            removeSchemaVersion(value.asLong());
+                            break;
+                        default:
+                            LOG.warn("Ignoring record with unknown type in local schema cache [{}]", line);
+                    }
+                    count++;
+                } catch (Exception e) {
+                    LOG.warn("Ignoring invalid record in local schema cache file [{}]", file, e);
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Error occurred while loading local schema cache from [{}]", file, e);
+        }
+        LOG.info("Loaded [{}] records from local schema cache [{}]", count, file);
+
+        int liveEntries = schemaVersions.size() + schemaMetadatas.size();
+        if (records - liveEntries > liveEntries) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the file with the live entries, which replaces the earlier file atomically.
+     */
+    private void compact() {
+        File compactedFile = new File(file.getParentFile(), FILE_NAME + ".compacted");
+        try (OutputStream compactedOutputStream = new FileOutputStream(compactedFile)) {
+            for (SchemaMetadataInfo schemaMetadataInfo : schemaMetadatas.values()) {
+                compactedOutputStream.write(toRecord(SCHEMA_METADATA_TYPE, objectMapper.valueToTree(schemaMetadataInfo)));
+            }
+            for (SchemaVersionInfo schemaVersionInfo : schemaVersions.values()) {
+                compactedOutputStream.write(toRecord(SCHEMA_VERSION_TYPE, objectMapper.valueToTree(schemaVersionInfo)));
+            }
+        } catch (IOException e) {
+            LOG.error("Error occurred while compacting local schema cache [{}]", file, e);
+            compactedFile.delete();
+            return;
+        }
+
+        try {
+            Files.move(compactedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOG.info("Compacted local schema cache [{}] to [{}] entries", file, schemaMetadatas.size() + schemaVersions.size());
+        } catch (IOException e) {
+            LOG.error("Error occurred while replacing local schema cache [{}] with the compacted one", file, e);
+            compactedFile.delete();
+        }
+    }
+
+    private void addSchemaVersionInfo(SchemaVersionInfo schemaVersionInfo) {
+        Long schemaVersionId = schemaVersionInfo.getId();
+        schemaVersions.put(schemaVersionId, schemaVersionInfo);
+        schemaVersionIdsByNameVersion.put(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()),
+                                          schemaVersionId);
+        // schemaMetadataId can be null from earlier registry instances.
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            schemaVersionIdsByMetadataIdVersion.put(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                                        schemaVersionInfo.getVersion()),
+                                                    schemaVersionId);
+        }
+    }
+
+    private boolean removeSchemaVersion(Long schemaVersionId) {
+        SchemaVersionInfo schemaVersionInfo = schemaVersions.remove(schemaVersionId);
+        if (schemaVersionInfo == null) {
+            return false;
+        }
+        schemaVersionIdsByNameVersion.remove(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()));
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            schemaVersionIdsByMetadataIdVersion.remove(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                                           schemaVersionInfo.getVersion()));
+        }
+        return true;
+    }
+
+    private void addSchemaMetadataInfo(SchemaMetadataInfo schemaMetadataInfo) {
+        String schemaName = schemaMetadataInfo.getSchemaMetadata().getName();
+        schemaMetadatas.put(schemaName, schemaMetadataInfo);
+        if (schemaMetadataInfo.getId() != null) {
+            schemaNamesByMetadataId.put(schemaMetadataInfo.getId(), schemaName);
+        }
+    }
+
+    private byte[] toRecord(String type, JsonNode value) throws IOException {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put(TYPE, type);
+        record.set(VALUE, value);
+        return (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void append(String type, JsonNode value) {
+        try {
+            if (outputStream != null && isFileReplaced()) {
+                LOG.info("Reopening local schema cache [{}] as it is replaced", file);
+                closeOutputStream();
+            }
+            if (outputStream == null) {
+                openOutputStream();
+            }
+            // whole record is written at once so that concurrent appends from other processes are not interleaved.
+            outputStream.write(toRecord(type, value));
+            outputStream.flush();
+            fileSize = outputStream.getChannel().size();
+        } catch (IOException e) {
+            // local cache is only an optimization, failing to store an entry should not fail the client.
+            LOG.error("Error occurred while writing [{}] record to local schema cache [{}]", type, file, e);
+        }
+    }
+
+    private void openOutputStream() throws IOException {
+        boolean partialRecord = endsWithPartialRecord();
+        outputStream = new FileOutputStream(file, true);
+        if (partialRecord) {
+            // terminates the partial record so that it is not merged with the next record.
+            outputStream.write('\n');
+        }
+        fileKey = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        fileSize = outputStream.getChannel().size();
+    }
+
+    private boolean isFileReplaced() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+        // file key is not available on all platforms, size of a file which is only appended to can not decrease.
+        return (fileKey != null && !fileKey.equals(attributes.fileKey())) || attributes.size() < fileSize;
+    }
+
+    private boolean endsWithPartialRecord() throws IOException {
+        if (!file.exists()) {
+            return false;
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long length = randomAccessFile.length();
+            if (length == 0) {
+                return false;
+            }
+            randomAccessFile.seek(length - 1);
+            return randomAccessFile.read() != '\n';
+        }
+    }
+}
@@ -15,8 +15,10 @@
  **/
 package com.hortonworks.registries.schemaregistry.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -71,6 +73,8 @@ import javax.net.ssl.SSLContext;
 import javax.security.auth.Subject;
 import javax.security.auth.login.LoginException;
 import javax.ws.rs.NotFoundException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
@@ -94,11 +98,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -121,6 +125,7 @@ import static com.hortonworks.registries.schemaregistry.client.SchemaRegistryCli
  * - {@link Configuration#SCHEMA_METADATA_CACHE_EXPIRY_INTERVAL_SECS}.
  * - {@link Configuration#SCHEMA_VERSION_CACHE_SIZE}.
  * - {@link Configuration#SCHEMA_VERSION_CACHE_EXPIRY_INTERVAL_SECS}.
+ * - {@link Configuration#SCHEMA_VERSION_CACHE_TYPE}.
  * - {@link Configuration#SCHEMA_TEXT_CACHE_SIZE}.
  * - {@link Configuration#SCHEMA_TEXT_CACHE_EXPIRY_INTERVAL_SECS}.
  *
@@ -151,6 +156,10 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private static final Set<Class<?>> DESERIALIZER_INTERFACE_CLASSES = Sets.<Class<?>>newHashSet(SnapshotDeserializer.class, PullDeserializer.class, PushDeserializer.class);
     private static final Set<Class<?>> SERIALIZER_INTERFACE_CLASSES = Sets.<Class<?>>newHashSet(SnapshotSerializer.class, PullSerializer.class);
     private static final String SEARCH_FIELDS = SCHEMA_REGISTRY_PATH + "/search/schemas/fields";
+
+    // ObjectMapper and ObjectReaders are thread safe and costly to create, so they are shared by all instances.
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ConcurrentMap<Class<?>, ObjectReader> OBJECT_READERS = new ConcurrentHashMap<>();
     private static Subject subject;
 
     static {
@@ -179,6 +188,7 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     private final SchemaVersionInfoCache schemaVersionInfoCache;
     private final SchemaMetadataCache schemaMetadataCache;
     private final Cache<SchemaDigestEntry, SchemaIdVersion> schemaTextCache;
+    private final LocalSchemaCache localSchemaCache;
 
     private static final String SSL_CONFIGURATION_KEY = "schema.registry.client.ssl";
     private static final String HOSTNAME_VERIFIER_CLASS_KEY = "hostnameVerifierClass";
@@ -230,21 +240,50 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
 
         classLoaderCache = new ClassLoaderCache(this);
 
+        String localSchemaCachePath = configuration.getValue(Configuration.LOCAL_SCHEMA_CACHE_PATH.name());
+        localSchemaCache = localSchemaCachePath != null ? new LocalSchemaCache(new File(localSchemaCachePath)) : null;
+
         schemaVersionInfoCache = new SchemaVersionInfoCache(new SchemaVersionRetriever() {
             @Override
             public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
-                return doGetSchemaVersionInfo(key);
+                // a version number can be reused after the version is deleted, so the locally stored one is used
+                // only when schema registry is not reachable.
+                try {
+                    return storeLocally(doGetSchemaVersionInfo(key));
+                } catch (ProcessingException | WebApplicationException e) {
+                    SchemaVersionInfo schemaVersionInfo = localSchemaCache != null && isUnavailable(e)
+                                                          ? localSchemaCache.getSchemaVersionInfo(key) : null;
+                    if (schemaVersionInfo == null) {
+                        throw e;
+                    }
+                    LOG.warn("Using locally stored schema version for [{}] as schema registry is not reachable", key, e);
+                    return schemaVersionInfo;
+                }
             }
 
             @Override
             public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
-                return doGetSchemaVersionInfo(key);
+                // state of a schema version can change, so even a schema version stored locally for a schema version
+                // id is used only when schema registry is not reachable.
+                try {
+                    return storeLocally(doGetSchemaVersionInfo(key));
+                } catch (ProcessingException | WebApplicationException e) {
+                    SchemaVersionInfo schemaVersionInfo = localSchemaCache != null && isUnavailable(e)
+                                                          ? localSchemaCache.getSchemaVersionInfo(key) : null;
+                    if (schemaVersionInfo == null) {
+                        throw e;
+                    }
+                    LOG.warn("Using locally stored schema version for [{}] as schema registry is not reachable", key, e);
+                    return schemaVersionInfo;
+                }
             }
         },
                                                             ((Number) configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_SIZE
                                                                                                      .name())).intValue(),
                                                             ((Number) configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_EXPIRY_INTERVAL_SECS
-                                                                                                     .name())).longValue());
+                                                                                                     .name())).longValue(),
+                                                            SchemaVersionInfoCache.Type.of(configuration.getValue(Configuration.SCHEMA_VERSION_CACHE_TYPE
+                                                                                                                          .name())));
 
         SchemaMetadataCache.SchemaMetadataFetcher schemaMetadataFetcher = createSchemaMetadataFetcher();
         schemaMetadataCache = new SchemaMetadataCache(((Number) configuration.getValue(Configuration.SCHEMA_METADATA_CACHE_SIZE
@@ -338,27 +377,70 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     }
 
     private SchemaMetadataCache.SchemaMetadataFetcher createSchemaMetadataFetcher() {
+        // schema metadata can be updated, so it is always fetched from schema registry and the locally stored one is
+        // used only when schema registry is not reachable.
         return new SchemaMetadataCache.SchemaMetadataFetcher() {
             @Override
             public SchemaMetadataInfo fetch(String name) throws SchemaNotFoundException {
                 try {
-                    return getEntity(currentSchemaRegistryTargets().schemasTarget.path(name), SchemaMetadataInfo.class);
+                    return storeLocally(getEntity(currentSchemaRegistryTargets().schemasTarget.path(name), SchemaMetadataInfo.class));
                 } catch (NotFoundException e) {
                     throw new SchemaNotFoundException(e);
+                } catch (ProcessingException | WebApplicationException e) {
+                    SchemaMetadataInfo schemaMetadataInfo = localSchemaCache != null && isUnavailable(e)
+                                                            ? localSchemaCache.getSchemaMetadataInfo(name) : null;
+                    if (schemaMetadataInfo == null) {
+                        throw e;
+                    }
+                    LOG.warn("Using locally stored schema metadata for [{}] as schema registry is not reachable", name, e);
+                    return schemaMetadataInfo;
                 }
             }
 
             @Override
             public SchemaMetadataInfo fetch(Long id) throws SchemaNotFoundException {
                 try {
-                    return getEntity(currentSchemaRegistryTargets().schemasByIdTarget.path(id.toString()), SchemaMetadataInfo.class);
+                    return storeLocally(getEntity(currentSchemaRegistryTargets().schemasByIdTarget.path(id.toString()), SchemaMetadataInfo.class));
                 } catch (NotFoundException e) {
                     throw new SchemaNotFoundException(e);
+                } catch (ProcessingException | WebApplicationException e) {
+                    SchemaMetadataInfo schemaMetadataInfo = localSchemaCache != null && isUnavailable(e)
+                                                            ? localSchemaCache.getSchemaMetadataInfo(id) : null;
+                    if (schemaMetadataInfo == null) {
+                        throw e;
+                    }
+                    LOG.warn("Using locally stored schema metadata for [{}] as schema registry is not reachable", id, e);
+                    return schemaMetadataInfo;
                 }
             }
         };
     }
 
+    /**
+     * Returns true if the given failure of a request denotes that schema registry is not reachable or can not serve
+     * requests for now, in which case locally stored entries can be used.
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        if (e instanceof WebApplicationException) {
+            return ((WebApplicationException) e).getResponse().getStatusInfo().getFamily() == Response.Status.Family.SERVER_ERROR;
+        }
+        return e instanceof ProcessingException;
+    }
+
+    private SchemaMetadataInfo storeLocally(SchemaMetadataInfo schemaMetadataInfo) {
+        if (localSchemaCache != null && schemaMetadataInfo != null) {
+            localSchemaCache.putSchemaMetadataInfo(schemaMetadataInfo);
+        }
+        return schemaMetadataInfo;
+    }
+
+    private SchemaVersionInfo storeLocally(SchemaVersionInfo schemaVersionInfo) {
+        if (localSchemaCache != null && schemaVersionInfo != null) {
+            localSchemaCache.putSchemaVersionInfo(schemaVersionInfo);
+        }
+        return schemaVersionInfo;
+    }
+
     protected ClientConfig createClientConfig(Map<String, ?> conf) {
         ClientConfig config = new ClientConfig();
         config.property(ClientProperties.CONNECT_TIMEOUT, DEFAULT_CONNECTION_TIMEOUT);
@@ -529,6 +611,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     @Override
     public void deleteSchemaVersion(SchemaVersionKey schemaVersionKey) throws SchemaNotFoundException {
         schemaVersionInfoCache.invalidateSchema(new SchemaVersionInfoCache.Key(schemaVersionKey));
+        if (localSchemaCache != null) {
+            localSchemaCache.removeSchemaVersionInfo(schemaVersionKey);
+        }
 
         WebTarget target = currentSchemaRegistryTargets().schemasTarget.path(String.format("%s/versions/%s", schemaVersionKey
                 .getSchemaName(), schemaVersionKey.getVersion()));
@@ -594,11 +679,8 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     }
 
     public static CatalogResponse readCatalogResponse(String msg) {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            JsonNode node = objectMapper.readTree(msg);
-
-            return objectMapper.treeToValue(node, CatalogResponse.class);
+            return objectReader(CatalogResponse.class).readValue(msg);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -614,6 +696,42 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         }
     }
 
+    @Override
+    public Collection<SchemaVersionInfo> getSchemaVersionInfos(Collection<SchemaIdVersion> schemaIdVersions) {
+        List<SchemaVersionInfo> schemaVersionInfos = new ArrayList<>(schemaIdVersions.size());
+        List<SchemaIdVersion> missingSchemaIdVersions = new ArrayList<>();
+        for (SchemaIdVersion schemaIdVersion : schemaIdVersions) {
+            SchemaVersionInfo schemaVersionInfo = getSchemaVersionInfoIfPresent(SchemaVersionInfoCache.Key.of(schemaIdVersion));
+            if (schemaVersionInfo != null) {
+                schemaVersionInfos.add(schemaVersionInfo);
+            } else {
+                missingSchemaIdVersions.add(schemaIdVersion);
+            }
+        }
+
+        if (!missingSchemaIdVersions.isEmpty()) {
+            LOG.info("Getting [{}] schema versions from target registry", missingSchemaIdVersions.size());
+            WebTarget target = currentSchemaRegistryTargets().schemaVersionsTarget.path("batch");
+            List<SchemaVersionInfo> retrievedSchemaVersionInfos;
+            try {
+                retrievedSchemaVersionInfos = postEntities(target, missingSchemaIdVersions, SchemaVersionInfo.class);
+            } catch (ProcessingException | WebApplicationException e) {
+                if (localSchemaCache == null || !isUnavailable(e)) {
+                    throw e;
+                }
+                LOG.warn("Using locally stored schema versions as schema registry is not reachable", e);
+                retrievedSchemaVersionInfos = getLocallyStoredSchemaVersionInfos(missingSchemaIdVersions, e);
+            }
+            for (SchemaVersionInfo schemaVersionInfo : retrievedSchemaVersionInfos) {
+                schemaVersionInfoCache.putSchema(schemaVersionInfo);
+                storeLocally(schemaVersionInfo);
+                schemaVersionInfos.add(schemaVersionInfo);
+            }
+        }
+
+        return schemaVersionInfos;
+    }
+
     @Override
     public SchemaVersionInfo getLatestSchemaVersionInfo(String schemaName) throws SchemaNotFoundException {
         return getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName);
@@ -630,6 +748,37 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
         }
     }
 
+    /**
+     * Returns {@link SchemaVersionInfo} for the given key if it is already cached, else returns null.
+     */
+    SchemaVersionInfo getSchemaVersionInfoIfPresent(SchemaVersionInfoCache.Key key) {
+        try {
+            return schemaVersionInfoCache.getSchemaIfPresent(key);
+        } catch (SchemaNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns {@link SchemaMetadataInfo} for the given key if it is already cached, else returns null.
+     */
+    SchemaMetadataInfo getSchemaMetadataInfoIfPresent(SchemaMetadataCache.Key key) {
+        return schemaMetadataCache.getIfPresent(key);
+    }
+
+    private List<SchemaVersionInfo> getLocallyStoredSchemaVersionInfos(Collection<SchemaIdVersion> schemaIdVersions,
+                                                                       RuntimeException cause) {
+        List<SchemaVersionInfo> schemaVersionInfos = new ArrayList<>(schemaIdVersions.size());
+        for (SchemaIdVersion schemaIdVersion : schemaIdVersions) {
+            SchemaVersionInfo schemaVersionInfo = localSchemaCache.getSchemaVersionInfo(schemaIdVersion);
+            if (schemaVersionInfo == null) {
+                throw cause;
+            }
+            schemaVersionInfos.add(schemaVersionInfo);
+        }
+        return schemaVersionInfos;
+    }
+
     private SchemaVersionInfo doGetSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException {
         if (schemaIdVersion.getSchemaVersionId() != null) {
             LOG.info("Getting schema version from target registry for [{}]", schemaIdVersion.getSchemaVersionId());
@@ -812,6 +961,9 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
 
         // invalidate this entry from cache.
         schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId)));
+        if (localSchemaCache != null) {
+            localSchemaCache.removeSchemaVersionInfo(schemaVersionId);
+        }
 
         return result;
     }
@@ -852,10 +1004,10 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     public CompatibilityResult checkCompatibility(String schemaBranchName, String schemaName,
                                                   String toSchemaText) throws SchemaNotFoundException {
         WebTarget webTarget = currentSchemaRegistryTargets().schemasTarget.path(encode(schemaName) + "/compatibility").queryParam("branch", schemaBranchName);
-        String response = Subject.doAs(subject, new PrivilegedAction<String>() {
+        InputStream response = Subject.doAs(subject, new PrivilegedAction<InputStream>() {
             @Override
-            public String run() {
-                return webTarget.request().post(Entity.text(toSchemaText), String.class);
+            public InputStream run() {
+                return webTarget.request().post(Entity.text(toSchemaText), InputStream.class);
             }
         });
         return readEntity(response, CompatibilityResult.class);
@@ -976,6 +1128,13 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     @Override
     public void close() {
         client.close();
+        if (localSchemaCache != null) {
+            try {
+                localSchemaCache.close();
+            } catch (IOException e) {
+                LOG.error("Error occurred while closing local schema cache", e);
+            }
+        }
     }
 
     private <T> T createInstance(SerDesInfo serDesInfo, boolean isSerializer) {
@@ -1021,19 +1180,47 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     }
 
     private <T> List<T> getEntities(WebTarget target, Class<T> clazz) {
-        List<T> entities = new ArrayList<>();
-        String response = Subject.doAs(subject, new PrivilegedAction<String>() {
+        InputStream response = Subject.doAs(subject, new PrivilegedAction<InputStream>() {
             @Override
-            public String run() {
-                return target.request(MediaType.APPLICATION_JSON_TYPE).get(String.class);
+            public InputStream run() {
+                return target.request(MediaType.APPLICATION_JSON_TYPE).get(InputStream.class);
             }
         });
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode node = mapper.readTree(response);
-            Iterator<JsonNode> it = node.get("entities").elements();
-            while (it.hasNext()) {
-                entities.add(mapper.treeToValue(it.next(), clazz));
+        return readEntities(response, clazz);
+    }
+
+    private <T> List<T> postEntities(WebTarget target, Object json, Class<T> clazz) {
+        InputStream response = Subject.doAs(subject, new PrivilegedAction<InputStream>() {
+            @Override
+            public InputStream run() {
+                return target.request(MediaType.APPLICATION_JSON_TYPE).post(Entity.json(json), InputStream.class);
+            }
+        });
+        return readEntities(response, clazz);
+    }
+
+    /**
+     * Reads the elements of "entities" array in the given response as instances of the given class. Response is parsed
+     * as a stream and each element is bound directly without building a tree of the whole response.
+     */
+    private static <T> List<T> readEntities(InputStream response, Class<T> clazz) {
+        List<T> entities = new ArrayList<>();
+        ObjectReader objectReader = objectReader(clazz);
+        // parser closes the given stream once it is done.
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("entities".equals(fieldName) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        entities.add(objectReader.readValue(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
             }
         } catch (Exception ex) {
             throw new RuntimeException(ex);
@@ -1042,29 +1229,40 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
     }
 
     private <T> T postEntity(WebTarget target, Object json, Class<T> responseType) {
-        String response = Subject.doAs(subject, new PrivilegedAction<String>() {
+        InputStream response = Subject.doAs(subject, new PrivilegedAction<InputStream>() {
             @Override
-            public String run() {
-                return target.request(MediaType.APPLICATION_JSON_TYPE).post(Entity.json(json), String.class);
+            public InputStream run() {
+                return target.request(MediaType.APPLICATION_JSON_TYPE).post(Entity.json(json), InputStream.class);
             }
         });
         return readEntity(response, responseType);
     }
 
-    private <T> T readEntity(String response, Class<T> clazz) {
+    private static <T> T readEntity(String response, Class<T> clazz) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(response, clazz);
+            return objectReader(clazz).readValue(response);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static <T> T readEntity(InputStream response, Class<T> clazz) {
+        try (InputStream inputStream = response) {
+            return objectReader(clazz).readValue(inputStream);
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
 
+    private static ObjectReader objectReader(Class<?> clazz) {
+        return OBJECT_READERS.computeIfAbsent(clazz, OBJECT_MAPPER::readerFor);
+    }
+
     private <T> T getEntity(WebTarget target, Class<T> clazz) {
-        String response = Subject.doAs(subject, new PrivilegedAction<String>() {
+        InputStream response = Subject.doAs(subject, new PrivilegedAction<InputStream>() {
             @Override
-            public String run() {
-                return target.request(MediaType.APPLICATION_JSON_TYPE).get(String.class);
+            public InputStream run() {
+                return target.request(MediaType.APPLICATION_JSON_TYPE).get(InputStream.class);
             }
         });
 
@@ -1099,6 +1297,18 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                                      DEFAULT_LOCAL_JARS_PATH,
                                      ConfigEntry.NonEmptyStringValidator.get());
 
+        /**
+         * Local directory path in which schema versions and schema metadata retrieved from schema registry are stored,
+         * so that they are available across restarts and while schema registry is not reachable. For ex:
+         * /tmp/schema-registry/local-schemas. Schemas are not stored locally when it is not configured.
+         */
+        public static final ConfigEntry<String> LOCAL_SCHEMA_CACHE_PATH =
+                ConfigEntry.optional("schema.registry.client.local.schema.cache.path",
+                                     String.class,
+                                     "Local directory path in which schemas retrieved from schema registry are stored",
+                                     null,
+                                     ConfigEntry.NonEmptyStringValidator.get());
+
         /**
          * Default value for classloader cache size.
          */
@@ -1154,6 +1364,17 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                                      DEFAULT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS,
                                      ConfigEntry.PositiveNumberValidator.get());
 
+        /**
+         * Type of schema version cache, it can be one of {@link SchemaVersionInfoCache.Type} values. Default value is
+         * {@link SchemaVersionInfoCache.Type#DEFAULT}
+         */
+        public static final ConfigEntry<String> SCHEMA_VERSION_CACHE_TYPE =
+                ConfigEntry.optional("schema.registry.client.schema.version.cache.type",
+                                     String.class,
+                                     "Type of schema version cache, default or id_indexed",
+                                     SchemaVersionInfoCache.Type.DEFAULT.name(),
+                                     ConfigEntry.NonEmptyStringValidator.get());
+
         /**
          * Maximum size of schema metadata cache. Default value is {@link #DEFAULT_SCHEMA_CACHE_SIZE}
          */
@@ -1195,6 +1416,22 @@ public class SchemaRegistryClient implements ISchemaRegistryClient {
                                      DEFAULT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS,
                                      ConfigEntry.PositiveNumberValidator.get());
 
+        /**
+         * Default number of threads used by {@link AsyncSchemaRegistryClient} to retrieve schemas.
+         */
+        public static final int DEFAULT_ASYNC_CLIENT_THREADS = 4;
+
+        /**
+         * Number of threads used by {@link AsyncSchemaRegistryClient} to retrieve schemas from schema registry. Default
+         * value is {@link #DEFAULT_ASYNC_CLIENT_THREADS}
+         */
+        public static final ConfigEntry<Number> ASYNC_CLIENT_THREADS =
+                ConfigEntry.optional("schema.registry.client.async.threads",
+                                     Integer.class,
+                                     "Number of threads used by async client to retrieve schemas",
+                                     DEFAULT_ASYNC_CLIENT_THREADS,
+                                     ConfigEntry.PositiveNumberValidator.get());
+
         /**
          *
          */
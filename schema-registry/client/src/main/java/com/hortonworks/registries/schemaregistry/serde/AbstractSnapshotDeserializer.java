@@ -15,6 +15,7 @@
  */
 package com.hortonworks.registries.schemaregistry.serde;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -30,6 +31,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -48,6 +51,13 @@ import java.util.concurrent.TimeUnit;
  *  <li>implement the actual deserialization with {@link #doDeserialize(Object, byte, SchemaMetadata, Integer, Integer)} </li>
  * </ol>
  *
+ * Writer schema information for each schema version is resolved only once into a {@link DecodePlan} which is kept
+ * in a cache keyed by schema version id. Schema version ids are never reused, so a plan can not go stale when a schema
+ * version is deleted and its version number is given to a new schema version. Plans expire like parsed schemas after
+ * they are not accessed for the configured interval. Extensions can override
+ * {@link #doDeserialize(Object, byte, DecodePlan, Integer)} to use the parsed writer schema from it instead of looking
+ * it up again for each payload.
+ *
  * Extensions to this class may need to implement the above life cycle methods.
  *
  * @param <I> representation of the received input payload
@@ -78,6 +88,7 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
     public static final Long DEFAULT_DESERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS = 60 * 5L;
 
     private LoadingCache<SchemaVersionKey, S> schemaCache;
+    private Cache<Long, DecodePlan<S>> decodePlans;
 
     public AbstractSnapshotDeserializer() {
     }
@@ -87,9 +98,15 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
     }
     
     protected void doInit(Map<String, ?> config) {
+        Integer cacheMaxSize = getCacheMaxSize(config);
+        Long cacheExpiryInSecs = getCacheExpiryInSecs(config);
+        decodePlans = CacheBuilder.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterAccess(cacheExpiryInSecs, TimeUnit.SECONDS)
+                .build();
         schemaCache = CacheBuilder.newBuilder()
-                .maximumSize(getCacheMaxSize(config))
-                .expireAfterAccess(getCacheExpiryInSecs(config), TimeUnit.SECONDS)
+                .maximumSize(cacheMaxSize)
+                .expireAfterAccess(cacheExpiryInSecs, TimeUnit.SECONDS)
                 .build(new CacheLoader<SchemaVersionKey, S>() {
                     @Override
                     public S load(SchemaVersionKey schemaVersionKey) {
@@ -118,14 +135,6 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         return value;
     }
 
-    protected Object getValue(Map<String, ?> config, String key, Object defaultValue) {
-        Object value = config.get(key);
-        if (value == null) {
-            value = defaultValue;
-        }
-        return value;
-    }
-
     /**
      * Returns the parsed schema representation of the schema associated with the given {@code schemaVersionKey}
      * @param schemaVersionKey
@@ -134,6 +143,20 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
      */
     protected abstract S getParsedSchema(SchemaVersionKey schemaVersionKey) throws InvalidSchemaException, SchemaNotFoundException;
 
+    /**
+     * Returns the parsed schema representation of the given {@code schemaVersionInfo}. This is used for writer schemas
+     * of {@link DecodePlan}s. By default, this returns the parsed schema of the respective {@link SchemaVersionKey}
+     * from the schema cache. Extensions can override this to parse the schema text of the given schema version, which
+     * does not depend on the version number still referring to the same schema version.
+     *
+     * @param schemaVersionInfo schema version information
+     * @throws InvalidSchemaException when the associated schema is not valid.
+     * @throws SchemaNotFoundException when any of the schemas referred by the given schema version does not exist.
+     */
+    protected S getParsedSchema(SchemaVersionInfo schemaVersionInfo) throws InvalidSchemaException, SchemaNotFoundException {
+        return getSchema(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()));
+    }
+
     @Override
     public O deserialize(I input,
                          Integer readerSchemaVersion) throws SerDesException {
@@ -147,16 +170,105 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         // it can be enhanced to have respective protocol handlers for different versions
         byte protocolId = retrieveProtocolId(input);
         SchemaIdVersion schemaIdVersion = retrieveSchemaIdVersion(protocolId, input);
+        DecodePlan<S> decodePlan = getDecodePlan(schemaIdVersion);
+
+        return doDeserialize(input, protocolId, decodePlan, readerSchemaVersion);
+    }
+
+    private DecodePlan<S> getDecodePlan(SchemaIdVersion schemaIdVersion) {
+        Long schemaVersionId = schemaIdVersion.getSchemaVersionId();
         SchemaVersionInfo schemaVersionInfo = null;
-        SchemaMetadata schemaMetadata = null;
+        if (schemaVersionId == null) {
+            // metadata id and version of a payload may refer to a different schema version once a version is deleted,
+            // so those are resolved to schema version id with the client for each payload.
+            schemaVersionInfo = getSchemaVersionInfo(schemaIdVersion);
+            schemaVersionId = schemaVersionInfo.getId();
+        }
+
+        DecodePlan<S> decodePlan = decodePlans.getIfPresent(schemaVersionId);
+        if (decodePlan == null) {
+            if (schemaVersionInfo == null) {
+                schemaVersionInfo = getSchemaVersionInfo(schemaIdVersion);
+            }
+            decodePlan = createDecodePlan(schemaVersionId, schemaVersionInfo);
+            decodePlans.put(schemaVersionId, decodePlan);
+        }
+
+        return decodePlan;
+    }
+
+    private SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) {
+        try {
+            return schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
+        } catch (Exception e) {
+            throw new RegistryException(e);
+        }
+    }
+
+    private DecodePlan<S> createDecodePlan(Long schemaVersionId, SchemaVersionInfo schemaVersionInfo) {
+        SchemaMetadata schemaMetadata;
+        S writerSchema;
         try {
-            schemaVersionInfo = schemaRegistryClient.getSchemaVersionInfo(schemaIdVersion);
             schemaMetadata = schemaRegistryClient.getSchemaMetadataInfo(schemaVersionInfo.getName()).getSchemaMetadata();
+            writerSchema = getParsedSchema(schemaVersionInfo);
+        } catch (RegistryException e) {
+            throw e;
         } catch (Exception e) {
             throw new RegistryException(e);
         }
-        return doDeserialize(input, protocolId, schemaMetadata, schemaVersionInfo.getVersion(), readerSchemaVersion);
 
+        return new DecodePlan<>(schemaVersionId, schemaMetadata, schemaVersionInfo.getVersion(), writerSchema);
+    }
+
+    /**
+     * Invalidates all the resolved writer schema information and parsed schemas maintained by this instance.
+     */
+    public void invalidateDecodePlans() {
+        decodePlans.invalidateAll();
+        schemaCache.invalidateAll();
+    }
+
+    /**
+     * Returns the deserialized object for the given input according to the given resolved writer schema information.
+     * By default, this delegates to {@link #doDeserialize(Object, byte, SchemaMetadata, Integer, Integer)}.
+     *
+     * @param input payload to be deserialized into.
+     * @param protocolId protocol id for deserializtion.
+     * @param decodePlan resolved information about the writer schema of the given payload.
+     * @param readerSchemaVersion schema version for reading/projection.
+     * @throws SerDesException when any ser/des error occurs
+     */
+    protected O doDeserialize(I input,
+                              byte protocolId,
+                              DecodePlan<S> decodePlan,
+                              Integer readerSchemaVersion) throws SerDesException {
+        return doDeserialize(input,
+                             protocolId,
+                             decodePlan.getSchemaMetadata(),
+                             decodePlan.getWriterSchemaVersion(),
+                             readerSchemaVersion);
+    }
+
+    /**
+     * Returns parsed reader schema of the given {@code readerSchemaVersion} for payloads of the given {@code decodePlan}
+     * or null if {@code readerSchemaVersion} is null. Reader schemas are kept with the decode plan for each reader
+     * schema version, so they expire together with the plan.
+     *
+     * @param decodePlan resolved information about the writer schema.
+     * @param readerSchemaVersion schema version for reading/projection.
+     */
+    protected S getReaderSchema(DecodePlan<S> decodePlan, Integer readerSchemaVersion) {
+        if (readerSchemaVersion == null) {
+            return null;
+        }
+
+        S readerSchema = decodePlan.readerSchemas.get(readerSchemaVersion);
+        if (readerSchema == null) {
+            readerSchema = getSchema(new SchemaVersionKey(decodePlan.getSchemaMetadata().getName(), readerSchemaVersion));
+            decodePlan.readerSchemas.put(readerSchemaVersion, readerSchema);
+        }
+
+        return readerSchema;
     }
 
     /**
@@ -207,4 +319,41 @@ public abstract class AbstractSnapshotDeserializer<I, O, S> extends AbstractSerD
         }
     }
 
+    /**
+     * Resolved information about the writer schema of a schema version which is required to deserialize payloads
+     * written with that schema version.
+     *
+     * @param <S> parsed schema representation
+     */
+    protected static final class DecodePlan<S> {
+        private final long schemaVersionId;
+        private final SchemaMetadata schemaMetadata;
+        private final Integer writerSchemaVersion;
+        private final S writerSchema;
+        private final ConcurrentMap<Integer, S> readerSchemas = new ConcurrentHashMap<>();
+
+        private DecodePlan(long schemaVersionId, SchemaMetadata schemaMetadata, Integer writerSchemaVersion, S writerSchema) {
+            this.schemaVersionId = schemaVersionId;
+            this.schemaMetadata = schemaMetadata;
+            this.writerSchemaVersion = writerSchemaVersion;
+            this.writerSchema = writerSchema;
+        }
+
+        public long getSchemaVersionId() {
+            return schemaVersionId;
+        }
+
+        public SchemaMetadata getSchemaMetadata() {
+            return schemaMetadata;
+        }
+
+        public Integer getWriterSchemaVersion() {
+            return writerSchemaVersion;
+        }
+
+        public S getWriterSchema() {
+            return writerSchema;
+        }
+    }
+
 }
@@ -15,6 +15,8 @@
  **/
 package com.hortonworks.registries.schemaregistry.serde;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
@@ -27,6 +29,9 @@ import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 /**
  * This class implements {@link SnapshotSerializer} and internally creates schema registry client to connect to the
  * target schema registry.
@@ -36,10 +41,36 @@ import org.slf4j.LoggerFactory;
  *    <li>{@link #doSerialize(Object, SchemaIdVersion)}</li>
  *    <li>{@link #getSchemaText(Object)}</li>
  * </ul>
+ *
+ * Extensions can also override {@link #getSchemaIdentity(Object)} so that registered schema versions are looked up
+ * by the schema object of the given input without computing its textual representation for every payload.
  */
 public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes implements SnapshotSerializer<I, O, SchemaMetadata> {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractSnapshotSerializer.class);
 
+    /**
+     * Maximum number of schema identities with their registered versions maintained in serializer instance.
+     */
+    public static final String SERIALIZER_SCHEMA_CACHE_MAX_SIZE = "schemaregistry.serializer.schema.cache.size";
+
+    /**
+     * Default schema identity cache max size.
+     */
+    public static final Integer DEFAULT_SCHEMA_CACHE_SIZE = 1024;
+
+    /**
+     * Expiry interval(in seconds) after an access for an entry in schema identity cache
+     */
+    public static final String SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS = "schemaregistry.serializer.schema.cache.expiry.secs";
+
+    /**
+     * Default schema identity cache entry access expiration interval
+     */
+    public static final Long DEFAULT_SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS = 60 * 5L;
+
+    private Cache<SchemaIdentityKey, SchemaIdVersion> schemaIdVersionCache =
+            buildSchemaIdVersionCache(DEFAULT_SCHEMA_CACHE_SIZE, DEFAULT_SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS);
+
     public AbstractSnapshotSerializer() {
     }
 
@@ -47,6 +78,34 @@ public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes im
         super(schemaRegistryClient);
     }
 
+    @Override
+    protected void doInit(Map<String, ?> config) {
+        schemaIdVersionCache = buildSchemaIdVersionCache(getCacheMaxSize(config), getCacheExpiryInSecs(config));
+    }
+
+    private static Cache<SchemaIdentityKey, SchemaIdVersion> buildSchemaIdVersionCache(long maxSize, long expiryInSecs) {
+        return CacheBuilder.newBuilder()
+                           .maximumSize(maxSize)
+                           .expireAfterAccess(expiryInSecs, TimeUnit.SECONDS)
+                           .build();
+    }
+
+    private Long getCacheExpiryInSecs(Map<String, ?> config) {
+        Number value = (Number) getValue(config, SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS, DEFAULT_SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS);
+        if (value.longValue() < 0) {
+            throw new IllegalArgumentException("Property: " + SERIALIZER_SCHEMA_CACHE_EXPIRY_IN_SECS + " must be non negative.");
+        }
+        return value.longValue();
+    }
+
+    private Integer getCacheMaxSize(Map<String, ?> config) {
+        Number value = (Number) getValue(config, SERIALIZER_SCHEMA_CACHE_MAX_SIZE, DEFAULT_SCHEMA_CACHE_SIZE);
+        if (value.intValue() < 0) {
+            throw new IllegalArgumentException("Property: " + SERIALIZER_SCHEMA_CACHE_MAX_SIZE + " must be non negative.");
+        }
+        return value.intValue();
+    }
+
     @Override
     public final O serialize(I input, SchemaMetadata schemaMetadata) throws SerDesException {
         if(!initialized) {
@@ -56,12 +115,26 @@ public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes im
             throw new IllegalStateException("This serializer is already closed");
         }
 
+        // look up the version registered earlier for the schema object of this input
+        Object schemaIdentity = getSchemaIdentity(input);
+        SchemaIdentityKey schemaIdentityKey = null;
+        if (schemaIdentity != null) {
+            schemaIdentityKey = new SchemaIdentityKey(schemaMetadata, schemaIdentity);
+            SchemaIdVersion schemaIdVersion = schemaIdVersionCache.getIfPresent(schemaIdentityKey);
+            if (schemaIdVersion != null) {
+                return doSerialize(input, schemaIdVersion);
+            }
+        }
+
         // compute schema based on input object
         String schema = getSchemaText(input);
 
         // register that schema and get the version
         try {
             SchemaIdVersion schemaIdVersion = schemaRegistryClient.addSchemaVersion(schemaMetadata, new SchemaVersion(schema, "Schema registered by serializer:" + this.getClass()));
+            if (schemaIdentityKey != null) {
+                schemaIdVersionCache.put(schemaIdentityKey, schemaIdVersion);
+            }
             // write the version and given object to the output
             return doSerialize(input, schemaIdVersion);
         } catch (SchemaNotFoundException | IncompatibleSchemaException | InvalidSchemaException | SchemaBranchNotFoundException e) {
@@ -69,6 +142,18 @@ public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes im
         }
     }
 
+    /**
+     * Returns an object representing the schema of the given {@code input} payload, which is used as a key to look up
+     * the schema version registered earlier for that schema. Two identities should be equal only when their textual
+     * representations returned by {@link #getSchemaText(Object)} are equal. Returning null, which is the default,
+     * registers the schema text for each payload.
+     *
+     * @param input input payload
+     */
+    protected Object getSchemaIdentity(I input) {
+        return null;
+    }
+
     /**
      * Returns textual representation of the schema for the given {@code input} payload.
      * @param input input payload
@@ -85,4 +170,32 @@ public abstract class AbstractSnapshotSerializer<I, O> extends AbstractSerDes im
      */
     protected abstract O doSerialize(I input, SchemaIdVersion schemaIdVersion) throws SerDesException;
 
+    private static final class SchemaIdentityKey {
+        private final SchemaMetadata schemaMetadata;
+        private final Object schemaIdentity;
+
+        private SchemaIdentityKey(SchemaMetadata schemaMetadata, Object schemaIdentity) {
+            this.schemaMetadata = schemaMetadata;
+            this.schemaIdentity = schemaIdentity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SchemaIdentityKey that = (SchemaIdentityKey) o;
+
+            if (!schemaMetadata.equals(that.schemaMetadata)) return false;
+            return schemaIdentity.equals(that.schemaIdentity);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = schemaMetadata.hashCode();
+            result = 31 * result + schemaIdentity.hashCode();
+            return result;
+        }
+    }
+
 }
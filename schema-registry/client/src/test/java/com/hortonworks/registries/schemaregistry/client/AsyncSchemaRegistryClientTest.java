@@ -0,0 +1,95 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ */
+public class AsyncSchemaRegistryClientTest {
+
+    @Test
+    public void testConcurrentRequestsAreCoalesced() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger requestCount = new AtomicInteger();
+        SchemaRegistryClient schemaRegistryClient = new SchemaRegistryClient(Collections.singletonMap(SchemaRegistryClient.Configuration.SCHEMA_REGISTRY_URL.name(), "some-url")) {
+            @Override
+            public SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException {
+                requestCount.incrementAndGet();
+                try {
+                    latch.await(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                if (schemaIdVersion.getSchemaVersionId() < 0) {
+                    throw new SchemaNotFoundException("Schema version not found: " + schemaIdVersion);
+                }
+                return new SchemaVersionInfo(schemaIdVersion.getSchemaVersionId(), "schema-1", 1, 1L, "schema-text",
+                                             System.currentTimeMillis(), "schema-description",
+                                             SchemaVersionLifecycleStates.ENABLED.getId());
+            }
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            AsyncSchemaRegistryClient asyncClient = new AsyncSchemaRegistryClient(schemaRegistryClient, executorService);
+            CompletableFuture<SchemaVersionInfo> future1 = asyncClient.getSchemaVersionInfo(new SchemaIdVersion(1L));
+            CompletableFuture<SchemaVersionInfo> future2 = asyncClient.getSchemaVersionInfo(new SchemaIdVersion(1L));
+            CompletableFuture<SchemaVersionInfo> missingFuture = asyncClient.getSchemaVersionInfo(new SchemaIdVersion(-1L));
+            CompletableFuture<SchemaVersionInfo> future3 = asyncClient.getSchemaVersionInfo(new SchemaIdVersion(1L));
+            Assert.assertNotSame(future1, future2);
+            Assert.assertFalse(future1.isDone());
+
+            // cancelling a coalesced request should not affect others
+            future3.cancel(true);
+
+            latch.countDown();
+            Assert.assertEquals(1L, future1.get(1, TimeUnit.MINUTES).getId().longValue());
+            Assert.assertEquals(1L, future2.get(1, TimeUnit.MINUTES).getId().longValue());
+            Assert.assertTrue(future3.isCancelled());
+            try {
+                missingFuture.get(1, TimeUnit.MINUTES);
+                Assert.fail("SchemaNotFoundException should have been thrown");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof SchemaNotFoundException);
+            }
+            Assert.assertEquals(2, requestCount.get());
+
+            // completed requests are not coalesced with later requests
+            Assert.assertEquals(1L, asyncClient.getSchemaVersionInfo(new SchemaIdVersion(1L))
+                                               .get(1, TimeUnit.MINUTES).getId().longValue());
+            Assert.assertEquals(3, requestCount.get());
+        } finally {
+            executorService.shutdownNow();
+            schemaRegistryClient.close();
+        }
+    }
+}
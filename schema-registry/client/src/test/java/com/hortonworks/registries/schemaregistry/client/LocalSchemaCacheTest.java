@@ -0,0 +1,189 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.client;
+
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ *
+ */
+public class LocalSchemaCacheTest {
+
+    @Test
+    public void testEntriesAreAvailableAfterReload() throws Exception {
+        File dir = Files.createTempDirectory("local-schema-cache").toFile();
+        try {
+            doTestEntriesAreAvailableAfterReload(dir);
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    private void doTestEntriesAreAvailableAfterReload(File dir) throws Exception {
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(3L, "schema-1", 2, 1L, "schema-text", System.currentTimeMillis(),
+                                                                    "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaVersionInfo otherSchemaVersionInfo = new SchemaVersionInfo(4L, "schema-1", 3, 1L, "other-schema-text", System.currentTimeMillis(),
+                                                                         "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder("schema-1")
+                .type("avro")
+                .schemaGroup("kafka")
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        SchemaMetadataInfo schemaMetadataInfo = new SchemaMetadataInfo(schemaMetadata, 1L, System.currentTimeMillis());
+
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            localSchemaCache.putSchemaVersionInfo(schemaVersionInfo);
+            localSchemaCache.putSchemaVersionInfo(otherSchemaVersionInfo);
+            localSchemaCache.putSchemaMetadataInfo(schemaMetadataInfo);
+            localSchemaCache.removeSchemaVersionInfo(otherSchemaVersionInfo.getId());
+        }
+
+        // partially written record should be ignored
+        try (FileOutputStream outputStream = new FileOutputStream(new File(dir, LocalSchemaCache.FILE_NAME), true)) {
+            outputStream.write("{\"type\":\"schemaVersion\",\"val".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            Assert.assertEquals(schemaVersionInfo, localSchemaCache.getSchemaVersionInfo(new SchemaIdVersion(3L)));
+            Assert.assertEquals(schemaVersionInfo, localSchemaCache.getSchemaVersionInfo(new SchemaIdVersion(1L, 2)));
+            Assert.assertEquals(schemaVersionInfo, localSchemaCache.getSchemaVersionInfo(new SchemaVersionKey("schema-1", 2)));
+            Assert.assertNull(localSchemaCache.getSchemaVersionInfo(new SchemaIdVersion(4L)));
+            Assert.assertNull(localSchemaCache.getSchemaVersionInfo(new SchemaVersionKey("schema-1", 3)));
+
+            Assert.assertEquals(schemaMetadataInfo, localSchemaCache.getSchemaMetadataInfo("schema-1"));
+            Assert.assertEquals(schemaMetadataInfo, localSchemaCache.getSchemaMetadataInfo(1L));
+        }
+    }
+
+    @Test
+    public void testObsoleteRecordsAreCompactedOnLoad() throws Exception {
+        File dir = Files.createTempDirectory("local-schema-cache").toFile();
+        try {
+            doTestObsoleteRecordsAreCompactedOnLoad(dir);
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    private void doTestObsoleteRecordsAreCompactedOnLoad(File dir) throws Exception {
+        SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(1L, "schema-1", 1, 1L, "schema-text", System.currentTimeMillis(),
+                                                                    "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            localSchemaCache.putSchemaVersionInfo(schemaVersionInfo);
+            for (long id = 2; id < 10; id++) {
+                localSchemaCache.putSchemaVersionInfo(new SchemaVersionInfo(id, "schema-1", (int) id, 1L, "schema-text-" + id,
+                                                                            System.currentTimeMillis(), "schema-description",
+                                                                            SchemaVersionLifecycleStates.ENABLED.getId()));
+                localSchemaCache.removeSchemaVersionInfo(id);
+            }
+        }
+
+        File file = new File(dir, LocalSchemaCache.FILE_NAME);
+        Assert.assertEquals(17, Files.readAllLines(file.toPath()).size());
+
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            Assert.assertEquals(schemaVersionInfo, localSchemaCache.getSchemaVersionInfo(1L));
+        }
+        Assert.assertEquals(1, Files.readAllLines(file.toPath()).size());
+
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            Assert.assertEquals(schemaVersionInfo, localSchemaCache.getSchemaVersionInfo(1L));
+            Assert.assertNull(localSchemaCache.getSchemaVersionInfo(2L));
+        }
+    }
+
+    @Test
+    public void testRecordIsAppendedAfterPartiallyWrittenRecord() throws Exception {
+        File dir = Files.createTempDirectory("local-schema-cache").toFile();
+        try {
+            doTestRecordIsAppendedAfterPartiallyWrittenRecord(dir);
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    private void doTestRecordIsAppendedAfterPartiallyWrittenRecord(File dir) throws Exception {
+        SchemaVersionInfo schemaVersionInfo = createSchemaVersionInfo(1L);
+        SchemaVersionInfo otherSchemaVersionInfo = createSchemaVersionInfo(2L);
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            localSchemaCache.putSchemaVersionInfo(schemaVersionInfo);
+        }
+
+        try (FileOutputStream outputStream = new FileOutputStream(new File(dir, LocalSchemaCache.FILE_NAME), true)) {
+            outputStream.write("{\"type\":\"schemaVersion\",\"val".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            localSchemaCache.putSchemaVersionInfo(otherSchemaVersionInfo);
+        }
+
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            Assert.assertEquals(schemaVersionInfo, localSchemaCache.getSchemaVersionInfo(1L));
+            Assert.assertEquals(otherSchemaVersionInfo, localSchemaCache.getSchemaVersionInfo(2L));
+        }
+    }
+
+    @Test
+    public void testFileIsReopenedOnceReplaced() throws Exception {
+        File dir = Files.createTempDirectory("local-schema-cache").toFile();
+        try {
+            doTestFileIsReopenedOnceReplaced(dir);
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    private void doTestFileIsReopenedOnceReplaced(File dir) throws Exception {
+        SchemaVersionInfo schemaVersionInfo = createSchemaVersionInfo(1L);
+        SchemaVersionInfo otherSchemaVersionInfo = createSchemaVersionInfo(2L);
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            localSchemaCache.putSchemaVersionInfo(schemaVersionInfo);
+
+            // replaces the file like a compaction by another process does.
+            File file = new File(dir, LocalSchemaCache.FILE_NAME);
+            File compactedFile = new File(dir, LocalSchemaCache.FILE_NAME + ".other");
+            Files.copy(file.toPath(), compactedFile.toPath());
+            Files.move(compactedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            localSchemaCache.putSchemaVersionInfo(otherSchemaVersionInfo);
+        }
+
+        try (LocalSchemaCache localSchemaCache = new LocalSchemaCache(dir)) {
+            Assert.assertEquals(schemaVersionInfo, localSchemaCache.getSchemaVersionInfo(1L));
+            Assert.assertEquals(otherSchemaVersionInfo, localSchemaCache.getSchemaVersionInfo(2L));
+        }
+    }
+
+    private SchemaVersionInfo createSchemaVersionInfo(Long id) {
+        return new SchemaVersionInfo(id, "schema-1", id.intValue(), 1L, "schema-text-" + id, System.currentTimeMillis(),
+                                     "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+    }
+}
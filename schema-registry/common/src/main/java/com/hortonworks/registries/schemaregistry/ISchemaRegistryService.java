@@ -27,7 +27,9 @@ import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleSta
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Basic service interface for schema registry which should be implemented by client and server interfaces.
@@ -189,6 +191,27 @@ public interface ISchemaRegistryService {
      */
     SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException;
 
+    /**
+     * Returns {@link SchemaVersionInfo}s of the given {@code schemaIdVersions}. Schema versions which do not exist are
+     * not included in the result. Implementations may fetch all of them at once, default implementation fetches each
+     * of them with {@link #getSchemaVersionInfo(SchemaIdVersion)}.
+     *
+     * @param schemaIdVersions keys identifying schema versions
+     *
+     * @return {@link SchemaVersionInfo}s of the existing schema versions for the given {@code schemaIdVersions}
+     */
+    default Collection<SchemaVersionInfo> getSchemaVersionInfos(Collection<SchemaIdVersion> schemaIdVersions) {
+        List<SchemaVersionInfo> schemaVersionInfos = new ArrayList<>(schemaIdVersions.size());
+        for (SchemaIdVersion schemaIdVersion : schemaIdVersions) {
+            try {
+                schemaVersionInfos.add(getSchemaVersionInfo(schemaIdVersion));
+            } catch (SchemaNotFoundException e) {
+                // skip versions which do not exist
+            }
+        }
+        return schemaVersionInfos;
+    }
+
     /**
      * @param schemaName name identifying a schema
      *
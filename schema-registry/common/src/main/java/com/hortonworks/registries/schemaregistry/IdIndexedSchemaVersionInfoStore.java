@@ -0,0 +1,209 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.util.ConcurrentLongObjectMap;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SchemaVersionInfoStore} which keeps a single entry for each schema version in a primitive long keyed map
+ * indexed by schema version id. Lookups with schema name and version or with schema metadata id and version are
+ * resolved to the schema version id with secondary indexes.
+ * <p>
+ * Lookups with schema version id do not allocate any keys. Entries are evicted when they are not accessed within
+ * the configured expiry interval, or in the order of their last access when the store is full. Concurrent lookups of
+ * a schema version which is not available locally may load it more than once from the target.
+ */
+class IdIndexedSchemaVersionInfoStore implements SchemaVersionInfoStore {
+    private static final Logger LOG = LoggerFactory.getLogger(IdIndexedSchemaVersionInfoStore.class);
+
+    // last access time of an entry is updated only when it is older than this interval to avoid a write for each read.
+    private static final long ACCESS_TIME_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final SchemaVersionRetriever schemaRetriever;
+    private final int maxSize;
+    private final long expiryInNanos;
+    private final ConcurrentLongObjectMap<Entry> entries;
+    private final ConcurrentMap<SchemaVersionKey, Long> idsByNameVersion;
+    private final ConcurrentMap<SchemaIdVersion, Long> idsByMetadataIdVersion;
+
+    IdIndexedSchemaVersionInfoStore(final SchemaVersionRetriever schemaRetriever,
+                                    final int schemaCacheSize,
+                                    final long schemaCacheExpiryInMilliSecs) {
+        if (schemaCacheSize < 0) {
+            throw new IllegalArgumentException("schemaCacheSize must be non negative.");
+        }
+        this.schemaRetriever = schemaRetriever;
+        this.maxSize = schemaCacheSize;
+        this.expiryInNanos = TimeUnit.MILLISECONDS.toNanos(schemaCacheExpiryInMilliSecs);
+        entries = new ConcurrentLongObjectMap<>(schemaCacheSize);
+        idsByNameVersion = new ConcurrentHashMap<>(schemaCacheSize);
+        idsByMetadataIdVersion = new ConcurrentHashMap<>(schemaCacheSize);
+    }
+
+    @Override
+    public SchemaVersionInfo get(SchemaVersionInfoCache.Key key) throws SchemaNotFoundException {
+        SchemaVersionInfo schemaVersionInfo = getIfPresent(key);
+        if (schemaVersionInfo == null) {
+            LOG.info("Loading entry for cache with key [{}] from target service", key);
+            if (key.getSchemaVersionKey() != null) {
+                schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.getSchemaVersionKey());
+            } else if (key.getSchemaIdVersion() != null) {
+                schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.getSchemaIdVersion());
+            } else {
+                throw new IllegalArgumentException("Given argument is not valid: " + key);
+            }
+
+            if (schemaVersionInfo == null) {
+                throw new SchemaNotFoundException("No schema version found for key: " + key);
+            }
+            add(schemaVersionInfo);
+        }
+
+        return schemaVersionInfo;
+    }
+
+    @Override
+    public SchemaVersionInfo getIfPresent(SchemaVersionInfoCache.Key key) {
+        Long schemaVersionId = resolveSchemaVersionId(key);
+        if (schemaVersionId == null) {
+            return null;
+        }
+
+        Entry entry = entries.get(schemaVersionId);
+        if (entry == null) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        if (now - entry.lastAccessNanos > expiryInNanos) {
+            remove(schemaVersionId);
+            return null;
+        }
+        if (now - entry.lastAccessNanos > ACCESS_TIME_GRANULARITY_NANOS) {
+            entry.lastAccessNanos = now;
+        }
+
+        return entry.schemaVersionInfo;
+    }
+
+    @Override
+    public void put(SchemaVersionInfo schemaVersionInfo) {
+        add(schemaVersionInfo);
+    }
+
+    @Override
+    public void invalidate(SchemaVersionInfoCache.Key key) {
+        LOG.debug("Invalidating cache entry for key [{}]", key);
+        Long schemaVersionId = resolveSchemaVersionId(key);
+
+        // it can be null if it is not accessed earlier.
+        if (schemaVersionId != null) {
+            remove(schemaVersionId);
+        }
+    }
+
+    private Long resolveSchemaVersionId(SchemaVersionInfoCache.Key key) {
+        SchemaIdVersion schemaIdVersion = key.getSchemaIdVersion();
+        if (schemaIdVersion != null) {
+            return schemaIdVersion.getSchemaVersionId() != null
+                   ? schemaIdVersion.getSchemaVersionId()
+                   : idsByMetadataIdVersion.get(schemaIdVersion);
+        }
+
+        return key.getSchemaVersionKey() != null ? idsByNameVersion.get(key.getSchemaVersionKey()) : null;
+    }
+
+    private void add(SchemaVersionInfo schemaVersionInfo) {
+        if (maxSize == 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+
+        Long schemaVersionId = schemaVersionInfo.getId();
+        entries.put(schemaVersionId, new Entry(schemaVersionInfo, System.nanoTime()));
+        idsByNameVersion.put(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()),
+                             schemaVersionId);
+        // schemaMetadataId can be null from earlier registry instances.
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            idsByMetadataIdVersion.put(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                           schemaVersionInfo.getVersion()),
+                                       schemaVersionId);
+        }
+    }
+
+    private void remove(long schemaVersionId) {
+        Entry entry = entries.remove(schemaVersionId);
+        if (entry != null) {
+            SchemaVersionInfo schemaVersionInfo = entry.schemaVersionInfo;
+            idsByNameVersion.remove(new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion()),
+                                    schemaVersionId);
+            if (schemaVersionInfo.getSchemaMetadataId() != null) {
+                idsByMetadataIdVersion.remove(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                                  schemaVersionInfo.getVersion()),
+                                              schemaVersionId);
+            }
+        }
+    }
+
+    private synchronized void evict() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+
+        // drop expired entries and then least recently accessed entries till a quarter of the store is free.
+        long now = System.nanoTime();
+        // last access times are copied as they can change while sorting.
+        List<long[]> liveEntries = new ArrayList<>(entries.size());
+        entries.forEach((entry, schemaVersionId) -> {
+            long lastAccessNanos = entry.lastAccessNanos;
+            if (now - lastAccessNanos > expiryInNanos) {
+                remove(schemaVersionId);
+            } else {
+                liveEntries.add(new long[]{lastAccessNanos, schemaVersionId});
+            }
+        });
+
+        int targetSize = maxSize - Math.max(1, maxSize / 4);
+        if (liveEntries.size() > targetSize) {
+            liveEntries.sort(Comparator.comparingLong(entry -> entry[0]));
+            for (long[] entry : liveEntries.subList(0, liveEntries.size() - targetSize)) {
+                remove(entry[1]);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final SchemaVersionInfo schemaVersionInfo;
+        private volatile long lastAccessNanos;
+
+        private Entry(SchemaVersionInfo schemaVersionInfo, long lastAccessNanos) {
+            this.schemaVersionInfo = schemaVersionInfo;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SchemaVersionInfoStore} backed by a {@link LoadingCache} which keeps an entry for each kind of
+ * {@link SchemaVersionInfoCache.Key} accessed.
+ */
+class LoadingSchemaVersionInfoStore implements SchemaVersionInfoStore {
+    private static final Logger LOG = LoggerFactory.getLogger(LoadingSchemaVersionInfoStore.class);
+
+    private final LoadingCache<SchemaVersionInfoCache.Key, SchemaVersionInfo> loadingCache;
+    private final ConcurrentMap<SchemaIdVersion, SchemaVersionKey> idWithNameVersion;
+    private final ConcurrentMap<SchemaVersionKey, List<SchemaIdVersion>> nameVersionWithIds;
+
+    LoadingSchemaVersionInfoStore(final SchemaVersionRetriever schemaRetriever,
+                                  final int schemaCacheSize,
+                                  final long schemaCacheExpiryInMilliSecs) {
+        idWithNameVersion = new ConcurrentHashMap<>(schemaCacheSize);
+        nameVersionWithIds = new ConcurrentHashMap<>(schemaCacheSize);
+        loadingCache = createLoadingCache(schemaRetriever, schemaCacheSize, schemaCacheExpiryInMilliSecs);
+    }
+
+    private LoadingCache<SchemaVersionInfoCache.Key, SchemaVersionInfo> createLoadingCache(SchemaVersionRetriever schemaRetriever,
+                                                                                           int schemaCacheSize,
+                                                                                           long schemaCacheExpiryInMilliSecs) {
+        return CacheBuilder.newBuilder()
+                           .maximumSize(schemaCacheSize)
+                           .expireAfterAccess(schemaCacheExpiryInMilliSecs, TimeUnit.MILLISECONDS)
+                           .build(new CacheLoader<SchemaVersionInfoCache.Key, SchemaVersionInfo>() {
+                                       @Override
+                                       public SchemaVersionInfo load(SchemaVersionInfoCache.Key key) throws Exception {
+                                           LOG.info("Loading entry for cache with key [{}] from target service", key);
+                                           SchemaVersionInfo schemaVersionInfo;
+                                           if (key.getSchemaVersionKey() != null) {
+                                               schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.getSchemaVersionKey());
+                                           } else if (key.getSchemaIdVersion() != null) {
+                                               schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.getSchemaIdVersion());
+                                           } else {
+                                               throw new IllegalArgumentException("Given argument is not valid: " + key);
+                                           }
+
+                                           updateCacheInvalidationEntries(schemaVersionInfo);
+                                           return schemaVersionInfo;
+                                       }
+                                   });
+    }
+
+    private void updateCacheInvalidationEntries(SchemaVersionInfo schemaVersionInfo) {
+        // need to support this as SchemaIdVersion supports multiple ways to construct for backward compatible APIs
+        // this would have been simple without that.
+        SchemaVersionKey schemaVersionKey = new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion());
+        SchemaIdVersion key1 = new SchemaIdVersion(schemaVersionInfo.getId());
+        idWithNameVersion.putIfAbsent(key1, schemaVersionKey);
+        Long schemaMetadataId = schemaVersionInfo.getSchemaMetadataId();
+
+        // schemaMetadataId can be null from earlier registry instances.
+        if (schemaMetadataId != null) {
+            SchemaIdVersion key2 = new SchemaIdVersion(schemaMetadataId, schemaVersionInfo.getVersion());
+            nameVersionWithIds.putIfAbsent(schemaVersionKey, Lists.newArrayList(key1, key2));
+            idWithNameVersion.putIfAbsent(key2, schemaVersionKey);
+        } else {
+            nameVersionWithIds.putIfAbsent(schemaVersionKey, Collections.singletonList(key1));
+        }
+    }
+
+    @Override
+    public SchemaVersionInfo get(SchemaVersionInfoCache.Key key) throws SchemaNotFoundException {
+        try {
+            LOG.debug("Trying to load entry for cache with key [{}] from target service", key);
+            return loadingCache.get(key);
+        } catch (ExecutionException e) {
+            if (e.getCause().getClass() == SchemaNotFoundException.class)
+                throw (SchemaNotFoundException) e.getCause();
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public SchemaVersionInfo getIfPresent(SchemaVersionInfoCache.Key key) {
+        LOG.debug("Trying to get entry from cache if it is present in local cache with key [{}]", key);
+        return loadingCache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(SchemaVersionInfo schemaVersionInfo) {
+        LOG.debug("Adding cache entries for schema version [{}]", schemaVersionInfo);
+        updateCacheInvalidationEntries(schemaVersionInfo);
+        loadingCache.put(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionInfo.getId())), schemaVersionInfo);
+        loadingCache.put(SchemaVersionInfoCache.Key.of(new SchemaVersionKey(schemaVersionInfo.getName(),
+                                                                            schemaVersionInfo.getVersion())),
+                         schemaVersionInfo);
+        if (schemaVersionInfo.getSchemaMetadataId() != null) {
+            loadingCache.put(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionInfo.getSchemaMetadataId(),
+                                                                               schemaVersionInfo.getVersion())),
+                             schemaVersionInfo);
+        }
+    }
+
+    @Override
+    public void invalidate(SchemaVersionInfoCache.Key key) {
+        LOG.debug("Invalidating cache entry for key [{}]", key);
+        loadingCache.invalidate(key);
+
+        SchemaVersionKey schemaVersionKey =
+                key.getSchemaIdVersion() != null ? idWithNameVersion.get(key.getSchemaIdVersion()) : key.getSchemaVersionKey();
+
+        // it can be null if it is not accessed earlier.
+        if (schemaVersionKey != null) {
+            loadingCache.invalidate(SchemaVersionInfoCache.Key.of(schemaVersionKey));
+            List<SchemaIdVersion> schemaIdVersions = nameVersionWithIds.get(schemaVersionKey);
+            if(schemaIdVersions != null) {
+                for (SchemaIdVersion schemaIdVersion : schemaIdVersions) {
+                    loadingCache.invalidate(SchemaVersionInfoCache.Key.of(schemaIdVersion));
+                }
+            }
+        }
+    }
+}
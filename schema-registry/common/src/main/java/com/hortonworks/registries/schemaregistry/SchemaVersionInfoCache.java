@@ -15,115 +15,74 @@
  **/
 package com.hortonworks.registries.schemaregistry;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.Lists;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.Collections;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Loading cache for {@link Key} with values {@link SchemaVersionInfo}.
+ * <p>
+ * Entries are maintained in a store of the given {@link Type}.
  */
 public class SchemaVersionInfoCache {
-    private static final Logger LOG = LoggerFactory.getLogger(SchemaVersionInfoCache.class);
 
-    private final LoadingCache<Key, SchemaVersionInfo> loadingCache;
-    private final ConcurrentMap<SchemaIdVersion, SchemaVersionKey> idWithNameVersion;
-    private final ConcurrentMap<SchemaVersionKey, List<SchemaIdVersion>> nameVersionWithIds;
+    /**
+     * Kind of store used to maintain the cached entries.
+     */
+    public enum Type {
+        /**
+         * Guava {@code LoadingCache} keeping an entry for each kind of key accessed.
+         */
+        DEFAULT,
+
+        /**
+         * Primitive long keyed map keeping a single entry for each schema version indexed by schema version id with
+         * secondary indexes for other kinds of keys. Lookups with schema version id do not allocate keys and it takes
+         * lesser memory for each schema version.
+         */
+        ID_INDEXED;
+
+        /**
+         * Returns the type for the given case insensitive name, {@link #DEFAULT} if the given name is null.
+         */
+        public static Type of(String name) {
+            return name != null ? Type.valueOf(name.trim().toUpperCase()) : DEFAULT;
+        }
+    }
+
+    private final SchemaVersionInfoStore store;
 
     public SchemaVersionInfoCache(final SchemaVersionRetriever schemaRetriever,
                                   final int schemaCacheSize,
                                   final long schemaCacheExpiryInMilliSecs) {
-        idWithNameVersion = new ConcurrentHashMap<>(schemaCacheSize);
-        nameVersionWithIds = new ConcurrentHashMap<>(schemaCacheSize);
-        loadingCache = createLoadingCache(schemaRetriever, schemaCacheSize, schemaCacheExpiryInMilliSecs);
+        this(schemaRetriever, schemaCacheSize, schemaCacheExpiryInMilliSecs, Type.DEFAULT);
     }
 
-    private LoadingCache<Key, SchemaVersionInfo> createLoadingCache(SchemaVersionRetriever schemaRetriever,
-                                                                    int schemaCacheSize,
-                                                                    long schemaCacheExpiryInMilliSecs) {
-        return CacheBuilder.newBuilder()
-                           .maximumSize(schemaCacheSize)
-                           .expireAfterAccess(schemaCacheExpiryInMilliSecs, TimeUnit.MILLISECONDS)
-                           .build(new CacheLoader<Key, SchemaVersionInfo>() {
-                                       @Override
-                                       public SchemaVersionInfo load(Key key) throws Exception {
-                                           LOG.info("Loading entry for cache with key [{}] from target service", key);
-                                           SchemaVersionInfo schemaVersionInfo;
-                                           if (key.schemaVersionKey != null) {
-                                               schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.schemaVersionKey);
-                                           } else if (key.schemaIdVersion != null) {
-                                               schemaVersionInfo = schemaRetriever.retrieveSchemaVersion(key.schemaIdVersion);
-                                           } else {
-                                               throw new IllegalArgumentException("Given argument is not valid: " + key);
-                                           }
-
-                                           updateCacheInvalidationEntries(schemaVersionInfo);
-                                           return schemaVersionInfo;
-                                       }
-                                   });
-    }
-
-    private void updateCacheInvalidationEntries(SchemaVersionInfo schemaVersionInfo) {
-        // need to support this as SchemaIdVersion supports multiple ways to construct for backward compatible APIs
-        // this would have been simple without that.
-        SchemaVersionKey schemaVersionKey = new SchemaVersionKey(schemaVersionInfo.getName(), schemaVersionInfo.getVersion());
-        SchemaIdVersion key1 = new SchemaIdVersion(schemaVersionInfo.getId());
-        idWithNameVersion.putIfAbsent(key1, schemaVersionKey);
-        Long schemaMetadataId = schemaVersionInfo.getSchemaMetadataId();
-
-        // schemaMetadataId can be null from earlier registry instances.
-        if (schemaMetadataId != null) {
-            SchemaIdVersion key2 = new SchemaIdVersion(schemaMetadataId, schemaVersionInfo.getVersion());
-            nameVersionWithIds.putIfAbsent(schemaVersionKey, Lists.newArrayList(key1, key2));
-            idWithNameVersion.putIfAbsent(key2, schemaVersionKey);
-        } else {
-            nameVersionWithIds.putIfAbsent(schemaVersionKey, Collections.singletonList(key1));
-        }
+    public SchemaVersionInfoCache(final SchemaVersionRetriever schemaRetriever,
+                                  final int schemaCacheSize,
+                                  final long schemaCacheExpiryInMilliSecs,
+                                  final Type type) {
+        store = type == Type.ID_INDEXED
+                ? new IdIndexedSchemaVersionInfoStore(schemaRetriever, schemaCacheSize, schemaCacheExpiryInMilliSecs)
+                : new LoadingSchemaVersionInfoStore(schemaRetriever, schemaCacheSize, schemaCacheExpiryInMilliSecs);
     }
 
     public SchemaVersionInfo getSchema(SchemaVersionInfoCache.Key key) throws SchemaNotFoundException {
-        try {
-            LOG.debug("Trying to load entry for cache with key [{}] from target service", key);
-            return loadingCache.get(key);
-        } catch (ExecutionException e) {
-            if (e.getCause().getClass() == SchemaNotFoundException.class)
-                throw (SchemaNotFoundException) e.getCause();
-            throw new RuntimeException(e);
-        }
+        return store.get(key);
     }
 
     public SchemaVersionInfo getSchemaIfPresent(SchemaVersionInfoCache.Key key) throws SchemaNotFoundException {
-        LOG.debug("Trying to get entry from cache if it is present in local cache with key [{}]", key);
-        return loadingCache.getIfPresent(key);
+        return store.getIfPresent(key);
+    }
+
+    /**
+     * Adds the given {@link SchemaVersionInfo} to this cache, this can be used to warm up the cache with schema versions
+     * retrieved in bulk.
+     */
+    public void putSchema(SchemaVersionInfo schemaVersionInfo) {
+        store.put(schemaVersionInfo);
     }
 
     public void invalidateSchema(SchemaVersionInfoCache.Key key) {
-        LOG.debug("Invalidating cache entry for key [{}]", key);
-        loadingCache.invalidate(key);
-
-        SchemaVersionKey schemaVersionKey =
-                key.schemaIdVersion != null ? idWithNameVersion.get(key.schemaIdVersion) : key.schemaVersionKey;
-
-        // it can be null if it is not accessed earlier.
-        if (schemaVersionKey != null) {
-            loadingCache.invalidate(Key.of(schemaVersionKey));
-            List<SchemaIdVersion> schemaIdVersions = nameVersionWithIds.get(schemaVersionKey);
-            if(schemaIdVersions != null) {
-                for (SchemaIdVersion schemaIdVersion : schemaIdVersions) {
-                    loadingCache.invalidate(Key.of(schemaIdVersion));
-                }
-            }
-        }
+        store.invalidate(key);
     }
 
     public static class Key {
@@ -147,6 +106,14 @@ public class SchemaVersionInfoCache {
             return new Key(schemaIdVersion);
         }
 
+        SchemaVersionKey getSchemaVersionKey() {
+            return schemaVersionKey;
+        }
+
+        SchemaIdVersion getSchemaIdVersion() {
+            return schemaIdVersion;
+        }
+
         @Override
         public String toString() {
             return "Key{" +
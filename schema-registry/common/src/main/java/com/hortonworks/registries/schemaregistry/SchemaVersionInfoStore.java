@@ -0,0 +1,46 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+
+/**
+ * Storage used by {@link SchemaVersionInfoCache} to maintain {@link SchemaVersionInfo} entries which can be accessed
+ * with any of the keys represented by {@link SchemaVersionInfoCache.Key}.
+ */
+interface SchemaVersionInfoStore {
+
+    /**
+     * Returns {@link SchemaVersionInfo} for the given key, loading it from the target if it is not available locally.
+     */
+    SchemaVersionInfo get(SchemaVersionInfoCache.Key key) throws SchemaNotFoundException;
+
+    /**
+     * Returns {@link SchemaVersionInfo} for the given key if it is available locally, else returns null.
+     */
+    SchemaVersionInfo getIfPresent(SchemaVersionInfoCache.Key key);
+
+    /**
+     * Adds the given {@link SchemaVersionInfo} which was retrieved from the target, so that it can be accessed with
+     * any of its keys.
+     */
+    void put(SchemaVersionInfo schemaVersionInfo);
+
+    /**
+     * Invalidates the entry for the given key along with the entries for all other keys of the same schema version.
+     */
+    void invalidate(SchemaVersionInfoCache.Key key);
+}
@@ -16,6 +16,9 @@
 package com.hortonworks.registries.schemaregistry.avro;
 
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.hortonworks.registries.schemaregistry.AbstractSchemaProvider;
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
@@ -34,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -44,6 +48,59 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
 
     public static final String TYPE = "avro";
 
+    /**
+     * Maximum number of parsed schemas kept in the cache, parsing a schema is the costliest part of checking
+     * compatibility of schemas.
+     */
+    public static final String PARSED_SCHEMA_CACHE_SIZE = "parsedSchemaCacheSize";
+    public static final int DEFAULT_PARSED_SCHEMA_CACHE_SIZE = 1024;
+
+    /**
+     * Maximum number of characters of the schema texts and results kept in the compatibility result cache. Each
+     * result is kept with both the schema texts it is computed for, so the cache is bounded by their total length
+     * instead of number of results.
+     */
+    public static final String COMPATIBILITY_RESULT_CACHE_MAX_CHARS = "compatibilityResultCacheMaxChars";
+    public static final int DEFAULT_COMPATIBILITY_RESULT_CACHE_MAX_CHARS = 16 * 1024 * 1024;
+
+    private Cache<String, Schema> parsedSchemaCache = createCache(DEFAULT_PARSED_SCHEMA_CACHE_SIZE);
+    private Cache<CompatibilityKey, CompatibilityResult> compatibilityResultCache =
+            createCompatibilityResultCache(DEFAULT_COMPATIBILITY_RESULT_CACHE_MAX_CHARS);
+
+    @Override
+    public void init(Map<String, Object> config) {
+        super.init(config);
+        parsedSchemaCache = createCache(getSize(config, PARSED_SCHEMA_CACHE_SIZE, DEFAULT_PARSED_SCHEMA_CACHE_SIZE));
+        compatibilityResultCache = createCompatibilityResultCache(getSize(config,
+                                                                          COMPATIBILITY_RESULT_CACHE_MAX_CHARS,
+                                                                          DEFAULT_COMPATIBILITY_RESULT_CACHE_MAX_CHARS));
+    }
+
+    private static int getSize(Map<String, Object> config, String name, int defaultValue) {
+        Object value = config.get(name);
+        return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+    }
+
+    private static <K, V> Cache<K, V> createCache(int size) {
+        return CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
+    private static Cache<CompatibilityKey, CompatibilityResult> createCompatibilityResultCache(int maxChars) {
+        return CacheBuilder.newBuilder()
+                           .maximumWeight(maxChars)
+                           .weigher((CompatibilityKey key, CompatibilityResult result) ->
+                                            key.toSchemaText.length()
+                                                    + key.existingSchemaText.length()
+                                                    + length(result.getSchema())
+                                                    + length(result.getErrorMessage())
+                                                    + length(result.getErrorLocation()))
+                           .build();
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
     @Override
     public String getName() {
         return "Avro schema provider";
@@ -63,17 +120,41 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
     public CompatibilityResult checkCompatibility(String toSchemaText,
                                                   String existingSchemaText,
                                                   SchemaCompatibility existingSchemaCompatibility) {
-        return AvroSchemaValidator
-                .of(existingSchemaCompatibility)
-                .validate(new Schema.Parser().parse(toSchemaText),
-                          new Schema.Parser().parse(existingSchemaText));
+        // schema texts are immutable, so the result for the same texts and compatibility never changes.
+        CompatibilityKey compatibilityKey = new CompatibilityKey(toSchemaText, existingSchemaText, existingSchemaCompatibility);
+        CompatibilityResult compatibilityResult = compatibilityResultCache.getIfPresent(compatibilityKey);
+        if (compatibilityResult == null) {
+            compatibilityResult = AvroSchemaValidator
+                    .of(existingSchemaCompatibility)
+                    .validate(parse(toSchemaText), parse(existingSchemaText));
+            compatibilityResultCache.put(compatibilityKey, compatibilityResult);
+        }
+
+        return compatibilityResult;
+    }
+
+    /**
+     * Returns {@link Schema} for the given schema text, it is parsed only when it is not available in the cache.
+     * Returned instances are shared and they should not be modified.
+     */
+    private Schema parse(String schemaText) {
+        try {
+            return parsedSchemaCache.get(schemaText, () -> new Schema.Parser().parse(schemaText));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // parser throws only runtime exceptions like SchemaParseException, they are thrown as they are.
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
     }
 
     @Override
     public byte[] getFingerprint(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
         try {
             // generates fingerprint of canonical form of the given schema.
-            Schema schema = new Schema.Parser().parse(getResultantSchema(schemaText));
+            Schema schema = parse(getResultantSchema(schemaText));
             return MessageDigest.getInstance("MD5").digest(normalize(schema).getBytes());
         } catch (IOException e) {
             throw new InvalidSchemaException("Given schema is invalid", e);
@@ -91,7 +172,7 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
     @Override
     public List<SchemaFieldInfo> generateFields(String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
         AvroFieldsGenerator avroFieldsGenerator = new AvroFieldsGenerator();
-        return avroFieldsGenerator.generateFields(new Schema.Parser().parse(getResultantSchema(schemaText)));
+        return avroFieldsGenerator.generateFields(parse(getResultantSchema(schemaText)));
     }
 
     public String normalize(Schema schema) throws IOException {
@@ -200,4 +281,35 @@ public class AvroSchemaProvider extends AbstractSchemaProvider {
         appendable.append(",\"type\":\"").append(schemaType.getName()).append("\"");
     }
 
-}
\ No newline at end of file
+    private static final class CompatibilityKey {
+        private final String toSchemaText;
+        private final String existingSchemaText;
+        private final SchemaCompatibility compatibility;
+
+        private CompatibilityKey(String toSchemaText, String existingSchemaText, SchemaCompatibility compatibility) {
+            this.toSchemaText = toSchemaText;
+            this.existingSchemaText = existingSchemaText;
+            this.compatibility = compatibility;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            CompatibilityKey that = (CompatibilityKey) o;
+
+            if (!toSchemaText.equals(that.toSchemaText)) return false;
+            if (!existingSchemaText.equals(that.existingSchemaText)) return false;
+            return compatibility == that.compatibility;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = toSchemaText.hashCode();
+            result = 31 * result + existingSchemaText.hashCode();
+            result = 31 * result + (compatibility != null ? compatibility.hashCode() : 0);
+            return result;
+        }
+    }
+}
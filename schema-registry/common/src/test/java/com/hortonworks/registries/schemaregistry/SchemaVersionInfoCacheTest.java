@@ -24,6 +24,7 @@ import org.junit.Test;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
@@ -32,6 +33,87 @@ public class SchemaVersionInfoCacheTest {
 
     @Test
     public void testSchemaVersionCache() throws Exception {
+        doTestSchemaVersionCache(SchemaVersionInfoCache.Type.DEFAULT);
+    }
+
+    @Test
+    public void testIdIndexedSchemaVersionCache() throws Exception {
+        doTestSchemaVersionCache(SchemaVersionInfoCache.Type.ID_INDEXED);
+    }
+
+    @Test
+    public void testIdIndexedSchemaVersionCacheEviction() throws Exception {
+        AtomicInteger retrievalCount = new AtomicInteger();
+        SchemaVersionRetriever schemaRetriever = new SchemaVersionRetriever() {
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
+                throw new SchemaNotFoundException("Schema not found: " + key);
+            }
+
+            @Override
+            public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
+                retrievalCount.incrementAndGet();
+                long id = key.getSchemaVersionId();
+                return new SchemaVersionInfo(id, "schema-" + id, 1, id, "schema-text", System.currentTimeMillis(),
+                                             "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+            }
+        };
+
+        int cacheSize = 8;
+        SchemaVersionInfoCache schemaVersionInfoCache =
+                new SchemaVersionInfoCache(schemaRetriever, cacheSize, 60 * 1000L, SchemaVersionInfoCache.Type.ID_INDEXED);
+
+        for (long id = 1; id <= 4 * cacheSize; id++) {
+            Assert.assertEquals(id, schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(id)))
+                                                          .getId()
+                                                          .longValue());
+        }
+        Assert.assertEquals(4 * cacheSize, retrievalCount.get());
+
+        // recently accessed entries are retained with all their keys
+        long latestId = 4 * cacheSize;
+        Assert.assertNotNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(latestId))));
+        Assert.assertNotNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-" + latestId, 1))));
+        Assert.assertNotNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(latestId, 1))));
+
+        // evicted entries are not available with any of their keys
+        Assert.assertNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(1L))));
+        Assert.assertNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-1", 1))));
+        Assert.assertNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(1L, 1))));
+    }
+
+    @Test
+    public void testPutSchemaVersion() throws Exception {
+        for (SchemaVersionInfoCache.Type type : SchemaVersionInfoCache.Type.values()) {
+            SchemaVersionRetriever schemaRetriever = new SchemaVersionRetriever() {
+                @Override
+                public SchemaVersionInfo retrieveSchemaVersion(SchemaVersionKey key) throws SchemaNotFoundException {
+                    throw new SchemaNotFoundException("Schema not found: " + key);
+                }
+
+                @Override
+                public SchemaVersionInfo retrieveSchemaVersion(SchemaIdVersion key) throws SchemaNotFoundException {
+                    throw new SchemaNotFoundException("Schema not found: " + key);
+                }
+            };
+            SchemaVersionInfoCache schemaVersionInfoCache = new SchemaVersionInfoCache(schemaRetriever, 32, 60 * 1000L, type);
+
+            SchemaVersionInfo schemaVersionInfo = new SchemaVersionInfo(3L, "schema-1", 2, 1L, "schema-text", System.currentTimeMillis(),
+                                                                        "schema-description", SchemaVersionLifecycleStates.ENABLED.getId());
+            schemaVersionInfoCache.putSchema(schemaVersionInfo);
+
+            // added entry is accessible with all its keys without loading from target
+            Assert.assertEquals(schemaVersionInfo, schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(3L))));
+            Assert.assertEquals(schemaVersionInfo, schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(1L, 2))));
+            Assert.assertEquals(schemaVersionInfo, schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-1", 2))));
+
+            schemaVersionInfoCache.invalidateSchema(SchemaVersionInfoCache.Key.of(new SchemaVersionKey("schema-1", 2)));
+            Assert.assertNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(3L))));
+            Assert.assertNull(schemaVersionInfoCache.getSchemaIfPresent(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(1L, 2))));
+        }
+    }
+
+    private void doTestSchemaVersionCache(SchemaVersionInfoCache.Type type) throws Exception {
 
         final Map<SchemaIdVersion, SchemaVersionInfo> schemaIdWithVersionInfo = new HashMap<>();
         final Map<SchemaVersionKey, SchemaVersionInfo> schemaKeyWithVersionInfo = new HashMap<>();
@@ -71,7 +153,7 @@ public class SchemaVersionInfoCacheTest {
             }
         };
 
-        SchemaVersionInfoCache schemaVersionInfoCache = new SchemaVersionInfoCache(schemaRetriever, 32, 60 * 1000L);
+        SchemaVersionInfoCache schemaVersionInfoCache = new SchemaVersionInfoCache(schemaRetriever, 32, 60 * 1000L, type);
 
         // invalidate key without accessing earlier.
         for (SchemaVersionKey versionKey : schemaKeyWithVersionInfo.keySet()) {
@@ -17,11 +17,13 @@ package com.hortonworks.registries.schemaregistry.avro;
 
 import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import org.apache.avro.SchemaParseException;
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Collections;
 
 /**
  *
@@ -92,4 +94,44 @@ public class AvroCompatibilityCheckerTest {
         }
     }
 
+    @Test
+    public void testCompatibilityResultsAreCached() throws Exception {
+        AvroSchemaProvider avroSchemaProvider = new AvroSchemaProvider();
+        String toSchemaText = fetchResourceText("/avro/book-invalid-compat.avsc");
+        String existingSchemaText = initialVersionSchema();
+
+        CompatibilityResult backwardResult =
+                avroSchemaProvider.checkCompatibility(toSchemaText, existingSchemaText, SchemaCompatibility.BACKWARD);
+        Assert.assertSame(backwardResult,
+                          avroSchemaProvider.checkCompatibility(new String(toSchemaText),
+                                                                new String(existingSchemaText),
+                                                                SchemaCompatibility.BACKWARD));
+
+        // results are not shared across compatibilities
+        CompatibilityResult noneResult = avroSchemaProvider.checkCompatibility(toSchemaText, existingSchemaText, SchemaCompatibility.NONE);
+        Assert.assertFalse(backwardResult.isCompatible());
+        Assert.assertTrue(noneResult.isCompatible());
+    }
+
+    @Test
+    public void testCompatibilityResultCacheIsBoundedBySchemaTextLength() throws Exception {
+        String toSchemaText = fetchResourceText("/avro/book-invalid-compat.avsc");
+        String existingSchemaText = initialVersionSchema();
+
+        AvroSchemaProvider avroSchemaProvider = new AvroSchemaProvider();
+        avroSchemaProvider.init(Collections.singletonMap(AvroSchemaProvider.COMPATIBILITY_RESULT_CACHE_MAX_CHARS,
+                                                         toSchemaText.length() + existingSchemaText.length() - 1));
+
+        // result for schema texts longer than the bound is not kept
+        CompatibilityResult backwardResult =
+                avroSchemaProvider.checkCompatibility(toSchemaText, existingSchemaText, SchemaCompatibility.BACKWARD);
+        Assert.assertNotSame(backwardResult,
+                             avroSchemaProvider.checkCompatibility(toSchemaText, existingSchemaText, SchemaCompatibility.BACKWARD));
+    }
+
+    @Test(expected = SchemaParseException.class)
+    public void testInvalidSchemaText() throws Exception {
+        new AvroSchemaProvider().checkCompatibility("invalid-schema", initialVersionSchema(), SchemaCompatibility.BACKWARD);
+    }
+
 }
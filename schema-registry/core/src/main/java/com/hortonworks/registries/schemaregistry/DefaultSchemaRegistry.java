@@ -50,6 +50,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -60,6 +66,8 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultSchemaRegistry.class);
 
     public static final String ORDER_BY_FIELDS_PARAM_NAME = "_orderByFields";
+    public static final String LIMIT_PARAM_NAME = "_limit";
+    public static final String AFTER_PARAM_NAME = "_after";
     public static final String DEFAULT_SCHEMA_VERSION_MERGE_STRATEGY = "OPTIMISTIC";
 
     private final StorageManager storageManager;
@@ -70,6 +78,9 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     private List<SchemaProviderInfo> schemaProviderInfos;
     private SchemaVersionLifecycleManager schemaVersionLifecycleManager;
     private SchemaBranchCache schemaBranchCache;
+    private long schemaVersionRegistrationWaitTimeoutMs;
+    private final ConcurrentMap<SchemaVersionRegistrationKey, InFlightSchemaVersionRegistration> inFlightSchemaVersionRegistrations =
+            new ConcurrentHashMap<>();
 
     public DefaultSchemaRegistry(StorageManager storageManager,
                                  FileStorage fileStorage,
@@ -91,9 +102,11 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
                         SerDesInfoStorable.class,
                         SchemaSerDesMapping.class,
                         SchemaBranchStorable.class,
-                        SchemaBranchVersionMapping.class));
+                        SchemaBranchVersionMapping.class,
+                        SchemaLatestVersionStorable.class));
 
         Options options = new Options(props);
+        schemaVersionRegistrationWaitTimeoutMs = options.getSchemaVersionRegistrationWaitTimeoutMs();
         schemaBranchCache = new SchemaBranchCache(options.getMaxSchemaCacheSize(),
                                                   options.getSchemaExpiryInSecs(),
                                                   createSchemaBranchFetcher());
@@ -312,17 +325,47 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         } else {
             List<QueryParam> orderByFieldQueryParams = new ArrayList<>();
             List<QueryParam> queryParams = new ArrayList<>(props.size());
-            for (Map.Entry<String, String> entry : props.entrySet()) {
-                QueryParam queryParam = new QueryParam(entry.getKey(), entry.getValue());
-                if (ORDER_BY_FIELDS_PARAM_NAME.equals(entry.getKey())) {
-                    orderByFieldQueryParams.add(queryParam);
-                } else {
-                    queryParams.add(queryParam);
-                }
-            }
+            splitQueryParams(props, queryParams, orderByFieldQueryParams);
             storables = storageManager.find(SchemaMetadataStorable.NAME_SPACE, queryParams, getOrderByFields(orderByFieldQueryParams));
         }
 
+        return toSchemaMetadataInfos(storables);
+    }
+
+    @Override
+    public Collection<SchemaMetadataInfo> findSchemaMetadata(Map<String, String> props, String afterName, int limit) {
+        List<QueryParam> orderByFieldQueryParams = new ArrayList<>();
+        List<QueryParam> queryParams = new ArrayList<>();
+        if (props != null) {
+            splitQueryParams(props, queryParams, orderByFieldQueryParams);
+        }
+        if (!orderByFieldQueryParams.isEmpty()) {
+            throw new IllegalArgumentException("Schemas can not be ordered by other fields than their names when they are paged");
+        }
+
+        // names are unique, pages of schemas ordered by their names neither skip nor repeat schemas
+        Collection<SchemaMetadataStorable> storables =
+                storageManager.find(SchemaMetadataStorable.NAME_SPACE,
+                                    queryParams,
+                                    Collections.singletonList(OrderByField.of(SchemaMetadataStorable.NAME)),
+                                    afterName != null ? Collections.singletonList(afterName) : null,
+                                    limit);
+
+        return toSchemaMetadataInfos(storables);
+    }
+
+    private void splitQueryParams(Map<String, String> props, List<QueryParam> queryParams, List<QueryParam> orderByFieldQueryParams) {
+        for (Map.Entry<String, String> entry : props.entrySet()) {
+            QueryParam queryParam = new QueryParam(entry.getKey(), entry.getValue());
+            if (ORDER_BY_FIELDS_PARAM_NAME.equals(entry.getKey())) {
+                orderByFieldQueryParams.add(queryParam);
+            } else {
+                queryParams.add(queryParam);
+            }
+        }
+    }
+
+    private List<SchemaMetadataInfo> toSchemaMetadataInfos(Collection<SchemaMetadataStorable> storables) {
         List<SchemaMetadataInfo> result;
         if (storables != null && !storables.isEmpty()) {
             result = storables.stream().map(SchemaMetadataStorable::toSchemaMetadataInfo).collect(Collectors.toList());
@@ -374,91 +417,156 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     @Override
     public Collection<SchemaVersionKey> findSchemasByFields(String schemaBranchName, SchemaFieldQuery schemaFieldQuery)
             throws SchemaBranchNotFoundException, SchemaNotFoundException {
-
-        Preconditions.checkNotNull(schemaBranchName, "Schema branch name can't be null");
-
-        List<QueryParam> queryParams = buildQueryParam(schemaFieldQuery);
-
-        Collection<SchemaFieldInfoStorable> fieldInfos = storageManager.find(SchemaFieldInfoStorable.STORABLE_NAME_SPACE, queryParams);
-        List<SchemaVersionInfo> schemaVersionInfos = schemaVersionLifecycleManager.getSortedSchemaVersions(schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName)));
-        Set<Long> schemaVersionIds = schemaVersionInfos.stream().map(storable -> storable.getId()).collect(Collectors.toSet());
-        Collection<SchemaVersionKey> schemaVersionKeys;
-        if (fieldInfos != null && !fieldInfos.isEmpty()) {
-            List<Long> schemaIds = new ArrayList<>();
-            for (SchemaFieldInfoStorable fieldInfo : fieldInfos) {
-                schemaIds.add(fieldInfo.getSchemaInstanceId());
-            }
-
-            // todo get only few selected columns instead of getting the whole row.
-            // add OR query to find items from store
-            schemaVersionKeys = new ArrayList<>();
-            for (Long schemaId : schemaIds) {
-                if(schemaVersionIds.contains(schemaId)) {
-                    SchemaVersionKey schemaVersionKey = getSchemaKey(schemaId);
-                    if (schemaVersionKey != null) {
-                        schemaVersionKeys.add(schemaVersionKey);
-                    }
-                }
-            }
-        } else {
-            schemaVersionKeys = Collections.emptyList();
-        }
-
-        return schemaVersionKeys;
+        return findSchemasByFields(schemaBranchName, schemaFieldQuery, 0, Integer.MAX_VALUE);
     }
 
-    private SchemaVersionKey getSchemaKey(Long schemaId) {
-        SchemaVersionKey schemaVersionKey = null;
-
-        List<QueryParam> queryParams = Collections.singletonList(new QueryParam(SchemaVersionStorable.ID, schemaId.toString()));
-        Collection<SchemaVersionStorable> versionedSchemas = storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams);
-        if (versionedSchemas != null && !versionedSchemas.isEmpty()) {
-            SchemaVersionStorable storable = versionedSchemas.iterator().next();
-            schemaVersionKey = new SchemaVersionKey(storable.getName(), storable.getVersion());
-        }
+    @Override
+    public Collection<SchemaVersionKey> findSchemasByFields(String schemaBranchName,
+                                                            SchemaFieldQuery schemaFieldQuery,
+                                                            int offset,
+                                                            int limit)
+            throws SchemaBranchNotFoundException, SchemaNotFoundException {
 
-        return schemaVersionKey;
-    }
+        Preconditions.checkNotNull(schemaBranchName, "Schema branch name can't be null");
+        Preconditions.checkArgument(offset >= 0, "offset must not be negative");
+        Preconditions.checkArgument(limit >= 0, "limit must not be negative");
 
-    private List<QueryParam> buildQueryParam(SchemaFieldQuery schemaFieldQuery) {
-        List<QueryParam> queryParams = new ArrayList<>(3);
-        if (schemaFieldQuery.getNamespace() != null) {
-            queryParams.add(new QueryParam(SchemaFieldInfo.FIELD_NAMESPACE, schemaFieldQuery.getNamespace()));
-        }
-        if (schemaFieldQuery.getName() != null) {
-            queryParams.add(new QueryParam(SchemaFieldInfo.NAME, schemaFieldQuery.getName()));
-        }
-        if (schemaFieldQuery.getType() != null) {
-            queryParams.add(new QueryParam(SchemaFieldInfo.TYPE, schemaFieldQuery.getType()));
+        Long schemaBranchId = schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName)).getId();
+        if (limit == 0) {
+            return Collections.emptyList();
         }
 
-        return queryParams;
+        // versions are ordered by their ids, so the skipped ones are read with the requested page.
+        int maxSchemaVersions = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        return schemaVersionLifecycleManager.findSchemaVersionsByFields(schemaBranchId, schemaFieldQuery, maxSchemaVersions)
+                                            .stream()
+                                            .skip(offset)
+                                            .map(schemaVersionInfo -> new SchemaVersionKey(schemaVersionInfo.getName(),
+                                                                                           schemaVersionInfo.getVersion()))
+                                            .collect(Collectors.toList());
     }
 
     public SchemaIdVersion addSchemaVersion(SchemaMetadata schemaMetadata,
                                             SchemaVersion schemaVersion)
             throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
-        return schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata, schemaVersion, x -> registerSchemaMetadata(x));
+        return addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaMetadata, schemaVersion);
     }
 
     public SchemaIdVersion addSchemaVersion(String schemaBranchName,
                                             SchemaMetadata schemaMetadata,
                                             SchemaVersion schemaVersion)
             throws IncompatibleSchemaException, InvalidSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
-        return schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaMetadata, schemaVersion, x -> registerSchemaMetadata(x));
+        return registerSchemaVersionOnce(schemaBranchName, schemaMetadata.getName(), schemaVersion,
+                                         () -> schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaMetadata, schemaVersion, x -> registerSchemaMetadata(x)));
     }
 
     public SchemaIdVersion addSchemaVersion(String schemaName,
                                             SchemaVersion schemaVersion)
             throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException {
-        return schemaVersionLifecycleManager.addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaName, schemaVersion);
+        return addSchemaVersion(SchemaBranch.MASTER_BRANCH, schemaName, schemaVersion);
     }
 
     public SchemaIdVersion addSchemaVersion(String schemaBranchName,
                                             String schemaName,
                                             SchemaVersion schemaVersion)
             throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException {
-        return schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaName, schemaVersion);
+        return registerSchemaVersionOnce(schemaBranchName, schemaName, schemaVersion,
+                                         () -> schemaVersionLifecycleManager.addSchemaVersion(schemaBranchName, schemaName, schemaVersion));
+    }
+
+    /**
+     * Runs the given registration unless a registration of the same schema text to the same schema and branch is
+     * already in progress, in which case it waits for that registration and returns its result. This avoids concurrent
+     * identical registrations, for ex: from producers starting together, contending for the same version in storage.
+     * <p>
+     * Result of a registration is given to the waiting ones only when its transaction is committed, so that they never
+     * return a version which is not visible in storage yet. They run the registration again when it is rolled back or
+     * when it fails with an error which may not happen again, for ex: a storage error, and they get the same error only
+     * when the schema or the schema branch is not found or the schema text is invalid or incompatible. A registration
+     * is waited for at most {@link Options#getSchemaVersionRegistrationWaitTimeoutMs()}, the waiting one runs the
+     * registration by itself after that.
+     */
+    private SchemaIdVersion registerSchemaVersionOnce(String schemaBranchName,
+                                                      String schemaName,
+                                                      SchemaVersion schemaVersion,
+                                                      SchemaVersionRegistration schemaVersionRegistration)
+            throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException {
+        SchemaVersionRegistrationKey key = new SchemaVersionRegistrationKey(schemaBranchName, schemaName, schemaVersion.getSchemaText());
+        while (true) {
+            InFlightSchemaVersionRegistration registration = new InFlightSchemaVersionRegistration();
+            InFlightSchemaVersionRegistration existingRegistration = inFlightSchemaVersionRegistrations.putIfAbsent(key, registration);
+            if (existingRegistration == null) {
+                return registerSchemaVersion(key, registration, schemaVersionRegistration);
+            }
+
+            if (existingRegistration.owner == Thread.currentThread()) {
+                // registered earlier in the same transaction, which finds it in storage as it is not committed yet.
+                return schemaVersionRegistration.register();
+            }
+
+            LOG.debug("Waiting for registration [{}] which is already in progress", key);
+            SchemaIdVersion schemaIdVersion;
+            try {
+                schemaIdVersion = waitForSchemaVersionRegistration(existingRegistration.future);
+            } catch (TimeoutException e) {
+                LOG.info("Registration [{}] is not completed in [{}] ms, registering it without waiting for it",
+                         key, schemaVersionRegistrationWaitTimeoutMs);
+                return schemaVersionRegistration.register();
+            }
+            if (schemaIdVersion != null) {
+                return schemaIdVersion;
+            }
+            LOG.debug("Registration [{}] is rolled back or failed, registering it again", key);
+        }
+    }
+
+    private SchemaIdVersion registerSchemaVersion(SchemaVersionRegistrationKey key,
+                                                  InFlightSchemaVersionRegistration registration,
+                                                  SchemaVersionRegistration schemaVersionRegistration)
+            throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException {
+        SchemaIdVersion schemaIdVersion;
+        try {
+            schemaIdVersion = schemaVersionRegistration.register();
+        } catch (Throwable t) {
+            inFlightSchemaVersionRegistrations.remove(key, registration);
+            registration.future.completeExceptionally(t);
+            throw t;
+        }
+
+        // waiting registrations get null when the transaction is rolled back, so that they run it again.
+        storageManager.registerTransactionCompletionListener(committed -> {
+            inFlightSchemaVersionRegistrations.remove(key, registration);
+            registration.future.complete(committed ? schemaIdVersion : null);
+        });
+
+        return schemaIdVersion;
+    }
+
+    /**
+     * @return version registered by the given registration, or null if it should be run again.
+     */
+    private SchemaIdVersion waitForSchemaVersionRegistration(CompletableFuture<SchemaIdVersion> future)
+            throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException,
+            TimeoutException {
+        try {
+            return future.get(schemaVersionRegistrationWaitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SchemaNotFoundException) {
+                throw (SchemaNotFoundException) cause;
+            } else if (cause instanceof IncompatibleSchemaException) {
+                throw (IncompatibleSchemaException) cause;
+            } else if (cause instanceof InvalidSchemaException) {
+                throw (InvalidSchemaException) cause;
+            } else if (cause instanceof SchemaBranchNotFoundException) {
+                throw (SchemaBranchNotFoundException) cause;
+            }
+            LOG.debug("Registration failed with an error which may not happen again", cause);
+            return null;
+        }
     }
 
     @Override
@@ -472,6 +580,15 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         return schemaVersionLifecycleManager.getAllVersions(schemaBranchName, schemaName);
     }
 
+    @Override
+    public Collection<SchemaVersionInfo> getAllVersions(final String schemaBranchName,
+                                                        final String schemaName,
+                                                        final Integer afterVersion,
+                                                        final int limit)
+            throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        return schemaVersionLifecycleManager.getAllVersions(schemaBranchName, schemaName, afterVersion, limit);
+    }
+
     @Override
     public SchemaVersionInfo getSchemaVersionInfo(String schemaName,
                                                   String schemaText) throws SchemaNotFoundException, InvalidSchemaException, SchemaBranchNotFoundException {
@@ -583,8 +700,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
 
         SchemaVersionInfo schemaVersionInfo = schemaVersionLifecycleManager.getSchemaVersionInfo(new SchemaIdVersion(schemaVersionId));
 
-        SchemaBranchVersionMapping schemaBranchVersionMapping = new SchemaBranchVersionMapping(persistedSchemaBranch.getId(), schemaVersionInfo.getId());
-        storageManager.add(schemaBranchVersionMapping);
+        schemaVersionLifecycleManager.addSchemaVersionToBranch(persistedSchemaBranch.getId(), schemaVersionInfo.getId());
 
         return persistedSchemaBranch;
     }
@@ -628,6 +744,7 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
         Iterator<SchemaBranchVersionMapping> schemaBranchVersionMappingIterator = schemaBranchVersionMappings.iterator();
         SchemaBranchVersionMapping rootVersionMapping = schemaBranchVersionMappingIterator.next();
         storageManager.remove(rootVersionMapping.getStorableKey());
+        schemaVersionLifecycleManager.invalidateSchemaBranch(schemaBranchId);
 
         while(schemaBranchVersionMappingIterator.hasNext()) {
             SchemaBranchVersionMapping schemaBranchVersionMapping = schemaBranchVersionMappingIterator.next();
@@ -641,7 +758,9 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
             }
         }
 
+        schemaVersionLifecycleManager.removeLatestSchemaVersions(schemaBranchId);
         storageManager.remove(new SchemaBranchStorable(schemaBranch.getName()).getStorableKey());
+        schemaVersionLifecycleManager.invalidateSchemaBranch(schemaBranchId);
 
     }
 
@@ -786,13 +905,71 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
     }
 
 
+    private interface SchemaVersionRegistration {
+        SchemaIdVersion register()
+                throws SchemaNotFoundException, IncompatibleSchemaException, InvalidSchemaException, SchemaBranchNotFoundException;
+    }
+
+    private static final class InFlightSchemaVersionRegistration {
+        private final Thread owner = Thread.currentThread();
+        private final CompletableFuture<SchemaIdVersion> future = new CompletableFuture<>();
+    }
+
+    private static final class SchemaVersionRegistrationKey {
+        private final String schemaBranchName;
+        private final String schemaName;
+        private final String schemaText;
+
+        private SchemaVersionRegistrationKey(String schemaBranchName, String schemaName, String schemaText) {
+            this.schemaBranchName = schemaBranchName;
+            this.schemaName = schemaName;
+            this.schemaText = schemaText;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SchemaVersionRegistrationKey that = (SchemaVersionRegistrationKey) o;
+
+            if (schemaBranchName != null ? !schemaBranchName.equals(that.schemaBranchName) : that.schemaBranchName != null)
+                return false;
+            if (schemaName != null ? !schemaName.equals(that.schemaName) : that.schemaName != null) return false;
+            return schemaText != null ? schemaText.equals(that.schemaText) : that.schemaText == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = schemaBranchName != null ? schemaBranchName.hashCode() : 0;
+            result = 31 * result + (schemaName != null ? schemaName.hashCode() : 0);
+            result = 31 * result + (schemaText != null ? schemaText.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "SchemaVersionRegistrationKey{" +
+                    "schemaBranchName='" + schemaBranchName + '\'' +
+                    ", schemaName='" + schemaName + '\'' +
+                    '}';
+        }
+    }
+
     public static class Options {
         // we may want to remove schema.registry prefix from configuration properties as these are all properties
         // given by client.
         public static final String SCHEMA_CACHE_SIZE = "schemaCacheSize";
         public static final String SCHEMA_CACHE_EXPIRY_INTERVAL_SECS = "schemaCacheExpiryInterval";
+        public static final String SCHEMA_VERSION_CACHE_TYPE = "schemaVersionCacheType";
+        public static final String COMPATIBILITY_CHECK_PARALLELISM = "compatibilityCheckParallelism";
+        public static final String COMPATIBILITY_CHECK_PARALLELISM_THRESHOLD = "compatibilityCheckParallelismThreshold";
+        public static final String SCHEMA_VERSION_REGISTRATION_WAIT_TIMEOUT_MS = "schemaVersionRegistrationWaitTimeoutMs";
         public static final int DEFAULT_SCHEMA_CACHE_SIZE = 10000;
         public static final long DEFAULT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS = 60 * 60L;
+        public static final int DEFAULT_COMPATIBILITY_CHECK_PARALLELISM = 0;
+        public static final int DEFAULT_COMPATIBILITY_CHECK_PARALLELISM_THRESHOLD = 32;
+        public static final long DEFAULT_SCHEMA_VERSION_REGISTRATION_WAIT_TIMEOUT_MS = 30 * 1000L;
 
         private final Map<String, ?> config;
 
@@ -813,5 +990,34 @@ public class DefaultSchemaRegistry implements ISchemaRegistry {
             return Long.valueOf(getPropertyValue(SCHEMA_CACHE_EXPIRY_INTERVAL_SECS, DEFAULT_SCHEMA_CACHE_EXPIRY_INTERVAL_SECS)
                                         .toString());
         }
+
+        public SchemaVersionInfoCache.Type getSchemaVersionCacheType() {
+            Object value = getPropertyValue(SCHEMA_VERSION_CACHE_TYPE, null);
+            return SchemaVersionInfoCache.Type.of(value != null ? value.toString() : null);
+        }
+
+        /**
+         * Returns number of threads used to check compatibility of a schema with all versions of a schema with
+         * {@link SchemaValidationLevel#ALL}, compatibility is checked sequentially when it is zero.
+         */
+        public int getCompatibilityCheckParallelism() {
+            return Integer.valueOf(getPropertyValue(COMPATIBILITY_CHECK_PARALLELISM, DEFAULT_COMPATIBILITY_CHECK_PARALLELISM).toString());
+        }
+
+        /**
+         * Returns minimum number of enabled schema versions for which compatibility is checked concurrently.
+         */
+        public int getCompatibilityCheckParallelismThreshold() {
+            return Integer.valueOf(getPropertyValue(COMPATIBILITY_CHECK_PARALLELISM_THRESHOLD,
+                                                    DEFAULT_COMPATIBILITY_CHECK_PARALLELISM_THRESHOLD).toString());
+        }
+
+        /**
+         * Returns maximum time a registration of a schema version waits for an identical registration in progress.
+         */
+        public long getSchemaVersionRegistrationWaitTimeoutMs() {
+            return Long.valueOf(getPropertyValue(SCHEMA_VERSION_REGISTRATION_WAIT_TIMEOUT_MS,
+                                                 DEFAULT_SCHEMA_VERSION_REGISTRATION_WAIT_TIMEOUT_MS).toString());
+        }
     }
-}
\ No newline at end of file
+}
@@ -86,6 +86,28 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
      */
     Collection<SchemaMetadataInfo> findSchemaMetadata(Map<String, String> props);
 
+    /**
+     * @param props     properties
+     * @param afterName name of the last schema of the previous page, or null for the first page
+     * @param limit     maximum number of schemas to be returned
+     *
+     * @return Page of at most {@code limit} SchemaMetadata having the given properties, ordered by their names and
+     * coming after the given {@code afterName}.
+     */
+    Collection<SchemaMetadataInfo> findSchemaMetadata(Map<String, String> props, String afterName, int limit);
+
+    /**
+     * @param schemaBranchName name of the schema branch
+     * @param schemaName       name of the schema
+     * @param afterVersion     version of the last schema version of the previous page, or null for the first page
+     * @param limit            maximum number of schema versions to be returned
+     *
+     * @return Page of at most {@code limit} versions of the given schema branch, in the same order as
+     * {@link #getAllVersions(String, String)}, coming after the given {@code afterVersion}.
+     */
+    Collection<SchemaVersionInfo> getAllVersions(String schemaBranchName, String schemaName, Integer afterVersion, int limit)
+            throws SchemaNotFoundException, SchemaBranchNotFoundException;
+
     /**
      * @param serDesId id
      *
@@ -103,6 +125,19 @@ public interface ISchemaRegistry extends ISchemaRegistryService {
      */
     Collection<SchemaMetadataInfo> searchSchemas(WhereClause whereClause, List<OrderBy> orderByFields);
 
+    /**
+     * @param schemaBranchName name of the schema branch
+     * @param schemaFieldQuery {@link SchemaFieldQuery} instance to be run
+     * @param offset           number of matching schema versions to be skipped
+     * @param limit            maximum number of schema versions to be returned
+     *
+     * @return schema versions matching the fields specified in the query, ordered by their ids.
+     */
+    Collection<SchemaVersionKey> findSchemasByFields(String schemaBranchName,
+                                                     SchemaFieldQuery schemaFieldQuery,
+                                                     int offset,
+                                                     int limit) throws SchemaBranchNotFoundException, SchemaNotFoundException;
+
     /**
      *  Merges a given schema version to 'MASTER' branch with a merge strategy
      * @param schemaVersionId             id of the schema version to be merged
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of ids of schema versions attached to a schema branch, sorted in ascending order. Each cached list is
+ * immutable, it is replaced with an updated copy when a schema version is added to or removed from the branch instead
+ * of fetching the mappings of the branch again from storage.
+ * <p>
+ * Cached lists may miss schema versions attached to a branch by other registry instances, or by this instance before
+ * a leader failover, so callers should check the mapping in storage before concluding that a schema version is not in
+ * a branch. Lists expire after the configured time so that such changes are eventually cached.
+ */
+public class SchemaBranchVersionsCache {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaBranchVersionsCache.class);
+
+    private final Cache<Long, List<Long>> cache;
+
+    // incremented on each change so that lists fetched concurrently with a change are not cached.
+    private final AtomicLong changeCount = new AtomicLong();
+
+    public SchemaBranchVersionsCache(int size, long expiryInSecs) {
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(size)
+                            .expireAfterWrite(expiryInSecs, TimeUnit.SECONDS)
+                            .build();
+    }
+
+    /**
+     * Returns sorted ids of schema versions of the given branch, fetching them with the given fetcher if they are not
+     * cached. Returned list is immutable.
+     */
+    public List<Long> get(Long schemaBranchId, SchemaVersionIdsFetcher schemaVersionIdsFetcher) {
+        List<Long> schemaVersionIds = cache.getIfPresent(schemaBranchId);
+        if (schemaVersionIds == null) {
+            long currentChangeCount = changeCount.get();
+            List<Long> fetchedSchemaVersionIds = new ArrayList<>(schemaVersionIdsFetcher.fetch());
+            Collections.sort(fetchedSchemaVersionIds);
+            schemaVersionIds = Collections.unmodifiableList(fetchedSchemaVersionIds);
+            if (changeCount.get() == currentChangeCount) {
+                List<Long> existingSchemaVersionIds = cache.asMap().putIfAbsent(schemaBranchId, schemaVersionIds);
+                if (existingSchemaVersionIds != null) {
+                    schemaVersionIds = existingSchemaVersionIds;
+                }
+            }
+        }
+
+        return schemaVersionIds;
+    }
+
+    public void addSchemaVersion(Long schemaBranchId, Long schemaVersionId) {
+        changeCount.incrementAndGet();
+        cache.asMap().computeIfPresent(schemaBranchId, (id, schemaVersionIds) -> {
+            int index = Collections.binarySearch(schemaVersionIds, schemaVersionId);
+            if (index >= 0) {
+                return schemaVersionIds;
+            }
+            List<Long> updatedSchemaVersionIds = new ArrayList<>(schemaVersionIds.size() + 1);
+            updatedSchemaVersionIds.addAll(schemaVersionIds);
+            updatedSchemaVersionIds.add(-index - 1, schemaVersionId);
+            return Collections.unmodifiableList(updatedSchemaVersionIds);
+        });
+    }
+
+    public void removeSchemaVersion(Long schemaBranchId, Long schemaVersionId) {
+        changeCount.incrementAndGet();
+        cache.asMap().computeIfPresent(schemaBranchId, (id, schemaVersionIds) -> {
+            int index = Collections.binarySearch(schemaVersionIds, schemaVersionId);
+            if (index < 0) {
+                return schemaVersionIds;
+            }
+            List<Long> updatedSchemaVersionIds = new ArrayList<>(schemaVersionIds);
+            updatedSchemaVersionIds.remove(index);
+            return Collections.unmodifiableList(updatedSchemaVersionIds);
+        });
+    }
+
+    /**
+     * Removes the given schema version from all the cached schema branches, this can be used when the branch of the
+     * schema version is not known.
+     */
+    public void removeSchemaVersion(Long schemaVersionId) {
+        for (Long schemaBranchId : new ArrayList<>(cache.asMap().keySet())) {
+            removeSchemaVersion(schemaBranchId, schemaVersionId);
+        }
+    }
+
+    public void invalidate(Long schemaBranchId) {
+        changeCount.incrementAndGet();
+        LOG.debug("Invalidating schema versions of schema branch [{}]", schemaBranchId);
+        cache.invalidate(schemaBranchId);
+    }
+
+    /**
+     * @return true if the given sorted list of schema version ids contains the given id.
+     */
+    public static boolean contains(List<Long> schemaVersionIds, Long schemaVersionId) {
+        return Collections.binarySearch(schemaVersionIds, schemaVersionId) >= 0;
+    }
+
+    public interface SchemaVersionIdsFetcher {
+        Collection<Long> fetch();
+    }
+}
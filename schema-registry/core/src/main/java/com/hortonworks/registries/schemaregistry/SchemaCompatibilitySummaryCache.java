@@ -0,0 +1,272 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of {@link Summary}s of enabled schema versions of a schema branch, used to check compatibility of a schema
+ * with all of them when the schema has {@link SchemaValidationLevel#ALL} without checking against every version on
+ * each request.
+ * <p>
+ * Storage is the source of truth for the enabled versions. A cached summary is used as long as the enabled versions
+ * stamp of the branch in storage, see {@link SchemaLatestVersionStorable}, is the one it was built with, so that only
+ * that stamp is read each time a summary is needed. Enabled versions are fetched from storage again when the stamp is
+ * changed, and the cached summary is still used when it was built from the same versions. This way versions enabled,
+ * disabled or deleted by other registry instances, or by transactions which are rolled back, are never missed. A
+ * summary is extended when the only change is a new latest version of the branch, so that schemas known to be
+ * compatible with the earlier versions are not checked against them again.
+ */
+public class SchemaCompatibilitySummaryCache {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaCompatibilitySummaryCache.class);
+
+    private final Cache<Key, Pair<Long, Summary>> cache;
+
+    public SchemaCompatibilitySummaryCache(int size, long expiryInSecs) {
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(size)
+                            .expireAfterWrite(expiryInSecs, TimeUnit.SECONDS)
+                            .build();
+    }
+
+    /**
+     * Returns the summary of the enabled schema versions of the given branch of the given schema. The cached summary is
+     * returned when it is built with the given enabled versions stamp, else enabled versions are fetched with the given
+     * fetcher. Summary keeps the order of those versions, the cached summary is returned when it is built from the same
+     * versions and it is replaced otherwise.
+     *
+     * @param enabledVersionsStamp current enabled versions stamp of the branch, or null if it is not known
+     */
+    public Summary get(SchemaBranch schemaBranch,
+                       String schemaName,
+                       Long enabledVersionsStamp,
+                       EnabledSchemaVersionsFetcher enabledSchemaVersionsFetcher)
+            throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        Key key = new Key(schemaBranch.getId(), schemaName);
+        Pair<Long, Summary> stampedSummary = cache.getIfPresent(key);
+        if (stampedSummary != null && enabledVersionsStamp != null && enabledVersionsStamp.equals(stampedSummary.getLeft())) {
+            return stampedSummary.getRight();
+        }
+
+        List<SchemaVersionInfo> enabledSchemaVersionInfos = new ArrayList<>(enabledSchemaVersionsFetcher.fetch());
+        List<Long> schemaVersionIds = enabledSchemaVersionInfos.stream()
+                                                               .map(SchemaVersionInfo::getId)
+                                                               .collect(Collectors.toList());
+        Summary summary = stampedSummary != null ? stampedSummary.getRight() : null;
+        if (summary != null && summary.schemaVersionIds.equals(schemaVersionIds)) {
+            cache.put(key, Pair.of(enabledVersionsStamp, summary));
+            return summary;
+        }
+
+        // versions of master branch are ordered with the latest version first, so a summary can be extended with a
+        // new latest version. Summaries are rebuilt on any other change as those are rare.
+        if (summary != null && summary.isFollowedBy(enabledSchemaVersionInfos)) {
+            LOG.debug("Adding schema version [{}] to compatibility summary of [{}]", schemaVersionIds.get(0), key);
+            summary = summary.withLatestSchemaVersion(enabledSchemaVersionInfos.get(0));
+        } else {
+            LOG.debug("Building compatibility summary of [{}] with schema versions {}", key, schemaVersionIds);
+            summary = new Summary(enabledSchemaVersionInfos, schemaVersionIds);
+        }
+        cache.put(key, Pair.of(enabledVersionsStamp, summary));
+
+        return summary;
+    }
+
+    /**
+     * Invalidates summaries of all branches of the given schema.
+     */
+    public void invalidate(String schemaName) {
+        LOG.debug("Invalidating compatibility summaries of schema [{}]", schemaName);
+        cache.asMap().keySet().removeIf(key -> key.schemaName.equals(schemaName));
+    }
+
+    public interface EnabledSchemaVersionsFetcher {
+        Collection<SchemaVersionInfo> fetch() throws SchemaNotFoundException, SchemaBranchNotFoundException;
+    }
+
+    /**
+     * Summary of enabled schema versions of a schema branch. It contains a version for each distinct schema text in the
+     * order of the versions it is built with, as compatibility of a schema with versions having the same schema text
+     * is the same, and remembers the schema texts with which a schema is already known to be compatible.
+     * <p>
+     * Each distinct schema text is assigned an increasing sequence number when it is added to the summary, and a
+     * schema known to be compatible with all the schema texts up to a sequence number stays so when newer schema texts
+     * are added. Instances are immutable except for those known compatible schemas, which are shared with the summaries
+     * created from it by adding a schema version.
+     */
+    public static final class Summary {
+        private static final int MAX_VERIFIED_SCHEMAS = 64;
+
+        private final List<Long> schemaVersionIds;
+        private final List<SchemaVersionInfo> distinctSchemaVersionInfos;
+        private final Map<String, Long> sequences;
+        private final long maxSequence;
+        private final SchemaVersionInfo lastSchemaVersionInfo;
+        private final int maxVersion;
+        private final Cache<Pair<SchemaCompatibility, String>, Long> verifiedSchemas;
+
+        private Summary(Collection<SchemaVersionInfo> enabledSchemaVersionInfos, List<Long> schemaVersionIds) {
+            List<SchemaVersionInfo> distinctSchemaVersionInfos = new ArrayList<>();
+            Map<String, Long> sequences = new HashMap<>();
+            SchemaVersionInfo lastSchemaVersionInfo = null;
+            int maxVersion = 0;
+            for (SchemaVersionInfo schemaVersionInfo : enabledSchemaVersionInfos) {
+                if (sequences.putIfAbsent(schemaVersionInfo.getSchemaText(), (long) sequences.size()) == null) {
+                    distinctSchemaVersionInfos.add(schemaVersionInfo);
+                }
+                lastSchemaVersionInfo = schemaVersionInfo;
+                maxVersion = Math.max(maxVersion, schemaVersionInfo.getVersion());
+            }
+            this.schemaVersionIds = schemaVersionIds;
+            this.distinctSchemaVersionInfos = Collections.unmodifiableList(distinctSchemaVersionInfos);
+            this.sequences = sequences;
+            this.maxSequence = sequences.size() - 1;
+            this.lastSchemaVersionInfo = lastSchemaVersionInfo;
+            this.maxVersion = maxVersion;
+            this.verifiedSchemas = CacheBuilder.newBuilder().maximumSize(MAX_VERIFIED_SCHEMAS).build();
+        }
+
+        private Summary(Summary summary, SchemaVersionInfo latestSchemaVersionInfo) {
+            String schemaText = latestSchemaVersionInfo.getSchemaText();
+            List<Long> schemaVersionIds = new ArrayList<>(summary.schemaVersionIds.size() + 1);
+            schemaVersionIds.add(latestSchemaVersionInfo.getId());
+            schemaVersionIds.addAll(summary.schemaVersionIds);
+            this.schemaVersionIds = schemaVersionIds;
+            List<SchemaVersionInfo> distinctSchemaVersionInfos = new ArrayList<>(summary.distinctSchemaVersionInfos.size() + 1);
+            distinctSchemaVersionInfos.add(latestSchemaVersionInfo);
+            for (SchemaVersionInfo schemaVersionInfo : summary.distinctSchemaVersionInfos) {
+                if (!schemaVersionInfo.getSchemaText().equals(schemaText)) {
+                    distinctSchemaVersionInfos.add(schemaVersionInfo);
+                }
+            }
+            this.distinctSchemaVersionInfos = Collections.unmodifiableList(distinctSchemaVersionInfos);
+            if (summary.sequences.containsKey(schemaText)) {
+                sequences = summary.sequences;
+                maxSequence = summary.maxSequence;
+            } else {
+                sequences = new HashMap<>(summary.sequences);
+                maxSequence = summary.maxSequence + 1;
+                sequences.put(schemaText, maxSequence);
+            }
+            lastSchemaVersionInfo = summary.lastSchemaVersionInfo != null ? summary.lastSchemaVersionInfo : latestSchemaVersionInfo;
+            maxVersion = latestSchemaVersionInfo.getVersion();
+            verifiedSchemas = summary.verifiedSchemas;
+        }
+
+        /**
+         * @return last enabled schema version in the order of versions or null if there are no enabled versions.
+         */
+        public SchemaVersionInfo getLastSchemaVersionInfo() {
+            return lastSchemaVersionInfo;
+        }
+
+        /**
+         * @return a schema version for each distinct schema text with which the given schema is not known to be
+         * compatible for the given compatibility, in the order of versions.
+         */
+        public List<SchemaVersionInfo> getUnverifiedSchemaVersionInfos(SchemaCompatibility compatibility, String schemaText) {
+            Long verifiedSequence = verifiedSchemas.getIfPresent(Pair.of(compatibility, schemaText));
+            if (verifiedSequence == null) {
+                return distinctSchemaVersionInfos;
+            }
+            if (verifiedSequence >= maxSequence) {
+                return Collections.emptyList();
+            }
+            return distinctSchemaVersionInfos.stream()
+                                             .filter(schemaVersionInfo -> sequences.get(schemaVersionInfo.getSchemaText()) > verifiedSequence)
+                                             .collect(Collectors.toList());
+        }
+
+        /**
+         * Records that the given schema is compatible with all the schema versions of this summary for the given
+         * compatibility.
+         */
+        public void setVerified(SchemaCompatibility compatibility, String schemaText) {
+            verifiedSchemas.asMap().merge(Pair.of(compatibility, schemaText), maxSequence, Math::max);
+        }
+
+        /**
+         * @return true if the given schema versions are the versions of this summary preceded by a newer version.
+         */
+        private boolean isFollowedBy(List<SchemaVersionInfo> schemaVersionInfos) {
+            if (schemaVersionInfos.size() != schemaVersionIds.size() + 1
+                    || maxVersion >= schemaVersionInfos.get(0).getVersion()) {
+                return false;
+            }
+            for (int i = 0; i < schemaVersionIds.size(); i++) {
+                if (!schemaVersionIds.get(i).equals(schemaVersionInfos.get(i + 1).getId())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Summary withLatestSchemaVersion(SchemaVersionInfo schemaVersionInfo) {
+            return new Summary(this, schemaVersionInfo);
+        }
+    }
+
+    private static final class Key {
+        private final Long schemaBranchId;
+        private final String schemaName;
+
+        private Key(Long schemaBranchId, String schemaName) {
+            this.schemaBranchId = schemaBranchId;
+            this.schemaName = schemaName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (!schemaBranchId.equals(key.schemaBranchId)) return false;
+            return schemaName.equals(key.schemaName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = schemaBranchId.hashCode();
+            result = 31 * result + schemaName.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                    "schemaBranchId=" + schemaBranchId +
+                    ", schemaName='" + schemaName + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright 2017 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.schemaregistry;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Latest schema version and latest enabled schema version of a schema in a schema branch. It is updated in the same
+ * transaction in which versions are added to the branch, change their state or are deleted.
+ * <p>
+ * Enabled versions stamp is set to a new random value whenever the enabled versions of the branch change, so that
+ * anything derived from those versions can be checked against it. Unlike a counter, a value is not given again to
+ * other changes after a transaction which changed it is rolled back.
+ */
+public class SchemaLatestVersionStorable extends AbstractStorable {
+    public static final String NAME_SPACE = "schema_latest_version";
+
+    public static final String SCHEMA_METADATA_ID = "schemaMetadataId";
+    public static final String SCHEMA_BRANCH_ID = "schemaBranchId";
+    public static final String LATEST_VERSION_ID = "latestVersionId";
+    public static final String LATEST_VERSION = "latestVersion";
+    public static final String LATEST_ENABLED_VERSION_ID = "latestEnabledVersionId";
+    public static final String LATEST_ENABLED_VERSION = "latestEnabledVersion";
+    public static final String ENABLED_VERSIONS_STAMP = "enabledVersionsStamp";
+
+    private static final Schema.Field SCHEMA_METADATA_ID_FIELD = Schema.Field.of(SCHEMA_METADATA_ID, Schema.Type.LONG);
+    private static final Schema.Field SCHEMA_BRANCH_ID_FIELD = Schema.Field.of(SCHEMA_BRANCH_ID, Schema.Type.LONG);
+    private static final Schema.Field LATEST_VERSION_ID_FIELD = Schema.Field.of(LATEST_VERSION_ID, Schema.Type.LONG);
+    private static final Schema.Field LATEST_VERSION_FIELD = Schema.Field.of(LATEST_VERSION, Schema.Type.INTEGER);
+    private static final Schema.Field LATEST_ENABLED_VERSION_ID_FIELD = Schema.Field.optional(LATEST_ENABLED_VERSION_ID, Schema.Type.LONG);
+    private static final Schema.Field LATEST_ENABLED_VERSION_FIELD = Schema.Field.optional(LATEST_ENABLED_VERSION, Schema.Type.INTEGER);
+    private static final Schema.Field ENABLED_VERSIONS_STAMP_FIELD = Schema.Field.of(ENABLED_VERSIONS_STAMP, Schema.Type.LONG);
+
+    public static final Schema SCHEMA = Schema.of(SCHEMA_METADATA_ID_FIELD,
+                                                  SCHEMA_BRANCH_ID_FIELD,
+                                                  LATEST_VERSION_ID_FIELD,
+                                                  LATEST_VERSION_FIELD,
+                                                  LATEST_ENABLED_VERSION_ID_FIELD,
+                                                  LATEST_ENABLED_VERSION_FIELD,
+                                                  ENABLED_VERSIONS_STAMP_FIELD);
+
+    // PK (schemaMetadataId, schemaBranchId)
+    private Long schemaMetadataId;
+    private Long schemaBranchId;
+    private Long latestVersionId;
+    private Integer latestVersion;
+    private Long latestEnabledVersionId;
+    private Integer latestEnabledVersion;
+    private Long enabledVersionsStamp;
+
+    public SchemaLatestVersionStorable() {
+    }
+
+    public SchemaLatestVersionStorable(Long schemaMetadataId, Long schemaBranchId) {
+        this.schemaMetadataId = schemaMetadataId;
+        this.schemaBranchId = schemaBranchId;
+    }
+
+    public static StorableKey getStorableKey(Long schemaMetadataId, Long schemaBranchId) {
+        return new SchemaLatestVersionStorable(schemaMetadataId, schemaBranchId).getStorableKey();
+    }
+
+    @Override
+    public String getNameSpace() {
+        return NAME_SPACE;
+    }
+
+    @Override
+    public PrimaryKey getPrimaryKey() {
+        Map<Schema.Field, Object> fieldToObjectMap = new HashMap<>();
+        fieldToObjectMap.put(SCHEMA_METADATA_ID_FIELD, this.schemaMetadataId);
+        fieldToObjectMap.put(SCHEMA_BRANCH_ID_FIELD, this.schemaBranchId);
+        return new PrimaryKey(fieldToObjectMap);
+    }
+
+    @Override
+    public Schema getSchema() {
+        return SCHEMA;
+    }
+
+    public Long getSchemaMetadataId() {
+        return schemaMetadataId;
+    }
+
+    public void setSchemaMetadataId(Long schemaMetadataId) {
+        this.schemaMetadataId = schemaMetadataId;
+    }
+
+    public Long getSchemaBranchId() {
+        return schemaBranchId;
+    }
+
+    public void setSchemaBranchId(Long schemaBranchId) {
+        this.schemaBranchId = schemaBranchId;
+    }
+
+    public Long getLatestVersionId() {
+        return latestVersionId;
+    }
+
+    public void setLatestVersionId(Long latestVersionId) {
+        this.latestVersionId = latestVersionId;
+    }
+
+    public Integer getLatestVersion() {
+        return latestVersion;
+    }
+
+    public void setLatestVersion(Integer latestVersion) {
+        this.latestVersion = latestVersion;
+    }
+
+    public Long getLatestEnabledVersionId() {
+        return latestEnabledVersionId;
+    }
+
+    public void setLatestEnabledVersionId(Long latestEnabledVersionId) {
+        this.latestEnabledVersionId = latestEnabledVersionId;
+    }
+
+    public Integer getLatestEnabledVersion() {
+        return latestEnabledVersion;
+    }
+
+    public void setLatestEnabledVersion(Integer latestEnabledVersion) {
+        this.latestEnabledVersion = latestEnabledVersion;
+    }
+
+    public Long getEnabledVersionsStamp() {
+        return enabledVersionsStamp;
+    }
+
+    public void setEnabledVersionsStamp(Long enabledVersionsStamp) {
+        this.enabledVersionsStamp = enabledVersionsStamp;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaLatestVersionStorable{" +
+                "schemaMetadataId=" + schemaMetadataId +
+                ", schemaBranchId=" + schemaBranchId +
+                ", latestVersionId=" + latestVersionId +
+                ", latestVersion=" + latestVersion +
+                ", latestEnabledVersionId=" + latestEnabledVersionId +
+                ", latestEnabledVersion=" + latestEnabledVersion +
+                ", enabledVersionsStamp=" + enabledVersionsStamp +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SchemaLatestVersionStorable that = (SchemaLatestVersionStorable) o;
+
+        if (schemaMetadataId != null ? !schemaMetadataId.equals(that.schemaMetadataId) : that.schemaMetadataId != null)
+            return false;
+        return schemaBranchId != null ? schemaBranchId.equals(that.schemaBranchId) : that.schemaBranchId == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = schemaMetadataId != null ? schemaMetadataId.hashCode() : 0;
+        result = 31 * result + (schemaBranchId != null ? schemaBranchId.hashCode() : 0);
+        return result;
+    }
+}
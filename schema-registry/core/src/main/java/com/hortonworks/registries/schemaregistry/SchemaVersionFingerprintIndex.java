@@ -0,0 +1,119 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In memory index of schema versions by schema metadata id, fingerprint and schema branch, so that registering or
+ * looking up an existing schema text is answered without querying storage. It also keeps fingerprints of schema texts
+ * so that they are not computed again for the same schema text.
+ * <p>
+ * Only existing schema versions are indexed. Entries are added when a schema version is created or found in storage
+ * and removed when it is deleted. They also expire after the configured time, so that schema versions deleted by other
+ * registry instances are not returned for long, callers should also remove an entry when the indexed schema version
+ * does not exist anymore.
+ */
+public class SchemaVersionFingerprintIndex {
+
+    private final Cache<Key, Long> schemaVersionIds;
+    private final Cache<Pair<String, String>, String> fingerprints;
+
+    public SchemaVersionFingerprintIndex(int size, long expiryInSecs) {
+        schemaVersionIds = CacheBuilder.newBuilder()
+                                       .maximumSize(size)
+                                       .expireAfterWrite(expiryInSecs, TimeUnit.SECONDS)
+                                       .build();
+        fingerprints = CacheBuilder.newBuilder()
+                                   .maximumSize(size)
+                                   .build();
+    }
+
+    /**
+     * @return fingerprint of the given schema text of the given type if it is known, else null.
+     */
+    public String getFingerprint(String type, String schemaText) {
+        return fingerprints.getIfPresent(Pair.of(type, schemaText));
+    }
+
+    public void putFingerprint(String type, String schemaText, String fingerprint) {
+        fingerprints.put(Pair.of(type, schemaText), fingerprint);
+    }
+
+    /**
+     * @return id of the schema version with the given fingerprint in the given branch of the given schema if it is
+     * indexed, else null.
+     */
+    public Long getSchemaVersionId(Long schemaMetadataId, String fingerprint, Long schemaBranchId) {
+        return schemaVersionIds.getIfPresent(new Key(schemaMetadataId, fingerprint, schemaBranchId));
+    }
+
+    public void putSchemaVersionId(Long schemaMetadataId, String fingerprint, Long schemaBranchId, Long schemaVersionId) {
+        schemaVersionIds.put(new Key(schemaMetadataId, fingerprint, schemaBranchId), schemaVersionId);
+    }
+
+    /**
+     * Removes all the entries of the given schema version id.
+     */
+    public void removeSchemaVersionId(Long schemaVersionId) {
+        schemaVersionIds.asMap().values().removeIf(schemaVersionId::equals);
+    }
+
+    private static final class Key {
+        private final Long schemaMetadataId;
+        private final String fingerprint;
+        private final Long schemaBranchId;
+
+        private Key(Long schemaMetadataId, String fingerprint, Long schemaBranchId) {
+            this.schemaMetadataId = schemaMetadataId;
+            this.fingerprint = fingerprint;
+            this.schemaBranchId = schemaBranchId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (!schemaMetadataId.equals(key.schemaMetadataId)) return false;
+            if (!fingerprint.equals(key.fingerprint)) return false;
+            return schemaBranchId.equals(key.schemaBranchId);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = schemaMetadataId.hashCode();
+            result = 31 * result + fingerprint.hashCode();
+            result = 31 * result + schemaBranchId.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                    "schemaMetadataId=" + schemaMetadataId +
+                    ", fingerprint='" + fingerprint + '\'' +
+                    ", schemaBranchId=" + schemaBranchId +
+                    '}';
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.QueryParam;
+import com.hortonworks.registries.common.SlotSynchronizer;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaBranchVersionMapping;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
@@ -42,6 +43,7 @@ import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.SubQuery;
 import com.hortonworks.registries.storage.exception.StorageException;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -49,13 +51,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -70,12 +80,19 @@ public class SchemaVersionLifecycleManager {
     private final SchemaVersionLifecycleStateMachine schemaVersionLifecycleStateMachine;
     private CustomSchemaStateExecutor customSchemaStateExecutor;
     private SchemaVersionInfoCache schemaVersionInfoCache;
+    private SchemaCompatibilitySummaryCache schemaCompatibilitySummaryCache;
+    private SchemaVersionFingerprintIndex schemaVersionFingerprintIndex;
+    private SchemaBranchVersionsCache schemaBranchVersionsCache;
     private SchemaVersionRetriever schemaVersionRetriever;
     private static final int DEFAULT_RETRY_CT = 5;
+    private static final int LATEST_SCHEMA_VERSION_PAGE_SIZE = 10;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private StorageManager storageManager;
     private SchemaBranchCache schemaBranchCache;
     private DefaultSchemaRegistry.SchemaMetadataFetcher schemaMetadataFetcher;
+    private final ExecutorService compatibilityCheckExecutor;
+    private final int compatibilityCheckParallelismThreshold;
+    private final SlotSynchronizer<String> schemaVersionSlotSynchronizer = new SlotSynchronizer<>();
 
     public SchemaVersionLifecycleManager(StorageManager storageManager,
                                          Map<String, Object> props,
@@ -92,13 +109,38 @@ public class SchemaVersionLifecycleManager {
         schemaVersionInfoCache = new SchemaVersionInfoCache(
                 schemaVersionRetriever,
                 options.getMaxSchemaCacheSize(),
-                options.getSchemaExpiryInSecs());
+                options.getSchemaExpiryInSecs(),
+                options.getSchemaVersionCacheType());
+        schemaCompatibilitySummaryCache = new SchemaCompatibilitySummaryCache(options.getMaxSchemaCacheSize(),
+                                                                              options.getSchemaExpiryInSecs());
+        schemaVersionFingerprintIndex = new SchemaVersionFingerprintIndex(options.getMaxSchemaCacheSize(),
+                                                                          options.getSchemaExpiryInSecs());
+        schemaBranchVersionsCache = new SchemaBranchVersionsCache(options.getMaxSchemaCacheSize(),
+                                                                  options.getSchemaExpiryInSecs());
+
+        int compatibilityCheckParallelism = options.getCompatibilityCheckParallelism();
+        compatibilityCheckExecutor = compatibilityCheckParallelism > 0 ? createCompatibilityCheckExecutor(compatibilityCheckParallelism) : null;
+        compatibilityCheckParallelismThreshold = options.getCompatibilityCheckParallelismThreshold();
 
         customSchemaStateExecutor = createSchemaReviewExecutor(props, builder);
 
         schemaVersionLifecycleStateMachine = builder.build();
     }
 
+    /**
+     * Registry does not have a close lifecycle, so the pool is never shut down and it runs on daemon threads which do
+     * not keep the JVM alive. Idle threads of the pool are terminated by {@link ForkJoinPool} itself.
+     */
+    private static ExecutorService createCompatibilityCheckExecutor(int parallelism) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("schema-compatibility-check-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
     private CustomSchemaStateExecutor createSchemaReviewExecutor(Map<String, Object> props,
                                                                  SchemaVersionLifecycleStateMachine.Builder builder) {
         Map<String, Object> schemaReviewExecConfig = (Map<String, Object>) props.getOrDefault("customSchemaStateExecutor",
@@ -225,19 +267,22 @@ public class SchemaVersionLifecycleManager {
 
         Preconditions.checkNotNull(schemaBranchName, "Schema branch name can't be null");
 
-        Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaBranchName, schemaName);
-
-        SchemaVersionInfo latestSchema = null;
-        if (schemaVersionInfos != null && !schemaVersionInfos.isEmpty()) {
-            for (SchemaVersionInfo schemaVersionInfo : schemaVersionInfos) {
-                if (stateId == null || schemaVersionInfo.getStateId().equals(stateId)) {
-                    latestSchema = schemaVersionInfo;
-                    break;
+        // versions of master branch are looked up in storage, versions of other branches are rarely used.
+        if (SchemaBranch.MASTER_BRANCH.equals(schemaBranchName)) {
+            Long schemaBranchId = schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName)).getId();
+            if (isLatestSchemaVersionStored(stateId)) {
+                SchemaMetadataInfo schemaMetadataInfo = getSchemaMetadataInfo(schemaName);
+                if (schemaMetadataInfo == null) {
+                    return null;
                 }
+                SchemaLatestVersionStorable latestVersion =
+                        storageManager.get(SchemaLatestVersionStorable.getStorableKey(schemaMetadataInfo.getId(), schemaBranchId));
+                return latestVersion != null ? getLatestSchemaVersionInfo(Collections.singletonList(latestVersion), stateId) : null;
             }
+            return findLatestSchemaVersionInfo(schemaBranchId, schemaName, stateId);
         }
 
-        return latestSchema;
+        return findLatestSchemaVersionInfo(getAllVersions(schemaBranchName, schemaName), stateId);
     }
 
     public SchemaVersionInfo getLatestSchemaVersionInfo(String schemaName) throws SchemaNotFoundException {
@@ -246,8 +291,103 @@ public class SchemaVersionLifecycleManager {
 
     public SchemaVersionInfo getLatestSchemaVersionInfo(String schemaName,
                                                         Byte stateId) throws SchemaNotFoundException  {
-        Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaName);
+        if (isLatestSchemaVersionStored(stateId)) {
+            SchemaMetadataInfo schemaMetadataInfo = getSchemaMetadataInfo(schemaName);
+            if (schemaMetadataInfo == null) {
+                throw new SchemaNotFoundException("Schema not found with name " + schemaName);
+            }
+            // latest versions of each branch of the schema are compared as versions of a schema are shared by its branches.
+            Collection<SchemaLatestVersionStorable> latestVersions =
+                    storageManager.find(SchemaLatestVersionStorable.NAME_SPACE,
+                                        Collections.singletonList(new QueryParam(SchemaLatestVersionStorable.SCHEMA_METADATA_ID,
+                                                                                 schemaMetadataInfo.getId().toString())));
+            return getLatestSchemaVersionInfo(latestVersions, stateId);
+        }
+
+        SchemaVersionInfo schemaVersionInfo = findLatestSchemaVersionInfo(schemaName, stateId, schemaVersionId -> true);
+        if (schemaVersionInfo == null && getSchemaMetadataInfo(schemaName) == null) {
+            throw new SchemaNotFoundException("Schema not found with name " + schemaName);
+        }
+
+        return schemaVersionInfo;
+    }
+
+    /**
+     * Latest version and latest enabled version of each schema branch are kept in storage, see
+     * {@link SchemaLatestVersionStorable}, versions in other states are looked up in schema versions.
+     */
+    private static boolean isLatestSchemaVersionStored(Byte stateId) {
+        return stateId == null || SchemaVersionLifecycleStates.ENABLED.getId().equals(stateId);
+    }
+
+    /**
+     * Returns the highest of the latest versions, or of the latest enabled versions when the given state is enabled,
+     * among the given latest versions of schema branches. The version itself is read from storage and not from the
+     * cache, so that its state is the one in the storage.
+     */
+    private SchemaVersionInfo getLatestSchemaVersionInfo(Collection<SchemaLatestVersionStorable> latestVersions,
+                                                         Byte stateId) throws SchemaNotFoundException {
+        boolean enabled = stateId != null;
+        Long schemaVersionId = null;
+        Integer version = null;
+        for (SchemaLatestVersionStorable latestVersion : latestVersions) {
+            Integer branchVersion = enabled ? latestVersion.getLatestEnabledVersion() : latestVersion.getLatestVersion();
+            if (branchVersion != null && (version == null || branchVersion > version)) {
+                version = branchVersion;
+                schemaVersionId = enabled ? latestVersion.getLatestEnabledVersionId() : latestVersion.getLatestVersionId();
+            }
+        }
+
+        return schemaVersionId != null ? fetchSchemaVersionInfo(schemaVersionId) : null;
+    }
+
+    /**
+     * Returns the latest version of the given schema in the given schema branch with the given state, or with any
+     * state if it is null, by looking it up in schema versions.
+     */
+    private SchemaVersionInfo findLatestSchemaVersionInfo(Long schemaBranchId, String schemaName, Byte stateId) {
+        List<Long> schemaVersionIds = schemaBranchVersionsCache.get(schemaBranchId, () -> fetchSchemaVersionIds(schemaBranchId));
+        return findLatestSchemaVersionInfo(schemaName,
+                                           stateId,
+                                           schemaVersionId -> isSchemaVersionInBranch(schemaBranchId, schemaVersionIds, schemaVersionId));
+    }
 
+    /**
+     * Returns the latest version of the given schema with the given state, or with any state if it is null, which is
+     * accepted by the given filter. Versions are read from storage, latest versions first, by small pages until such
+     * a version is found. Storage is the source of truth as versions can be added or changed by other registry
+     * instances, and changes of a transaction are seen by others only once it is committed. Reading the first versions
+     * in the order of the primary key of schema versions, which is the schema name and version, does not depend on the
+     * number of versions.
+     */
+    private SchemaVersionInfo findLatestSchemaVersionInfo(String schemaName,
+                                                          Byte stateId,
+                                                          Predicate<Long> schemaVersionIdFilter) {
+        List<QueryParam> queryParams = new ArrayList<>();
+        queryParams.add(new QueryParam(SchemaVersionStorable.NAME, schemaName));
+        if (stateId != null) {
+            queryParams.add(new QueryParam(SchemaVersionStorable.STATE, stateId.toString()));
+        }
+        List<OrderByField> orderByFields = Collections.singletonList(OrderByField.of(SchemaVersionStorable.VERSION, true));
+        Integer lastVersion = null;
+        while (true) {
+            Collection<SchemaVersionStorable> storables =
+                    storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams, orderByFields,
+                                        lastVersion != null ? Collections.singletonList(lastVersion) : null,
+                                        LATEST_SCHEMA_VERSION_PAGE_SIZE);
+            for (SchemaVersionStorable storable : storables) {
+                if (schemaVersionIdFilter.test(storable.getId())) {
+                    return storable.toSchemaVersionInfo();
+                }
+                lastVersion = storable.getVersion();
+            }
+            if (storables.size() < LATEST_SCHEMA_VERSION_PAGE_SIZE) {
+                return null;
+            }
+        }
+    }
+
+    private SchemaVersionInfo findLatestSchemaVersionInfo(Collection<SchemaVersionInfo> schemaVersionInfos, Byte stateId) {
         SchemaVersionInfo latestSchema = null;
         if (schemaVersionInfos != null && !schemaVersionInfos.isEmpty()) {
             for (SchemaVersionInfo schemaVersionInfo : schemaVersionInfos) {
@@ -302,63 +442,89 @@ public class SchemaVersionLifecycleManager {
             schemaVersion.setStateDetails(null);
         }
 
-        // take a lock for a schema with same name.
-        int retryCt = 0;
-        while (true) {
-            try {
-                Integer version = 0;
-                Byte initialState = schemaVersion.getInitialState();
-                if (schemaMetadata.isEvolve()) {
-                    // if the given version is added with enabled or initiated state then only check for compatibility
-                    if (SchemaVersionLifecycleStates.ENABLED.getId().equals(initialState) ||
-                            SchemaVersionLifecycleStates.INITIATED.getId().equals(initialState)) {
-                        CompatibilityResult compatibilityResult = checkCompatibility(schemaBranchName, schemaName, schemaVersion.getSchemaText());
-                        if (!compatibilityResult.isCompatible()) {
-                            String errMsg = String.format("Given schema is not compatible with latest schema versions. \n" +
-                                            "Error location: [%s] \n" +
-                                            "Error encountered is: [%s]",
-                                    compatibilityResult.getErrorLocation(),
-                                    compatibilityResult.getErrorMessage());
-                            LOG.error(errMsg);
-                            throw new IncompatibleSchemaException(errMsg);
+        // take a lock for a schema with same name, versions of a schema are allocated one at a time in this instance.
+        // once a version is added, the lock is held till the transaction is committed or rolled back as the next
+        // version can only be allocated after this one is visible to the other transactions.
+        // storage exceptions are still retried as versions of the same schema can be added by other registry instances.
+        SlotSynchronizer<String>.Lock slotLock = schemaVersionSlotSynchronizer.lockSlot(schemaName);
+        boolean added = false;
+        try {
+            int retryCt = 0;
+            while (true) {
+                try {
+                    Integer version = 0;
+                    Byte initialState = schemaVersion.getInitialState();
+                    if (schemaMetadata.isEvolve()) {
+                        // if the given version is added with enabled or initiated state then only check for compatibility
+                        if (SchemaVersionLifecycleStates.ENABLED.getId().equals(initialState) ||
+                                SchemaVersionLifecycleStates.INITIATED.getId().equals(initialState)) {
+                            CompatibilityResult compatibilityResult = checkCompatibility(schemaBranchName, schemaName, schemaVersion.getSchemaText());
+                            if (!compatibilityResult.isCompatible()) {
+                                String errMsg = String.format("Given schema is not compatible with latest schema versions. \n" +
+                                                "Error location: [%s] \n" +
+                                                "Error encountered is: [%s]",
+                                        compatibilityResult.getErrorLocation(),
+                                        compatibilityResult.getErrorMessage());
+                                LOG.error(errMsg);
+                                throw new IncompatibleSchemaException(errMsg);
+                            }
+                        }
+                        SchemaVersionInfo latestSchemaVersionInfo = getLatestSchemaVersionInfo(schemaName);
+                        if (latestSchemaVersionInfo != null) {
+                            version = latestSchemaVersionInfo.getVersion();
                         }
                     }
-                    SchemaVersionInfo latestSchemaVersionInfo = getLatestSchemaVersionInfo(schemaName);
-                    if (latestSchemaVersionInfo != null) {
-                        version = latestSchemaVersionInfo.getVersion();
-                    }
-                }
-                schemaVersionStorable.setVersion(version + 1);
+                    schemaVersionStorable.setVersion(version + 1);
 
-                storageManager.add(schemaVersionStorable);
-                updateSchemaVersionState(schemaVersionStorable.getId(), initialState, schemaVersion.getStateDetails());
+                    storageManager.add(schemaVersionStorable);
+                    added = true;
 
-                break;
-            } catch (StorageException e) {
-                // optimistic to try the next try would be successful. When retry attempts are exhausted, throw error back to invoker.
-                if (++retryCt == DEFAULT_RETRY_CT) {
-                    LOG.error("Giving up after retry attempts [{}] while trying to add new version of schema with metadata [{}]", retryCt, schemaMetadata, e);
-                    throw e;
+                    break;
+                } catch (StorageException e) {
+                    // optimistic to try the next try would be successful. When retry attempts are exhausted, throw error back to invoker.
+                    if (++retryCt == DEFAULT_RETRY_CT) {
+                        LOG.error("Giving up after retry attempts [{}] while trying to add new version of schema with metadata [{}]", retryCt, schemaMetadata, e);
+                        throw e;
+                    }
+                    LOG.debug("Encountered storage exception while trying to add a new version, attempting again : [{}] with error: [{}]", retryCt, e);
                 }
-                LOG.debug("Encountered storage exception while trying to add a new version, attempting again : [{}] with error: [{}]", retryCt, e);
+            }
+
+            // latest version is updated while the lock is held as the next version is allocated after it.
+            updateLatestSchemaVersion(schemaBranch.getId(), schemaVersionStorable, null);
+        } finally {
+            if (added) {
+                storageManager.registerTransactionCompletionListener(committed -> slotLock.unlock());
+            } else {
+                slotLock.unlock();
             }
         }
 
         // fetching this as the ID may have been set by storage manager.
         Long schemaInstanceId = schemaVersionStorable.getId();
 
-        SchemaBranchVersionMapping schemaBranchVersionMapping = new SchemaBranchVersionMapping(schemaBranch.getId(), schemaInstanceId);
-        storageManager.add(schemaBranchVersionMapping);
+        // branch mapping and fields are written together so that they can be sent to storage in batches.
+        List<Storable> storables = new ArrayList<>();
+        storables.add(new SchemaBranchVersionMapping(schemaBranch.getId(), schemaInstanceId));
 
         String storableNamespace = new SchemaFieldInfoStorable().getNameSpace();
         List<SchemaFieldInfo> schemaFieldInfos = getSchemaProvider(type).generateFields(schemaVersionStorable.getSchemaText());
+        List<SchemaFieldInfoStorable> schemaFieldInfoStorables = new ArrayList<>(schemaFieldInfos.size());
+        long timestamp = System.currentTimeMillis();
         for (SchemaFieldInfo schemaFieldInfo : schemaFieldInfos) {
             final Long fieldInstanceId = storageManager.nextId(storableNamespace);
             SchemaFieldInfoStorable schemaFieldInfoStorable = SchemaFieldInfoStorable.fromSchemaFieldInfo(schemaFieldInfo, fieldInstanceId);
             schemaFieldInfoStorable.setSchemaInstanceId(schemaInstanceId);
-            schemaFieldInfoStorable.setTimestamp(System.currentTimeMillis());
-            storageManager.add(schemaFieldInfoStorable);
+            schemaFieldInfoStorable.setTimestamp(timestamp);
+            schemaFieldInfoStorables.add(schemaFieldInfoStorable);
         }
+        storables.addAll(schemaFieldInfoStorables);
+        storageManager.addAll(storables);
+        schemaBranchVersionsCache.addSchemaVersion(schemaBranch.getId(), schemaInstanceId);
+        schemaVersionFingerprintIndex.putSchemaVersionId(schemaMetadataId, fingerprint, schemaBranch.getId(), schemaInstanceId);
+
+        // state is updated after the version is added to its branch, so that the branch is known when it is enabled.
+        updateSchemaVersionState(schemaInstanceId, schemaVersion.getInitialState(), schemaVersion.getStateDetails());
 
         return schemaVersionStorable.toSchemaVersionInfo();
     }
@@ -406,25 +572,126 @@ public class SchemaVersionLifecycleManager {
                 }
                 break;
             case ALL:
-                Collection<SchemaVersionInfo> schemaVersionInfos = getAllVersions(schemaBranchName, schemaName);
-                for (SchemaVersionInfo schemaVersionInfo : schemaVersionInfos) {
-                    if (SchemaVersionLifecycleStates.ENABLED.getId().equals(schemaVersionInfo.getStateId())) {
-                        compatibilityResult = checkCompatibility(schemaMetadata.getType(),
-                                                                 toSchema,
-                                                                 schemaVersionInfo.getSchemaText(),
-                                                                 schemaMetadata.getCompatibility());
-                        if (!compatibilityResult.isCompatible()) {
-                            LOG.info("Received schema is not compatible with one of the schema versions [{}] with schema name [{}]",
-                                     schemaVersionInfo.getVersion(), schemaName);
-                            break;
-                        }
-                    }
-                }
+                SchemaBranch schemaBranch = schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName));
+                // enabled versions are fetched only when they are changed since the cached summary is built.
+                SchemaLatestVersionStorable latestVersion =
+                        storageManager.get(SchemaLatestVersionStorable.getStorableKey(schemaMetadataInfo.getId(), schemaBranch.getId()));
+                SchemaCompatibilitySummaryCache.Summary summary =
+                        schemaCompatibilitySummaryCache.get(schemaBranch,
+                                                            schemaName,
+                                                            latestVersion != null ? latestVersion.getEnabledVersionsStamp() : null,
+                                                            () -> getAllVersions(schemaBranchName, schemaName).stream()
+                                                                                                             .filter(schemaVersionInfo -> SchemaVersionLifecycleStates.ENABLED.getId()
+                                                                                                                                                                              .equals(schemaVersionInfo.getStateId()))
+                                                                                                             .collect(Collectors.toList()));
+                compatibilityResult = checkCompatibility(schemaMetadata, toSchema, summary);
                 break;
         }
         return compatibilityResult != null ? compatibilityResult : CompatibilityResult.createCompatibleResult(toSchema);
     }
 
+    /**
+     * Checks compatibility of the given schema with all the enabled schema versions in the given summary. Only the
+     * versions with distinct schema texts with which the schema is not already known to be compatible are checked, the
+     * result is the same as checking with each enabled version one after the other.
+     */
+    private CompatibilityResult checkCompatibility(SchemaMetadata schemaMetadata,
+                                                   String toSchema,
+                                                   SchemaCompatibilitySummaryCache.Summary summary) {
+        SchemaVersionInfo lastSchemaVersionInfo = summary.getLastSchemaVersionInfo();
+        if (lastSchemaVersionInfo == null) {
+            return null;
+        }
+
+        List<SchemaVersionInfo> unverifiedSchemaVersionInfos =
+                summary.getUnverifiedSchemaVersionInfos(schemaMetadata.getCompatibility(), toSchema);
+        CompatibilityResult compatibilityResult = null;
+        if (compatibilityCheckExecutor != null && unverifiedSchemaVersionInfos.size() >= compatibilityCheckParallelismThreshold) {
+            compatibilityResult = checkCompatibilityInParallel(schemaMetadata, toSchema, unverifiedSchemaVersionInfos);
+        } else {
+            for (SchemaVersionInfo schemaVersionInfo : unverifiedSchemaVersionInfos) {
+                compatibilityResult = checkCompatibility(schemaMetadata.getType(),
+                                                         toSchema,
+                                                         schemaVersionInfo.getSchemaText(),
+                                                         schemaMetadata.getCompatibility());
+                if (!compatibilityResult.isCompatible()) {
+                    LOG.info("Received schema is not compatible with one of the schema versions [{}] with schema name [{}]",
+                             schemaVersionInfo.getVersion(), schemaMetadata.getName());
+                    break;
+                }
+            }
+        }
+        if (compatibilityResult != null && !compatibilityResult.isCompatible()) {
+            return compatibilityResult;
+        }
+
+        summary.setVerified(schemaMetadata.getCompatibility(), toSchema);
+
+        // result of the check with the last version is returned when the schema is compatible with all of them.
+        if (compatibilityResult == null
+                || lastSchemaVersionInfo != unverifiedSchemaVersionInfos.get(unverifiedSchemaVersionInfos.size() - 1)) {
+            compatibilityResult = checkCompatibility(schemaMetadata.getType(),
+                                                     toSchema,
+                                                     lastSchemaVersionInfo.getSchemaText(),
+                                                     schemaMetadata.getCompatibility());
+        }
+        return compatibilityResult;
+    }
+
+    /**
+     * Checks compatibility of the given schema with each of the given schema versions concurrently. Returns the same
+     * result as checking them one after the other in the given order: the result for the first incompatible schema
+     * version if there is any, else the result for the last schema version. Checks for schema versions after an
+     * incompatible one are skipped once it is found.
+     */
+    private CompatibilityResult checkCompatibilityInParallel(SchemaMetadata schemaMetadata,
+                                                             String toSchema,
+                                                             List<SchemaVersionInfo> schemaVersionInfos) {
+        int size = schemaVersionInfos.size();
+        // each element is either CompatibilityResult or the exception thrown while checking compatibility.
+        Object[] outcomes = new Object[size];
+        AtomicInteger firstFailedIndex = new AtomicInteger(size);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[size];
+        for (int i = 0; i < size; i++) {
+            final int index = i;
+            futures[i] = CompletableFuture.runAsync(() -> {
+                if (index > firstFailedIndex.get()) {
+                    return;
+                }
+                Object outcome;
+                try {
+                    outcome = checkCompatibility(schemaMetadata.getType(),
+                                                 toSchema,
+                                                 schemaVersionInfos.get(index).getSchemaText(),
+                                                 schemaMetadata.getCompatibility());
+                } catch (Exception e) {
+                    outcome = e;
+                }
+                outcomes[index] = outcome;
+                if (!(outcome instanceof CompatibilityResult) || !((CompatibilityResult) outcome).isCompatible()) {
+                    firstFailedIndex.accumulateAndGet(index, Math::min);
+                }
+            }, compatibilityCheckExecutor);
+        }
+        // happens-before for the outcomes written by the tasks is established by joining them.
+        CompletableFuture.allOf(futures).join();
+
+        int resultIndex = firstFailedIndex.get() < size ? firstFailedIndex.get() : size - 1;
+        Object outcome = outcomes[resultIndex];
+        if (outcome instanceof RuntimeException) {
+            throw (RuntimeException) outcome;
+        } else if (outcome instanceof Exception) {
+            throw new RuntimeException((Exception) outcome);
+        }
+
+        CompatibilityResult compatibilityResult = (CompatibilityResult) outcome;
+        if (!compatibilityResult.isCompatible()) {
+            LOG.info("Received schema is not compatible with one of the schema versions [{}] with schema name [{}]",
+                     schemaVersionInfos.get(resultIndex).getVersion(), schemaMetadata.getName());
+        }
+        return compatibilityResult;
+    }
+
     private CompatibilityResult checkCompatibility(String type,
                                                    String toSchema,
                                                    String existingSchema,
@@ -447,13 +714,13 @@ public class SchemaVersionLifecycleManager {
             List<QueryParam> queryParams = Collections.singletonList(new QueryParam(SchemaVersionStorable.NAME, schemaName));
             Collection<SchemaVersionStorable> storables = storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams,
                     Collections.singletonList(OrderByField.of(SchemaVersionStorable.VERSION, true)));
-            Set<Long> schemaVersionIds = getSortedSchemaVersions(schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName))).
-                    stream().map(schemaVersionInfo -> schemaVersionInfo.getId()).collect(Collectors.toSet());
+            Long schemaBranchId = schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName)).getId();
+            List<Long> schemaVersionIds = getSortedSchemaVersionIds(schemaBranchId);
 
-            if (storables != null && !storables.isEmpty() && schemaVersionIds !=null && !schemaVersionIds.isEmpty()) {
+            if (storables != null && !storables.isEmpty()) {
                     schemaVersionInfos = storables
                             .stream()
-                            .filter(schemaVersionInfo -> schemaVersionIds.contains(schemaVersionInfo.getId()))
+                            .filter(schemaVersionInfo -> isSchemaVersionInBranch(schemaBranchId, schemaVersionIds, schemaVersionInfo.getId()))
                             .map(SchemaVersionStorable::toSchemaVersionInfo)
                             .collect(Collectors.toList());
             } else {
@@ -468,6 +735,55 @@ public class SchemaVersionLifecycleManager {
         return schemaVersionInfos;
     }
 
+    /**
+     * Returns a page of at most {@code limit} versions of the given schema branch, in the same order as
+     * {@link #getAllVersions(String, String)}, that come after the given {@code afterVersion}. Versions of the master
+     * branch are read from the storage by pages, latest versions first.
+     *
+     * @param afterVersion version of the last schema version of the previous page, or null for the first page
+     */
+    public Collection<SchemaVersionInfo> getAllVersions(final String schemaBranchName,
+                                                        final String schemaName,
+                                                        final Integer afterVersion,
+                                                        final int limit) throws SchemaNotFoundException, SchemaBranchNotFoundException {
+        Preconditions.checkNotNull(schemaBranchName, "Schema branch name can't be null");
+        Preconditions.checkArgument(limit > 0, "limit should be greater than zero but it is %s", limit);
+
+        if (!schemaBranchName.equals(SchemaBranch.MASTER_BRANCH)) {
+            // versions of other branches are already cached in ascending order
+            return getSortedSchemaVersions(schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName)))
+                    .stream()
+                    .filter(schemaVersionInfo -> afterVersion == null || schemaVersionInfo.getVersion() > afterVersion)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+
+        Long schemaBranchId = schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName)).getId();
+        List<Long> schemaVersionIds = getSortedSchemaVersionIds(schemaBranchId);
+
+        List<QueryParam> queryParams = Collections.singletonList(new QueryParam(SchemaVersionStorable.NAME, schemaName));
+        List<OrderByField> orderByFields = Collections.singletonList(OrderByField.of(SchemaVersionStorable.VERSION, true));
+        List<SchemaVersionInfo> schemaVersionInfos = new ArrayList<>();
+        Integer lastVersion = afterVersion;
+        // versions of other branches are skipped, next pages are read until this page is filled
+        while (schemaVersionInfos.size() < limit) {
+            Collection<SchemaVersionStorable> storables =
+                    storageManager.find(SchemaVersionStorable.NAME_SPACE, queryParams, orderByFields,
+                                        lastVersion != null ? Collections.singletonList(lastVersion) : null, limit);
+            for (SchemaVersionStorable storable : storables) {
+                lastVersion = storable.getVersion();
+                if (schemaVersionInfos.size() < limit && isSchemaVersionInBranch(schemaBranchId, schemaVersionIds, storable.getId())) {
+                    schemaVersionInfos.add(storable.toSchemaVersionInfo());
+                }
+            }
+            if (storables.size() < limit) {
+                break;
+            }
+        }
+
+        return schemaVersionInfos;
+    }
+
     public Collection<SchemaVersionInfo> getAllVersions(final String schemaName) throws SchemaNotFoundException {
         List<QueryParam> queryParams = Collections.singletonList(new QueryParam(SchemaVersionStorable.NAME, schemaName));
 
@@ -524,6 +840,19 @@ public class SchemaVersionLifecycleManager {
 
         String fingerPrint = getFingerprint(type, schemaText);
         LOG.debug("Fingerprint of the given schema [{}] is [{}]", schemaText, fingerPrint);
+
+        SchemaBranch schemaBranch = schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName));
+        Long indexedSchemaVersionId = schemaVersionFingerprintIndex.getSchemaVersionId(schemaMetadataId, fingerPrint, schemaBranch.getId());
+        if (indexedSchemaVersionId != null) {
+            try {
+                return schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(new SchemaIdVersion(indexedSchemaVersionId)));
+            } catch (SchemaNotFoundException e) {
+                // may have been deleted by other registry instances
+                LOG.debug("Indexed schema version [{}] does not exist", indexedSchemaVersionId);
+                schemaVersionFingerprintIndex.removeSchemaVersionId(indexedSchemaVersionId);
+            }
+        }
+
         List<QueryParam> queryParams = Lists.newArrayList(
                 new QueryParam(SchemaVersionStorable.SCHEMA_METADATA_ID, schemaMetadataId.toString()),
                 new QueryParam(SchemaVersionStorable.FINGERPRINT, fingerPrint));
@@ -543,10 +872,10 @@ public class SchemaVersionLifecycleManager {
             return null;
         } else {
 
-            SchemaBranch schemaBranch = schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchName));
             final Long schemaVersionId = schemaVersionStorable.getId();
 
-            if (getSortedSchemaVersions(schemaBranch).stream().filter( storable -> storable.getId().equals(schemaVersionId)).findAny().isPresent()) {
+            if (isSchemaVersionInBranch(schemaBranch.getId(), getSortedSchemaVersionIds(schemaBranch.getId()), schemaVersionId)) {
+                schemaVersionFingerprintIndex.putSchemaVersionId(schemaMetadataId, fingerPrint, schemaBranch.getId(), schemaVersionId);
                 return schemaVersionStorable.toSchemaVersionInfo();
             } else {
                 return null;
@@ -556,8 +885,13 @@ public class SchemaVersionLifecycleManager {
 
     private String getFingerprint(String type,
                                   String schemaText) throws InvalidSchemaException, SchemaNotFoundException {
-        SchemaProvider schemaProvider = getSchemaProvider(type);
-        return Hex.encodeHexString(schemaProvider.getFingerprint(schemaText));
+        String fingerprint = schemaVersionFingerprintIndex.getFingerprint(type, schemaText);
+        if (fingerprint == null) {
+            SchemaProvider schemaProvider = getSchemaProvider(type);
+            fingerprint = Hex.encodeHexString(schemaProvider.getFingerprint(schemaText));
+            schemaVersionFingerprintIndex.putFingerprint(type, schemaText, fingerprint);
+        }
+        return fingerprint;
     }
 
     public SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException {
@@ -572,8 +906,7 @@ public class SchemaVersionLifecycleManager {
         SchemaVersionInfoCache.Key schemaVersionCacheKey = new SchemaVersionInfoCache.Key(schemaVersionKey);
         SchemaVersionInfo schemaVersionInfo = schemaVersionInfoCache.getSchema(schemaVersionCacheKey);
         schemaVersionInfoCache.invalidateSchema(schemaVersionCacheKey);
-        storageManager.remove(createSchemaVersionStorableKey(schemaVersionInfo.getId()));
-        deleteSchemaVersionBranchMapping(schemaVersionInfo.getId());
+        doDeleteSchemaVersion(schemaVersionInfo.getId());
     }
 
     public SchemaIdVersion mergeSchemaVersion(Long schemaVersionId, SchemaVersionMergeStrategy schemaVersionMergeStrategy) throws SchemaNotFoundException, IncompatibleSchemaException {
@@ -713,8 +1046,18 @@ public class SchemaVersionLifecycleManager {
         if (versionedSchema == null) {
             throw new SchemaNotFoundException("No Schema version exists with id " + schemaVersionId);
         }
+        Byte previousStateId = versionedSchema.getState();
         versionedSchema.setState(stateId);
         storageManager.addOrUpdate(versionedSchema);
+        for (Long schemaBranchId : getSchemaBranchIds(schemaVersionId)) {
+            updateLatestSchemaVersion(schemaBranchId, versionedSchema, previousStateId);
+        }
+
+        // compatibility summaries are checked against the enabled versions in storage when they are used, summaries
+        // which can not be used anymore are dropped when a version moves out of enabled state.
+        if (SchemaVersionLifecycleStates.ENABLED.getId().equals(previousStateId) && !previousStateId.equals(stateId)) {
+            schemaCompatibilitySummaryCache.invalidate(versionedSchema.getName());
+        }
 
         // invalidate schema version from cache
         SchemaVersionInfoCache.Key schemaVersionCacheKey = SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId));
@@ -733,9 +1076,123 @@ public class SchemaVersionLifecycleManager {
 
     private void doDeleteSchemaVersion(Long schemaVersionId) throws SchemaNotFoundException {
         SchemaVersionInfoCache.Key schemaVersionCacheKey = SchemaVersionInfoCache.Key.of(new SchemaIdVersion(schemaVersionId));
+        SchemaVersionInfo schemaVersionInfo = schemaVersionInfoCache.getSchema(schemaVersionCacheKey);
         schemaVersionInfoCache.invalidateSchema(schemaVersionCacheKey);
+        schemaCompatibilitySummaryCache.invalidate(schemaVersionInfo.getName());
+        schemaVersionFingerprintIndex.removeSchemaVersionId(schemaVersionId);
+        List<Long> schemaBranchIds = getSchemaBranchIds(schemaVersionId);
         storageManager.remove(createSchemaVersionStorableKey(schemaVersionId));
         deleteSchemaVersionBranchMapping(schemaVersionId);
+        for (Long schemaBranchId : schemaBranchIds) {
+            removeLatestSchemaVersion(schemaBranchId, schemaVersionInfo);
+        }
+    }
+
+    /**
+     * Returns ids of the schema branches of the given schema version, branches are not looked up as they may be
+     * getting deleted.
+     */
+    private List<Long> getSchemaBranchIds(Long schemaVersionId) {
+        Collection<SchemaBranchVersionMapping> schemaBranchVersionMappings =
+                storageManager.find(SchemaBranchVersionMapping.NAMESPACE,
+                                    Collections.singletonList(new QueryParam(SchemaBranchVersionMapping.SCHEMA_VERSION_INFO_ID,
+                                                                             schemaVersionId.toString())));
+        return schemaBranchVersionMappings.stream()
+                                          .map(SchemaBranchVersionMapping::getSchemaBranchId)
+                                          .collect(Collectors.toList());
+    }
+
+    /**
+     * Updates the latest versions of the given schema branch with the given schema version, which is either added to
+     * the branch or whose state is changed. This is done in the same transaction, so the latest versions are changed
+     * for others only when the version is committed.
+     *
+     * @param previousStateId state of the version before it is changed, or null if the version is added to the branch
+     */
+    private void updateLatestSchemaVersion(Long schemaBranchId, SchemaVersionStorable schemaVersion, Byte previousStateId) {
+        SchemaLatestVersionStorable latestVersion =
+                storageManager.get(SchemaLatestVersionStorable.getStorableKey(schemaVersion.getSchemaMetadataId(), schemaBranchId));
+        if (latestVersion == null) {
+            latestVersion = new SchemaLatestVersionStorable(schemaVersion.getSchemaMetadataId(), schemaBranchId);
+            latestVersion.setEnabledVersionsStamp(newEnabledVersionsStamp());
+        }
+
+        Long schemaVersionId = schemaVersion.getId();
+        Integer version = schemaVersion.getVersion();
+        if (latestVersion.getLatestVersion() == null || version >= latestVersion.getLatestVersion()) {
+            latestVersion.setLatestVersionId(schemaVersionId);
+            latestVersion.setLatestVersion(version);
+        }
+        boolean enabled = SchemaVersionLifecycleStates.ENABLED.getId().equals(schemaVersion.getState());
+        if (enabled != SchemaVersionLifecycleStates.ENABLED.getId().equals(previousStateId)) {
+            latestVersion.setEnabledVersionsStamp(newEnabledVersionsStamp());
+        }
+        if (enabled) {
+            if (latestVersion.getLatestEnabledVersion() == null || version >= latestVersion.getLatestEnabledVersion()) {
+                latestVersion.setLatestEnabledVersionId(schemaVersionId);
+                latestVersion.setLatestEnabledVersion(version);
+            }
+        } else if (schemaVersionId.equals(latestVersion.getLatestEnabledVersionId())) {
+            // state of the version is already updated in storage, so this finds the previous enabled version.
+            setLatestEnabledVersion(latestVersion, findLatestSchemaVersionInfo(schemaBranchId,
+                                                                                schemaVersion.getName(),
+                                                                                SchemaVersionLifecycleStates.ENABLED.getId()));
+        }
+
+        storageManager.addOrUpdate(latestVersion);
+    }
+
+    /**
+     * Updates the latest versions of the given schema branch after the given schema version is deleted. Previous
+     * versions are looked up only when the deleted version is one of the latest versions. Enabled versions stamp is
+     * always changed as the state of the version may have been changed by other registry instances.
+     */
+    private void removeLatestSchemaVersion(Long schemaBranchId, SchemaVersionInfo schemaVersionInfo) {
+        StorableKey storableKey = SchemaLatestVersionStorable.getStorableKey(schemaVersionInfo.getSchemaMetadataId(), schemaBranchId);
+        SchemaLatestVersionStorable latestVersion = storageManager.get(storableKey);
+        if (latestVersion == null) {
+            return;
+        }
+
+        Long schemaVersionId = schemaVersionInfo.getId();
+        latestVersion.setEnabledVersionsStamp(newEnabledVersionsStamp());
+        if (schemaVersionId.equals(latestVersion.getLatestVersionId())) {
+            SchemaVersionInfo previousVersionInfo = findLatestSchemaVersionInfo(schemaBranchId, schemaVersionInfo.getName(), null);
+            if (previousVersionInfo == null) {
+                storageManager.remove(storableKey);
+                return;
+            }
+            latestVersion.setLatestVersionId(previousVersionInfo.getId());
+            latestVersion.setLatestVersion(previousVersionInfo.getVersion());
+        }
+        if (schemaVersionId.equals(latestVersion.getLatestEnabledVersionId())) {
+            setLatestEnabledVersion(latestVersion, findLatestSchemaVersionInfo(schemaBranchId,
+                                                                                schemaVersionInfo.getName(),
+                                                                                SchemaVersionLifecycleStates.ENABLED.getId()));
+        }
+        storageManager.addOrUpdate(latestVersion);
+    }
+
+    private static long newEnabledVersionsStamp() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    private static void setLatestEnabledVersion(SchemaLatestVersionStorable latestVersion, SchemaVersionInfo schemaVersionInfo) {
+        latestVersion.setLatestEnabledVersionId(schemaVersionInfo != null ? schemaVersionInfo.getId() : null);
+        latestVersion.setLatestEnabledVersion(schemaVersionInfo != null ? schemaVersionInfo.getVersion() : null);
+    }
+
+    /**
+     * Removes the latest versions of the given schema branch, this should be called when the branch is deleted.
+     */
+    public void removeLatestSchemaVersions(Long schemaBranchId) {
+        Collection<SchemaLatestVersionStorable> latestVersions =
+                storageManager.find(SchemaLatestVersionStorable.NAME_SPACE,
+                                    Collections.singletonList(new QueryParam(SchemaLatestVersionStorable.SCHEMA_BRANCH_ID,
+                                                                             schemaBranchId.toString())));
+        for (SchemaLatestVersionStorable latestVersion : latestVersions) {
+            storageManager.remove(latestVersion.getStorableKey());
+        }
     }
 
     private StorableKey createSchemaVersionStorableKey(Long id) {
@@ -754,13 +1211,16 @@ public class SchemaVersionLifecycleManager {
 
         if (storables == null || storables.isEmpty()) {
             LOG.debug("No need to delete schema version mapping as the database did a cascade delete");
+            schemaBranchVersionsCache.removeSchemaVersion(schemaVersionId);
             return;
         }
 
         if (storables.size() > 1)
             throw new RuntimeException(String.format("Schema version with id : '%s' is tied with more than one branch",schemaVersionId));
 
-        storageManager.remove(new StorableKey(SchemaBranchVersionMapping.NAMESPACE, storables.iterator().next().getPrimaryKey()));
+        SchemaBranchVersionMapping schemaBranchVersionMapping = storables.iterator().next();
+        storageManager.remove(new StorableKey(SchemaBranchVersionMapping.NAMESPACE, schemaBranchVersionMapping.getPrimaryKey()));
+        schemaBranchVersionsCache.removeSchemaVersion(schemaBranchVersionMapping.getSchemaBranchId(), schemaVersionId);
     }
 
     public void archiveSchemaVersion(Long schemaVersionId) throws SchemaNotFoundException, SchemaLifecycleException {
@@ -881,26 +1341,109 @@ public class SchemaVersionLifecycleManager {
     }
 
     private List<SchemaVersionInfo> getSortedSchemaVersions(Long schemaBranchId) throws SchemaNotFoundException, SchemaBranchNotFoundException {
-        List<QueryParam> schemaVersionMappingStorableQueryParams = Lists.newArrayList();
-        schemaVersionMappingStorableQueryParams.add(new QueryParam(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, schemaBranchId.toString()));
-        List<OrderByField> orderByFields = new ArrayList<>();
-        orderByFields.add(OrderByField.of(SchemaBranchVersionMapping.SCHEMA_VERSION_INFO_ID, false));
         List<SchemaVersionInfo> schemaVersionInfos = new ArrayList<>();
+        for (Long schemaVersionId : getSortedSchemaVersionIds(schemaBranchId)) {
+            SchemaIdVersion schemaIdVersion = new SchemaIdVersion(schemaVersionId);
+            schemaVersionInfos.add(schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(schemaIdVersion)));
+        }
 
-        Collection<SchemaBranchVersionMapping> storables = storageManager.find(SchemaBranchVersionMapping.NAMESPACE, schemaVersionMappingStorableQueryParams, orderByFields);
-        if ( storables == null || storables.size() == 0 ) {
+        return schemaVersionInfos;
+    }
+
+    /**
+     * @return at most {@code limit} schema versions of the given schema branch containing a field matching all the
+     * properties of the given query, in ascending order of their ids.
+     */
+    public List<SchemaVersionInfo> findSchemaVersionsByFields(Long schemaBranchId, SchemaFieldQuery schemaFieldQuery, int limit) {
+        List<QueryParam> queryParams = schemaFieldQuery.toQueryMap()
+                                                       .entrySet()
+                                                       .stream()
+                                                       .map(entry -> new QueryParam(entry.getKey(), entry.getValue()))
+                                                       .collect(Collectors.toList());
+
+        // versions are selected with the distinct ids of the matching fields and of the versions of the branch in a
+        // single query, which reads only the rows of the requested page.
+        List<SubQuery> subQueries = Arrays.asList(
+                SubQuery.of(SchemaFieldInfoStorable.STORABLE_NAME_SPACE, SchemaFieldInfo.SCHEMA_INSTANCE_ID, queryParams),
+                SubQuery.of(SchemaBranchVersionMapping.NAMESPACE,
+                            SchemaBranchVersionMapping.SCHEMA_VERSION_INFO_ID,
+                            Collections.singletonList(new QueryParam(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, schemaBranchId.toString()))));
+        Collection<SchemaVersionStorable> schemaVersionStorables =
+                storageManager.findIn(SchemaVersionStorable.NAME_SPACE, SchemaVersionStorable.ID, subQueries, null, limit);
+
+        return schemaVersionStorables.stream()
+                                     .map(SchemaVersionStorable::toSchemaVersionInfo)
+                                     .collect(Collectors.toList());
+    }
+
+    /**
+     * @return ids of schema versions of the given schema branch in ascending order.
+     */
+    public List<Long> getSortedSchemaVersionIds(Long schemaBranchId) throws SchemaBranchNotFoundException {
+        List<Long> schemaVersionIds = schemaBranchVersionsCache.get(schemaBranchId, () -> fetchSchemaVersionIds(schemaBranchId));
+        if (schemaVersionIds.isEmpty()) {
             if (schemaBranchCache.get(SchemaBranchCache.Key.of(schemaBranchId)).getName().equals(SchemaBranch.MASTER_BRANCH))
                 return Collections.emptyList();
             else
                 throw new InvalidSchemaBranchVersionMapping(String.format("No schema versions are attached to the schema branch id : '%s'", schemaBranchId));
         }
 
-        for (SchemaBranchVersionMapping storable : storables ) {
-            SchemaIdVersion schemaIdVersion = new SchemaIdVersion(storable.getSchemaVersionInfoId());
-            schemaVersionInfos.add(schemaVersionInfoCache.getSchema(SchemaVersionInfoCache.Key.of(schemaIdVersion)));
+        return schemaVersionIds;
+    }
+
+    /**
+     * Returns true if the given schema version is attached to the given schema branch. Cached ids of the versions of
+     * the branch are used only to find versions known to be in it, as versions may have been attached to the branch by
+     * other registry instances after they are cached. The mapping is looked up in storage when the version is not in
+     * the given ids.
+     */
+    boolean isSchemaVersionInBranch(Long schemaBranchId, List<Long> cachedSchemaVersionIds, Long schemaVersionId) {
+        if (SchemaBranchVersionsCache.contains(cachedSchemaVersionIds, schemaVersionId)) {
+            return true;
         }
 
-        return schemaVersionInfos;
+        SchemaBranchVersionMapping schemaBranchVersionMapping =
+                storageManager.get(new SchemaBranchVersionMapping(schemaBranchId, schemaVersionId).getStorableKey());
+        if (schemaBranchVersionMapping == null) {
+            return false;
+        }
+        LOG.debug("Schema version [{}] of schema branch [{}] is not cached", schemaVersionId, schemaBranchId);
+        schemaBranchVersionsCache.addSchemaVersion(schemaBranchId, schemaVersionId);
+
+        return true;
+    }
+
+    private List<Long> fetchSchemaVersionIds(Long schemaBranchId) {
+        List<QueryParam> schemaVersionMappingStorableQueryParams = Lists.newArrayList();
+        schemaVersionMappingStorableQueryParams.add(new QueryParam(SchemaBranchVersionMapping.SCHEMA_BRANCH_ID, schemaBranchId.toString()));
+        List<OrderByField> orderByFields = new ArrayList<>();
+        orderByFields.add(OrderByField.of(SchemaBranchVersionMapping.SCHEMA_VERSION_INFO_ID, false));
+
+        Collection<SchemaBranchVersionMapping> storables = storageManager.find(SchemaBranchVersionMapping.NAMESPACE, schemaVersionMappingStorableQueryParams, orderByFields);
+        if (storables == null) {
+            return Collections.emptyList();
+        }
+
+        return storables.stream().map(SchemaBranchVersionMapping::getSchemaVersionInfoId).collect(Collectors.toList());
+    }
+
+    /**
+     * Attaches the given schema version to the given schema branch.
+     */
+    public void addSchemaVersionToBranch(Long schemaBranchId, Long schemaVersionId) {
+        storageManager.add(new SchemaBranchVersionMapping(schemaBranchId, schemaVersionId));
+        schemaBranchVersionsCache.addSchemaVersion(schemaBranchId, schemaVersionId);
+        SchemaVersionStorable schemaVersionStorable = storageManager.get(createSchemaVersionStorableKey(schemaVersionId));
+        if (schemaVersionStorable != null) {
+            updateLatestSchemaVersion(schemaBranchId, schemaVersionStorable, null);
+        }
+    }
+
+    /**
+     * Invalidates cached schema versions of the given schema branch, this should be called when the branch is deleted.
+     */
+    public void invalidateSchemaBranch(Long schemaBranchId) {
+        schemaBranchVersionsCache.invalidate(schemaBranchId);
     }
 
     public List<SchemaVersionInfo> getSortedSchemaVersions(SchemaBranch schemaBranch) throws SchemaNotFoundException {
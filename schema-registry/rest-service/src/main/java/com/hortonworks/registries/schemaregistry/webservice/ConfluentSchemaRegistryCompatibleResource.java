@@ -44,17 +44,22 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import static com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry.AFTER_PARAM_NAME;
+import static com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry.LIMIT_PARAM_NAME;
+
 /**
  * Schema Registry resource that provides schema registry REST service.
  * This is used to support confluent serdes, and also third party integrations that support confluent schema registry api,
@@ -101,15 +106,28 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
             response = String.class, responseContainer = "Collection", tags = OPERATION_GROUP_CONFLUENT_SR)
     @Timed
     @UnitOfWork
-    public Response getSubjects() {
+    public Response getSubjects(@ApiParam(value = "Maximum number of subjects to be returned, all of them are returned when it is not given")
+                                @QueryParam(LIMIT_PARAM_NAME) Integer limit,
+                                @ApiParam(value = "Last subject of the previous page, subjects are ordered by their names when they are paged")
+                                @QueryParam(AFTER_PARAM_NAME) String after) {
         Response response;
         try {
-            List<String> registeredSubjects = schemaRegistry.findSchemaMetadata(Collections.emptyMap())
-                                                            .stream()
-                                                            .map(x -> x.getSchemaMetadata().getName())
-                                                            .collect(Collectors.toList());
+            Collection<SchemaMetadataInfo> schemaMetadataInfos;
+            if (limit != null) {
+                schemaMetadataInfos = schemaRegistry.findSchemaMetadata(Collections.emptyMap(), after, limit);
+            } else if (after != null) {
+                throw new IllegalArgumentException(AFTER_PARAM_NAME + " can only be given with " + LIMIT_PARAM_NAME);
+            } else {
+                schemaMetadataInfos = schemaRegistry.findSchemaMetadata(Collections.emptyMap());
+            }
+            List<String> registeredSubjects = schemaMetadataInfos.stream()
+                                                                 .map(x -> x.getSchemaMetadata().getName())
+                                                                 .collect(Collectors.toList());
 
             response = WSUtils.respondEntity(registeredSubjects, Response.Status.OK);
+        } catch (IllegalArgumentException ex) {
+            LOG.error("Invalid paging parameters while retrieving subjects", ex);
+            response = invalidRequestError(ex.getMessage());
         } catch (Exception ex) {
             LOG.error("Encountered error while retrieving all subjects", ex);
             response = serverError();
@@ -350,6 +368,12 @@ public class ConfluentSchemaRegistryCompatibleResource extends BaseRegistryResou
                        .build();
     }
 
+    public static Response invalidRequestError(String message) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                       .entity(new ErrorMessage(40001, message))
+                       .build();
+    }
+
     public static Response subjectNotFoundError() {
         return Response.status(Response.Status.NOT_FOUND)
                        .entity(new ErrorMessage(40401, "Subject not found"))
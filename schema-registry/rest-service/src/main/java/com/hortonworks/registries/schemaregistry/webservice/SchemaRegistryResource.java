@@ -83,6 +83,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry.AFTER_PARAM_NAME;
+import static com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry.LIMIT_PARAM_NAME;
 import static com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry.ORDER_BY_FIELDS_PARAM_NAME;
 import static com.hortonworks.registries.schemaregistry.SchemaBranch.MASTER_BRANCH;
 
@@ -182,18 +184,34 @@ public class SchemaRegistryResource extends BaseRegistryResource {
             response = SchemaMetadataInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
     @Timed
     @UnitOfWork
-    public Response listSchemas(@Context UriInfo uriInfo) {
+    public Response listSchemas(@ApiParam(value = "Maximum number of schemas to be returned, all of them are returned when it is not given")
+                                @QueryParam(LIMIT_PARAM_NAME) Integer limit,
+                                @ApiParam(value = "Name of the last schema of the previous page, schemas are ordered by their names when they are paged")
+                                @QueryParam(AFTER_PARAM_NAME) String after,
+                                @Context UriInfo uriInfo) {
         try {
             MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
             Map<String, String> filters = new HashMap<>();
             for (Map.Entry<String, List<String>> entry : queryParameters.entrySet()) {
+                if (LIMIT_PARAM_NAME.equals(entry.getKey()) || AFTER_PARAM_NAME.equals(entry.getKey())) {
+                    continue;
+                }
                 List<String> value = entry.getValue();
                 filters.put(entry.getKey(), value != null && !value.isEmpty() ? value.get(0) : null);
             }
 
-            Collection<SchemaMetadataInfo> schemaMetadatas = schemaRegistry.findSchemaMetadata(filters);
+            Collection<SchemaMetadataInfo> schemaMetadatas;
+            if (limit != null) {
+                schemaMetadatas = schemaRegistry.findSchemaMetadata(filters, after, limit);
+            } else if (after != null) {
+                throw new IllegalArgumentException(AFTER_PARAM_NAME + " can only be given with " + LIMIT_PARAM_NAME);
+            } else {
+                schemaMetadatas = schemaRegistry.findSchemaMetadata(filters);
+            }
 
             return WSUtils.respondEntities(schemaMetadatas, Response.Status.OK);
+        } catch (IllegalArgumentException e) {
+            return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_PARAM_MISSING, e.getMessage());
         } catch (Exception ex) {
             LOG.error("Encountered error while listing schemas", ex);
             return WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, ex.getMessage());
@@ -306,14 +324,23 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @Timed
     @UnitOfWork
     public Response findSchemasByFields(@QueryParam("branch") @DefaultValue(MASTER_BRANCH) String schemaBranchName,
+                                        @ApiParam(value = "Number of matching schema versions to be skipped")
+                                        @QueryParam("_offset") @DefaultValue("0") int offset,
+                                        @ApiParam(value = "Maximum number of schema versions to be returned")
+                                        @QueryParam("_limit") Integer limit,
                                         @Context UriInfo uriInfo) {
         MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
         try {
-            Collection<SchemaVersionKey> schemaVersionKeys = schemaRegistry.findSchemasByFields(schemaBranchName, buildSchemaFieldQuery(queryParameters));
+            Collection<SchemaVersionKey> schemaVersionKeys = schemaRegistry.findSchemasByFields(schemaBranchName,
+                                                                                                buildSchemaFieldQuery(queryParameters),
+                                                                                                offset,
+                                                                                                limit != null ? limit : Integer.MAX_VALUE);
 
             return WSUtils.respondEntities(schemaVersionKeys, Response.Status.OK);
         } catch (SchemaBranchNotFoundException e) {
             return WSUtils.respond(Response.Status.NOT_FOUND, CatalogResponse.ResponseMessage.ENTITY_NOT_FOUND,  e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_PARAM_MISSING, e.getMessage());
         } catch (Exception ex) {
             LOG.error("Encountered error while finding schemas for given fields [{}]", queryParameters, ex);
             return WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, ex.getMessage());
@@ -583,11 +610,22 @@ public class SchemaRegistryResource extends BaseRegistryResource {
     @Timed
     @UnitOfWork
     public Response getAllSchemaVersions(@ApiParam(value = "Schema name", required = true) @PathParam("name") String schemaName,
-                                         @QueryParam("branch") @DefaultValue(MASTER_BRANCH) String schemaBranchName) {
+                                         @QueryParam("branch") @DefaultValue(MASTER_BRANCH) String schemaBranchName,
+                                         @ApiParam(value = "Maximum number of schema versions to be returned, all of them are returned when it is not given")
+                                         @QueryParam(LIMIT_PARAM_NAME) Integer limit,
+                                         @ApiParam(value = "Version of the last schema version of the previous page")
+                                         @QueryParam(AFTER_PARAM_NAME) Integer after) {
 
         Response response;
         try {
-            Collection<SchemaVersionInfo> schemaVersionInfos = schemaRegistry.getAllVersions(schemaBranchName, schemaName);
+            Collection<SchemaVersionInfo> schemaVersionInfos;
+            if (limit != null) {
+                schemaVersionInfos = schemaRegistry.getAllVersions(schemaBranchName, schemaName, after, limit);
+            } else if (after != null) {
+                throw new IllegalArgumentException(AFTER_PARAM_NAME + " can only be given with " + LIMIT_PARAM_NAME);
+            } else {
+                schemaVersionInfos = schemaRegistry.getAllVersions(schemaBranchName, schemaName);
+            }
             if (schemaVersionInfos != null) {
                 response = WSUtils.respondEntities(schemaVersionInfos, Response.Status.OK);
             } else {
@@ -596,6 +634,8 @@ public class SchemaRegistryResource extends BaseRegistryResource {
             }
         } catch (SchemaBranchNotFoundException e) {
             return WSUtils.respond(Response.Status.NOT_FOUND, CatalogResponse.ResponseMessage.ENTITY_NOT_FOUND,  e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_PARAM_MISSING, e.getMessage());
         } catch (Exception ex) {
             LOG.error("Encountered error while getting all schema versions for schemakey [{}]", schemaName, ex);
             response = WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, ex.getMessage());
@@ -653,6 +693,34 @@ public class SchemaRegistryResource extends BaseRegistryResource {
         return response;
     }
 
+    @POST
+    @Path("/schemas/versions/batch")
+    @ApiOperation(value = "Get schema versions identified by the given list of schema version identifiers",
+            notes = "Returns the schema versions which exist for the given identifiers, this can be used by clients " +
+                    "to load many schema versions in a single request instead of a request for each of them.",
+            response = SchemaVersionInfo.class, responseContainer = "List", tags = OPERATION_GROUP_SCHEMA)
+    @Timed
+    @UnitOfWork
+    public Response getSchemaVersionsByIds(@ApiParam(value = "List of schema version identifiers", required = true)
+                                                   List<SchemaIdVersion> schemaIdVersions) {
+        Response response;
+        try {
+            if (schemaIdVersions == null) {
+                throw new IllegalArgumentException("List of schema version identifiers should not be null");
+            }
+            Collection<SchemaVersionInfo> schemaVersionInfos = schemaRegistry.getSchemaVersionInfos(schemaIdVersions);
+            response = WSUtils.respondEntities(schemaVersionInfos, Response.Status.OK);
+        } catch (IllegalArgumentException ex) {
+            LOG.error("Expected parameter is invalid", ex);
+            response = WSUtils.respond(Response.Status.BAD_REQUEST, CatalogResponse.ResponseMessage.BAD_REQUEST_PARAM_MISSING, ex.getMessage());
+        } catch (Exception ex) {
+            LOG.error("Encountered error while getting schema versions with ids [{}]", schemaIdVersions, ex);
+            response = WSUtils.respond(Response.Status.INTERNAL_SERVER_ERROR, CatalogResponse.ResponseMessage.EXCEPTION, ex.getMessage());
+        }
+
+        return response;
+    }
+
     @GET
     @Path("/schemas/versions/statemachine")
     @ApiOperation(value = "Get schema version life cycle states",
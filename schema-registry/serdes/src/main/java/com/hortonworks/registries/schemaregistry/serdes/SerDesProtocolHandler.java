@@ -17,9 +17,12 @@ package com.hortonworks.registries.schemaregistry.serdes;
 
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.serde.SerDesException;
+import org.apache.avro.util.ByteBufferInputStream;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -49,6 +52,17 @@ public interface SerDesProtocolHandler {
      */
     SchemaIdVersion handleSchemaVersionDeserialization(InputStream inputStream) throws SerDesException;
 
+    /**
+     * Deserializes schema version related information from the given byte buffer starting at its current position.
+     * Position of the buffer is moved past the consumed bytes.
+     *
+     * @param byteBuffer byte buffer
+     * @return {@link SchemaIdVersion} instance created from deserializing respective information from given byte buffer.
+     */
+    default SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) throws SerDesException {
+        return handleSchemaVersionDeserialization(new ByteBufferInputStream(Collections.singletonList(byteBuffer)));
+    }
+
     /**
      * Handles serialization of input into given output stream
      *
@@ -66,4 +80,15 @@ public interface SerDesProtocolHandler {
      */
     Object handlePayloadDeserialization(InputStream inputStream, Map<String, Object> context) throws SerDesException;
 
+    /**
+     * Handles deserialization of the remaining bytes of the given byte buffer and returns the deserialized Object.
+     *
+     * @param byteBuffer byte buffer
+     * @param context    any context required for deserialization.
+     * @return returns the deserialized Object.
+     */
+    default Object handlePayloadDeserialization(ByteBuffer byteBuffer, Map<String, Object> context) throws SerDesException {
+        return handlePayloadDeserialization(new ByteBufferInputStream(Collections.singletonList(byteBuffer)), context);
+    }
+
 }
@@ -17,12 +17,14 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetryableException;
 import org.apache.avro.Schema;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import static com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotDeserializer.SPECIFIC_AVRO_READER;
@@ -54,7 +56,7 @@ public abstract class AbstractAvroSerDesProtocolHandler implements SerDesProtoco
     @Override
     public void handleSchemaVersionSerialization(OutputStream outputStream, SchemaIdVersion schemaIdVersion) {
         try {
-            outputStream.write(new byte[]{protocolId});
+            outputStream.write(protocolId);
             doHandleSchemaVersionSerialization(outputStream, schemaIdVersion);
         } catch (IOException e) {
             throw new AvroRetryableException(e);
@@ -64,6 +66,54 @@ public abstract class AbstractAvroSerDesProtocolHandler implements SerDesProtoco
     protected abstract void doHandleSchemaVersionSerialization(OutputStream outputStream, SchemaIdVersion schemaIdVersion)
             throws IOException;
 
+    /**
+     * Writes the given value as 4 bytes in big-endian order without allocating an intermediate buffer.
+     */
+    protected static void writeInt(OutputStream outputStream, int value) throws IOException {
+        outputStream.write(value >>> 24);
+        outputStream.write(value >>> 16);
+        outputStream.write(value >>> 8);
+        outputStream.write(value);
+    }
+
+    /**
+     * Writes the given value as 8 bytes in big-endian order without allocating an intermediate buffer.
+     */
+    protected static void writeLong(OutputStream outputStream, long value) throws IOException {
+        writeInt(outputStream, (int) (value >>> 32));
+        writeInt(outputStream, (int) value);
+    }
+
+    /**
+     * Reads 4 bytes in big-endian order from the given buffer irrespective of its byte order.
+     *
+     * @throws AvroException if less than 4 bytes are remaining in the given buffer.
+     */
+    protected static int readInt(ByteBuffer byteBuffer) {
+        checkRemaining(byteBuffer, 4);
+        return (byteBuffer.get() & 0xff) << 24
+                | (byteBuffer.get() & 0xff) << 16
+                | (byteBuffer.get() & 0xff) << 8
+                | (byteBuffer.get() & 0xff);
+    }
+
+    /**
+     * Reads 8 bytes in big-endian order from the given buffer irrespective of its byte order.
+     *
+     * @throws AvroException if less than 8 bytes are remaining in the given buffer.
+     */
+    protected static long readLong(ByteBuffer byteBuffer) {
+        checkRemaining(byteBuffer, 8);
+        return ((long) readInt(byteBuffer) << 32) | (readInt(byteBuffer) & 0xffffffffL);
+    }
+
+    private static void checkRemaining(ByteBuffer byteBuffer, int length) {
+        if (byteBuffer.remaining() < length) {
+            throw new AvroException("Expected at least " + length + " bytes of schema version but only "
+                                            + byteBuffer.remaining() + " bytes are remaining");
+        }
+    }
+
     @Override
     public Byte getProtocolId() {
         return protocolId;
@@ -84,4 +134,32 @@ public abstract class AbstractAvroSerDesProtocolHandler implements SerDesProtoco
                                                                      readerSchema,
                                                                      useSpecificAvroReader);
     }
+
+    @Override
+    public Object handlePayloadDeserialization(ByteBuffer byteBuffer, Map<String, Object> context) {
+        boolean useSpecificAvroReader = (boolean) context.getOrDefault(SPECIFIC_AVRO_READER, false);
+        Schema writerSchema = (Schema) context.get(WRITER_SCHEMA);
+        Schema readerSchema = (Schema) context.get(READER_SCHEMA);
+        return handlePayloadDeserialization(byteBuffer, writerSchema, readerSchema, useSpecificAvroReader);
+    }
+
+    /**
+     * Deserializes the remaining bytes of the given {@code byteBuffer} with the given schemas. This avoids building
+     * a context for each payload as required by {@link #handlePayloadDeserialization(ByteBuffer, Map)}.
+     *
+     * @param byteBuffer            payload
+     * @param writerSchema          schema with which the payload was written
+     * @param readerSchema          schema to be used for projection, it can be null.
+     * @param useSpecificAvroReader whether specific avro reader should be used.
+     * @return returns the deserialized Object.
+     */
+    public Object handlePayloadDeserialization(ByteBuffer byteBuffer,
+                                               Schema writerSchema,
+                                               Schema readerSchema,
+                                               boolean useSpecificAvroReader) {
+        return avroSerDesHandler.handlePayloadDeserialization(byteBuffer,
+                                                              writerSchema,
+                                                              readerSchema,
+                                                              useSpecificAvroReader);
+    }
 }
@@ -33,11 +33,13 @@ import com.hortonworks.registries.schemaregistry.exceptions.RegistryException;
 import com.hortonworks.registries.schemaregistry.serde.AbstractSnapshotDeserializer;
 import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import org.apache.avro.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -139,6 +141,11 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
         return new Schema.Parser().parse(avroSchemaResolver.resolveSchema(schemaVersionKey));
     }
 
+    @Override
+    protected Schema getParsedSchema(SchemaVersionInfo schemaVersionInfo) throws InvalidSchemaException, SchemaNotFoundException {
+        return new Schema.Parser().parse(avroSchemaResolver.resolveSchema(schemaVersionInfo.getSchemaText()));
+    }
+
     /**
      * Builds the deserialized object from the given {@code payloadInputStream} and applying writer and reader schemas
      * from the respective given versions.
@@ -156,19 +163,89 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
                                              SchemaMetadata schemaMetadata,
                                              Integer writerSchemaVersion,
                                              Integer readerSchemaVersion) throws SerDesException {
-        Object deserializedObj;
-        String schemaName = schemaMetadata.getName();
-        SchemaVersionKey writerSchemaVersionKey = new SchemaVersionKey(schemaName, writerSchemaVersion);
+        Schema writerSchema = getWriterSchema(schemaMetadata, writerSchemaVersion);
+        Schema readerSchema = getReaderSchema(schemaMetadata, readerSchemaVersion);
+
+        return deserializePayloadForProtocol(protocolId, payloadInputStream, writerSchema, readerSchema);
+    }
+
+    /**
+     * Builds the deserialized object from the remaining bytes of the given {@code payload} and applying writer and
+     * reader schemas from the respective given versions.
+     *
+     * @param protocolId          protocol id
+     * @param payload             payload
+     * @param schemaMetadata      metadata about schema
+     * @param writerSchemaVersion schema version of the writer
+     * @param readerSchemaVersion schema version to be applied for reading or projection
+     * @return the deserialized object
+     * @throws SerDesException when any ser/des error occurs
+     */
+    protected Object buildDeserializedObject(byte protocolId,
+                                             ByteBuffer payload,
+                                             SchemaMetadata schemaMetadata,
+                                             Integer writerSchemaVersion,
+                                             Integer readerSchemaVersion) throws SerDesException {
+        Schema writerSchema = getWriterSchema(schemaMetadata, writerSchemaVersion);
+        Schema readerSchema = getReaderSchema(schemaMetadata, readerSchemaVersion);
+
+        return deserializePayloadForProtocol(protocolId, payload, writerSchema, readerSchema);
+    }
+
+    /**
+     * Builds the deserialized object from the given {@code payloadInputStream} with the writer schema of the given
+     * {@code decodePlan} and the reader schema of the given version.
+     *
+     * @param protocolId          protocol id
+     * @param payloadInputStream  payload
+     * @param decodePlan          resolved information about the writer schema
+     * @param readerSchemaVersion schema version to be applied for reading or projection
+     * @return the deserialized object
+     * @throws SerDesException when any ser/des error occurs
+     */
+    protected Object buildDeserializedObject(byte protocolId,
+                                             InputStream payloadInputStream,
+                                             DecodePlan<Schema> decodePlan,
+                                             Integer readerSchemaVersion) throws SerDesException {
+        return deserializePayloadForProtocol(protocolId,
+                                             payloadInputStream,
+                                             decodePlan.getWriterSchema(),
+                                             getReaderSchema(decodePlan, readerSchemaVersion));
+    }
+
+    /**
+     * Builds the deserialized object from the remaining bytes of the given {@code payload} with the writer schema of
+     * the given {@code decodePlan} and the reader schema of the given version.
+     *
+     * @param protocolId          protocol id
+     * @param payload             payload
+     * @param decodePlan          resolved information about the writer schema
+     * @param readerSchemaVersion schema version to be applied for reading or projection
+     * @return the deserialized object
+     * @throws SerDesException when any ser/des error occurs
+     */
+    protected Object buildDeserializedObject(byte protocolId,
+                                             ByteBuffer payload,
+                                             DecodePlan<Schema> decodePlan,
+                                             Integer readerSchemaVersion) throws SerDesException {
+        return deserializePayloadForProtocol(protocolId,
+                                             payload,
+                                             decodePlan.getWriterSchema(),
+                                             getReaderSchema(decodePlan, readerSchemaVersion));
+    }
+
+    private Schema getWriterSchema(SchemaMetadata schemaMetadata, Integer writerSchemaVersion) {
+        SchemaVersionKey writerSchemaVersionKey = new SchemaVersionKey(schemaMetadata.getName(), writerSchemaVersion);
         LOG.debug("SchemaKey: [{}] for the received payload", writerSchemaVersionKey);
         Schema writerSchema = getSchema(writerSchemaVersionKey);
         if (writerSchema == null) {
             throw new RegistryException("No schema exists with metadata-key: " + schemaMetadata + " and writerSchemaVersion: " + writerSchemaVersion);
         }
-        Schema readerSchema = readerSchemaVersion != null ? getSchema(new SchemaVersionKey(schemaName, readerSchemaVersion)) : null;
-
-        deserializedObj = deserializePayloadForProtocol(protocolId, payloadInputStream, writerSchema, readerSchema);
+        return writerSchema;
+    }
 
-        return deserializedObj;
+    private Schema getReaderSchema(SchemaMetadata schemaMetadata, Integer readerSchemaVersion) {
+        return readerSchemaVersion != null ? getSchema(new SchemaVersionKey(schemaMetadata.getName(), readerSchemaVersion)) : null;
     }
 
     protected Object deserializePayloadForProtocol(byte protocolId,
@@ -183,4 +260,31 @@ public abstract class AbstractAvroSnapshotDeserializer<I> extends AbstractSnapsh
 
         return serDesProtocolHandler.handlePayloadDeserialization(payloadInputStream, props);
     }
+
+    protected Object deserializePayloadForProtocol(byte protocolId,
+                                                   ByteBuffer payload,
+                                                   Schema writerSchema,
+                                                   Schema readerSchema) throws SerDesException {
+        SerDesProtocolHandler serDesProtocolHandler = SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId);
+        if (serDesProtocolHandler instanceof AbstractAvroSerDesProtocolHandler) {
+            // avoid building context for inbuilt avro handlers.
+            return ((AbstractAvroSerDesProtocolHandler) serDesProtocolHandler).handlePayloadDeserialization(payload,
+                                                                                                             writerSchema,
+                                                                                                             readerSchema,
+                                                                                                             useSpecificAvroReader);
+        }
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(SPECIFIC_AVRO_READER, useSpecificAvroReader);
+        props.put(WRITER_SCHEMA, writerSchema);
+        props.put(READER_SCHEMA, readerSchema);
+
+        return serDesProtocolHandler.handlePayloadDeserialization(payload, props);
+    }
+
+    protected void checkProtocolHandlerExists(byte protocolId) {
+        if (SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId) == null) {
+            throw new AvroException("Unknown protocol id [" + protocolId + "] received while deserializing the payload");
+        }
+    }
 }
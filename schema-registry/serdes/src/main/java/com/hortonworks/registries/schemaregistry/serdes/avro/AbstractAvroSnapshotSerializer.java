@@ -25,6 +25,9 @@ import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 import com.hortonworks.registries.schemaregistry.serde.SnapshotDeserializer;
 import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import org.apache.avro.Schema;
 
 import java.io.OutputStream;
@@ -89,8 +92,15 @@ public abstract class AbstractAvroSnapshotSerializer<O> extends AbstractSnapshot
 
     protected SerDesProtocolHandler serDesProtocolHandler;
 
+    // textual representations of schema instances, schemas are weakly referenced and compared by identity. Producers
+    // usually share a schema instance across payloads, so its text is rendered only once.
+    private final LoadingCache<Schema, String> schemaTexts = CacheBuilder.newBuilder()
+                                                                         .weakKeys()
+                                                                         .build(CacheLoader.from(Schema::toString));
+
     @Override
     public void doInit(Map<String, ?> config) {
+        super.doInit(config);
 
         Number number = (Number) ((Map<String, Object>) config).getOrDefault(SERDES_PROTOCOL_VERSION,
                                                                              SerDesProtocolHandlerRegistry.CURRENT_PROTOCOL);
@@ -119,8 +129,19 @@ public abstract class AbstractAvroSnapshotSerializer<O> extends AbstractSnapshot
      * @return textual representation of the schema of the given {@code input} avro object
      */
     protected String getSchemaText(Object input) {
-        Schema schema = AvroUtils.computeSchema(input);
-        return schema.toString();
+        return schemaTexts.getUnchecked(AvroUtils.computeSchema(input));
+    }
+
+    /**
+     * {@link Schema#equals(Object)} ignores docs and aliases, so schemas which differ only in those would share one
+     * registered version. Textual representation of the schema is used as its identity instead.
+     *
+     * @param input avro object
+     * @return textual representation of the schema of the given {@code input} avro object
+     */
+    @Override
+    protected Object getSchemaIdentity(Object input) {
+        return getSchemaText(input);
     }
 
     protected void serializeSchemaVersion(OutputStream os, SchemaIdVersion schemaIdVersion) throws SerDesException {
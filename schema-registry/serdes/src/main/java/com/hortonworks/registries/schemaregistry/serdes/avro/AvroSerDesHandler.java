@@ -17,8 +17,11 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
 
 import org.apache.avro.Schema;
+import org.apache.avro.util.ByteBufferInputStream;
 
 /**
  * Interface for serializing and deserializing avro payloads.
@@ -31,4 +34,17 @@ public interface AvroSerDesHandler {
                                         Schema writerSchema,
                                         Schema readerSchema,
                                         boolean useSpecificAvroReader);
+
+    /**
+     * Deserializes the remaining bytes of the given {@code payload} and moves its position to the limit.
+     */
+    default Object handlePayloadDeserialization(ByteBuffer payload,
+                                                Schema writerSchema,
+                                                Schema readerSchema,
+                                                boolean useSpecificAvroReader) {
+        return handlePayloadDeserialization(new ByteBufferInputStream(Collections.singletonList(payload)),
+                                            writerSchema,
+                                            readerSchema,
+                                            useSpecificAvroReader);
+    }
 }
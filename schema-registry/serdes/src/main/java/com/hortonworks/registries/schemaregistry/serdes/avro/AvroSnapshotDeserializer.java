@@ -21,6 +21,7 @@ import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
 import com.hortonworks.registries.schemaregistry.serde.SerDesException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetryableException;
+import org.apache.avro.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,12 +69,6 @@ public class AvroSnapshotDeserializer extends AbstractAvroSnapshotDeserializer<I
         return protocolId;
     }
 
-    private void checkProtocolHandlerExists(byte protocolId) {
-        if (SerDesProtocolHandlerRegistry.get().getSerDesProtocolHandler(protocolId) == null) {
-            throw new AvroException("Unknown protocol id [" + protocolId + "] received while deserializing the payload");
-        }
-    }
-
     protected Object doDeserialize(InputStream payloadInputStream,
                                    byte protocolId,
                                    SchemaMetadata schemaMetadata,
@@ -82,6 +77,12 @@ public class AvroSnapshotDeserializer extends AbstractAvroSnapshotDeserializer<I
 
         return buildDeserializedObject(protocolId, payloadInputStream, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
     }
-    
-    
+
+    @Override
+    protected Object doDeserialize(InputStream payloadInputStream,
+                                   byte protocolId,
+                                   DecodePlan<Schema> decodePlan,
+                                   Integer readerSchemaVersion) throws SerDesException {
+        return buildDeserializedObject(protocolId, payloadInputStream, decodePlan, readerSchemaVersion);
+    }
 }
@@ -18,10 +18,6 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
 import com.hortonworks.registries.schemaregistry.serde.SerDesException;
-import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroRetryableException;
-
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 
 /**
  * This is the default implementation of {@link AbstractAvroSnapshotDeserializer}.
@@ -41,6 +37,9 @@ import java.io.IOException;
  */
 public class AvroSnapshotSerializer extends AbstractAvroSnapshotSerializer<byte[]> {
 
+    private static final ThreadLocal<ReusableByteArrayOutputStream> OUTPUT_BUFFER =
+            ThreadLocal.withInitial(ReusableByteArrayOutputStream::new);
+
     public AvroSnapshotSerializer() {
     }
 
@@ -49,14 +48,14 @@ public class AvroSnapshotSerializer extends AbstractAvroSnapshotSerializer<byte[
     }
 
     protected byte[] doSerialize(Object input, SchemaIdVersion schemaIdVersion) throws SerDesException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            serializeSchemaVersion(baos, schemaIdVersion);
-            serializePayload(baos, input);
-
-            return baos.toByteArray();
-        } catch (IOException e) {
-            throw new AvroRetryableException(e);
-        }
+        // serialized bytes are copied into an exactly sized array, so the output buffer can be reused by later
+        // invocations on this thread.
+        ReusableByteArrayOutputStream outputStream = OUTPUT_BUFFER.get();
+        outputStream.reset();
+        serializeSchemaVersion(outputStream, schemaIdVersion);
+        serializePayload(outputStream, input);
+
+        return outputStream.toByteArray();
     }
 
 }
@@ -18,7 +18,14 @@ package com.hortonworks.registries.schemaregistry.serdes.avro;
 import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericContainer;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.HashMap;
@@ -32,6 +39,10 @@ public final class AvroUtils {
 
     private static final Map<Schema.Type, Schema> PRIMITIVE_SCHEMAS;
 
+    private static final ThreadLocal<BinaryDecoder> BINARY_DECODER = new ThreadLocal<>();
+
+    private static final ThreadLocal<BinaryEncoder> BINARY_ENCODER = new ThreadLocal<>();
+
     static {
         Map<Schema.Type, Schema> map = new HashMap<>();
         Schema.Type[] types = {Schema.Type.NULL, Schema.Type.BYTES, Schema.Type.INT, Schema.Type.FLOAT,
@@ -81,4 +92,36 @@ public final class AvroUtils {
         return schema;
     }
 
+    /**
+     * Returns a {@link BinaryDecoder} for the given range of bytes. Decoder instance is reused for all the invocations
+     * on the current thread, so it should not be used once this method is invoked again on the same thread.
+     */
+    public static BinaryDecoder binaryDecoder(byte[] bytes, int offset, int length) {
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, offset, length, BINARY_DECODER.get());
+        BINARY_DECODER.set(decoder);
+        return decoder;
+    }
+
+    /**
+     * Writes the given {@code input} with the given {@code datumWriter} into {@code outputStream} using a
+     * {@link BinaryEncoder} which is reused for all the invocations on the current thread.
+     * <p>
+     * When writing fails, the encoder is discarded instead of being reused. It may still hold buffered bytes of the
+     * failed record, which would otherwise be flushed into the previous output stream when the encoder is configured
+     * again. That stream can be a reused buffer which already holds the next record.
+     */
+    public static void writeBinary(OutputStream outputStream,
+                                   DatumWriter<Object> datumWriter,
+                                   Object input) throws IOException {
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, BINARY_ENCODER.get());
+        BINARY_ENCODER.set(encoder);
+        try {
+            datumWriter.write(input, encoder);
+            encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            BINARY_ENCODER.remove();
+            throw e;
+        }
+    }
+
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serde.SerDesException;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
+import org.apache.avro.Schema;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implementation of {@link AbstractAvroSnapshotDeserializer} which deserializes the remaining bytes of a given
+ * {@link ByteBuffer}. Protocol id and schema version are read directly from the buffer and heap buffers are decoded
+ * without copying the payload, which avoids the stream wrapping done in {@link AvroSnapshotDeserializer}.
+ * <p>
+ * Position of the given buffer is moved to its limit once the payload is deserialized.
+ */
+public class ByteBufferAvroSnapshotDeserializer extends AbstractAvroSnapshotDeserializer<ByteBuffer> {
+
+    public ByteBufferAvroSnapshotDeserializer() {
+    }
+
+    public ByteBufferAvroSnapshotDeserializer(ISchemaRegistryClient schemaRegistryClient) {
+        super(schemaRegistryClient);
+    }
+
+    protected byte retrieveProtocolId(ByteBuffer byteBuffer) throws SerDesException {
+        // first byte is protocol version/id.
+        // protocol format:
+        // 1 byte  : protocol version
+        if (!byteBuffer.hasRemaining()) {
+            throw new AvroException("End of buffer reached while trying to read protocol id");
+        }
+
+        byte protocolId = byteBuffer.get();
+        checkProtocolHandlerExists(protocolId);
+
+        return protocolId;
+    }
+
+    protected SchemaIdVersion retrieveSchemaIdVersion(byte protocolId, ByteBuffer byteBuffer) throws SerDesException {
+        return SerDesProtocolHandlerRegistry.get()
+                                            .getSerDesProtocolHandler(protocolId)
+                                            .handleSchemaVersionDeserialization(byteBuffer);
+    }
+
+    protected Object doDeserialize(ByteBuffer byteBuffer,
+                                   byte protocolId,
+                                   SchemaMetadata schemaMetadata,
+                                   Integer writerSchemaVersion,
+                                   Integer readerSchemaVersion) throws SerDesException {
+        return buildDeserializedObject(protocolId, byteBuffer, schemaMetadata, writerSchemaVersion, readerSchemaVersion);
+    }
+
+    @Override
+    protected Object doDeserialize(ByteBuffer byteBuffer,
+                                   byte protocolId,
+                                   DecodePlan<Schema> decodePlan,
+                                   Integer readerSchemaVersion) throws SerDesException {
+        return buildDeserializedObject(protocolId, byteBuffer, decodePlan, readerSchemaVersion);
+    }
+
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.serde.SerDesException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implementation of {@link AbstractAvroSnapshotSerializer} which serializes into a per thread reusable buffer and
+ * returns a {@link ByteBuffer} view of the serialized bytes without copying them.
+ * <p>
+ * Returned buffer is backed by the reusable buffer of the current thread, so its contents are valid only till the next
+ * {@link #serialize(Object, Object)} invocation on the same thread. Callers should consume or copy it before that.
+ * {@link AvroSnapshotSerializer} can be used when an independent byte array is required.
+ */
+public class ByteBufferAvroSnapshotSerializer extends AbstractAvroSnapshotSerializer<ByteBuffer> {
+
+    private static final ThreadLocal<ReusableByteArrayOutputStream> OUTPUT_BUFFER =
+            ThreadLocal.withInitial(ReusableByteArrayOutputStream::new);
+
+    public ByteBufferAvroSnapshotSerializer() {
+    }
+
+    public ByteBufferAvroSnapshotSerializer(ISchemaRegistryClient schemaRegistryClient) {
+        super(schemaRegistryClient);
+    }
+
+    protected ByteBuffer doSerialize(Object input, SchemaIdVersion schemaIdVersion) throws SerDesException {
+        ReusableByteArrayOutputStream outputStream = OUTPUT_BUFFER.get();
+        outputStream.reset();
+        serializeSchemaVersion(outputStream, schemaIdVersion);
+        serializePayload(outputStream, input);
+
+        return outputStream.toByteBuffer();
+    }
+
+}
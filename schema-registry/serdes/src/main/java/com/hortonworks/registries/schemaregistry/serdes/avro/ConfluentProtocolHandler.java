@@ -46,8 +46,7 @@ public class ConfluentProtocolHandler extends AbstractAvroSerDesProtocolHandler
         } else {
             // 4 bytes
             try {
-                outputStream.write(ByteBuffer.allocate(4)
-                                             .putInt(versionId.intValue()).array());
+                writeInt(outputStream, versionId.intValue());
             } catch (IOException e) {
                 throw new AvroRetryableException(e);
             }
@@ -67,4 +66,10 @@ public class ConfluentProtocolHandler extends AbstractAvroSerDesProtocolHandler
         return new SchemaIdVersion((long) schemaVersionId);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) {
+        int schemaVersionId = readInt(byteBuffer);
+        return new SchemaIdVersion((long) schemaVersionId);
+    }
+
 }
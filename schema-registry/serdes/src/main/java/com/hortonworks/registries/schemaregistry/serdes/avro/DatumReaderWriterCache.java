@@ -0,0 +1,218 @@
+/*
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+
+/**
+ * Bounded cache of {@link DatumReader} and {@link DatumWriter} instances keyed by writer schema, reader schema and
+ * whether specific or generic records are used.
+ * <p>
+ * Building a reader involves resolving writer and reader schemas which is the costliest part of deserializing small
+ * payloads. Avro readers and writers can be shared across threads as resolvers are maintained per thread internally,
+ * so a single instance is kept for each combination of schemas.
+ * <p>
+ * Readers are keyed by the full text of the schemas, as aliases are used to resolve writer and reader schemas but they
+ * are not considered by {@link Schema#equals(Object)}. Text of a schema instance is rendered only once. Writers do not
+ * use aliases, so they are keyed by the schema itself.
+ * <p>
+ * A default instance returned by {@link #get()} is shared by all inbuilt protocol handlers registered in
+ * {@link SerDesProtocolHandlerRegistry}.
+ */
+public final class DatumReaderWriterCache {
+
+    /**
+     * Default maximum number of readers and writers(each) maintained in the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final DatumReaderWriterCache instance = new DatumReaderWriterCache(DEFAULT_MAX_SIZE);
+
+    private final LoadingCache<ReaderKey, DatumReader<Object>> readerCache;
+    private final LoadingCache<WriterKey, DatumWriter<Object>> writerCache;
+    // schema instances are weakly referenced and compared by identity.
+    private final LoadingCache<Schema, String> schemaTexts;
+
+    public static DatumReaderWriterCache get() {
+        return instance;
+    }
+
+    public DatumReaderWriterCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must be non negative.");
+        }
+        readerCache = CacheBuilder.newBuilder()
+                                  .maximumSize(maxSize)
+                                  .recordStats()
+                                  .build(new CacheLoader<ReaderKey, DatumReader<Object>>() {
+                                      @Override
+                                      public DatumReader<Object> load(ReaderKey key) {
+                                          return createDatumReader(key);
+                                      }
+                                  });
+        writerCache = CacheBuilder.newBuilder()
+                                  .maximumSize(maxSize)
+                                  .recordStats()
+                                  .build(new CacheLoader<WriterKey, DatumWriter<Object>>() {
+                                      @Override
+                                      public DatumWriter<Object> load(WriterKey key) {
+                                          return createDatumWriter(key);
+                                      }
+                                  });
+        schemaTexts = CacheBuilder.newBuilder()
+                                  .weakKeys()
+                                  .build(new CacheLoader<Schema, String>() {
+                                      @Override
+                                      public String load(Schema schema) {
+                                          return schema.toString();
+                                      }
+                                  });
+    }
+
+    /**
+     * Returns {@link DatumReader} for the given writer and reader schemas.
+     *
+     * @param writerSchema schema with which the payload was written
+     * @param readerSchema schema to be used for projection, writer schema is used when it is null.
+     * @param specific     whether {@link SpecificDatumReader} should be used.
+     */
+    public DatumReader<Object> getDatumReader(Schema writerSchema, Schema readerSchema, boolean specific) {
+        return readerCache.getUnchecked(new ReaderKey(writerSchema,
+                                                      schemaTexts.getUnchecked(writerSchema),
+                                                      readerSchema,
+                                                      readerSchema != null ? schemaTexts.getUnchecked(readerSchema) : null,
+                                                      specific));
+    }
+
+    /**
+     * Returns {@link DatumWriter} for the given schema.
+     *
+     * @param schema   schema of the payload to be written
+     * @param specific whether {@link SpecificDatumWriter} should be used.
+     */
+    public DatumWriter<Object> getDatumWriter(Schema schema, boolean specific) {
+        return writerCache.getUnchecked(new WriterKey(schema, specific));
+    }
+
+    public long getReaderHitCount() {
+        return readerCache.stats().hitCount();
+    }
+
+    public long getReaderMissCount() {
+        return readerCache.stats().missCount();
+    }
+
+    public long getWriterHitCount() {
+        return writerCache.stats().hitCount();
+    }
+
+    public long getWriterMissCount() {
+        return writerCache.stats().missCount();
+    }
+
+    public void invalidateAll() {
+        readerCache.invalidateAll();
+        writerCache.invalidateAll();
+    }
+
+    private static DatumReader<Object> createDatumReader(ReaderKey key) {
+        Schema readerSchema = key.readerSchema != null ? key.readerSchema : key.writerSchema;
+        return key.specific
+               ? new SpecificDatumReader<>(key.writerSchema, readerSchema)
+               : new GenericDatumReader<>(key.writerSchema, readerSchema);
+    }
+
+    private static DatumWriter<Object> createDatumWriter(WriterKey key) {
+        return key.specific ? new SpecificDatumWriter<>(key.schema) : new GenericDatumWriter<>(key.schema);
+    }
+
+    private static final class WriterKey {
+        private final Schema schema;
+        private final boolean specific;
+
+        private WriterKey(Schema schema, boolean specific) {
+            this.schema = schema;
+            this.specific = specific;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            WriterKey key = (WriterKey) o;
+
+            if (specific != key.specific) return false;
+            return schema.equals(key.schema);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = schema.hashCode();
+            result = 31 * result + (specific ? 1 : 0);
+            return result;
+        }
+    }
+
+    private static final class ReaderKey {
+        private final Schema writerSchema;
+        private final String writerSchemaText;
+        private final Schema readerSchema;
+        private final String readerSchemaText;
+        private final boolean specific;
+
+        private ReaderKey(Schema writerSchema,
+                          String writerSchemaText,
+                          Schema readerSchema,
+                          String readerSchemaText,
+                          boolean specific) {
+            this.writerSchema = writerSchema;
+            this.writerSchemaText = writerSchemaText;
+            this.readerSchema = readerSchema;
+            this.readerSchemaText = readerSchemaText;
+            this.specific = specific;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            ReaderKey key = (ReaderKey) o;
+
+            if (specific != key.specific) return false;
+            if (!writerSchemaText.equals(key.writerSchemaText)) return false;
+            return readerSchemaText != null ? readerSchemaText.equals(key.readerSchemaText) : key.readerSchemaText == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = writerSchemaText.hashCode();
+            result = 31 * result + (readerSchemaText != null ? readerSchemaText.hashCode() : 0);
+            result = 31 * result + (specific ? 1 : 0);
+            return result;
+        }
+    }
+}
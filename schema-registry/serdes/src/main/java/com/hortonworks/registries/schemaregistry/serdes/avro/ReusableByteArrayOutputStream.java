@@ -0,0 +1,64 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link ByteArrayOutputStream} whose internal buffer is kept across {@link #reset()} invocations so that it can be
+ * reused for serializing multiple payloads without growing a new buffer each time. Buffers which have grown beyond
+ * the configured maximum retained size are released on reset.
+ */
+public class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    public static final int DEFAULT_INITIAL_SIZE = 1024;
+
+    public static final int DEFAULT_MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private final int initialSize;
+    private final int maxRetainedSize;
+
+    public ReusableByteArrayOutputStream() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_RETAINED_SIZE);
+    }
+
+    public ReusableByteArrayOutputStream(int initialSize, int maxRetainedSize) {
+        super(initialSize);
+        if (maxRetainedSize < initialSize) {
+            throw new IllegalArgumentException("maxRetainedSize should not be less than initialSize");
+        }
+        this.initialSize = initialSize;
+        this.maxRetainedSize = maxRetainedSize;
+    }
+
+    @Override
+    public synchronized void reset() {
+        if (buf.length > maxRetainedSize) {
+            buf = new byte[initialSize];
+        }
+        super.reset();
+    }
+
+    /**
+     * Returns {@link ByteBuffer} view of the bytes written so far without copying them. Returned buffer is valid only
+     * till this stream is reset.
+     */
+    public synchronized ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
+}
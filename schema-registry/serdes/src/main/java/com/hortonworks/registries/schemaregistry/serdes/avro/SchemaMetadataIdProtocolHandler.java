@@ -39,9 +39,8 @@ public class SchemaMetadataIdProtocolHandler extends AbstractAvroSerDesProtocolH
         // 8 bytes : schema metadata Id
         // 4 bytes : schema version
         try {
-            outputStream.write(ByteBuffer.allocate(12)
-                                         .putLong(schemaIdVersion.getSchemaMetadataId())
-                                         .putInt(schemaIdVersion.getVersion()).array());
+            writeLong(outputStream, schemaIdVersion.getSchemaMetadataId());
+            writeInt(outputStream, schemaIdVersion.getVersion());
         } catch (IOException e) {
             throw new AvroRetryableException(e);
         }
@@ -64,4 +63,14 @@ public class SchemaMetadataIdProtocolHandler extends AbstractAvroSerDesProtocolH
         return new SchemaIdVersion(schemaMetadataId, schemaVersion);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) {
+        // 8 bytes : schema metadata Id
+        // 4 bytes : schema version
+        long schemaMetadataId = readLong(byteBuffer);
+        int schemaVersion = readInt(byteBuffer);
+
+        return new SchemaIdVersion(schemaMetadataId, schemaVersion);
+    }
+
 }
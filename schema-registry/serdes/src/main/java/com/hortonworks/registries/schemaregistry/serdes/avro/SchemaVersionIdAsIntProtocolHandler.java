@@ -50,9 +50,8 @@ public class SchemaVersionIdAsIntProtocolHandler extends AbstractAvroSerDesProto
         } else {
             // 4 bytes
             try {
-                outputStream.write(new byte[]{protocolId});
-                outputStream.write(ByteBuffer.allocate(4)
-                                             .putInt(versionId.intValue()).array());
+                outputStream.write(protocolId);
+                writeInt(outputStream, versionId.intValue());
             } catch (IOException e) {
                 throw new AvroException(e);
             }
@@ -77,6 +76,12 @@ public class SchemaVersionIdAsIntProtocolHandler extends AbstractAvroSerDesProto
         return new SchemaIdVersion((long) schemaVersionId);
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) {
+        int schemaVersionId = readInt(byteBuffer);
+        return new SchemaIdVersion((long) schemaVersionId);
+    }
+
     public Byte getProtocolId() {
         return protocolId;
     }
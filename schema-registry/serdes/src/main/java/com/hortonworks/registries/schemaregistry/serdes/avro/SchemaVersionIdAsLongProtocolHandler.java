@@ -37,9 +37,7 @@ public class SchemaVersionIdAsLongProtocolHandler extends AbstractAvroSerDesProt
     public void doHandleSchemaVersionSerialization(OutputStream outputStream,
                                                    SchemaIdVersion schemaIdVersion) throws SerDesException {
         try {
-            Long versionId = schemaIdVersion.getSchemaVersionId();
-            outputStream.write(ByteBuffer.allocate(8)
-                                         .putLong(versionId).array());
+            writeLong(outputStream, schemaIdVersion.getSchemaVersionId());
         } catch (IOException e) {
             throw new AvroRetryableException(e);
         }
@@ -57,6 +55,11 @@ public class SchemaVersionIdAsLongProtocolHandler extends AbstractAvroSerDesProt
         return new SchemaIdVersion(byteBuffer.getLong());
     }
 
+    @Override
+    public SchemaIdVersion handleSchemaVersionDeserialization(ByteBuffer byteBuffer) throws SerDesException {
+        return new SchemaIdVersion(readLong(byteBuffer));
+    }
+
     public Byte getProtocolId() {
         return protocolId;
     }
@@ -50,6 +50,13 @@ public final class SerDesProtocolHandlerRegistry {
         return Collections.unmodifiableMap(protocolWithHandlers);
     }
 
+    /**
+     * @return {@link DatumReaderWriterCache} shared by all inbuilt protocol handlers.
+     */
+    public DatumReaderWriterCache getDatumReaderWriterCache() {
+        return DatumReaderWriterCache.get();
+    }
+
     private SerDesProtocolHandlerRegistry() {
         List<SerDesProtocolHandler> inbuiltHandlers = Arrays.asList(new ConfluentProtocolHandler(), new SchemaMetadataIdProtocolHandler(),
                                                                     new SchemaVersionIdAsIntProtocolHandler(), new SchemaVersionIdAsLongProtocolHandler());
@@ -16,10 +16,10 @@
 package com.hortonworks.registries.schemaregistry.serdes.avro.kafka;
 
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
-import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.ByteBufferAvroSnapshotDeserializer;
 import org.apache.kafka.common.serialization.Deserializer;
 
-import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.Map;
 
@@ -75,15 +75,15 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
      */
     public static final String READER_VERSIONS = "schemaregistry.reader.schema.versions";
 
-    private final AvroSnapshotDeserializer avroSnapshotDeserializer;
+    private final ByteBufferAvroSnapshotDeserializer avroSnapshotDeserializer;
     private Map<String, Integer> readerVersions;
 
     public KafkaAvroDeserializer() {
-        avroSnapshotDeserializer = new AvroSnapshotDeserializer();
+        avroSnapshotDeserializer = new ByteBufferAvroSnapshotDeserializer();
     }
 
     public KafkaAvroDeserializer(ISchemaRegistryClient schemaRegistryClient) {
-        avroSnapshotDeserializer = new AvroSnapshotDeserializer(schemaRegistryClient);
+        avroSnapshotDeserializer = new ByteBufferAvroSnapshotDeserializer(schemaRegistryClient);
     }
 
     @Override
@@ -95,7 +95,7 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
 
     @Override
     public Object deserialize(String topic, byte[] data) {
-        return avroSnapshotDeserializer.deserialize(new ByteArrayInputStream(data), readerVersions.get(topic));
+        return avroSnapshotDeserializer.deserialize(ByteBuffer.wrap(data), readerVersions.get(topic));
     }
 
     @Override
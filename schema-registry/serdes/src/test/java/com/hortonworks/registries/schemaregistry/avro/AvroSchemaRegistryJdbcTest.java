@@ -0,0 +1,178 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.schemaregistry.avro;
+
+import com.hortonworks.registries.common.transaction.TransactionIsolation;
+import com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.util.SchemaRegistryUtil;
+import com.hortonworks.registries.storage.impl.jdbc.JdbcStorageManager;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.config.HikariBasicConfig;
+import com.hortonworks.registries.storage.impl.jdbc.connection.HikariCPConnectionBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import org.apache.avro.Schema;
+import org.h2.tools.RunScript;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tests schema version registrations with {@link JdbcStorageManager} on an in-memory H2 database.
+ */
+public class AvroSchemaRegistryJdbcTest {
+
+    private static final String SCHEMA_GROUP = "test-group";
+
+    private HikariCPConnectionBuilder connectionBuilder;
+    private JdbcStorageManager storageManager;
+    private DefaultSchemaRegistry schemaRegistry;
+    private ExecutorService executorService;
+    private SchemaMetadata schemaMetadata;
+    private String schema1;
+    private String schema2;
+
+    @Before
+    public void setup() throws Exception {
+        schema1 = getSchema("/device.avsc");
+        schema2 = getSchema("/device-compat.avsc");
+
+        connectionBuilder = new HikariCPConnectionBuilder(HikariBasicConfig.getH2HikariConfig());
+        storageManager = new JdbcStorageManager(new MySqlExecutor(new ExecutionConfig(-1), connectionBuilder));
+        runScript("mysql/create_tables.sql");
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        schemaMetadata = new SchemaMetadata.Builder("devices")
+                .type(AvroSchemaProvider.TYPE)
+                .schemaGroup(SCHEMA_GROUP)
+                .compatibility(SchemaCompatibility.BACKWARD)
+                .build();
+        schemaRegistry.registerSchemaMetadata(schemaMetadata);
+
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        runScript("mysql/drop_tables.sql");
+        connectionBuilder.cleanup();
+    }
+
+    @Test
+    public void testNextVersionIsAllocatedAfterVersionIsCommitted() throws Exception {
+        SchemaIdVersion firstVersion = beginTransactionAndAddVersion(schema1);
+        Future<SchemaIdVersion> secondVersion = addVersionInAnotherTransaction(schema2);
+
+        storageManager.commitTransaction();
+
+        Assert.assertEquals(Integer.valueOf(1), firstVersion.getVersion());
+        Assert.assertEquals(Integer.valueOf(2), secondVersion.get(1, TimeUnit.MINUTES).getVersion());
+        Assert.assertEquals(Arrays.asList(1, 2), getVersions());
+    }
+
+    @Test
+    public void testVersionIsAllocatedAgainWhenVersionIsRolledBack() throws Exception {
+        beginTransactionAndAddVersion(schema1);
+        Future<SchemaIdVersion> secondVersion = addVersionInAnotherTransaction(schema2);
+
+        storageManager.rollbackTransaction();
+
+        Assert.assertEquals(Integer.valueOf(1), secondVersion.get(1, TimeUnit.MINUTES).getVersion());
+        Assert.assertEquals(Collections.singletonList(1), getVersions());
+    }
+
+    private SchemaIdVersion beginTransactionAndAddVersion(String schemaText) throws Exception {
+        storageManager.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        try {
+            return schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText, "devices schema"));
+        } catch (Exception e) {
+            storageManager.rollbackTransaction();
+            throw e;
+        }
+    }
+
+    private Future<SchemaIdVersion> addVersionInAnotherTransaction(String schemaText) throws Exception {
+        Future<SchemaIdVersion> future = executorService.submit(
+                () -> inTransaction(() -> schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText, "devices schema"))));
+
+        // version added in the current transaction is not visible to other transactions yet, so this one waits for it.
+        Thread.sleep(500);
+        Assert.assertFalse(future.isDone());
+
+        return future;
+    }
+
+    private List<Integer> getVersions() throws Exception {
+        return schemaRegistry.getAllVersions(schemaMetadata.getName())
+                             .stream()
+                             .map(SchemaVersionInfo::getVersion)
+                             .sorted()
+                             .collect(Collectors.toList());
+    }
+
+    private <T> T inTransaction(Callable<T> callable) throws Exception {
+        storageManager.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        try {
+            T result = callable.call();
+            storageManager.commitTransaction();
+            return result;
+        } catch (Exception e) {
+            storageManager.rollbackTransaction();
+            throw e;
+        }
+    }
+
+    private String getSchema(String schemaFileName) throws IOException {
+        InputStream avroSchemaStream = AvroSchemaRegistryJdbcTest.class.getResourceAsStream(schemaFileName);
+        Schema.Parser parser = new Schema.Parser();
+        return parser.parse(avroSchemaStream).toString();
+    }
+
+    private void runScript(String fileName) throws SQLException, IOException {
+        try (Connection connection = connectionBuilder.getConnection();
+             Reader reader = new InputStreamReader(getClass().getClassLoader().getResourceAsStream(fileName))) {
+            RunScript.execute(connection, reader);
+        }
+    }
+}
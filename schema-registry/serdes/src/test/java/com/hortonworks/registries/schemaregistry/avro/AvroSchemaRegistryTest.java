@@ -17,21 +17,35 @@ package com.hortonworks.registries.schemaregistry.avro;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.schemaregistry.AggregatedSchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.CompatibilityResult;
 import com.hortonworks.registries.schemaregistry.DefaultSchemaRegistry;
+import com.hortonworks.registries.schemaregistry.SchemaBranch;
 import com.hortonworks.registries.schemaregistry.SchemaCompatibility;
+import com.hortonworks.registries.schemaregistry.SchemaFieldQuery;
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
 import com.hortonworks.registries.schemaregistry.SchemaMetadata;
 import com.hortonworks.registries.schemaregistry.SchemaMetadataInfo;
+import com.hortonworks.registries.schemaregistry.SchemaMetadataStorable;
+import com.hortonworks.registries.schemaregistry.SchemaValidationLevel;
 import com.hortonworks.registries.schemaregistry.SchemaVersion;
 import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
 import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
+import com.hortonworks.registries.schemaregistry.SchemaVersionStorable;
 import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
 import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.schemaregistry.state.SchemaVersionLifecycleStates;
 import com.hortonworks.registries.schemaregistry.util.SchemaRegistryUtil;
+import com.hortonworks.registries.storage.OrderByField;
+import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.exception.AlreadyExistsException;
+import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.impl.memory.InMemoryStorageManager;
+import com.hortonworks.registries.storage.transaction.TransactionCompletionListener;
 import org.apache.avro.Schema;
 import org.junit.Assert;
 import org.junit.Before;
@@ -41,11 +55,26 @@ import org.junit.rules.TestName;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -198,6 +227,546 @@ public class AvroSchemaRegistryTest {
                                    .getVersion();
     }
 
+    @Test
+    public void testParallelCompatibilityCheckWithAllVersions() throws Exception {
+        StorageManager storageManager = new InMemoryStorageManager();
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry sequentialSchemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        sequentialSchemaRegistry.init(Collections.<String, Object>emptyMap());
+        DefaultSchemaRegistry parallelSchemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        Map<String, Object> props = new HashMap<>();
+        props.put(DefaultSchemaRegistry.Options.COMPATIBILITY_CHECK_PARALLELISM, 4);
+        props.put(DefaultSchemaRegistry.Options.COMPATIBILITY_CHECK_PARALLELISM_THRESHOLD, 2);
+        parallelSchemaRegistry.init(props);
+
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD))
+                .validationLevel(SchemaValidationLevel.ALL)
+                .build();
+        sequentialSchemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "Initial version of the schema"));
+        sequentialSchemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "second version"));
+
+        for (String toSchema : new String[]{schema2, getSchema("/device-incompat.avsc")}) {
+            CompatibilityResult expectedResult = sequentialSchemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema);
+            CompatibilityResult result = parallelSchemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema);
+            Assert.assertEquals(toSchema.equals(schema2), result.isCompatible());
+            Assert.assertEquals(expectedResult.isCompatible(), result.isCompatible());
+            Assert.assertEquals(expectedResult.getErrorMessage(), result.getErrorMessage());
+            Assert.assertEquals(expectedResult.getErrorLocation(), result.getErrorLocation());
+            Assert.assertEquals(expectedResult.getSchema(), result.getSchema());
+        }
+    }
+
+    @Test
+    public void testCompatibilityWithAllVersionsAfterStateChanges() throws Exception {
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD))
+                .validationLevel(SchemaValidationLevel.ALL)
+                .build();
+        String schemaText1 = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"a\",\"type\":\"int\"}]}";
+        String schemaText2 = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"a\",\"type\":\"int\"}," +
+                "{\"name\":\"b\",\"type\":\"string\",\"default\":\"b\"}]}";
+        // can not read data written with schemaText1 as it does not have field b
+        String toSchema = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"b\",\"type\":\"string\"}]}";
+
+        Long schemaVersionId1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText1, "first version"))
+                                              .getSchemaVersionId();
+        Assert.assertFalse(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText2, "second version"));
+        Assert.assertFalse(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+
+        schemaRegistry.disableSchemaVersion(schemaVersionId1);
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+
+        schemaRegistry.enableSchemaVersion(schemaVersionId1);
+        Assert.assertFalse(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+
+        schemaRegistry.disableSchemaVersion(schemaVersionId1);
+        schemaRegistry.archiveSchemaVersion(schemaVersionId1);
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+
+        // newly added version is taken into account
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText2.replace("\"b\"}", "\"c\"}"), "third version"));
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaMetadata.getName(), schemaText1).isCompatible());
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(toSchema, "fourth version"));
+        Assert.assertFalse(schemaRegistry.checkCompatibility(schemaMetadata.getName(), schemaText1).isCompatible());
+    }
+
+    @Test
+    public void testEnabledVersionsAreFetchedOnlyAfterChanges() throws Exception {
+        SchemaVersionQueryCountingStorageManager storageManager = new SchemaVersionQueryCountingStorageManager();
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD))
+                .validationLevel(SchemaValidationLevel.ALL)
+                .build();
+        String schemaName = schemaMetadata.getName();
+        Long schemaVersionId1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"))
+                                              .getSchemaVersionId();
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "second version"));
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaName, schema2).isCompatible());
+
+        int schemaVersionQueries = storageManager.getSchemaVersionQueries();
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaName, schema2).isCompatible());
+        Assert.assertEquals(schemaVersionQueries, storageManager.getSchemaVersionQueries());
+
+        schemaRegistry.disableSchemaVersion(schemaVersionId1);
+        schemaVersionQueries = storageManager.getSchemaVersionQueries();
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaName, schema2).isCompatible());
+        Assert.assertTrue(storageManager.getSchemaVersionQueries() > schemaVersionQueries);
+    }
+
+    @Test
+    public void testCompatibilityWithAllVersionsChangedByAnotherInstance() throws Exception {
+        StorageManager storageManager = new InMemoryStorageManager();
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+        DefaultSchemaRegistry otherSchemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        otherSchemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = new SchemaMetadata.Builder(createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD))
+                .validationLevel(SchemaValidationLevel.ALL)
+                .build();
+        String schemaText1 = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"a\",\"type\":\"int\"}]}";
+        String schemaText2 = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"a\",\"type\":\"int\"}," +
+                "{\"name\":\"b\",\"type\":\"string\",\"default\":\"b\"}]}";
+        // can not read data written with schemaText1 as it does not have field b
+        String toSchema = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"b\",\"type\":\"string\"}]}";
+
+        Long schemaVersionId1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText1, "first version"))
+                                              .getSchemaVersionId();
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText2, "second version"));
+        Assert.assertFalse(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+
+        // state changes made by another registry instance are seen without waiting for cached summaries to expire
+        otherSchemaRegistry.disableSchemaVersion(schemaVersionId1);
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+
+        otherSchemaRegistry.enableSchemaVersion(schemaVersionId1);
+        Assert.assertFalse(schemaRegistry.checkCompatibility(schemaMetadata.getName(), toSchema).isCompatible());
+    }
+
+    @Test
+    public void testSchemaVersionsAddedByAnotherInstance() throws Exception {
+        StorageManager storageManager = new InMemoryStorageManager();
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+        DefaultSchemaRegistry otherSchemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        otherSchemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"));
+        Assert.assertEquals(1, schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaMetadata.getName()).size());
+
+        // versions of master branch are cached now, a version added by another registry instance should still be found
+        SchemaIdVersion schemaIdVersion = otherSchemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "second version"));
+        Assert.assertEquals(2, schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaMetadata.getName()).size());
+        Assert.assertEquals(Collections.singletonList(2),
+                            getVersions(schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaMetadata.getName(), null, 1)));
+        Assert.assertEquals(schemaIdVersion.getSchemaVersionId(),
+                            schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "same version")).getSchemaVersionId());
+        Assert.assertEquals(2, schemaRegistry.getAllVersions(schemaMetadata.getName()).size());
+    }
+
+    @Test
+    public void testAddExistingSchemaVersionAfterDelete() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+
+        SchemaIdVersion schemaIdVersion1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"));
+        SchemaIdVersion schemaIdVersion2 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "same version"));
+        Assert.assertEquals(schemaIdVersion1.getSchemaVersionId(), schemaIdVersion2.getSchemaVersionId());
+        Assert.assertEquals(schemaIdVersion1.getSchemaVersionId(),
+                            schemaRegistry.getSchemaVersionInfo(schemaMetadata.getName(), schema1).getId());
+
+        schemaRegistry.deleteSchemaVersion(new SchemaVersionKey(schemaMetadata.getName(), schemaIdVersion1.getVersion()));
+        Assert.assertNull(schemaRegistry.getSchemaVersionInfo(schemaMetadata.getName(), schema1));
+
+        // deleted version should not be returned for the same schema text
+        SchemaIdVersion schemaIdVersion3 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "added again"));
+        Assert.assertNotEquals(schemaIdVersion1.getSchemaVersionId(), schemaIdVersion3.getSchemaVersionId());
+        Assert.assertEquals(schemaIdVersion3.getSchemaVersionId(),
+                            schemaRegistry.getSchemaVersionInfo(schemaMetadata.getName(), schema1).getId());
+    }
+
+    @Test
+    public void testSchemaBranchVersionsAfterChanges() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        String schemaName = schemaMetadata.getName();
+        String branchName = TEST_NAME_RULE.getMethodName() + "-branch";
+
+        SchemaIdVersion schemaIdVersion1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"));
+        Assert.assertEquals(1, schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName).size());
+
+        SchemaBranch schemaBranch = schemaRegistry.createSchemaBranch(schemaIdVersion1.getSchemaVersionId(), new SchemaBranch(branchName, schemaName));
+        Assert.assertEquals(1, schemaRegistry.getAllVersions(branchName, schemaName).size());
+
+        SchemaIdVersion schemaIdVersion2 = schemaRegistry.addSchemaVersion(branchName, schemaMetadata, new SchemaVersion(schema2, "branch version"));
+        Collection<SchemaVersionInfo> branchVersions = schemaRegistry.getAllVersions(branchName, schemaName);
+        Assert.assertEquals(2, branchVersions.size());
+        Assert.assertEquals(schemaIdVersion2.getSchemaVersionId(), branchVersions.stream().reduce((first, second) -> second).get().getId());
+        Assert.assertEquals(1, schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName).size());
+        // version added to the branch is not found in master branch
+        Assert.assertNull(schemaRegistry.getSchemaVersionInfo(schemaName, schema2));
+
+        schemaRegistry.deleteSchemaBranch(schemaBranch.getId());
+        Assert.assertEquals(1, schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName).size());
+
+        schemaRegistry.createSchemaBranch(schemaIdVersion1.getSchemaVersionId(), new SchemaBranch(branchName, schemaName));
+        Assert.assertEquals(Collections.singletonList(schemaIdVersion1.getSchemaVersionId()),
+                            schemaRegistry.getAllVersions(branchName, schemaName)
+                                          .stream()
+                                          .map(SchemaVersionInfo::getId)
+                                          .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testPagesOfSchemasAndVersions() throws Exception {
+        String testName = TEST_NAME_RULE.getMethodName();
+        for (String name : Arrays.asList("c", "a", "b")) {
+            schemaRegistry.registerSchemaMetadata(createSchemaInfo(testName + "-" + name, SchemaCompatibility.NONE));
+        }
+        Map<String, String> props = Collections.singletonMap(SchemaMetadataStorable.SCHEMA_GROUP, testName + "-a-group");
+        Assert.assertEquals(1, schemaRegistry.findSchemaMetadata(props, null, 2).size());
+
+        Collection<SchemaMetadataInfo> firstPage = schemaRegistry.findSchemaMetadata(Collections.emptyMap(), null, 2);
+        Assert.assertEquals(Arrays.asList(testName + "-a-schema", testName + "-b-schema"), getNames(firstPage));
+        Collection<SchemaMetadataInfo> secondPage = schemaRegistry.findSchemaMetadata(Collections.emptyMap(), testName + "-b-schema", 2);
+        Assert.assertEquals(Collections.singletonList(testName + "-c-schema"), getNames(secondPage));
+
+        SchemaMetadata schemaMetadata = createSchemaInfo(testName, SchemaCompatibility.NONE);
+        String schemaName = schemaMetadata.getName();
+        String branchName = testName + "-branch";
+        SchemaIdVersion schemaIdVersion1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"));
+        schemaRegistry.createSchemaBranch(schemaIdVersion1.getSchemaVersionId(), new SchemaBranch(branchName, schemaName));
+        schemaRegistry.addSchemaVersion(branchName, schemaMetadata, new SchemaVersion(schema2, "branch version"));
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "master version"));
+
+        // master versions are latest first, the version of the branch is skipped
+        Assert.assertEquals(Collections.singletonList(3), getVersions(schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName, null, 1)));
+        Assert.assertEquals(Collections.singletonList(1), getVersions(schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName, 3, 1)));
+        Assert.assertEquals(Collections.emptyList(), getVersions(schemaRegistry.getAllVersions(SchemaBranch.MASTER_BRANCH, schemaName, 1, 1)));
+        Assert.assertEquals(Collections.singletonList(2), getVersions(schemaRegistry.getAllVersions(branchName, schemaName, 1, 5)));
+    }
+
+    private List<String> getNames(Collection<SchemaMetadataInfo> schemaMetadataInfos) {
+        return schemaMetadataInfos.stream().map(x -> x.getSchemaMetadata().getName()).collect(Collectors.toList());
+    }
+
+    private List<Integer> getVersions(Collection<SchemaVersionInfo> schemaVersionInfos) {
+        return schemaVersionInfos.stream().map(SchemaVersionInfo::getVersion).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFindSchemasByFieldsAfterChanges() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        String schemaName = schemaMetadata.getName();
+        SchemaFieldQuery xidQuery = new SchemaFieldQuery.Builder().name("xid").type(Schema.Type.LONG.name()).build();
+        SchemaFieldQuery makeQuery = new SchemaFieldQuery.Builder().name("make").build();
+
+        SchemaIdVersion schemaIdVersion1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"));
+        Assert.assertEquals(Collections.singletonList(new SchemaVersionKey(schemaName, schemaIdVersion1.getVersion())),
+                            schemaRegistry.findSchemasByFields(xidQuery));
+        Assert.assertTrue(schemaRegistry.findSchemasByFields(makeQuery).isEmpty());
+
+        // versions added after the fields are indexed are found
+        SchemaIdVersion schemaIdVersion2 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "second version"));
+        SchemaVersionKey schemaVersionKey2 = new SchemaVersionKey(schemaName, schemaIdVersion2.getVersion());
+        Assert.assertEquals(Collections.singletonList(schemaVersionKey2), schemaRegistry.findSchemasByFields(makeQuery));
+        Assert.assertEquals(2, schemaRegistry.findSchemasByFields(xidQuery).size());
+        Assert.assertTrue(schemaRegistry.findSchemasByFields(new SchemaFieldQuery.Builder().name("make").type(Schema.Type.LONG.name()).build()).isEmpty());
+
+        Assert.assertEquals(Collections.singletonList(schemaVersionKey2),
+                            schemaRegistry.findSchemasByFields(SchemaBranch.MASTER_BRANCH, xidQuery, 1, 1));
+        Assert.assertTrue(schemaRegistry.findSchemasByFields(SchemaBranch.MASTER_BRANCH, xidQuery, 2, 1).isEmpty());
+
+        schemaRegistry.deleteSchemaVersion(schemaVersionKey2);
+        Assert.assertTrue(schemaRegistry.findSchemasByFields(makeQuery).isEmpty());
+        Assert.assertEquals(1, schemaRegistry.findSchemasByFields(xidQuery).size());
+    }
+
+    @Test
+    public void testFindSchemasByFieldsAddedByAnotherInstance() throws Exception {
+        StorageManager storageManager = new InMemoryStorageManager();
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+        DefaultSchemaRegistry otherSchemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        otherSchemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        SchemaFieldQuery makeQuery = new SchemaFieldQuery.Builder().name("make").build();
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"));
+        Assert.assertTrue(schemaRegistry.findSchemasByFields(makeQuery).isEmpty());
+
+        // fields of a version added by another registry instance are found right away
+        SchemaIdVersion schemaIdVersion = otherSchemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "second version"));
+        Assert.assertEquals(Collections.singletonList(new SchemaVersionKey(schemaMetadata.getName(), schemaIdVersion.getVersion())),
+                            schemaRegistry.findSchemasByFields(makeQuery));
+    }
+
+    @Test
+    public void testLatestSchemaVersionsAfterChanges() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        String schemaName = schemaMetadata.getName();
+        Assert.assertNull(schemaRegistry.getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName));
+
+        SchemaIdVersion schemaIdVersion1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"));
+        Assert.assertEquals(schemaIdVersion1.getSchemaVersionId(), schemaRegistry.getLatestSchemaVersionInfo(schemaName).getId());
+
+        SchemaIdVersion schemaIdVersion2 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "second version"));
+        Assert.assertEquals(Integer.valueOf(schemaIdVersion1.getVersion() + 1), schemaIdVersion2.getVersion());
+        Assert.assertEquals(schemaIdVersion2.getSchemaVersionId(), schemaRegistry.getLatestSchemaVersionInfo(schemaName).getId());
+        Assert.assertEquals(schemaIdVersion2.getSchemaVersionId(),
+                            schemaRegistry.getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName).getId());
+
+        // disabled version is still the latest version
+        schemaRegistry.disableSchemaVersion(schemaIdVersion2.getSchemaVersionId());
+        SchemaVersionInfo latestSchemaVersionInfo = schemaRegistry.getLatestSchemaVersionInfo(schemaName);
+        Assert.assertEquals(schemaIdVersion2.getSchemaVersionId(), latestSchemaVersionInfo.getId());
+        Assert.assertEquals(SchemaVersionLifecycleStates.DISABLED.getId(), latestSchemaVersionInfo.getStateId());
+
+        schemaRegistry.enableSchemaVersion(schemaIdVersion2.getSchemaVersionId());
+        Assert.assertEquals(SchemaVersionLifecycleStates.ENABLED.getId(),
+                            schemaRegistry.getLatestSchemaVersionInfo(schemaName).getStateId());
+
+        schemaRegistry.deleteSchemaVersion(new SchemaVersionKey(schemaName, schemaIdVersion2.getVersion()));
+        Assert.assertEquals(schemaIdVersion1.getSchemaVersionId(), schemaRegistry.getLatestSchemaVersionInfo(schemaName).getId());
+    }
+
+    @Test
+    public void testLatestSchemaVersionsChangedByAnotherInstance() throws Exception {
+        StorageManager storageManager = new InMemoryStorageManager();
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+        DefaultSchemaRegistry otherSchemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        otherSchemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        String schemaName = schemaMetadata.getName();
+        String schemaText1 = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"a\",\"type\":\"int\"}]}";
+        String schemaText2 = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"a\",\"type\":\"int\"}," +
+                "{\"name\":\"b\",\"type\":\"string\",\"default\":\"b\"}]}";
+        // can read data written with schemaText1 but not with schemaText2 as its field b is a string
+        String toSchema = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"a\",\"type\":\"int\"}," +
+                "{\"name\":\"b\",\"type\":\"int\",\"default\":0}]}";
+
+        schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText1, "first version"));
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaName, toSchema).isCompatible());
+
+        // latest version added by another registry instance is used for validation and for the next version number
+        SchemaIdVersion schemaIdVersion2 = otherSchemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schemaText2, "second version"));
+        Assert.assertEquals(schemaIdVersion2.getSchemaVersionId(), schemaRegistry.getLatestSchemaVersionInfo(schemaName).getId());
+        Assert.assertFalse(schemaRegistry.checkCompatibility(schemaName, toSchema).isCompatible());
+        try {
+            schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(toSchema, "incompatible version"));
+            Assert.fail("IncompatibleSchemaException should have been thrown");
+        } catch (IncompatibleSchemaException e) {
+            // expected
+        }
+
+        otherSchemaRegistry.disableSchemaVersion(schemaIdVersion2.getSchemaVersionId());
+        Assert.assertTrue(schemaRegistry.checkCompatibility(schemaName, toSchema).isCompatible());
+        Assert.assertEquals(Integer.valueOf(schemaIdVersion2.getVersion() + 1),
+                            schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(toSchema, "third version")).getVersion());
+    }
+
+    @Test
+    public void testLatestSchemaVersionsWithSchemaBranches() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        String schemaName = schemaMetadata.getName();
+        String branchName = TEST_NAME_RULE.getMethodName() + "-branch";
+
+        SchemaIdVersion schemaIdVersion1 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema1, "first version"));
+        schemaRegistry.createSchemaBranch(schemaIdVersion1.getSchemaVersionId(), new SchemaBranch(branchName, schemaName));
+        SchemaIdVersion schemaIdVersion2 = schemaRegistry.addSchemaVersion(branchName, schemaMetadata, new SchemaVersion(schema2, "branch version"));
+
+        // versions of a schema are numbered across its branches
+        Assert.assertEquals(schemaIdVersion2.getSchemaVersionId(), schemaRegistry.getLatestSchemaVersionInfo(schemaName).getId());
+        Assert.assertEquals(schemaIdVersion1.getSchemaVersionId(),
+                            schemaRegistry.getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName).getId());
+
+        SchemaIdVersion schemaIdVersion3 = schemaRegistry.addSchemaVersion(schemaMetadata, new SchemaVersion(schema2, "third version"));
+        Assert.assertEquals(Integer.valueOf(schemaIdVersion2.getVersion() + 1), schemaIdVersion3.getVersion());
+        Assert.assertEquals(schemaIdVersion3.getSchemaVersionId(),
+                            schemaRegistry.getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName).getId());
+
+        schemaRegistry.deleteSchemaVersion(new SchemaVersionKey(schemaName, schemaIdVersion3.getVersion()));
+        Assert.assertEquals(schemaIdVersion1.getSchemaVersionId(),
+                            schemaRegistry.getLatestSchemaVersionInfo(SchemaBranch.MASTER_BRANCH, schemaName).getId());
+        Assert.assertEquals(schemaIdVersion2.getSchemaVersionId(), schemaRegistry.getLatestSchemaVersionInfo(schemaName).getId());
+    }
+
+    @Test
+    public void testConcurrentRegistrationsOfSameSchema() throws Exception {
+        // first version is added slowly so that the other registrations arrive while it is in progress
+        SlowStorageManager storageManager = new SlowStorageManager(500);
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        schemaRegistry.registerSchemaMetadata(schemaMetadata);
+
+        int registrations = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(registrations);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            List<Future<SchemaIdVersion>> futures = new ArrayList<>();
+            for (int i = 0; i < registrations; i++) {
+                futures.add(executorService.submit(() -> {
+                    latch.await();
+                    return schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schema1, "same version"));
+                }));
+            }
+            latch.countDown();
+
+            Long schemaVersionId = futures.get(0).get(1, TimeUnit.MINUTES).getSchemaVersionId();
+            for (Future<SchemaIdVersion> future : futures) {
+                Assert.assertEquals(schemaVersionId, future.get(1, TimeUnit.MINUTES).getSchemaVersionId());
+            }
+            Assert.assertEquals(1, schemaRegistry.getAllVersions(schemaMetadata.getName()).size());
+            // only one of the registrations reached the storage
+            Assert.assertEquals(1, storageManager.getAddedSchemaVersions());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentRegistrationsOfSameSchemaAfterFailure() throws Exception {
+        // first version fails after the other registrations started waiting for it
+        SlowStorageManager storageManager = new SlowStorageManager(500, true);
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        schemaRegistry.registerSchemaMetadata(schemaMetadata);
+
+        int registrations = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(registrations);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            List<Future<SchemaIdVersion>> futures = new ArrayList<>();
+            for (int i = 0; i < registrations; i++) {
+                futures.add(executorService.submit(() -> {
+                    latch.await();
+                    return schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schema1, "same version"));
+                }));
+            }
+            latch.countDown();
+
+            // only the failed registration gets the error, the waiting ones register the version again
+            Set<Long> schemaVersionIds = new HashSet<>();
+            int failures = 0;
+            for (Future<SchemaIdVersion> future : futures) {
+                try {
+                    schemaVersionIds.add(future.get(1, TimeUnit.MINUTES).getSchemaVersionId());
+                } catch (ExecutionException e) {
+                    Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+                    failures++;
+                }
+            }
+            Assert.assertEquals(1, failures);
+            Assert.assertEquals(1, schemaVersionIds.size());
+            Assert.assertEquals(1, schemaRegistry.getAllVersions(schemaMetadata.getName()).size());
+            Assert.assertEquals(2, storageManager.getAddedSchemaVersions());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentRegistrationsOfSameSchemaWaitForCommit() throws Exception {
+        TransactionalStorageManager storageManager = new TransactionalStorageManager();
+        SchemaRegistryUtil.createMasterBranch(storageManager);
+        Collection<Map<String, Object>> schemaProvidersConfig = Collections.singleton(Collections.singletonMap("providerClass", AvroSchemaProvider.class.getName()));
+        DefaultSchemaRegistry schemaRegistry = new DefaultSchemaRegistry(storageManager, null, schemaProvidersConfig);
+        schemaRegistry.init(Collections.<String, Object>emptyMap());
+
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        schemaRegistry.registerSchemaMetadata(schemaMetadata);
+        storageManager.complete(true);
+
+        SchemaIdVersion schemaIdVersion = schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schema1, "first version"));
+        // same registration in the same transaction does not wait for it to be completed
+        Assert.assertEquals(schemaIdVersion, schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schema1, "same version")));
+
+        int registrations = 4;
+        ExecutorService executorService = Executors.newFixedThreadPool(registrations);
+        try {
+            List<Future<SchemaIdVersion>> futures = new ArrayList<>();
+            for (int i = 0; i < registrations; i++) {
+                futures.add(executorService.submit(() -> schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schema1, "same version"))));
+            }
+            Thread.sleep(200);
+            for (Future<SchemaIdVersion> future : futures) {
+                Assert.assertFalse(future.isDone());
+            }
+
+            // one of the waiting registrations runs again when the transaction is rolled back
+            storageManager.complete(false);
+            long timeout = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+            while ((!storageManager.hasCompletionListeners() || futures.stream().noneMatch(Future::isDone))
+                    && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(storageManager.hasCompletionListeners());
+            Assert.assertEquals(1, futures.stream().filter(Future::isDone).count());
+
+            storageManager.complete(true);
+            for (Future<SchemaIdVersion> future : futures) {
+                Assert.assertEquals(schemaIdVersion, future.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentRegistrationsOfDifferentSchemas() throws Exception {
+        SchemaMetadata schemaMetadata = createSchemaInfo(TEST_NAME_RULE.getMethodName(), SchemaCompatibility.BACKWARD);
+        schemaRegistry.registerSchemaMetadata(schemaMetadata);
+
+        int registrations = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(registrations);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            List<Future<SchemaIdVersion>> futures = new ArrayList<>();
+            for (int i = 0; i < registrations; i++) {
+                String schemaText = "{\"type\":\"record\",\"name\":\"Rec\",\"fields\":[{\"name\":\"a\",\"type\":\"int\"}," +
+                        "{\"name\":\"f" + i + "\",\"type\":\"string\",\"default\":\"x\"}]}";
+                futures.add(executorService.submit(() -> {
+                    latch.await();
+                    return schemaRegistry.addSchemaVersion(schemaMetadata.getName(), new SchemaVersion(schemaText, "version"));
+                }));
+            }
+            latch.countDown();
+
+            Set<Integer> versions = new HashSet<>();
+            for (Future<SchemaIdVersion> future : futures) {
+                versions.add(future.get(1, TimeUnit.MINUTES).getVersion());
+            }
+            Assert.assertEquals(registrations, versions.size());
+            Assert.assertEquals(Integer.valueOf(registrations), schemaRegistry.getLatestSchemaVersionInfo(schemaMetadata.getName()).getVersion());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     private SchemaMetadata createSchemaInfo(String testName, SchemaCompatibility compatibility) {
         return new SchemaMetadata.Builder(testName + "-schema")
                 .type(AvroSchemaProvider.TYPE)
@@ -207,4 +776,86 @@ public class AvroSchemaRegistryTest {
                 .build();
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Storage manager which counts added schema versions and adds the first one slowly.
+     */
+    private static class SlowStorageManager extends InMemoryStorageManager {
+        private final long delayInMs;
+        private final boolean failFirstSchemaVersion;
+        private final AtomicInteger addedSchemaVersions = new AtomicInteger();
+
+        private SlowStorageManager(long delayInMs) {
+            this(delayInMs, false);
+        }
+
+        private SlowStorageManager(long delayInMs, boolean failFirstSchemaVersion) {
+            this.delayInMs = delayInMs;
+            this.failFirstSchemaVersion = failFirstSchemaVersion;
+        }
+
+        @Override
+        public void add(Storable storable) throws AlreadyExistsException {
+            if (storable instanceof SchemaVersionStorable && addedSchemaVersions.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(delayInMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                if (failFirstSchemaVersion) {
+                    throw new IllegalStateException("Storage is not available");
+                }
+            }
+            super.add(storable);
+        }
+
+        private int getAddedSchemaVersions() {
+            return addedSchemaVersions.get();
+        }
+    }
+
+    /**
+     * Storage manager which counts the queries of schema versions.
+     */
+    private static class SchemaVersionQueryCountingStorageManager extends InMemoryStorageManager {
+        private final AtomicInteger schemaVersionQueries = new AtomicInteger();
+
+        @Override
+        public <T extends Storable> Collection<T> find(String namespace,
+                                                       List<QueryParam> queryParams,
+                                                       List<OrderByField> orderByFields) throws StorageException {
+            if (SchemaVersionStorable.NAME_SPACE.equals(namespace)) {
+                schemaVersionQueries.incrementAndGet();
+            }
+            return super.find(namespace, queryParams, orderByFields);
+        }
+
+        private int getSchemaVersionQueries() {
+            return schemaVersionQueries.get();
+        }
+    }
+
+    /**
+     * Storage manager which keeps transaction completion listeners until the transaction is completed by the test.
+     */
+    private static class TransactionalStorageManager extends InMemoryStorageManager {
+        private final List<TransactionCompletionListener> completionListeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void registerTransactionCompletionListener(TransactionCompletionListener listener) {
+            completionListeners.add(listener);
+        }
+
+        private boolean hasCompletionListeners() {
+            return !completionListeners.isEmpty();
+        }
+
+        private void complete(boolean committed) {
+            for (TransactionCompletionListener listener : completionListeners) {
+                completionListeners.remove(listener);
+                listener.onCompletion(committed);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.serdes.Device;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ *
+ */
+public class DatumReaderWriterCacheTest {
+
+    @Test
+    public void testReadersAndWritersAreReused() {
+        DatumReaderWriterCache cache = new DatumReaderWriterCache(16);
+        Schema schema = Device.getClassSchema();
+        Schema equalSchema = new Schema.Parser().parse(schema.toString());
+
+        DatumWriter<Object> writer = cache.getDatumWriter(schema, true);
+        Assert.assertSame(writer, cache.getDatumWriter(equalSchema, true));
+        Assert.assertNotSame(writer, cache.getDatumWriter(schema, false));
+        Assert.assertEquals(1, cache.getWriterHitCount());
+        Assert.assertEquals(2, cache.getWriterMissCount());
+
+        DatumReader<Object> reader = cache.getDatumReader(schema, null, false);
+        Assert.assertSame(reader, cache.getDatumReader(schema, null, false));
+        Assert.assertNotSame(reader, cache.getDatumReader(schema, schema, false));
+        Assert.assertEquals(1, cache.getReaderHitCount());
+        Assert.assertEquals(2, cache.getReaderMissCount());
+    }
+
+    @Test
+    public void testReadersOfSchemasDifferingOnlyInAliases() throws Exception {
+        DatumReaderWriterCache cache = new DatumReaderWriterCache(16);
+        Schema writerSchema = parseRecordSchema("{\"name\": \"id\", \"type\": \"int\"}");
+        Schema readerSchema = parseRecordSchema("{\"name\": \"deviceId\", \"type\": \"int\", \"default\": -1, \"aliases\": [\"id\"]}");
+        Schema otherReaderSchema = parseRecordSchema("{\"name\": \"deviceId\", \"type\": \"int\", \"default\": -1}");
+        // aliases are not considered by Schema#equals
+        Assert.assertEquals(readerSchema, otherReaderSchema);
+
+        GenericRecord record = new GenericData.Record(writerSchema);
+        record.put("id", 42);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
+        cache.getDatumWriter(writerSchema, false).write(record, encoder);
+        encoder.flush();
+        byte[] payload = outputStream.toByteArray();
+
+        DatumReader<Object> reader = cache.getDatumReader(writerSchema, readerSchema, false);
+        DatumReader<Object> otherReader = cache.getDatumReader(writerSchema, otherReaderSchema, false);
+        Assert.assertNotSame(reader, otherReader);
+        Assert.assertSame(reader, cache.getDatumReader(writerSchema, new Schema.Parser().parse(readerSchema.toString()), false));
+
+        Assert.assertEquals(42, ((GenericRecord) reader.read(null, DecoderFactory.get().binaryDecoder(payload, null))).get("deviceId"));
+        Assert.assertEquals(-1, ((GenericRecord) otherReader.read(null, DecoderFactory.get().binaryDecoder(payload, null))).get("deviceId"));
+    }
+
+    private Schema parseRecordSchema(String field) {
+        return new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"Device\", \"fields\": [" + field + "]}");
+    }
+
+    @Test
+    public void testSerDesWithSharedCache() {
+        DatumReaderWriterCache cache = new DatumReaderWriterCache(16);
+        DefaultAvroSerDesHandler serDesHandler = new DefaultAvroSerDesHandler(cache);
+        Device input = new Device(1L, "device", 1, System.currentTimeMillis());
+
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            serDesHandler.handlePayloadSerialization(outputStream, input);
+            Object deserializedObj = serDesHandler.handlePayloadDeserialization(new ByteArrayInputStream(outputStream.toByteArray()),
+                                                                               input.getSchema(),
+                                                                               null,
+                                                                               true);
+            Assert.assertTrue(SpecificData.get().compare(input, deserializedObj, input.getSchema()) == 0);
+        }
+
+        Assert.assertEquals(1, cache.getWriterMissCount());
+        Assert.assertEquals(2, cache.getWriterHitCount());
+        Assert.assertEquals(1, cache.getReaderMissCount());
+        Assert.assertEquals(2, cache.getReaderHitCount());
+    }
+}
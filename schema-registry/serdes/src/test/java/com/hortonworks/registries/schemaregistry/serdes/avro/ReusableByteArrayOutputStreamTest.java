@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ *
+ */
+public class ReusableByteArrayOutputStreamTest {
+
+    @Test
+    public void testBufferIsReusedAfterReset() throws Exception {
+        ReusableByteArrayOutputStream outputStream = new ReusableByteArrayOutputStream(4, 64);
+        outputStream.write(new byte[]{1, 2, 3, 4, 5, 6});
+        ByteBuffer byteBuffer = outputStream.toByteBuffer();
+        Assert.assertEquals(6, byteBuffer.remaining());
+
+        outputStream.reset();
+        outputStream.write(new byte[]{7, 8});
+
+        // buffer is retained, so the earlier view reflects the latest writes.
+        Assert.assertSame(byteBuffer.array(), outputStream.toByteBuffer().array());
+        Assert.assertArrayEquals(new byte[]{7, 8}, outputStream.toByteArray());
+        Assert.assertEquals(2, outputStream.toByteBuffer().remaining());
+    }
+
+    @Test
+    public void testLargeBufferIsReleasedOnReset() throws Exception {
+        ReusableByteArrayOutputStream outputStream = new ReusableByteArrayOutputStream(4, 64);
+        outputStream.write(new byte[128]);
+        byte[] largeBuffer = outputStream.toByteBuffer().array();
+
+        outputStream.reset();
+        outputStream.write(1);
+
+        Assert.assertNotSame(largeBuffer, outputStream.toByteBuffer().array());
+        Assert.assertArrayEquals(new byte[]{1}, outputStream.toByteArray());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.schemaregistry.serdes.avro;
+
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.serdes.SerDesProtocolHandler;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ *
+ */
+public class SerDesProtocolHandlerTest {
+
+    @Test
+    public void testSchemaVersionIsReadFromBufferInBigEndianOrder() throws Exception {
+        SchemaIdVersion schemaIdVersion = new SchemaIdVersion(0x01020304L, 7, 0x05060708L);
+        for (SerDesProtocolHandler protocolHandler : SerDesProtocolHandlerRegistry.get().getRegisteredSerDesProtocolHandlers().values()) {
+            ByteBuffer byteBuffer = serializeSchemaVersion(protocolHandler, schemaIdVersion).order(ByteOrder.LITTLE_ENDIAN);
+
+            SchemaIdVersion deserialized = protocolHandler.handleSchemaVersionDeserialization(byteBuffer);
+            if (protocolHandler.getProtocolId() == SerDesProtocolHandlerRegistry.METADATA_ID_VERSION_PROTOCOL) {
+                Assert.assertEquals(schemaIdVersion.getSchemaMetadataId(), deserialized.getSchemaMetadataId());
+                Assert.assertEquals(schemaIdVersion.getVersion(), deserialized.getVersion());
+            } else {
+                Assert.assertEquals(schemaIdVersion.getSchemaVersionId(), deserialized.getSchemaVersionId());
+            }
+            Assert.assertFalse(byteBuffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testTruncatedSchemaVersionInBuffer() throws Exception {
+        SchemaIdVersion schemaIdVersion = new SchemaIdVersion(1L, 1, 1L);
+        for (SerDesProtocolHandler protocolHandler : SerDesProtocolHandlerRegistry.get().getRegisteredSerDesProtocolHandlers().values()) {
+            ByteBuffer byteBuffer = serializeSchemaVersion(protocolHandler, schemaIdVersion);
+            byteBuffer.limit(byteBuffer.limit() - 1);
+            try {
+                protocolHandler.handleSchemaVersionDeserialization(byteBuffer);
+                Assert.fail("Truncated schema version should not be read with " + protocolHandler);
+            } catch (AvroException e) {
+                // expected
+            }
+        }
+    }
+
+    private ByteBuffer serializeSchemaVersion(SerDesProtocolHandler protocolHandler, SchemaIdVersion schemaIdVersion) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        protocolHandler.handleSchemaVersionSerialization(outputStream, schemaIdVersion);
+        byte[] bytes = outputStream.toByteArray();
+        Assert.assertEquals(protocolHandler.getProtocolId().byteValue(), bytes[0]);
+
+        // protocol id is read by the deserializer before the schema version.
+        return ByteBuffer.wrap(Arrays.copyOfRange(bytes, 1, bytes.length));
+    }
+}
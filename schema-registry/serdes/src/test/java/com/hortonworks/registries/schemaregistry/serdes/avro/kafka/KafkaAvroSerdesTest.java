@@ -15,14 +15,30 @@
  */
 package com.hortonworks.registries.schemaregistry.serdes.avro.kafka;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.hortonworks.registries.schemaregistry.SchemaIdVersion;
+import com.hortonworks.registries.schemaregistry.SchemaMetadata;
+import com.hortonworks.registries.schemaregistry.SchemaVersion;
+import com.hortonworks.registries.schemaregistry.SchemaVersionInfo;
+import com.hortonworks.registries.schemaregistry.SchemaVersionKey;
 import com.hortonworks.registries.schemaregistry.client.ISchemaRegistryClient;
 import com.hortonworks.registries.schemaregistry.client.MockSchemaRegistryClient;
+import com.hortonworks.registries.schemaregistry.errors.IncompatibleSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.InvalidSchemaException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaBranchNotFoundException;
+import com.hortonworks.registries.schemaregistry.errors.SchemaNotFoundException;
+import com.hortonworks.registries.schemaregistry.serdes.avro.AbstractAvroSnapshotSerializer;
 import com.hortonworks.registries.schemaregistry.serdes.avro.AvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.ByteBufferAvroSnapshotDeserializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.ByteBufferAvroSnapshotSerializer;
+import com.hortonworks.registries.schemaregistry.serdes.avro.SerDesProtocolHandlerRegistry;
 import com.hortonworks.registries.schemaregistry.serdes.avro.TestRecord;
+import com.hortonworks.registries.schemaregistry.serdes.avro.exceptions.AvroException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
@@ -153,4 +169,196 @@ public class KafkaAvroSerdesTest {
         Assert.assertEquals(record.get("field2"), result.get("field2"));
 
     }
+
+    @Test
+    public void testByteBufferDeserializationWithOffset() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AvroSnapshotDeserializer.SPECIFIC_AVRO_READER, true);
+        ByteBufferAvroSnapshotDeserializer deserializer = new ByteBufferAvroSnapshotDeserializer(schemaRegistryClient);
+        deserializer.init(config);
+
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+
+        TestRecord record = new TestRecord();
+        record.setField1("some value");
+        record.setField2("some other value");
+
+        byte[] bytes = kafkaAvroSerializer.serialize("topic", record);
+
+        // payload is surrounded by other bytes to make sure only the given range of the buffer is read.
+        byte[] enclosingBytes = new byte[bytes.length + 7];
+        System.arraycopy(bytes, 0, enclosingBytes, 3, bytes.length);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(enclosingBytes, 3, bytes.length);
+
+        Object o = deserializer.deserialize(byteBuffer, null);
+
+        Assert.assertEquals(record, o);
+        Assert.assertFalse(byteBuffer.hasRemaining());
+    }
+
+    @Test
+    public void testByteBufferSerializedByteBufferDeserialized() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AvroSnapshotDeserializer.SPECIFIC_AVRO_READER, true);
+        ByteBufferAvroSnapshotDeserializer deserializer = new ByteBufferAvroSnapshotDeserializer(schemaRegistryClient);
+        deserializer.init(config);
+
+        ByteBufferAvroSnapshotSerializer serializer = new ByteBufferAvroSnapshotSerializer(schemaRegistryClient);
+        serializer.init(Collections.emptyMap());
+
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+
+        for (int i = 0; i < 3; i++) {
+            TestRecord record = new TestRecord();
+            record.setField1("some value " + i);
+            record.setField2("some other value " + i);
+
+            ByteBuffer byteBuffer = serializer.serialize(record, kafkaAvroSerializer.getSchemaKey("topic", false));
+            Object o = deserializer.deserialize(byteBuffer, null);
+
+            Assert.assertEquals(record, o);
+        }
+    }
+
+    @Test
+    public void testSchemaVersionIsRegisteredOncePerSchema() throws Exception {
+        AtomicInteger addSchemaVersionCount = new AtomicInteger();
+        ISchemaRegistryClient countingSchemaRegistryClient = new MockSchemaRegistryClient() {
+            @Override
+            public SchemaIdVersion addSchemaVersion(SchemaMetadata schemaMetadata, SchemaVersion schemaVersion)
+                    throws InvalidSchemaException, IncompatibleSchemaException, SchemaNotFoundException, SchemaBranchNotFoundException {
+                addSchemaVersionCount.incrementAndGet();
+                return super.addSchemaVersion(schemaMetadata, schemaVersion);
+            }
+        };
+
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(countingSchemaRegistryClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+
+        for (int i = 0; i < 3; i++) {
+            TestRecord record = new TestRecord();
+            record.setField1("some value " + i);
+            kafkaAvroSerializer.serialize("topic", record);
+        }
+        Assert.assertEquals(1, addSchemaVersionCount.get());
+
+        // equal schema with a different instance should not be registered again
+        Schema schema = new Schema.Parser().parse(TestRecord.getClassSchema().toString());
+        GenericRecord record = new GenericRecordBuilder(schema).set("field1", "some value").build();
+        kafkaAvroSerializer.serialize("topic", record);
+        Assert.assertEquals(1, addSchemaVersionCount.get());
+
+        // same schema for a different topic is registered for the respective schema metadata
+        kafkaAvroSerializer.serialize("other-topic", record);
+        Assert.assertEquals(2, addSchemaVersionCount.get());
+
+        // schema differing only in its doc is a different schema text which should be registered
+        Schema documentedSchema = new Schema.Parser().parse(TestRecord.getClassSchema().toString()
+                                                                      .replaceFirst("\\{", "{\"doc\":\"documented record\","));
+        Assert.assertEquals(schema, documentedSchema);
+        GenericRecord documentedRecord = new GenericRecordBuilder(documentedSchema).set("field1", "some value").build();
+        kafkaAvroSerializer.serialize("topic", documentedRecord);
+        Assert.assertEquals(3, addSchemaVersionCount.get());
+    }
+
+    @Test
+    public void testWriterSchemaIsResolvedOncePerSchemaVersion() throws Exception {
+        AtomicInteger schemaVersionInfoCount = new AtomicInteger();
+        ISchemaRegistryClient countingSchemaRegistryClient = new MockSchemaRegistryClient() {
+            @Override
+            public SchemaVersionInfo getSchemaVersionInfo(SchemaIdVersion schemaIdVersion) throws SchemaNotFoundException {
+                schemaVersionInfoCount.incrementAndGet();
+                return super.getSchemaVersionInfo(schemaIdVersion);
+            }
+        };
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(AvroSnapshotDeserializer.SPECIFIC_AVRO_READER, true);
+        ByteBufferAvroSnapshotDeserializer deserializer = new ByteBufferAvroSnapshotDeserializer(countingSchemaRegistryClient);
+        deserializer.init(config);
+
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(countingSchemaRegistryClient);
+        kafkaAvroSerializer.configure(Collections.emptyMap(), false);
+
+        for (int i = 0; i < 3; i++) {
+            TestRecord record = new TestRecord();
+            record.setField1("some value " + i);
+            byte[] bytes = kafkaAvroSerializer.serialize("topic", record);
+            int schemaVersionInfoCountBeforeDeserialization = schemaVersionInfoCount.get();
+
+            Assert.assertEquals(record, deserializer.deserialize(ByteBuffer.wrap(bytes), null));
+            Assert.assertEquals(record, deserializer.deserialize(ByteBuffer.wrap(bytes), 1));
+
+            int expectedCount = i == 0 ? schemaVersionInfoCountBeforeDeserialization + 1 : schemaVersionInfoCountBeforeDeserialization;
+            Assert.assertEquals(expectedCount, schemaVersionInfoCount.get());
+        }
+
+        // writer schema is resolved again once invalidated
+        deserializer.invalidateDecodePlans();
+        int schemaVersionInfoCountBeforeInvalidation = schemaVersionInfoCount.get();
+        TestRecord record = new TestRecord();
+        record.setField1("some value");
+        Assert.assertEquals(record, deserializer.deserialize(ByteBuffer.wrap(kafkaAvroSerializer.serialize("topic", record)), null));
+        Assert.assertEquals(schemaVersionInfoCountBeforeInvalidation + 1, schemaVersionInfoCount.get());
+    }
+
+    @Test
+    public void testWriterSchemaIsResolvedAgainWhenVersionIsReused() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AvroSnapshotDeserializer.SPECIFIC_AVRO_READER, false);
+        ByteBufferAvroSnapshotDeserializer deserializer = new ByteBufferAvroSnapshotDeserializer(schemaRegistryClient);
+        deserializer.init(config);
+
+        // payloads of this protocol carry only schema metadata id and version.
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        kafkaAvroSerializer.configure(Collections.singletonMap(AbstractAvroSnapshotSerializer.SERDES_PROTOCOL_VERSION,
+                                                               SerDesProtocolHandlerRegistry.METADATA_ID_VERSION_PROTOCOL),
+                                      false);
+
+        Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Device\",\"fields\":[{\"name\":\"name\",\"type\":\"string\"}]}");
+        GenericRecord record = new GenericRecordBuilder(schema).set("name", "device-1").build();
+        Assert.assertEquals(record, deserializer.deserialize(ByteBuffer.wrap(kafkaAvroSerializer.serialize("topic", record)), null));
+
+        schemaRegistryClient.deleteSchemaVersion(new SchemaVersionKey("topic", 1));
+
+        // version 1 is given to this schema now, which should be used as writer schema instead of the deleted one.
+        Schema otherSchema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Device\",\"fields\":[{\"name\":\"id\",\"type\":\"long\"}]}");
+        GenericRecord otherRecord = new GenericRecordBuilder(otherSchema).set("id", 42L).build();
+        byte[] bytes = kafkaAvroSerializer.serialize("topic", otherRecord);
+        Assert.assertEquals(Integer.valueOf(1), schemaRegistryClient.getLatestSchemaVersionInfo("topic").getVersion());
+        Assert.assertEquals(otherRecord, deserializer.deserialize(ByteBuffer.wrap(bytes), null));
+    }
+
+    @Test
+    public void testSerializationAfterFailedSerialization() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        config.put(AvroSnapshotDeserializer.SPECIFIC_AVRO_READER, false);
+        KafkaAvroDeserializer kafkaAvroDeserializer = new KafkaAvroDeserializer(schemaRegistryClient);
+        kafkaAvroDeserializer.configure(config, false);
+
+        KafkaAvroSerializer kafkaAvroSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        kafkaAvroSerializer.configure(config, false);
+
+        Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"TestRecord\",\"namespace\":\"com.hortonworks.registries.schemaregistry.serdes.avro\",\"fields\":[{\"name\":\"field1\",\"type\":[\"null\",{\"type\":\"string\",\"avro.java.string\":\"String\"}],\"default\":null},{\"name\":\"field2\",\"type\":[\"null\",{\"type\":\"string\",\"avro.java.string\":\"String\"}],\"default\":null}]}");
+
+        // field1 is encoded before writing the invalid field2 value fails
+        GenericRecord invalidRecord = new GenericData.Record(schema);
+        invalidRecord.put("field1", "some stale value");
+        invalidRecord.put("field2", 42);
+        try {
+            kafkaAvroSerializer.serialize("topic", invalidRecord);
+            Assert.fail("Serialization of an invalid record should fail");
+        } catch (AvroException e) {
+            // expected
+        }
+
+        GenericRecord record = new GenericRecordBuilder(schema).set("field1", "some value").set("field2", "some other value").build();
+        byte[] bytes = kafkaAvroSerializer.serialize("topic", record);
+
+        Object o = kafkaAvroDeserializer.deserialize("topic", bytes);
+
+        Assert.assertEquals(record, o);
+    }
 }
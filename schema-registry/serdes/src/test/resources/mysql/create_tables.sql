@@ -0,0 +1,75 @@
+CREATE TABLE IF NOT EXISTS schema_metadata_info (
+  id              BIGINT AUTO_INCREMENT NOT NULL,
+  type            VARCHAR(255)          NOT NULL,
+  schemaGroup     VARCHAR(255)          NOT NULL,
+  name            VARCHAR(255)          NOT NULL,
+  compatibility   VARCHAR(255)          NOT NULL,
+  validationLevel VARCHAR(255)          NOT NULL,
+  description     TEXT,
+  evolve          BOOLEAN               NOT NULL,
+  timestamp       BIGINT                NOT NULL,
+  PRIMARY KEY (name),
+  UNIQUE (id)
+);
+
+CREATE TABLE IF NOT EXISTS schema_version_info (
+  id               BIGINT AUTO_INCREMENT NOT NULL,
+  description      TEXT,
+  schemaText       TEXT                  NOT NULL,
+  fingerprint      VARCHAR(255)          NOT NULL,
+  version          INT                   NOT NULL,
+  schemaMetadataId BIGINT                NOT NULL,
+  timestamp        BIGINT                NOT NULL,
+  state            TINYINT               NOT NULL DEFAULT 5,
+  name             VARCHAR(255)          NOT NULL,
+  UNIQUE (id),
+  UNIQUE (schemaMetadataId, version),
+  PRIMARY KEY (name, version)
+);
+
+CREATE TABLE IF NOT EXISTS schema_field_info (
+  id               BIGINT AUTO_INCREMENT NOT NULL,
+  schemaInstanceId BIGINT                NOT NULL,
+  timestamp        BIGINT                NOT NULL,
+  name             VARCHAR(255)          NOT NULL,
+  fieldNamespace   VARCHAR(255),
+  type             VARCHAR(255)          NOT NULL,
+  PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS schema_version_state (
+  id              BIGINT AUTO_INCREMENT NOT NULL,
+  schemaVersionId BIGINT                NOT NULL,
+  stateId         TINYINT               NOT NULL,
+  sequence        INT                   NOT NULL,
+  timestamp       BIGINT                NOT NULL,
+  details         BLOB,
+  PRIMARY KEY (schemaVersionId, stateId, sequence),
+  UNIQUE (id)
+);
+
+CREATE TABLE IF NOT EXISTS schema_branch (
+  id          BIGINT AUTO_INCREMENT NOT NULL,
+  name        VARCHAR(255)          NOT NULL,
+  description TEXT,
+  timestamp   BIGINT,
+  PRIMARY KEY (name),
+  UNIQUE (id)
+);
+
+CREATE TABLE IF NOT EXISTS schema_branch_version_mapping (
+  schemaBranchId      BIGINT NOT NULL,
+  schemaVersionInfoId BIGINT NOT NULL,
+  UNIQUE (schemaBranchId, schemaVersionInfoId)
+);
+
+CREATE TABLE IF NOT EXISTS schema_latest_version (
+  schemaMetadataId       BIGINT NOT NULL,
+  schemaBranchId         BIGINT NOT NULL,
+  latestVersionId        BIGINT NOT NULL,
+  latestVersion          INT    NOT NULL,
+  latestEnabledVersionId BIGINT,
+  latestEnabledVersion   INT,
+  enabledVersionsStamp   BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (schemaMetadataId, schemaBranchId)
+);
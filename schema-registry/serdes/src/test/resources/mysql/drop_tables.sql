@@ -0,0 +1,7 @@
+DROP TABLE IF EXISTS schema_latest_version;
+DROP TABLE IF EXISTS schema_branch_version_mapping;
+DROP TABLE IF EXISTS schema_branch;
+DROP TABLE IF EXISTS schema_version_state;
+DROP TABLE IF EXISTS schema_field_info;
+DROP TABLE IF EXISTS schema_version_info;
+DROP TABLE IF EXISTS schema_metadata_info;
@@ -22,11 +22,13 @@ import com.hortonworks.registries.storage.cache.impl.GuavaCache;
 import com.hortonworks.registries.storage.cache.writer.StorageWriter;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.transaction.TransactionCompletionListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.Map;
 
 
@@ -60,6 +62,16 @@ public class CacheBackedStorageManager implements StorageManager {
         }
     }
 
+    @Override
+    public void addAll(Collection<? extends Storable> storables) throws StorageException {
+        writer.addAll(storables);
+        for (Storable storable : storables) {
+            if (storable.isCacheable()) {
+                cache.put(storable.getStorableKey(), storable);
+            }
+        }
+    }
+
     @Override
     public <T extends Storable> T remove(StorableKey key) throws StorageException {
         Storable storable = (Storable) writer.remove(key);
@@ -113,6 +125,33 @@ public class CacheBackedStorageManager implements StorageManager {
         return ((GuavaCache)cache).getDao().find(namespace, queryParams, orderByFields);
     }
 
+    @Override
+    public <T extends Storable> Collection<T> find(String namespace,
+                                                   List<QueryParam> queryParams,
+                                                   List<OrderByField> orderByFields,
+                                                   List<Object> afterValues,
+                                                   int limit) throws StorageException {
+        return ((GuavaCache)cache).getDao().find(namespace, queryParams, orderByFields, afterValues, limit);
+    }
+
+    /**
+     * Streamed storables are read from the storage without being cached, so that walking through a namespace does not
+     * evict the entries which are actually used.
+     */
+    @Override
+    public <T extends Storable> Stream<T> stream(String namespace, List<QueryParam> queryParams) throws StorageException {
+        return dao.stream(namespace, queryParams);
+    }
+
+    @Override
+    public <T extends Storable> Collection<T> findIn(String namespace,
+                                                     String fieldName,
+                                                     List<SubQuery> subQueries,
+                                                     Object afterValue,
+                                                     int limit) throws StorageException {
+        return ((GuavaCache)cache).getDao().findIn(namespace, fieldName, subQueries, afterValue, limit);
+    }
+
     @Override
     public <T extends Storable> Collection<T> search(SearchQuery searchQuery) {
         return ((GuavaCache)cache).getDao().search(searchQuery);
@@ -139,6 +178,11 @@ public class CacheBackedStorageManager implements StorageManager {
         dao.registerStorables(classes);
     }
 
+    @Override
+    public void registerTransactionCompletionListener(TransactionCompletionListener listener) {
+        dao.registerTransactionCompletionListener(listener);
+    }
+
     public StorageManager getStorageManager() {
         return dao;
     }
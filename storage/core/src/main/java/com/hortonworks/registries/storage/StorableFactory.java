@@ -15,6 +15,7 @@
  **/
 package com.hortonworks.registries.storage;
 
+import com.hortonworks.registries.storage.catalog.StorableMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +46,7 @@ public class StorableFactory {
                 }
 
                 nameSpaceWithClass.put(nameSpace, clazz);
+                StorableMetadata.get(clazz);
             } catch (InstantiationException | IllegalAccessException e) {
                 throw new RuntimeException(e);
             }
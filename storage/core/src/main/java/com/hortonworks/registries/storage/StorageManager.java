@@ -18,10 +18,14 @@ package com.hortonworks.registries.storage;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.transaction.TransactionCompletionListener;
+import com.hortonworks.registries.storage.util.StorageUtils;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * TODO: All the methods are very restrictive and needs heavy synchronization to get right but my assumption is that
@@ -50,6 +54,20 @@ public interface StorageManager {
      */
     void add(Storable storable) throws StorageException;
 
+    /**
+     * Adds all the given storables to storage layer in the given order as {@link #add(Storable)} does. Implementations
+     * may write them in batches to reduce the number of round trips to the storage, ids generated by the storage are
+     * set on the respective storables.
+     *
+     * @param storables the storables
+     * @throws StorageException
+     */
+    default void addAll(Collection<? extends Storable> storables) throws StorageException {
+        for (Storable storable : storables) {
+            add(storable);
+        }
+    }
+
     /**
      * Removes a {@link Storable} object identified by a {@link StorableKey}.
      * If the key does not exist a null value is returned, no exception is thrown.
@@ -126,6 +144,108 @@ public interface StorageManager {
      */
     <T extends Storable> Collection<T> find(String namespace, List<QueryParam> queryParams, List<OrderByField> orderByFields) throws StorageException;
 
+    /**
+     * Returns a page of the storable entities in the given {@code namespace}, matching given {@code queryParams} and
+     * order by the given list of {@code orderByFields}. The page has at most {@code limit} entities, which come after
+     * the given {@code afterValues} of the {@code orderByFields}.
+     * <pre>
+     * E.g get the devices with deviceId="nest" by pages of 100 devices ordered by their id
+     *
+     * List&lt;OrderByField&gt; orderBy = Collections.singletonList(OrderByField.of("id"));
+     * Collection&lt;Device&gt; page = find(DEVICE_NAMESPACE, params, orderBy, null, 100);
+     * Collection&lt;Device&gt; nextPage = find(DEVICE_NAMESPACE, params, orderBy, Collections.singletonList(lastDeviceId), 100);
+     * </pre>
+     * {@code orderByFields} should end with a unique field, like the primary key, so that pages do not skip or repeat
+     * entities. This default implementation finds all the matching entities and returns the requested page of them,
+     * storage managers which can, restrict the entities they read to the requested page.
+     *
+     * @param namespace the namespace
+     * @param queryParams the query params
+     * @param orderByFields the order by fields
+     * @param afterValues values of the {@code orderByFields} after which the page starts, generally the values of the last
+     *                    entity of the previous page, or null for the first page
+     * @param limit maximum number of entities to be returned
+     * @param <T> the storable type
+     * @return the storables
+     * @throws StorageException when any storage error occurs
+     * @throws IllegalArgumentException when {@code limit} is not positive or {@code afterValues} are not given for
+     *                                  each of the {@code orderByFields}
+     */
+    default <T extends Storable> Collection<T> find(String namespace,
+                                                    List<QueryParam> queryParams,
+                                                    List<OrderByField> orderByFields,
+                                                    List<Object> afterValues,
+                                                    int limit) throws StorageException {
+        StorageUtils.validatePage(orderByFields, afterValues, limit);
+        return StorageUtils.page(this.<T>find(namespace, queryParams, orderByFields), orderByFields, afterValues, limit);
+    }
+
+    /**
+     * Returns a page of the storable entities in the given {@code namespace} with a value of {@code fieldName} which is
+     * among the values selected by each of the given {@code subQueries}, ordered by that field. The page has at most
+     * {@code limit} entities, which come after the given {@code afterValue} of that field.
+     * <pre>
+     * E.g get the first 100 devices with a sensor of type "temperature" and an open alert
+     *
+     * List&lt;SubQuery&gt; subQueries = Arrays.asList(SubQuery.of(SENSOR_NAMESPACE, "deviceId", sensorParams),
+     *                                           SubQuery.of(ALERT_NAMESPACE, "deviceId", alertParams));
+     * Collection&lt;Device&gt; page = findIn(DEVICE_NAMESPACE, "id", subQueries, null, 100);
+     * </pre>
+     * {@code fieldName} should be a unique field, like the primary key, so that pages do not skip or repeat entities.
+     * This default implementation finds all the entities of the namespace and of the sub queries and returns the
+     * requested page of them, storage managers which can, run it as a single query restricted to the requested page.
+     *
+     * @param namespace the namespace
+     * @param fieldName the field whose values are selected by the sub queries
+     * @param subQueries the sub queries selecting values of the fields of other entities, of the type of {@code fieldName}
+     * @param afterValue value of {@code fieldName} after which the page starts, generally the value of the last entity
+     *                   of the previous page, or null for the first page
+     * @param limit maximum number of entities to be returned
+     * @param <T> the storable type
+     * @return the storables
+     * @throws StorageException when any storage error occurs
+     * @throws IllegalArgumentException when {@code limit} is not positive
+     */
+    default <T extends Storable> Collection<T> findIn(String namespace,
+                                                      String fieldName,
+                                                      List<SubQuery> subQueries,
+                                                      Object afterValue,
+                                                      int limit) throws StorageException {
+        List<OrderByField> orderByFields = Collections.singletonList(OrderByField.of(fieldName));
+        List<Object> afterValues = afterValue != null ? Collections.singletonList(afterValue) : null;
+        StorageUtils.validatePage(orderByFields, afterValues, limit);
+
+        Collection<T> storables = this.<T>find(namespace, null, orderByFields);
+        for (SubQuery subQuery : subQueries) {
+            Collection<Storable> subQueryStorables = find(subQuery.getNameSpace(), subQuery.getQueryParams());
+            storables = StorageUtils.filterIn(storables, fieldName,
+                                              StorageUtils.getValues(subQueryStorables, subQuery.getFieldName()));
+        }
+        return StorageUtils.page(storables, orderByFields, afterValues, limit);
+    }
+
+    /**
+     * Returns a stream of the storable entities in the namespace, matching the query params, which can be used to walk
+     * through all the entities of large namespaces. Storage managers read the entities from the storage as the stream
+     * is consumed, instead of loading all of them in memory, and may hold resources like a connection until it is
+     * closed. The stream should always be closed, e.g. with try-with-resources.
+     * <pre>
+     * try (Stream&lt;Device&gt; devices = stream(DEVICE_NAMESPACE, params)) {
+     *     devices.forEach(device -&gt; export(device));
+     * }
+     * </pre>
+     * This default implementation streams the entities returned by {@link #find(String, List)}.
+     *
+     * @param namespace the namespace
+     * @param queryParams the query params, all entities of the namespace are streamed when it is null or empty
+     * @param <T> the storable type
+     * @return the stream of storables
+     * @throws StorageException when any storage error occurs
+     */
+    default <T extends Storable> Stream<T> stream(String namespace, List<QueryParam> queryParams) throws StorageException {
+        return this.<T>find(namespace, queryParams).stream();
+    }
+
     /**
      *
      * @param searchQuery the search query
@@ -160,4 +280,18 @@ public interface StorageManager {
      */
     void registerStorables(Collection<Class<? extends Storable>> classes) throws StorageException;
 
+    /**
+     * Registers a listener to be called once the transaction of the current thread is committed or rolled back, so
+     * that changes made by the transaction are published to others only when they are visible in the storage. The
+     * listener is called right away when there is no active transaction.
+     * <p>
+     * This default implementation calls the listener right away, as changes are visible as soon as they are made by
+     * storage managers which do not support transactions.
+     *
+     * @param listener the listener
+     */
+    default void registerTransactionCompletionListener(TransactionCompletionListener listener) {
+        listener.onCompletion(true);
+    }
+
 }
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.storage;
+
+import com.hortonworks.registries.common.QueryParam;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Values of a field of the storables in a namespace matching the given query params, which restrict the storables
+ * found with {@link StorageManager#findIn(String, String, List, Object, int)}.
+ */
+public class SubQuery {
+    private final String nameSpace;
+    private final String fieldName;
+    private final List<QueryParam> queryParams;
+
+    private SubQuery(String nameSpace, String fieldName, List<QueryParam> queryParams) {
+        if (nameSpace == null || nameSpace.isEmpty()) {
+            throw new IllegalArgumentException("nameSpace argument can neither be empty nor null");
+        }
+        if (fieldName == null || fieldName.isEmpty()) {
+            throw new IllegalArgumentException("fieldName argument can neither be empty nor null");
+        }
+        this.nameSpace = nameSpace;
+        this.fieldName = fieldName;
+        this.queryParams = queryParams != null ? Collections.unmodifiableList(queryParams) : Collections.emptyList();
+    }
+
+    public String getNameSpace() {
+        return nameSpace;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public List<QueryParam> getQueryParams() {
+        return queryParams;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SubQuery subQuery = (SubQuery) o;
+
+        if (!nameSpace.equals(subQuery.nameSpace)) return false;
+        if (!fieldName.equals(subQuery.fieldName)) return false;
+        return queryParams.equals(subQuery.queryParams);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = nameSpace.hashCode();
+        result = 31 * result + fieldName.hashCode();
+        result = 31 * result + queryParams.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SubQuery{" +
+                "nameSpace='" + nameSpace + '\'' +
+                ", fieldName='" + fieldName + '\'' +
+                ", queryParams=" + queryParams +
+                '}';
+    }
+
+    /**
+     * Returns the values of {@code fieldName} of the storables in {@code nameSpace} matching all the given query params,
+     * or of all the storables in {@code nameSpace} when there are no query params.
+     */
+    public static SubQuery of(String nameSpace, String fieldName, List<QueryParam> queryParams) {
+        return new SubQuery(nameSpace, fieldName, queryParams);
+    }
+}
@@ -19,28 +19,17 @@ package com.hortonworks.registries.storage.catalog;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.common.exception.ParserException;
-import com.hortonworks.registries.common.util.ReflectionHelper;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
-import com.hortonworks.registries.storage.annotation.SchemaIgnore;
 import com.hortonworks.registries.storage.exception.StorageException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
 
 /**
  * Default implementations go here
  */
 public abstract class AbstractStorable implements Storable {
-    private static final Logger LOG = LoggerFactory.getLogger(AbstractStorable.class);
 
     @JsonIgnore
     public StorableKey getStorableKey() {
@@ -58,21 +47,11 @@ public abstract class AbstractStorable implements Storable {
      * @return the map
      */
     public Map<String, Object> toMap() {
-        Set<String> instanceVariableNames = ReflectionHelper.getFieldNamesToTypes(this.getClass()).keySet();
-        Map<String, Object> fieldToVal = new HashMap<>();
-        for(String fieldName : instanceVariableNames) {
-            try {
-                Object val = ReflectionHelper.invokeGetter(fieldName, this);
-                fieldToVal.put(fieldName, val);
-                if(LOG.isTraceEnabled()) {
-                    LOG.trace("toMap: Adding fieldName {} = {} ", fieldName, val);
-                }
-            } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
-                throw new StorageException(e);
-            }
+        try {
+            return StorableMetadata.get(this.getClass()).toMap(this);
+        } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
+            throw new StorageException(e);
         }
-
-        return fieldToVal;
     }
 
     /**
@@ -84,10 +63,11 @@ public abstract class AbstractStorable implements Storable {
      * @return the storable
      */
     public Storable fromMap(Map<String, Object> map) {
+        StorableMetadata storableMetadata = StorableMetadata.get(this.getClass());
         for(Map.Entry<String, Object> entry: map.entrySet()) {
             try {
                 if(entry.getValue() != null) {
-                    ReflectionHelper.invokeSetter(entry.getKey(), this, entry.getValue());
+                    storableMetadata.invokeSetter(entry.getKey(), this, entry.getValue());
                 }
             } catch (NoSuchMethodException|InvocationTargetException|IllegalAccessException e) {
                 throw new StorageException(e);
@@ -104,38 +84,11 @@ public abstract class AbstractStorable implements Storable {
      */
     @JsonIgnore
     public Schema getSchema() {
-        Map<String, Class> fieldNamesToTypes = ReflectionHelper.getFieldNamesToTypes(this.getClass());
-        List<Schema.Field> fields = new ArrayList<>();
-
-        for(Map.Entry<String, Class> entry : fieldNamesToTypes.entrySet()) {
-            try {
-                getField(entry.getKey(), entry.getValue()).ifPresent(field -> {
-                    fields.add(field);
-                    LOG.trace("getSchema: Adding {}", field);
-                });
-            } catch (NoSuchFieldException|NoSuchMethodException|InvocationTargetException|IllegalAccessException|ParserException e) {
-                throw new StorageException(e);
-            }
-        }
-
-        return Schema.of(fields);
-    }
-
-    private Optional<Schema.Field> getField(String name, Class<?> clazz) throws NoSuchFieldException,
-            NoSuchMethodException, IllegalAccessException, InvocationTargetException, ParserException {
-        Field field = this.getClass().getDeclaredField(name);
-        if (field.getAnnotation(SchemaIgnore.class) != null) {
-            LOG.debug("Ignoring field {}", field);
-            return Optional.empty();
-        }
-        Object val = ReflectionHelper.invokeGetter(name, this);
-        Schema.Type type;
-        if (val != null) {
-            type = Schema.fromJavaType(val);
-        } else {
-            type = Schema.fromJavaType(clazz);
+        try {
+            return StorableMetadata.get(this.getClass()).getSchema(this);
+        } catch (NoSuchFieldException|NoSuchMethodException|InvocationTargetException|IllegalAccessException|ParserException e) {
+            throw new StorageException(e);
         }
-        return Optional.of(new Schema.Field(name, type));
     }
 
     @Override
@@ -0,0 +1,309 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.catalog;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.common.exception.ParserException;
+import com.hortonworks.registries.common.util.ReflectionHelper;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.annotation.SchemaIgnore;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fields, schema and accessors of a {@link Storable} class, which are resolved once for each class and used by
+ * {@link AbstractStorable} instead of looking them up with reflection on every call.
+ * <p>
+ * Getters and setters are found with the same conventions as {@link ReflectionHelper#invokeGetter(String, Object)}
+ * and {@link ReflectionHelper#invokeSetter(String, Object, Object)}, and are invoked through {@link MethodHandle}s.
+ * Schema of a class is computed once when the types of all its fields are known from their declarations, otherwise
+ * types of the fields are taken from their current values as {@link AbstractStorable#getSchema()} always did.
+ * <p>
+ * Metadata of storable classes is built when they are registered with a storage manager, or when it is first needed.
+ */
+public final class StorableMetadata {
+    private static final Logger LOG = LoggerFactory.getLogger(StorableMetadata.class);
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<StorableMetadata> METADATA = new ClassValue<StorableMetadata>() {
+        @Override
+        protected StorableMetadata computeValue(Class<?> type) {
+            return new StorableMetadata(type);
+        }
+    };
+
+    private final Class<?> storableClass;
+    private final List<Property> properties;
+    // null when the schema depends on the values of the fields
+    private final List<Schema.Field> schemaFields;
+    private final Map<String, MethodHandle> getters = new ConcurrentHashMap<>();
+    private final Map<Pair<String, Class<?>>, MethodHandle> setters = new ConcurrentHashMap<>();
+
+    private StorableMetadata(Class<?> storableClass) {
+        this.storableClass = storableClass;
+
+        Map<String, Class> fieldNamesToTypes = ReflectionHelper.getFieldNamesToTypes(storableClass);
+        List<Property> properties = new ArrayList<>(fieldNamesToTypes.size());
+        for (Map.Entry<String, Class> entry : fieldNamesToTypes.entrySet()) {
+            properties.add(new Property(entry.getKey(), entry.getValue()));
+        }
+        this.properties = Collections.unmodifiableList(properties);
+        this.schemaFields = buildSchemaFields();
+        LOG.debug("Built metadata of storable class [{}] with fields {}, schema is cached: [{}]",
+                  storableClass, fieldNamesToTypes.keySet(), schemaFields != null);
+    }
+
+    /**
+     * Returns the metadata of the given storable class, building it if it is not built yet.
+     */
+    public static StorableMetadata get(Class<?> storableClass) {
+        return METADATA.get(storableClass);
+    }
+
+    /**
+     * Builds the metadata of the given storable classes so that it is not built while they are being stored.
+     */
+    public static void register(Collection<Class<? extends Storable>> storableClasses) {
+        for (Class<? extends Storable> storableClass : storableClasses) {
+            get(storableClass);
+        }
+    }
+
+    /**
+     * @return names of the instance fields of the storable class and of its super classes.
+     */
+    public List<String> getFieldNames() {
+        List<String> fieldNames = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            fieldNames.add(property.name);
+        }
+        return fieldNames;
+    }
+
+    /**
+     * Returns the values of all the fields of the given storable by their names.
+     */
+    public Map<String, Object> toMap(Object storable) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Map<String, Object> fieldToVal = new HashMap<>((int) (properties.size() / 0.75f) + 1);
+        for (Property property : properties) {
+            Object val = invoke(property.getGetter(), storable);
+            fieldToVal.put(property.name, val);
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("toMap: Adding fieldName {} = {} ", property.name, val);
+            }
+        }
+        return fieldToVal;
+    }
+
+    /**
+     * Returns the schema of the given storable, fields annotated with {@link SchemaIgnore} are not included in it.
+     */
+    public Schema getSchema(Object storable) throws NoSuchFieldException, NoSuchMethodException,
+            InvocationTargetException, IllegalAccessException, ParserException {
+        if (schemaFields != null) {
+            return Schema.of(schemaFields);
+        }
+
+        List<Schema.Field> fields = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            if (property.getSchemaIgnored()) {
+                LOG.debug("Ignoring field {}", property.name);
+                continue;
+            }
+            Object val = invoke(property.getGetter(), storable);
+            Schema.Type type = val != null ? Schema.fromJavaType(val) : Schema.fromJavaType(property.type);
+            Schema.Field field = new Schema.Field(property.name, type);
+            fields.add(field);
+            LOG.trace("getSchema: Adding {}", field);
+        }
+        return Schema.of(fields);
+    }
+
+    /**
+     * Invokes the getter of the given property on the given storable.
+     */
+    public Object invokeGetter(String propertyName, Object storable) throws NoSuchMethodException,
+            InvocationTargetException, IllegalAccessException {
+        MethodHandle getter = getters.get(propertyName);
+        if (getter == null) {
+            getter = findGetter(propertyName);
+            getters.putIfAbsent(propertyName, getter);
+        }
+        return invoke(getter, storable);
+    }
+
+    /**
+     * Invokes the setter of the given property accepting the given value on the given storable.
+     */
+    public void invokeSetter(String propertyName, Object storable, Object valueToSet) throws NoSuchMethodException,
+            InvocationTargetException, IllegalAccessException {
+        MethodHandle setter = getSetter(propertyName, valueToSet.getClass());
+        try {
+            setter.invokeExact(storable, valueToSet);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Returns the setter of the given property accepting values of the given type, as a {@link MethodHandle} of type
+     * {@code (Object, Object)void}.
+     */
+    public MethodHandle getSetter(String propertyName, Class<?> valueType) throws NoSuchMethodException, IllegalAccessException {
+        Pair<String, Class<?>> key = Pair.of(propertyName, valueType);
+        MethodHandle setter = setters.get(key);
+        if (setter == null) {
+            setter = findSetter(propertyName, valueType);
+            setters.putIfAbsent(key, setter);
+        }
+        return setter;
+    }
+
+    // schema fields when the types of all the fields can be known without their values, null otherwise
+    private List<Schema.Field> buildSchemaFields() {
+        List<Schema.Field> fields = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            try {
+                if (property.getSchemaIgnored()) {
+                    continue;
+                }
+                // getters are still needed, an exception is thrown for the missing ones
+                property.getGetter();
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+            Schema.Type type = property.getStaticSchemaType();
+            if (type == null) {
+                return null;
+            }
+            fields.add(new Schema.Field(property.name, type));
+        }
+        return Collections.unmodifiableList(fields);
+    }
+
+    private MethodHandle findGetter(String propertyName) throws NoSuchMethodException, IllegalAccessException {
+        String methodName = "get" + StringUtils.capitalize(propertyName);
+        Method method = storableClass.getMethod(methodName);
+        return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+    }
+
+    private MethodHandle findSetter(String propertyName, Class<?> valueType) throws NoSuchMethodException, IllegalAccessException {
+        String methodName = "set" + StringUtils.capitalize(propertyName);
+        Method method = null;
+        try {
+            method = storableClass.getMethod(methodName, valueType);
+        } catch (NoSuchMethodException ex) {
+            // try setters that accept super types
+            for (Method candidate : storableClass.getMethods()) {
+                if (candidate.getName().equals(methodName) && candidate.getParameterCount() == 1
+                        && candidate.getParameterTypes()[0].isAssignableFrom(valueType)) {
+                    method = candidate;
+                    break;
+                }
+            }
+            if (method == null) {
+                throw ex;
+            }
+        }
+        return MethodHandles.publicLookup().unreflect(method).asType(SETTER_TYPE);
+    }
+
+    private static Object invoke(MethodHandle getter, Object storable) throws InvocationTargetException {
+        try {
+            return getter.invokeExact(storable);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StorableMetadata{" +
+                "storableClass=" + storableClass +
+                ", fieldNames=" + getFieldNames() +
+                '}';
+    }
+
+    /**
+     * Field of the storable class, its getter and schema properties are resolved on first use and failures to resolve
+     * them are thrown on each use, same as when they were looked up on each call.
+     */
+    private final class Property {
+        private final String name;
+        private final Class type;
+        private volatile MethodHandle getter;
+        private volatile Boolean schemaIgnored;
+
+        private Property(String name, Class type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        private MethodHandle getGetter() throws NoSuchMethodException, IllegalAccessException {
+            MethodHandle result = getter;
+            if (result == null) {
+                result = findGetter(name);
+                getters.putIfAbsent(name, result);
+                getter = result;
+            }
+            return result;
+        }
+
+        // schema only includes fields declared in the storable class, not the ones of its super classes
+        private boolean getSchemaIgnored() throws NoSuchFieldException {
+            Boolean result = schemaIgnored;
+            if (result == null) {
+                Field field = storableClass.getDeclaredField(name);
+                result = field.getAnnotation(SchemaIgnore.class) != null;
+                schemaIgnored = result;
+            }
+            return result;
+        }
+
+        // type of values of this field if it is the same for all the values, null otherwise. Values of primitive fields
+        // are never null and are of their wrapper type.
+        private Schema.Type getStaticSchemaType() {
+            try {
+                return Schema.fromJavaType(ClassUtils.primitiveToWrapper(type));
+            } catch (ParserException e) {
+                return null;
+            }
+        }
+    }
+}
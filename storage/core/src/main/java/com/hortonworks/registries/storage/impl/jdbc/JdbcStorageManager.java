@@ -25,6 +25,7 @@ import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableFactory;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.SubQuery;
 import com.hortonworks.registries.storage.TransactionManager;
 import com.hortonworks.registries.storage.exception.AlreadyExistsException;
 import com.hortonworks.registries.storage.exception.IllegalQueryParameterException;
@@ -33,7 +34,12 @@ import com.hortonworks.registries.storage.impl.jdbc.provider.QueryExecutorFactor
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.QueryExecutor;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.util.CaseAgnosticStringSet;
+import com.hortonworks.registries.storage.search.OrderBy;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import com.hortonworks.registries.storage.search.WhereClauseCombiner;
+import com.hortonworks.registries.storage.transaction.TransactionCompletionListener;
+import com.hortonworks.registries.storage.util.StorageUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +48,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 //Use unique constraints on respective columns of a table for handling concurrent inserts etc.
 public class JdbcStorageManager implements TransactionManager, StorageManager {
@@ -65,6 +72,12 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         queryExecutor.insert(storable);
     }
 
+    @Override
+    public void addAll(Collection<? extends Storable> storables) throws StorageException {
+        log.debug("Adding [{}] storables", storables.size());
+        queryExecutor.insertAll(storables);
+    }
+
     @Override
     public <T extends Storable> T remove(StorableKey key) throws StorageException {
         T oldVal = get(key);
@@ -136,6 +149,91 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         return entries;
     }
 
+    @Override
+    public <T extends Storable> Stream<T> stream(String namespace, List<QueryParam> queryParams) throws StorageException {
+        log.debug("Streaming entries in table [{}] that match queryParams [{}]", namespace, queryParams);
+
+        if (queryParams == null || queryParams.isEmpty()) {
+            return queryExecutor.stream(namespace);
+        }
+
+        StorableKey storableKey;
+        try {
+            storableKey = buildStorableKey(namespace, queryParams);
+        } catch (Exception e) {
+            throw new StorageException(e);
+        }
+        return storableKey != null ? queryExecutor.stream(storableKey) : Stream.empty();
+    }
+
+    /**
+     * Selects only the rows of the requested page, with a where clause on the given {@code afterValues} of the
+     * {@code orderByFields} and a limit on the number of rows.
+     */
+    @Override
+    public <T extends Storable> Collection<T> find(String namespace,
+                                                   List<QueryParam> queryParams,
+                                                   List<OrderByField> orderByFields,
+                                                   List<Object> afterValues,
+                                                   int limit) throws StorageException {
+        log.debug("Searching for a page of [{}] entries in table [{}] that match queryParams [{}] and order by [{}] after [{}]",
+                  limit, namespace, queryParams, orderByFields, afterValues);
+        StorageUtils.validatePage(orderByFields, afterValues, limit);
+
+        SearchQuery searchQuery = SearchQuery.searchFrom(namespace).limit(limit);
+        if (queryParams != null && !queryParams.isEmpty()) {
+            WhereClause whereClause = buildWhereClause(namespace, queryParams);
+            if (whereClause == null) {
+                return Collections.emptyList();
+            }
+            searchQuery.where(whereClause);
+        }
+        if (orderByFields != null && !orderByFields.isEmpty()) {
+            searchQuery.orderBy(orderByFields.stream()
+                                        .map(x -> x.isDescending() ? OrderBy.desc(x.getFieldName()) : OrderBy.asc(x.getFieldName()))
+                                        .toArray(OrderBy[]::new));
+        }
+        if (afterValues != null) {
+            searchQuery.after(afterValues.toArray());
+        }
+
+        return search(searchQuery);
+    }
+
+    /**
+     * Selects only the rows of the requested page, with a sub select of the values of each of the {@code subQueries}.
+     */
+    @Override
+    public <T extends Storable> Collection<T> findIn(String namespace,
+                                                     String fieldName,
+                                                     List<SubQuery> subQueries,
+                                                     Object afterValue,
+                                                     int limit) throws StorageException {
+        log.debug("Searching for a page of [{}] entries in table [{}] with [{}] in [{}] after [{}]",
+                  limit, namespace, fieldName, subQueries, afterValue);
+        StorageUtils.validatePage(Collections.singletonList(OrderByField.of(fieldName)),
+                                  afterValue != null ? Collections.singletonList(afterValue) : null,
+                                  limit);
+
+        SearchQuery searchQuery = SearchQuery.searchFrom(namespace).orderBy(OrderBy.asc(fieldName)).limit(limit);
+        for (SubQuery subQuery : subQueries) {
+            SearchQuery searchSubQuery = SearchQuery.searchFrom(subQuery.getNameSpace());
+            if (!subQuery.getQueryParams().isEmpty()) {
+                WhereClause whereClause = buildWhereClause(subQuery.getNameSpace(), subQuery.getQueryParams());
+                if (whereClause == null) {
+                    return Collections.emptyList();
+                }
+                searchSubQuery.where(whereClause);
+            }
+            searchQuery.in(fieldName, searchSubQuery, subQuery.getFieldName());
+        }
+        if (afterValue != null) {
+            searchQuery.after(afterValue);
+        }
+
+        return search(searchQuery);
+    }
+
     @Override
     public <T extends Storable> Collection<T> search(SearchQuery searchQuery) {
         return queryExecutor.select(searchQuery);
@@ -214,6 +312,35 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
         return storableKey;
     }
 
+    /**
+     * Builds the where clause matching all the query parameters of the fields of the storables of the given namespace,
+     * with values of the types of those fields.
+     *
+     * @return where clause of the query parameters specified for fields of the storables <br/>
+     * null if none of the query parameters specified matches a field
+     */
+    private WhereClause buildWhereClause(String namespace, List<QueryParam> queryParams) {
+        Schema schema = storableFactory.create(namespace).getSchema();
+        WhereClauseCombiner whereClauseCombiner = null;
+        for (QueryParam qp : queryParams) {
+            Schema.Field field = schema.getField(qp.getName());
+            if (field == null) {
+                log.warn("Query parameter [{}] does not exist for namespace [{}]. Query parameter ignored.", qp.getName(), namespace);
+                continue;
+            }
+            Object value;
+            try {
+                // instantiates object of the type of the field
+                value = field.getType().getJavaType().getConstructor(String.class).newInstance(qp.getValue());
+            } catch (Exception e) {
+                throw new IllegalQueryParameterException(e);
+            }
+            WhereClause.Builder builder = whereClauseCombiner == null ? WhereClause.begin() : whereClauseCombiner.and();
+            whereClauseCombiner = builder.eq(field.getName(), value);
+        }
+        return whereClauseCombiner != null ? whereClauseCombiner.combine() : null;
+    }
+
     /**
      * Initializes this instance with {@link QueryExecutor} created from the given {@code properties}.
      * Some of these properties are jdbcDriverClass, jdbcUrl, queryTimeoutInSecs.
@@ -257,4 +384,9 @@ public class JdbcStorageManager implements TransactionManager, StorageManager {
     public void commitTransaction() {
         queryExecutor.commitTransaction();
     }
+
+    @Override
+    public void registerTransactionCompletionListener(TransactionCompletionListener listener) {
+        queryExecutor.registerTransactionCompletionListener(listener);
+    }
 }
@@ -26,14 +26,31 @@ import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.Prepa
  * This class should be immutable as the configuration should not change after passed in to the configurable objects
  **/
 public class ExecutionConfig {
+    public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 64;
+
     private final int queryTimeoutSecs;
+    private final int preparedStatementCacheSize;
 
     // Replace constructors with Builder pattern as more configuration options become available
     public ExecutionConfig(int queryTimeoutSecs) {
+        this(queryTimeoutSecs, DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * @param queryTimeoutSecs           query timeout, not set on statements when it is not positive
+     * @param preparedStatementCacheSize maximum number of prepared statements cached for a connection used by a
+     *                                   transaction, statements are not cached when it is 0
+     */
+    public ExecutionConfig(int queryTimeoutSecs, int preparedStatementCacheSize) {
         this.queryTimeoutSecs = queryTimeoutSecs;
+        this.preparedStatementCacheSize = preparedStatementCacheSize;
     }
 
     public int getQueryTimeoutSecs() {
         return queryTimeoutSecs;
     }
+
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
 }
@@ -39,6 +39,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Stream;
 
 /**
  * SQL query executor for MySQL DB.
@@ -62,9 +63,11 @@ public class MySqlExecutor extends AbstractQueryExecutor {
     /**
      * @param config Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
-     * @param cacheBuilder Guava cache configuration. The maximum number of entries in cache (open connections)
-     *                     must not exceed the maximum number of open database connections allowed
+     * @param cacheBuilder not used, prepared statements are cached for the connections of transactions
+     * @deprecated use the constructor without a cache builder, prepared statements are cached for the connections of
+     * transactions up to {@link ExecutionConfig#getPreparedStatementCacheSize()} statements each
      */
+    @Deprecated
     public MySqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder) {
         super(config, connectionBuilder, cacheBuilder);
     }
@@ -76,6 +79,16 @@ public class MySqlExecutor extends AbstractQueryExecutor {
         insertOrUpdateWithUniqueId(storable, new MySqlInsertQuery(storable));
     }
 
+    @Override
+    protected SqlQuery createInsertQuery(Storable storable) {
+        return new MySqlInsertQuery(storable);
+    }
+
+    @Override
+    protected boolean isIdGeneratedByStorage() {
+        return true;
+    }
+
     @Override
     public void insertOrUpdate(final Storable storable) {
         insertOrUpdateWithUniqueId(storable, new MySqlInsertUpdateDuplicate(storable));
@@ -117,6 +130,25 @@ public class MySqlExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new MySqlSelectQuery(storableKey, orderByFields));
     }
 
+    @Override
+    public <T extends Storable> Stream<T> stream(String namespace) {
+        return executeStreamingQuery(namespace, new MySqlSelectQuery(namespace));
+    }
+
+    @Override
+    public <T extends Storable> Stream<T> stream(StorableKey storableKey) {
+        return executeStreamingQuery(storableKey.getNameSpace(), new MySqlSelectQuery(storableKey));
+    }
+
+    /**
+     * MySQL driver reads all the rows of a result set in memory unless its fetch size is {@link Integer#MIN_VALUE},
+     * in which case they are streamed one by one.
+     */
+    @Override
+    protected int getStreamingFetchSize() {
+        return Integer.MIN_VALUE;
+    }
+
     private void insertOrUpdateWithUniqueId(final Storable storable, final SqlQuery sqlQuery) {
         try {
             Long id = storable.getId();
@@ -42,6 +42,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 public class OracleExecutor extends AbstractQueryExecutor {
@@ -52,6 +53,11 @@ public class OracleExecutor extends AbstractQueryExecutor {
         super(config, connectionBuilder, ORACLE_DATA_TYPE_CONTEXT);
     }
 
+    /**
+     * @deprecated use the constructor without a cache builder, prepared statements are cached for the connections of
+     * transactions up to {@link ExecutionConfig#getPreparedStatementCacheSize()} statements each
+     */
+    @Deprecated
     public OracleExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder) {
         super(config, connectionBuilder, cacheBuilder, ORACLE_DATA_TYPE_CONTEXT);
     }
@@ -62,6 +68,11 @@ public class OracleExecutor extends AbstractQueryExecutor {
         executeUpdate(new OracleInsertQuery(storable));
     }
 
+    @Override
+    protected SqlQuery createInsertQuery(Storable storable) {
+        return new OracleInsertQuery(storable);
+    }
+
     @Override
     public void insertOrUpdate(final Storable storable) {
         executeUpdate(new OracleInsertUpdateDuplicate(storable));
@@ -107,6 +118,16 @@ public class OracleExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new OracleSelectQuery(storableKey, orderByFields));
     }
 
+    @Override
+    public <T extends Storable> Stream<T> stream(String namespace) {
+        return executeStreamingQuery(namespace, new OracleSelectQuery(namespace));
+    }
+
+    @Override
+    public <T extends Storable> Stream<T> stream(StorableKey storableKey) {
+        return executeStreamingQuery(storableKey.getNameSpace(), new OracleSelectQuery(storableKey));
+    }
+
     @Override
     public Long nextId(String namespace) {
         OracleSequenceIdQuery oracleSequenceIdQuery = new OracleSequenceIdQuery(namespace, queryTimeoutSecs, ORACLE_DATA_TYPE_CONTEXT);
@@ -37,12 +37,13 @@ public class OracleDataTypeContext extends DefaultStorageDataTypeContext {
             super.setPreparedStatementParams(preparedStatement, type, index, val);
     }
 
-    protected Object getJavaObject(Class columnJavaType, String columnLabel, ResultSet resultSet) throws SQLException {
+    @Override
+    public Object getJavaObject(Class columnJavaType, int columnIndex, ResultSet resultSet) throws SQLException {
         if (columnJavaType.equals(String.class)) {
-            String stringValue = resultSet.getString(columnLabel);
+            String stringValue = resultSet.getString(columnIndex);
             if (stringValue != null && stringValue.equals(EMPTY_STRING_PLACEHOLDER))
                 return "";
         }
-        return super.getJavaObject(columnJavaType, columnLabel, resultSet);
+        return super.getJavaObject(columnJavaType, columnIndex, resultSet);
     }
 }
@@ -33,6 +33,7 @@ import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.Po
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlInsertUpdateDuplicate;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.query.PostgresqlUpdateQuery;
+import com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.statement.PostgresqlDataTypeContext;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory.AbstractQueryExecutor;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
@@ -40,11 +41,10 @@ import com.hortonworks.registries.storage.impl.jdbc.util.Util;
 import com.hortonworks.registries.storage.search.SearchQuery;
 import com.zaxxer.hikari.HikariConfig;
 
-import java.sql.ResultSet;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Stream;
 
 /**
  * SQL query executor for PostgreSQL
@@ -56,22 +56,26 @@ import java.util.Properties;
  */
 public class PostgresqlExecutor extends AbstractQueryExecutor {
 
+    private static final PostgresqlDataTypeContext POSTGRESQL_DATA_TYPE_CONTEXT = new PostgresqlDataTypeContext();
+
     /**
      * @param config            Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
      */
     public PostgresqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
-        super(config, connectionBuilder);
+        super(config, connectionBuilder, POSTGRESQL_DATA_TYPE_CONTEXT);
     }
 
     /**
      * @param config            Object that contains arbitrary configuration that may be needed for any of the steps of the query execution process
      * @param connectionBuilder Object that establishes the connection to the database
-     * @param cacheBuilder      Guava cache configuration. The maximum number of entries in cache (open connections)
-     *                          must not exceed the maximum number of open database connections allowed
+     * @param cacheBuilder      not used, prepared statements are cached for the connections of transactions
+     * @deprecated use the constructor without a cache builder, prepared statements are cached for the connections of
+     * transactions up to {@link ExecutionConfig#getPreparedStatementCacheSize()} statements each
      */
+    @Deprecated
     public PostgresqlExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder) {
-        super(config, connectionBuilder, cacheBuilder);
+        super(config, connectionBuilder, cacheBuilder, POSTGRESQL_DATA_TYPE_CONTEXT);
     }
 
     // ============= Public API methods =============
@@ -81,6 +85,16 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         insertOrUpdateWithUniqueId(storable, new PostgresqlInsertQuery(storable));
     }
 
+    @Override
+    protected SqlQuery createInsertQuery(Storable storable) {
+        return new PostgresqlInsertQuery(storable);
+    }
+
+    @Override
+    protected boolean isIdGeneratedByStorage() {
+        return true;
+    }
+
     @Override
     public void insertOrUpdate(final Storable storable) {
         insertOrUpdateWithUniqueId(storable, new PostgresqlInsertUpdateDuplicate(storable));
@@ -111,6 +125,24 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         return executeQuery(storableKey.getNameSpace(), new PostgresqlSelectQuery(storableKey, orderByFields));
     }
 
+    @Override
+    public <T extends Storable> Stream<T> stream(String namespace) {
+        return executeStreamingQuery(namespace, new PostgresqlSelectQuery(namespace));
+    }
+
+    @Override
+    public <T extends Storable> Stream<T> stream(StorableKey storableKey) {
+        return executeStreamingQuery(storableKey.getNameSpace(), new PostgresqlSelectQuery(storableKey));
+    }
+
+    /**
+     * PostgreSQL driver only fetches rows with a cursor, by fetch size rows at once, when auto-commit is disabled.
+     */
+    @Override
+    protected boolean isStreamingWithoutAutoCommit() {
+        return true;
+    }
+
     @Override
     public void delete(StorableKey storableKey) {
         executeUpdate(new PostgresqlDeleteQuery(storableKey));
@@ -128,26 +160,6 @@ public class PostgresqlExecutor extends AbstractQueryExecutor {
         return executeQuery(searchQuery.getNameSpace(), new PostgresqlSelectQuery(searchQuery, schema));
     }
 
-    // this is required since the Id type in Storable is long and Postgres supports Int type for SERIAL (auto increment) field
-    @Override
-    protected QueryExecution getQueryExecution(SqlQuery sqlQuery) {
-        return new QueryExecution(sqlQuery) {
-            @Override
-            protected List<Map<String, Object>> getMapsFromResultSet(ResultSet resultSet) {
-                List<Map<String, Object>> res = super.getMapsFromResultSet(resultSet);
-                if (res != null) {
-                    res.forEach(m -> {
-                        Object id = m.get("id");
-                        if (id != null && id instanceof Integer) {
-                            m.put("id", Long.valueOf((Integer) id));
-                        }
-                    });
-                }
-                return res;
-            }
-        };
-    }
-
     private void insertOrUpdateWithUniqueId(final Storable storable, final SqlQuery sqlQuery) {
         try {
             Long id = storable.getId();
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc.provider.postgresql.statement;
+
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.DefaultStorageDataTypeContext;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+public class PostgresqlDataTypeContext extends DefaultStorageDataTypeContext {
+
+    private static final String ID_COLUMN = "id";
+
+    // this is required since the Id type in Storable is long and Postgres supports Int type for SERIAL (auto increment) field
+    @Override
+    public Class getJavaType(ResultSetMetaData rsMetadata, int columnIndex) throws SQLException {
+        Class columnJavaType = super.getJavaType(rsMetadata, columnIndex);
+        if (columnJavaType.equals(Integer.class) && ID_COLUMN.equals(rsMetadata.getColumnLabel(columnIndex))) {
+            return Long.class;
+        }
+        return columnJavaType;
+    }
+}
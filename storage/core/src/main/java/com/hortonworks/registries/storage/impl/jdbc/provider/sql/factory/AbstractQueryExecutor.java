@@ -16,10 +16,7 @@
 
 package com.hortonworks.registries.storage.impl.jdbc.provider.sql.factory;
 
-import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.RemovalListener;
-import com.google.common.cache.RemovalNotification;
 import com.hortonworks.registries.common.transaction.TransactionIsolation;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableFactory;
@@ -33,9 +30,14 @@ import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.DefaultStorageDataTypeContext;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementBuilder;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementCache;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.PreparedStatementCacheMetrics;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.StorableRowMapper;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement.StorageDataTypeContext;
 import com.hortonworks.registries.storage.impl.jdbc.util.CaseAgnosticStringSet;
 import com.hortonworks.registries.storage.transaction.TransactionBookKeeper;
+import com.hortonworks.registries.storage.transaction.TransactionCompletionListener;
+import com.hortonworks.registries.storage.transaction.TransactionContext;
 import com.hortonworks.registries.storage.transaction.TransactionState;
 
 import java.sql.Connection;
@@ -50,13 +52,21 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- *
+ * Base class of query executors. Statements run by a transaction are prepared once on its connection and cached in a
+ * {@link PreparedStatementCache} until the transaction ends, other queries are run on a connection taken from the
+ * {@link ConnectionBuilder} for each of them.
  */
 public abstract class AbstractQueryExecutor implements QueryExecutor {
+    private static final int MAX_INSERT_BATCH_SIZE = 500;
+    private static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
 
     protected final ExecutionConfig config;
     protected final int queryTimeoutSecs;
@@ -65,13 +75,22 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
     protected final StorageDataTypeContext storageDataTypeContext;
     protected final TransactionBookKeeper transactionBookKeeper = new TransactionBookKeeper();
 
-    private final Cache<SqlQuery, PreparedStatementBuilder> cache;
+    // statement caches of connections used by active transactions, each one is used only by its transaction's thread.
+    private final Map<Connection, PreparedStatementCache> preparedStatementCaches = new ConcurrentHashMap<>();
+    private final PreparedStatementCacheMetrics preparedStatementCacheMetrics = new PreparedStatementCacheMetrics();
+    // row mappers by storable class and columns of the queried result sets, which are a few for each namespace.
+    private final Map<StorableRowMapper.Key, StorableRowMapper> storableRowMappers = new ConcurrentHashMap<>();
     protected StorableFactory storableFactory;
 
     public AbstractQueryExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder) {
         this(config, connectionBuilder, null, new DefaultStorageDataTypeContext());
     }
 
+    /**
+     * @deprecated prepared statements are cached for the connections of transactions, up to
+     * {@link ExecutionConfig#getPreparedStatementCacheSize()} statements each. The given cache builder is not used.
+     */
+    @Deprecated
     public AbstractQueryExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder) {
         this(config, connectionBuilder, cacheBuilder, new DefaultStorageDataTypeContext());
     }
@@ -80,10 +99,14 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         this(config, connectionBuilder, null, storageDataTypeContext);
     }
 
+    /**
+     * @deprecated prepared statements are cached for the connections of transactions, up to
+     * {@link ExecutionConfig#getPreparedStatementCacheSize()} statements each. The given cache builder is not used.
+     */
+    @Deprecated
     public AbstractQueryExecutor(ExecutionConfig config, ConnectionBuilder connectionBuilder, CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder, StorageDataTypeContext storageDataTypeContext) {
         this.connectionBuilder = connectionBuilder;
         this.config = config;
-        cache = cacheBuilder != null ? buildCache(cacheBuilder) : null;
         this.queryTimeoutSecs = config.getQueryTimeoutSecs();
         this.storageDataTypeContext = storageDataTypeContext;
         activeConnections = Collections.synchronizedList(new ArrayList<Connection>());
@@ -94,6 +117,53 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         executeUpdate(new SqlDeleteQuery(storableKey));
     }
 
+    /**
+     * Inserts the given storables with JDBC batches of consecutive storables having the same insert statement. Ids
+     * generated by storage are set on the storables inserted without an id. Storables are inserted one by one when
+     * {@link #createInsertQuery(Storable)} is not supported.
+     */
+    @Override
+    public void insertAll(Collection<? extends Storable> storables) {
+        List<Storable> batchStorables = new ArrayList<>();
+        List<SqlQuery> batchQueries = new ArrayList<>();
+        String batchSql = null;
+        boolean batchGeneratingIds = false;
+        for (Storable storable : storables) {
+            SqlQuery sqlQuery = createInsertQuery(storable);
+            if (sqlQuery == null) {
+                executeBatch(batchStorables, batchQueries, batchGeneratingIds);
+                insert(storable);
+                continue;
+            }
+
+            boolean generatingId = isIdGeneratedByStorage() && !hasId(storable);
+            String sql = sqlQuery.getParametrizedSql();
+            if (!sql.equals(batchSql) || generatingId != batchGeneratingIds || batchQueries.size() == MAX_INSERT_BATCH_SIZE) {
+                executeBatch(batchStorables, batchQueries, batchGeneratingIds);
+                batchSql = sql;
+                batchGeneratingIds = generatingId;
+            }
+            batchStorables.add(storable);
+            batchQueries.add(sqlQuery);
+        }
+        executeBatch(batchStorables, batchQueries, batchGeneratingIds);
+    }
+
+    /**
+     * Returns the query to insert the given storable in a batch, which should be the same as the one used by
+     * {@link #insert(Storable)}. Returns null by default, in which case storables are inserted one by one.
+     */
+    protected SqlQuery createInsertQuery(Storable storable) {
+        return null;
+    }
+
+    /**
+     * Returns whether storage issues ids for the storables inserted without an id, like auto increment columns.
+     */
+    protected boolean isIdGeneratedByStorage() {
+        return false;
+    }
+
     @Override
     public <T extends Storable> Collection<T> select(final String namespace) {
         return executeQuery(namespace, new SqlSelectQuery(namespace));
@@ -149,6 +219,10 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
     public void closeConnection(Connection connection) {
         if (connection != null) {
+            PreparedStatementCache preparedStatementCache = preparedStatementCaches.remove(connection);
+            if (preparedStatementCache != null) {
+                preparedStatementCache.close();
+            }
             try {
                 if(!connection.isClosed()) {
                     connection.close();
@@ -163,15 +237,43 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
     }
 
     public void cleanup() {
-        if (isCacheEnabled()) {
-            cache.invalidateAll();
-        } else {
-            closeAllOpenConnections();
+        log.info("Prepared statement cache metrics: [{}]", preparedStatementCacheMetrics);
+        for (Iterator<PreparedStatementCache> iter = preparedStatementCaches.values().iterator(); iter.hasNext(); ) {
+            iter.next().close();
+            iter.remove();
+        }
+        closeAllOpenConnections();
+    }
+
+    /**
+     * @return metrics of statements prepared by this executor, which can be used to measure the time saved by caching
+     * statements of transactions.
+     */
+    public PreparedStatementCacheMetrics getPreparedStatementCacheMetrics() {
+        return preparedStatementCacheMetrics;
+    }
+
+    /**
+     * Returns the {@link PreparedStatementBuilder} for the given query on the given connection. It is cached for the
+     * connection of an active transaction, in which case it should not be closed by the caller. Otherwise its
+     * statement is prepared for this call and it is closed with the connection.
+     */
+    protected PreparedStatementBuilder getPreparedStatementBuilder(Connection connection, SqlQuery sqlQuery, boolean returnGeneratedKeys) throws SQLException {
+        PreparedStatementCache preparedStatementCache = preparedStatementCaches.get(connection);
+        if (preparedStatementCache != null) {
+            return preparedStatementCache.get(sqlQuery, returnGeneratedKeys);
         }
+
+        long startNanos = System.nanoTime();
+        PreparedStatementBuilder preparedStatementBuilder = returnGeneratedKeys
+                ? PreparedStatementBuilder.supportReturnGeneratedKeys(connection, config, storageDataTypeContext, sqlQuery)
+                : PreparedStatementBuilder.of(connection, config, storageDataTypeContext, sqlQuery);
+        preparedStatementCacheMetrics.recordUncachedPrepare(System.nanoTime() - startNanos);
+        return preparedStatementBuilder;
     }
 
-    private boolean isCacheEnabled() {
-        return cache != null;
+    private boolean isPreparedStatementCached(Connection connection) {
+        return preparedStatementCaches.containsKey(connection);
     }
 
 
@@ -190,21 +292,6 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         }
     }
 
-    private Cache<SqlQuery, PreparedStatementBuilder> buildCache(CacheBuilder<SqlQuery, PreparedStatementBuilder> cacheBuilder) {
-        return cacheBuilder.removalListener(new RemovalListener<SqlQuery, PreparedStatementBuilder>() {
-            /** Cleanup operation for when the entry is removed from cache */
-            @Override
-            public void onRemoval(RemovalNotification<SqlQuery, PreparedStatementBuilder> notification) {
-                final PreparedStatementBuilder preparedStatementBuilder = notification.getValue();
-                log.debug("Removed entry from cache [key:{}, val: {}]", notification.getKey(), preparedStatementBuilder);
-                log.debug("Cache size: {}", cache.size());
-                if(preparedStatementBuilder != null && !transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
-                    closeConnection(preparedStatementBuilder.getConnection());
-                }
-            }
-        }).build();
-    }
-
     @Override
     public void setStorableFactory(StorableFactory storableFactory) {
         if (this.storableFactory != null) {
@@ -231,6 +318,13 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
                 activeConnections.add(connection);
                 connection.setAutoCommit(false);
                 transactionBookKeeper.addTransaction(currentThreadId, connection);
+                if (config.getPreparedStatementCacheSize() > 0) {
+                    preparedStatementCaches.put(connection, new PreparedStatementCache(connection,
+                                                                                       config,
+                                                                                       storageDataTypeContext,
+                                                                                       config.getPreparedStatementCacheSize(),
+                                                                                       preparedStatementCacheMetrics));
+                }
             } else {
                 log.debug(" --- Reusing transaction for thread if : {} --- ", currentThreadId);
                 if (transactionIsolationLevel != TransactionIsolation.DEFAULT &&
@@ -256,8 +350,9 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
                 throw new TransactionException("Failed to roll back transaction", e);
             } finally {
                 if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-                    transactionBookKeeper.removeTransaction(currentThreadId);
+                    TransactionContext transactionContext = transactionBookKeeper.removeTransaction(currentThreadId);
                     closeConnection(connection);
+                    notifyCompletionListeners(transactionContext);
                 }
             }
         } else {
@@ -279,8 +374,9 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
                 throw new TransactionException("Failed to commit transaction", e);
             } finally {
                 if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
-                    transactionBookKeeper.removeTransaction(currentThreadId);
+                    TransactionContext transactionContext = transactionBookKeeper.removeTransaction(currentThreadId);
                     closeConnection(connection);
+                    notifyCompletionListeners(transactionContext);
                 }
             }
         } else {
@@ -294,16 +390,102 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         if (!transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
             if (transactionBookKeeper.whereThereAnyRollbacks(currentThreadId))
                 transactionBookKeeper.getConnection(currentThreadId).rollback();
-            else if (transactionBookKeeper.whereThereAnyCommits(currentThreadId))
+            else if (transactionBookKeeper.whereThereAnyCommits(currentThreadId)) {
                 transactionBookKeeper.getConnection(currentThreadId).commit();
-            else
+                transactionBookKeeper.markCommitted(currentThreadId);
+            } else
                 throw new TransactionException("Attempted to close a transaction without explicit call to commit or rollback");
             transactionBookKeeper.getConnection(threadId).setAutoCommit(true);
         }
     }
 
+    @Override
+    public void registerTransactionCompletionListener(TransactionCompletionListener listener) {
+        long currentThreadId = Thread.currentThread().getId();
+        if (transactionBookKeeper.hasActiveTransaction(currentThreadId)) {
+            transactionBookKeeper.addCompletionListener(currentThreadId, listener);
+        } else {
+            // changes are already committed when there is no transaction
+            listener.onCompletion(true);
+        }
+    }
+
+    private void notifyCompletionListeners(TransactionContext transactionContext) {
+        for (TransactionCompletionListener listener : transactionContext.getCompletionListeners()) {
+            try {
+                listener.onCompletion(transactionContext.isCommitted());
+            } catch (Exception e) {
+                log.error("Transaction completion listener [{}] failed", listener, e);
+            }
+        }
+    }
+
     // =============== Private helper Methods ===============
 
+    /**
+     * Executes the given insert queries having the same parameterized sql in a single batch and clears the given lists.
+     */
+    private void executeBatch(List<Storable> storables, List<SqlQuery> sqlQueries, boolean returnGeneratedKeys) {
+        if (sqlQueries.isEmpty()) {
+            return;
+        }
+
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            connection = getConnection();
+            SqlQuery sqlQuery = sqlQueries.get(0);
+            log.debug("Executing batch of [{}] statements for [{}]", sqlQueries.size(), sqlQuery.getParametrizedSql());
+            PreparedStatementBuilder preparedStatementBuilder = getPreparedStatementBuilder(connection, sqlQuery, returnGeneratedKeys);
+            for (SqlQuery query : sqlQueries) {
+                preparedStatement = preparedStatementBuilder.getPreparedStatement(query);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+
+            if (returnGeneratedKeys) {
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    for (Storable storable : storables) {
+                        if (!generatedKeys.next()) {
+                            throw new StorageException("Generated keys are not returned for all the inserted rows of " +
+                                                               sqlQuery.getParametrizedSql());
+                        }
+                        storable.setId(generatedKeys.getLong(1));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        } finally {
+            if (preparedStatement != null) {
+                try {
+                    // cached statement is reused by the next batch, which should not include the rows left by a failure
+                    if (isPreparedStatementCached(connection)) {
+                        preparedStatement.clearBatch();
+                    } else {
+                        preparedStatement.close();
+                    }
+                } catch (SQLException e) {
+                    log.error("Failed to release prepared statement", e);
+                }
+            }
+            if (!transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+                closeConnection(connection);
+            }
+            storables.clear();
+            sqlQueries.clear();
+        }
+    }
+
+    private boolean hasId(Storable storable) {
+        try {
+            return storable.getId() != null;
+        } catch (UnsupportedOperationException e) {
+            // storables without an id column
+            return true;
+        }
+    }
+
     /**
      * Executes an update query and returns the number of rows updated.
      *
@@ -326,6 +508,136 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         return new QueryExecution(sqlQuery);
     }
 
+    /**
+     * Runs the given query and returns a stream of its rows, which are fetched from the database as the stream is
+     * consumed. The query runs on a connection of its own, outside of any transaction of the current thread, with a
+     * statement which is not cached. Both are released when the stream is closed, or when all its rows are read.
+     */
+    protected <T extends Storable> Stream<T> executeStreamingQuery(String namespace, SqlQuery sqlQuery) {
+        StreamingQueryExecution<T> streamingQueryExecution = new StreamingQueryExecution<>(namespace, sqlQuery);
+        streamingQueryExecution.executeQuery();
+        return StreamSupport.stream(streamingQueryExecution, false).onClose(streamingQueryExecution::close);
+    }
+
+    /**
+     * Returns the fetch size of statements of streamed queries, which is the number of rows the driver fetches from
+     * the database at once.
+     */
+    protected int getStreamingFetchSize() {
+        return DEFAULT_STREAMING_FETCH_SIZE;
+    }
+
+    /**
+     * Returns whether streamed queries should run with auto-commit disabled, as some drivers only fetch rows with a
+     * cursor inside a transaction.
+     */
+    protected boolean isStreamingWithoutAutoCommit() {
+        return false;
+    }
+
+    /**
+     * Returns the mapper populating storables of the given class from rows of result sets with the given metadata.
+     */
+    protected StorableRowMapper getStorableRowMapper(Class<? extends Storable> storableClass,
+                                                     ResultSetMetaData rsMetadata) throws SQLException {
+        StorableRowMapper.Key key = StorableRowMapper.Key.of(storableClass, rsMetadata, storageDataTypeContext);
+        return storableRowMappers.computeIfAbsent(key, StorableRowMapper::of);
+    }
+
+    private class StreamingQueryExecution<T extends Storable> extends Spliterators.AbstractSpliterator<T> {
+        private final String namespace;
+        private final SqlQuery sqlBuilder;
+        private Connection connection;
+        private boolean autoCommitDisabled;
+        private PreparedStatementBuilder preparedStatementBuilder;
+        private ResultSet resultSet;
+        private StorableRowMapper rowMapper;
+        private boolean closed;
+
+        StreamingQueryExecution(String namespace, SqlQuery sqlBuilder) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.namespace = namespace;
+            this.sqlBuilder = sqlBuilder;
+        }
+
+        void executeQuery() {
+            try {
+                // statements of a transaction can not run on a connection while rows are streamed on it by some
+                // drivers, and cached statements would close the result set when they are reused.
+                connection = connectionBuilder.getConnection();
+                activeConnections.add(connection);
+                log.debug("Got connection to stream query [{}]: [{}]", sqlBuilder, connection);
+                if (isStreamingWithoutAutoCommit() && connection.getAutoCommit()) {
+                    connection.setAutoCommit(false);
+                    autoCommitDisabled = true;
+                }
+                preparedStatementBuilder = PreparedStatementBuilder.of(connection, config, storageDataTypeContext, sqlBuilder);
+                PreparedStatement preparedStatement = preparedStatementBuilder.getPreparedStatement(sqlBuilder);
+                preparedStatement.setFetchSize(getStreamingFetchSize());
+                resultSet = preparedStatement.executeQuery();
+            } catch (SQLException e) {
+                close();
+                throw new StorageException(e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+
+            T storable;
+            try {
+                if (!resultSet.next()) {
+                    // resources are released as soon as all the rows are read
+                    close();
+                    return false;
+                }
+                storable = (T) storableFactory.create(namespace);
+                if (rowMapper == null) {
+                    rowMapper = getStorableRowMapper(storable.getClass(), resultSet.getMetaData());
+                }
+                rowMapper.map(resultSet, storable, storageDataTypeContext);
+            } catch (SQLException e) {
+                close();
+                throw new StorageException(e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            action.accept(storable);
+            return true;
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                if (preparedStatementBuilder != null) {
+                    preparedStatementBuilder.close();
+                }
+                if (autoCommitDisabled) {
+                    // only rows were read
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                log.error("Failed to release resources of streamed query [{}]", sqlBuilder, e);
+            } finally {
+                closeConnection(connection);
+            }
+        }
+    }
+
     protected class QueryExecution {
         private final SqlQuery sqlBuilder;
         private Connection connection;
@@ -336,10 +648,9 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
         <T extends Storable> Collection<T> executeQuery(String namespace) {
             Collection<T> result;
-            try {
-                ResultSet resultSet = getPreparedStatement().executeQuery();
+            try (ResultSet resultSet = getPreparedStatement().executeQuery()) {
                 result = getStorablesFromResultSet(resultSet, namespace);
-            } catch (SQLException | ExecutionException e) {
+            } catch (SQLException e) {
                 throw new StorageException(e);
             } finally {
                 closeConn();
@@ -348,8 +659,8 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         }
 
         void closeConn() {
-            // Close every opened connection if not using cache. If using cache, cache expiry manages connections
-            if (!isCacheEnabled() && !transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
+            // connection of an active transaction is closed when it ends
+            if (!transactionBookKeeper.hasActiveTransaction(Thread.currentThread().getId())) {
                 closeConnection(connection);
             }
         }
@@ -357,7 +668,7 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
         int executeUpdate() {
             try {
                 return getPreparedStatement().executeUpdate();
-            } catch (SQLException | ExecutionException e) {
+            } catch (SQLException e) {
                 throw new StorageException(e);
             } finally {
                 closeConn();
@@ -368,13 +679,14 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
             try {
                 PreparedStatement pstmt = getPreparedStatementWithSetReturningGeneratedKey();
                 pstmt.executeUpdate();
-                ResultSet generatedKeys = pstmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    return generatedKeys.getLong(1);
-                } else {
-                    return null;
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        return generatedKeys.getLong(1);
+                    } else {
+                        return null;
+                    }
                 }
-            } catch (SQLException | ExecutionException e) {
+            } catch (SQLException e) {
                 throw new StorageException(e);
             } finally {
                 closeConn();
@@ -384,86 +696,38 @@ public abstract class AbstractQueryExecutor implements QueryExecutor {
 
         // ====== private helper methods ======
 
-        private PreparedStatement getPreparedStatement() throws ExecutionException, SQLException {
-            PreparedStatementBuilder preparedStatementBuilder = null;
-
-            if (isCacheEnabled()) {
-                preparedStatementBuilder = cache.get(sqlBuilder, new PreparedStatementBuilderCallable(sqlBuilder, false));
-            } else {
-                connection = getConnection();
-                log.debug("Got new connection to create PreparedStatement: [{}]", connection);
-                log.debug("sqlBuilder {}", sqlBuilder.toString());
-                preparedStatementBuilder = PreparedStatementBuilder.of(connection, config, storageDataTypeContext, sqlBuilder);
-            }
-            return preparedStatementBuilder.getPreparedStatement(sqlBuilder);
-        }
-
-        private PreparedStatement getPreparedStatementWithSetReturningGeneratedKey() throws ExecutionException, SQLException {
-            PreparedStatementBuilder preparedStatementBuilder = null;
-
-            if (isCacheEnabled()) {
-                preparedStatementBuilder = cache.get(sqlBuilder, new PreparedStatementBuilderCallable(sqlBuilder, true));
-            } else {
-                connection = getConnection();
-                log.debug("Got new connection to create PreparedStatement returning generated key: [{}]", connection);
-                preparedStatementBuilder = PreparedStatementBuilder.supportReturnGeneratedKeys(connection, config, storageDataTypeContext, sqlBuilder);
-            }
-            return preparedStatementBuilder.getPreparedStatement(sqlBuilder);
+        private PreparedStatement getPreparedStatement() throws SQLException {
+            connection = getConnection();
+            log.debug("Got connection to create PreparedStatement: [{}]", connection);
+            log.debug("sqlBuilder {}", sqlBuilder.toString());
+            return getPreparedStatementBuilder(connection, sqlBuilder, false).getPreparedStatement(sqlBuilder);
         }
 
-        /**
-         * This callable is instantiated and called the first time every key:val entry is inserted into the cache
-         */
-        private class PreparedStatementBuilderCallable implements Callable<PreparedStatementBuilder> {
-            private final SqlQuery sqlBuilder;
-            private final boolean returnGeneratedKeys;
-
-            private PreparedStatementBuilderCallable(SqlQuery sqlBuilder, boolean returnGeneratedKeys) {
-                this.sqlBuilder = sqlBuilder;
-                this.returnGeneratedKeys = returnGeneratedKeys;
-            }
-
-            public PreparedStatementBuilderCallable of(SqlQuery sqlBuilder) {
-                return new PreparedStatementBuilderCallable(sqlBuilder, false);
-            }
-
-            public PreparedStatementBuilderCallable supportReturnGeneratedKeys(SqlQuery sqlBuilder) {
-                return new PreparedStatementBuilderCallable(sqlBuilder, true);
-            }
-
-            @Override
-            public PreparedStatementBuilder call() throws Exception {
-                // opens a new connection which remains open for as long as this entry is in the cache
-                final PreparedStatementBuilder preparedStatementBuilder;
-                Connection connection = getConnection();
-                log.debug("Got new connection to create PreparedStatementBuilder: [{}]", connection);
-                if (returnGeneratedKeys) {
-                    preparedStatementBuilder = PreparedStatementBuilder.supportReturnGeneratedKeys(connection, config, storageDataTypeContext, sqlBuilder);
-                } else {
-                    preparedStatementBuilder = PreparedStatementBuilder.of(connection, config, storageDataTypeContext, sqlBuilder);
-                }
-                log.debug("Loading cache with [key: {}, val: {}]", sqlBuilder, preparedStatementBuilder);
-                return preparedStatementBuilder;
-            }
+        private PreparedStatement getPreparedStatementWithSetReturningGeneratedKey() throws SQLException {
+            connection = getConnection();
+            log.debug("Got connection to create PreparedStatement returning generated key: [{}]", connection);
+            return getPreparedStatementBuilder(connection, sqlBuilder, true).getPreparedStatement(sqlBuilder);
         }
 
-        private <T extends Storable> Collection<T> getStorablesFromResultSet(ResultSet resultSet, String nameSpace) {
+        private <T extends Storable> Collection<T> getStorablesFromResultSet(ResultSet resultSet, String nameSpace) throws SQLException {
             final Collection<T> storables = new ArrayList<>();
-            // maps contains the data to populate the state of Storable objects
-            final List<Map<String, Object>> maps = getMapsFromResultSet(resultSet);
-            if (maps != null && !maps.isEmpty()) {
-                for (Map<String, Object> map : maps) {
-                    if (map != null) {
-                        T storable = newStorableInstance(nameSpace);
-                        storable.fromMap(map);      // populates the Storable object state
-                        storables.add(storable);
-                    }
+            StorableRowMapper rowMapper = null;
+            while (resultSet.next()) {
+                T storable = newStorableInstance(nameSpace);
+                if (rowMapper == null) {
+                    rowMapper = getStorableRowMapper(storable.getClass(), resultSet.getMetaData());
                 }
+                storables.add(rowMapper.map(resultSet, storable, storageDataTypeContext));
             }
             return storables;
         }
 
+        /**
+         * @deprecated rows of queries are mapped to storables by {@link StorableRowMapper}s, this method is not used by
+         * the executor anymore.
+         */
         // returns null for empty ResultSet or ResultSet with no rows
+        @Deprecated
         protected List<Map<String, Object>> getMapsFromResultSet(ResultSet resultSet) {
             List<Map<String, Object>> maps = null;
 
@@ -26,6 +26,7 @@ import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
 import com.hortonworks.registries.storage.impl.jdbc.util.CaseAgnosticStringSet;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.transaction.TransactionCompletionListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +34,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Exposes CRUD and other useful operations to the persistence storage
@@ -45,6 +47,16 @@ public interface QueryExecutor {
      */
     void insert(Storable storable);
 
+    /**
+     * Inserts all the specified {@link Storable}s in storage in the given order. Ids issued by storage are set on the
+     * respective storables.
+     */
+    default void insertAll(Collection<? extends Storable> storables) {
+        for (Storable storable : storables) {
+            insert(storable);
+        }
+    }
+
     /**
      * Inserts or updates the specified {@link Storable} in storage
      */
@@ -90,6 +102,18 @@ public interface QueryExecutor {
      */
     <T extends Storable> Collection<T> select(StorableKey storableKey, List<OrderByField> orderByFields);
 
+    /**
+     * Returns a stream of all the entries in the given namespace, which are read from the storage as the stream is
+     * consumed. The stream holds a connection until it is closed.
+     */
+    <T extends Storable> Stream<T> stream(String namespace);
+
+    /**
+     * Returns a stream of all the entries that match the specified {@link StorableKey}, which are read from the
+     * storage as the stream is consumed. The stream holds a connection until it is closed.
+     */
+    <T extends Storable> Stream<T> stream(StorableKey storableKey);
+
 
     /**
      * @return The next available id for the autoincrement column in the specified {@code namespace}
@@ -138,4 +162,10 @@ public interface QueryExecutor {
      *  Flushes the changes made to the storage layer
      */
     void commitTransaction();
+
+    /**
+     *  Registers a listener to be called once the transaction of the current thread is committed or rolled back, it is
+     *  called right away when there is no active transaction.
+     */
+    void registerTransactionCompletionListener(TransactionCompletionListener listener);
 }
@@ -17,11 +17,12 @@
  */
 package com.hortonworks.registries.storage.impl.jdbc.provider.sql.query;
 
-import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.common.exception.ParserException;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
 import com.hortonworks.registries.storage.StorableKey;
+import com.hortonworks.registries.storage.search.InClause;
 import com.hortonworks.registries.storage.search.OrderBy;
 import com.hortonworks.registries.storage.search.Predicate;
 import com.hortonworks.registries.storage.search.PredicateCombinerPair;
@@ -29,7 +30,9 @@ import com.hortonworks.registries.storage.search.SearchQuery;
 import com.hortonworks.registries.storage.search.WhereClause;
 import com.hortonworks.registries.storage.search.WhereClauseCombiner;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +47,8 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
 
     protected SearchQuery searchQuery;
     protected Schema schema;
+    // parameters of the query built from searchQuery in their order
+    private List<Pair<Schema.Field, Object>> bindings;
 
     public AbstractSelectQuery(String nameSpace) {
         this(nameSpace, null);
@@ -90,34 +95,31 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
         String sql = "SELECT * FROM " + fieldEncloser() + tableName + fieldEncloser();
 
         WhereClause whereClause = searchQuery.getWhereClause();
-        Map<Schema.Field, Object> fieldsToValues = new HashMap<>();
+        List<Pair<Schema.Field, Object>> bindings = new ArrayList<>();
+        List<String> conditions = new ArrayList<>(2);
         if (whereClause != null) {
-            sql += " WHERE ";
-            StringBuilder clauseString = new StringBuilder();
-            for (PredicateCombinerPair predicateCombinerPair : whereClause.getPredicateCombinerPairs()) {
-                WhereClauseCombiner.Operation combinerOperation = predicateCombinerPair.getCombinerOperation();
-
-                Predicate predicate = predicateCombinerPair.getPredicate();
-                clauseString.append(generateClauseString(predicate, fieldsToValues, schema));
-                if (combinerOperation != null) {
-                    String opStr;
-                    switch (combinerOperation) {
-                        case ENCL_START:
-                            opStr = " ( ";
-                            break;
-                        case ENCL_FINISH:
-                            opStr = " ) ";
-                            break;
-                        default:
-                            opStr = combinerOperation.toString();
-                    }
-                    clauseString.append(opStr);
-                }
+            conditions.add(generateWhereClauseString(whereClause, bindings, schema));
+        }
+
+        List<InClause> inClauses = searchQuery.getInClauses();
+        if (inClauses != null) {
+            for (InClause inClause : inClauses) {
+                conditions.add(generateInClauseString(inClause, bindings, schema));
             }
-            sql += clauseString;
         }
 
         List<OrderBy> orderByFields = searchQuery.getOrderByFields();
+        List<Object> afterValues = searchQuery.getAfterValues();
+        if (afterValues != null) {
+            conditions.add(generateAfterClauseString(orderByFields, afterValues, bindings, schema));
+        }
+
+        if (conditions.size() == 1) {
+            sql += " WHERE " + conditions.get(0);
+        } else if (conditions.size() > 1) {
+            sql += " WHERE " + join(conditions.stream().map(x -> "(" + x + ")").collect(Collectors.toList()), " AND ");
+        }
+
         if (orderByFields != null && !orderByFields.isEmpty()) {
             sql += " ORDER BY "
                     + join(orderByFields
@@ -127,15 +129,123 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
             );
         }
 
+        if (searchQuery.getLimit() != null) {
+            sql += limitSql(searchQuery.getLimit());
+        }
+
+        Map<Schema.Field, Object> fieldsToValues = new HashMap<>();
+        for (Pair<Schema.Field, Object> binding : bindings) {
+            fieldsToValues.put(binding.getKey(), binding.getValue());
+        }
         primaryKey = new PrimaryKey(fieldsToValues);
-        columns = Lists.newArrayList(fieldsToValues.keySet());
+        columns = bindings.stream().map(Pair::getKey).collect(Collectors.toList());
+        this.bindings = bindings;
 
         return sql;
     }
 
     protected abstract String fieldEncloser();
 
-    private String generateClauseString(Predicate predicate, Map<Schema.Field, Object> fieldsToValues, Schema schema) {
+    /**
+     * Returns the sql restricting the number of selected rows to the given limit, which is appended to the query.
+     */
+    protected String limitSql(int limit) {
+        return " LIMIT " + limit;
+    }
+
+    /**
+     * Returns the values to be set for the parameters of the query of a {@link SearchQuery} in their order, or null
+     * if this query is not built from a {@link SearchQuery}.
+     */
+    public List<Pair<Schema.Field, Object>> getBindings() {
+        // bindings are computed with the sql
+        getParametrizedSql();
+        return bindings;
+    }
+
+    private String generateWhereClauseString(WhereClause whereClause, List<Pair<Schema.Field, Object>> bindings, Schema schema) {
+        StringBuilder clauseString = new StringBuilder();
+        for (PredicateCombinerPair predicateCombinerPair : whereClause.getPredicateCombinerPairs()) {
+            WhereClauseCombiner.Operation combinerOperation = predicateCombinerPair.getCombinerOperation();
+
+            Predicate predicate = predicateCombinerPair.getPredicate();
+            clauseString.append(generateClauseString(predicate, bindings, schema));
+            if (combinerOperation != null) {
+                String opStr;
+                switch (combinerOperation) {
+                    case ENCL_START:
+                        opStr = " ( ";
+                        break;
+                    case ENCL_FINISH:
+                        opStr = " ) ";
+                        break;
+                    default:
+                        opStr = combinerOperation.toString();
+                }
+                clauseString.append(opStr);
+            }
+        }
+        return clauseString.toString();
+    }
+
+    // rows with a value of the field among the values selected by the sub query, values of the where clause of the sub
+    // query are bound with their own types as the schema of its name space is not known here.
+    private String generateInClauseString(InClause inClause,
+                                          List<Pair<Schema.Field, Object>> bindings,
+                                          Schema schema) {
+        String fq = fieldEncloser();
+        String fieldName = getField(schema, inClause.getFieldName()).getName();
+        SearchQuery subQuery = inClause.getSubQuery();
+        String sql = fq + fieldName + fq + " IN (SELECT " + fq + inClause.getSubQueryFieldName() + fq
+                + " FROM " + fq + subQuery.getNameSpace() + fq;
+        if (subQuery.getWhereClause() != null) {
+            sql += " WHERE " + generateWhereClauseString(subQuery.getWhereClause(), bindings, null);
+        }
+        return sql + ")";
+    }
+
+    // rows coming after the given values of the orderBy fields in their order, that is the rows with a greater value
+    // for the first field (smaller for descending order), or the same value and a greater value for the next field etc.
+    private String generateAfterClauseString(List<OrderBy> orderByFields,
+                                             List<Object> afterValues,
+                                             List<Pair<Schema.Field, Object>> bindings,
+                                             Schema schema) {
+        if (orderByFields == null || orderByFields.size() != afterValues.size()) {
+            throw new IllegalArgumentException("after values " + afterValues + " should be given for each of the orderBy fields " + orderByFields);
+        }
+
+        String fq = fieldEncloser();
+        List<String> clauses = new ArrayList<>(orderByFields.size());
+        for (int i = 0; i < orderByFields.size(); i++) {
+            List<String> predicates = new ArrayList<>(i + 1);
+            for (int j = 0; j <= i; j++) {
+                OrderBy orderBy = orderByFields.get(j);
+                String operator = j < i ? " = ?" : (orderBy.isAsc() ? " > ?" : " < ?");
+                predicates.add(fq + orderBy.getFieldName() + fq + operator);
+                bindings.add(Pair.of(getField(schema, orderBy.getFieldName()), afterValues.get(j)));
+            }
+            clauses.add("(" + join(predicates, " AND ") + ")");
+        }
+        return join(clauses, " OR ");
+    }
+
+    private Schema.Field getField(Schema schema, String fieldName) {
+        Schema.Field field = schema.getField(fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException("Field [" + fieldName + "] does not exist in namespace [" + tableName + "]");
+        }
+        return field;
+    }
+
+    private Schema.Field getFieldOfValue(Predicate predicate) {
+        try {
+            return Schema.Field.of(predicate.getField(), Schema.fromJavaType(predicate.getValue()));
+        } catch (ParserException e) {
+            throw new IllegalArgumentException("Value of field [" + predicate.getField() + "] is of an unsupported type", e);
+        }
+    }
+
+    private String generateClauseString(Predicate predicate, List<Pair<Schema.Field, Object>> bindings, Schema schema) {
         if(predicate == null) {
             return "";
         }
@@ -169,8 +279,8 @@ public abstract class AbstractSelectQuery extends AbstractStorableKeyQuery {
         }
 
         if (addToFieldValues) {
-            Schema.Field field = schema.getField(predicate.getField());
-            fieldsToValues.put(field, predicate.getValue());
+            Schema.Field field = schema != null ? schema.getField(predicate.getField()) : getFieldOfValue(predicate);
+            bindings.add(Pair.of(field, predicate.getValue()));
         }
 
         return result;
@@ -91,11 +91,7 @@ public class DefaultStorageDataTypeContext implements StorageDataTypeContext {
         final int columnCount = rsMetadata.getColumnCount();
 
         for (int i = 1; i <= columnCount; i++) {
-            final String columnLabel = rsMetadata.getColumnLabel(i);
-            final int columnType = rsMetadata.getColumnType(i);
-            final int columnPrecision = rsMetadata.getPrecision(i);
-            final Class columnJavaType = Util.getJavaType(columnType, columnPrecision);
-            map.put(columnLabel, getJavaObject(columnJavaType, columnLabel, resultSet));
+            map.put(rsMetadata.getColumnLabel(i), getJavaObject(getJavaType(rsMetadata, i), i, resultSet));
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug("Row for ResultSet [{}] with metadata [{}] generated Map [{}]", resultSet, rsMetadata, map);
@@ -135,36 +131,46 @@ public class DefaultStorageDataTypeContext implements StorageDataTypeContext {
         }
     }
 
+    @Override
+    public Class getJavaType(ResultSetMetaData rsMetadata, int columnIndex) throws SQLException {
+        return Util.getJavaType(rsMetadata.getColumnType(columnIndex), rsMetadata.getPrecision(columnIndex));
+    }
+
     protected Object getJavaObject(Class columnJavaType, String columnLabel, ResultSet resultSet) throws SQLException {
+        return getJavaObject(columnJavaType, resultSet.findColumn(columnLabel), resultSet);
+    }
+
+    @Override
+    public Object getJavaObject(Class columnJavaType, int columnIndex, ResultSet resultSet) throws SQLException {
         if (columnJavaType.equals(String.class)) {
-            return resultSet.getString(columnLabel);
+            return resultSet.getString(columnIndex);
         } else if (columnJavaType.equals(Byte.class)) {
-            return resultSet.getByte(columnLabel);
+            return resultSet.getByte(columnIndex);
         } else if (columnJavaType.equals(Integer.class)) {
-            return resultSet.getInt(columnLabel);
+            return resultSet.getInt(columnIndex);
         } else if (columnJavaType.equals(Double.class)) {
-            return resultSet.getDouble(columnLabel);
+            return resultSet.getDouble(columnIndex);
         } else if (columnJavaType.equals(Float.class)) {
-            return resultSet.getFloat(columnLabel);
+            return resultSet.getFloat(columnIndex);
         } else if (columnJavaType.equals(Short.class)) {
-            return resultSet.getShort(columnLabel);
+            return resultSet.getShort(columnIndex);
         } else if (columnJavaType.equals(Boolean.class)) {
-            return resultSet.getBoolean(columnLabel);
+            return resultSet.getBoolean(columnIndex);
         } else if (columnJavaType.equals(byte[].class)) {
-            return resultSet.getBytes(columnLabel);
+            return resultSet.getBytes(columnIndex);
         } else if (columnJavaType.equals(Long.class)) {
-            return resultSet.getLong(columnLabel);
+            return resultSet.getLong(columnIndex);
         } else if (columnJavaType.equals(Date.class)) {
-            return resultSet.getDate(columnLabel);
+            return resultSet.getDate(columnIndex);
         } else if (columnJavaType.equals(Time.class)) {
-            return resultSet.getTime(columnLabel);
+            return resultSet.getTime(columnIndex);
         } else if (columnJavaType.equals(Timestamp.class)) {
-            return resultSet.getTimestamp(columnLabel);
+            return resultSet.getTimestamp(columnIndex);
         } else if (columnJavaType.equals(InputStream.class)) {
-            Blob blob = resultSet.getBlob(columnLabel);
+            Blob blob = resultSet.getBlob(columnIndex);
             return blob != null ? blob.getBinaryStream() : null;
         } else {
-            throw new StorageException("type =  [" + columnJavaType + "] for column [" + columnLabel + "] not supported.");
+            throw new StorageException("type =  [" + columnJavaType + "] for column [" + columnIndex + "] not supported.");
         }
     }
 
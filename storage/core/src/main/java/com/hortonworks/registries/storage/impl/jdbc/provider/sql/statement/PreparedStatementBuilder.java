@@ -19,6 +19,7 @@ package com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement;
 import com.hortonworks.registries.common.Schema;
 import com.hortonworks.registries.storage.exception.MalformedQueryException;
 import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractSelectQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableKeyQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableSqlQuery;
 import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.AbstractStorableUpdateQuery;
@@ -142,6 +143,8 @@ public class PreparedStatementBuilder {
 
         if (sqlBuilder instanceof AbstractStorableUpdateQuery) {
             isMultiple = (groupCount % ((AbstractStorableUpdateQuery) sqlBuilder).getBindings().size()) == 0;
+        } else if (isSearchQuery(sqlBuilder)) {
+            isMultiple = groupCount == ((AbstractSelectQuery) sqlBuilder).getBindings().size();
         } else if (columns == null || columns.size() == 0) {
             isMultiple = groupCount == 0;
         } else {
@@ -164,6 +167,8 @@ public class PreparedStatementBuilder {
         // If more types become available consider subclassing instead of going with this approach, which was chosen here for simplicity
         if (sqlBuilder instanceof AbstractStorableUpdateQuery) {
             setStorableUpdatePreparedStatement((AbstractStorableUpdateQuery)sqlBuilder);
+        } else if (isSearchQuery(sqlBuilder)) {
+            setBindings(((AbstractSelectQuery) sqlBuilder).getBindings());
         } else if (sqlBuilder instanceof AbstractStorableKeyQuery) {
             setStorableKeyPreparedStatement(sqlBuilder);
         } else if (sqlBuilder instanceof AbstractStorableSqlQuery) {
@@ -189,7 +194,15 @@ public class PreparedStatementBuilder {
     }
 
     private void setStorableUpdatePreparedStatement(AbstractStorableUpdateQuery updateQuery) throws SQLException {
-        List<Pair<Schema.Field, Object>> bindings = updateQuery.getBindings();
+        setBindings(updateQuery.getBindings());
+    }
+
+    // select queries of a SearchQuery have their parameters in order, a field can be bound more than once
+    private static boolean isSearchQuery(SqlQuery sqlBuilder) {
+        return sqlBuilder instanceof AbstractSelectQuery && ((AbstractSelectQuery) sqlBuilder).getBindings() != null;
+    }
+
+    private void setBindings(List<Pair<Schema.Field, Object>> bindings) throws SQLException {
         for (int i = 0; i < bindings.size(); i++) {
             Pair<Schema.Field, Object> binding = bindings.get(i);
             Schema.Type javaType = binding.getKey().getType();
@@ -221,6 +234,13 @@ public class PreparedStatementBuilder {
         return preparedStatement.getMetaData();
     }
 
+    /**
+     * Closes the prepared statement, this builder can not be used after that.
+     */
+    public void close() throws SQLException {
+        preparedStatement.close();
+    }
+
     @Override
     public String toString() {
         return "PreparedStatementBuilder{" +
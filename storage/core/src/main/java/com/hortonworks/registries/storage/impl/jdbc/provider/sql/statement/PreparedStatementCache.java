@@ -0,0 +1,117 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement;
+
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlQuery;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Cache of {@link PreparedStatementBuilder}s of a single {@link Connection} by their parameterized sql, so that the
+ * statements run on a connection are prepared only once while it is in use. Least recently used statements are closed
+ * when the cache is full, and all the statements are closed when the cache is closed, which should be done before the
+ * connection is closed or returned to its pool.
+ * <p>
+ * This class is not thread safe, it should only be used by the thread using the connection. Statements returned by
+ * this cache are reused for the next queries with the same sql, so their results should be read before that.
+ */
+public class PreparedStatementCache implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+    private final Connection connection;
+    private final ExecutionConfig config;
+    private final StorageDataTypeContext storageDataTypeContext;
+    private final int maxSize;
+    private final PreparedStatementCacheMetrics metrics;
+    private final LinkedHashMap<Pair<String, Boolean>, PreparedStatementBuilder> preparedStatementBuilders;
+
+    public PreparedStatementCache(Connection connection,
+                                  ExecutionConfig config,
+                                  StorageDataTypeContext storageDataTypeContext,
+                                  int maxSize,
+                                  PreparedStatementCacheMetrics metrics) {
+        this.connection = connection;
+        this.config = config;
+        this.storageDataTypeContext = storageDataTypeContext;
+        this.maxSize = maxSize;
+        this.metrics = metrics;
+        this.preparedStatementBuilders = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the {@link PreparedStatementBuilder} for the given query, preparing its statement on the connection of
+     * this cache if it is not cached.
+     *
+     * @param sqlQuery            query for which to get the {@link PreparedStatementBuilder}
+     * @param returnGeneratedKeys whether statement has option 'Statement.RETURN_GENERATED_KEYS' or not.
+     */
+    public PreparedStatementBuilder get(SqlQuery sqlQuery, boolean returnGeneratedKeys) throws SQLException {
+        Pair<String, Boolean> key = Pair.of(sqlQuery.getParametrizedSql(), returnGeneratedKeys);
+        PreparedStatementBuilder preparedStatementBuilder = preparedStatementBuilders.get(key);
+        if (preparedStatementBuilder != null) {
+            metrics.recordHit();
+            return preparedStatementBuilder;
+        }
+
+        long startNanos = System.nanoTime();
+        preparedStatementBuilder = returnGeneratedKeys
+                ? PreparedStatementBuilder.supportReturnGeneratedKeys(connection, config, storageDataTypeContext, sqlQuery)
+                : PreparedStatementBuilder.of(connection, config, storageDataTypeContext, sqlQuery);
+        metrics.recordMiss(System.nanoTime() - startNanos);
+
+        preparedStatementBuilders.put(key, preparedStatementBuilder);
+        if (preparedStatementBuilders.size() > maxSize) {
+            Iterator<PreparedStatementBuilder> iterator = preparedStatementBuilders.values().iterator();
+            PreparedStatementBuilder eldest = iterator.next();
+            iterator.remove();
+            metrics.recordEviction();
+            closeQuietly(eldest);
+        }
+
+        return preparedStatementBuilder;
+    }
+
+    public int size() {
+        return preparedStatementBuilders.size();
+    }
+
+    /**
+     * Closes all the cached statements.
+     */
+    @Override
+    public void close() {
+        for (PreparedStatementBuilder preparedStatementBuilder : preparedStatementBuilders.values()) {
+            closeQuietly(preparedStatementBuilder);
+        }
+        preparedStatementBuilders.clear();
+    }
+
+    private void closeQuietly(PreparedStatementBuilder preparedStatementBuilder) {
+        try {
+            preparedStatementBuilder.close();
+        } catch (SQLException e) {
+            log.error("Failed to close prepared statement [{}]", preparedStatementBuilder, e);
+        }
+    }
+}
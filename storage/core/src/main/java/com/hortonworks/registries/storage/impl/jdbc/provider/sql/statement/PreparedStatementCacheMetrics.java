@@ -0,0 +1,107 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of statements prepared by a query executor and of statements reused from {@link PreparedStatementCache}s,
+ * shared by all the caches of the executor. Time saved by the caches can be estimated as the number of hits times the
+ * average prepare time.
+ */
+public class PreparedStatementCacheMetrics {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder uncachedPrepares = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder prepareTimeNanos = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss(long prepareNanos) {
+        misses.increment();
+        prepareTimeNanos.add(prepareNanos);
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * Records a statement prepared on a connection without a statement cache.
+     */
+    public void recordUncachedPrepare(long prepareNanos) {
+        uncachedPrepares.increment();
+        prepareTimeNanos.add(prepareNanos);
+    }
+
+    /**
+     * @return number of statements reused from a cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of statements prepared and added to a cache.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of statements prepared on connections without a cache.
+     */
+    public long getUncachedPrepares() {
+        return uncachedPrepares.sum();
+    }
+
+    /**
+     * @return number of statements closed as their cache was full.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return total time spent in preparing statements in nanoseconds.
+     */
+    public long getPrepareTimeNanos() {
+        return prepareTimeNanos.sum();
+    }
+
+    /**
+     * @return average time spent in preparing a statement in nanoseconds, or 0 if no statement is prepared yet.
+     */
+    public long getAveragePrepareTimeNanos() {
+        long prepares = misses.sum() + uncachedPrepares.sum();
+        return prepares == 0 ? 0 : prepareTimeNanos.sum() / prepares;
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedStatementCacheMetrics{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", uncachedPrepares=" + uncachedPrepares +
+                ", evictions=" + evictions +
+                ", prepareTimeNanos=" + prepareTimeNanos +
+                '}';
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright 2016 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement;
+
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+import com.hortonworks.registries.storage.catalog.StorableMetadata;
+import com.hortonworks.registries.storage.exception.StorageException;
+
+import java.lang.invoke.MethodHandle;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Populates {@link Storable}s of a class from the rows of result sets with the same columns. Column indexes, their
+ * Java types and the setters of the storable class are resolved once, so that rows are read by column index and their
+ * values are set on the storables without going through a map and reflective setter lookups.
+ * <p>
+ * Setters are resolved by {@link StorableMetadata} the same way as {@link AbstractStorable#fromMap(Map)} resolves them
+ * for the values read from a column. Storables overriding {@link Storable#fromMap(Map)} are still populated with a map
+ * of the row, as they may transform its values.
+ * <p>
+ * Mappers are immutable and can be shared, they are cached by their {@link Key}.
+ */
+public final class StorableRowMapper {
+    private final Column[] columns;
+    private final boolean fromMapOverridden;
+
+    private StorableRowMapper(Column[] columns, boolean fromMapOverridden) {
+        this.columns = columns;
+        this.fromMapOverridden = fromMapOverridden;
+    }
+
+    /**
+     * Creates the mapper of the given key, its storable class and columns.
+     */
+    public static StorableRowMapper of(Key key) {
+        boolean fromMapOverridden = isFromMapOverridden(key.storableClass);
+        Column[] columns = new Column[key.columnLabels.length];
+        for (int i = 0; i < columns.length; i++) {
+            String columnLabel = key.columnLabels[i];
+            Class columnJavaType = key.columnJavaTypes[i];
+            columns[i] = fromMapOverridden
+                    ? new Column(i + 1, columnLabel, columnJavaType, null, null)
+                    : resolveColumn(key.storableClass, i + 1, columnLabel, columnJavaType);
+        }
+        return new StorableRowMapper(columns, fromMapOverridden);
+    }
+
+    /**
+     * Populates the given storable with the current row of the given resultSet.
+     */
+    public <T extends Storable> T map(ResultSet resultSet, T storable, StorageDataTypeContext storageDataTypeContext) throws SQLException {
+        if (fromMapOverridden) {
+            storable.fromMap(toMap(resultSet, storageDataTypeContext));
+            return storable;
+        }
+
+        for (Column column : columns) {
+            Object value = storageDataTypeContext.getJavaObject(column.javaType, column.index, resultSet);
+            if (value != null) {
+                column.set(storable, value);
+            }
+        }
+        return storable;
+    }
+
+    /**
+     * Returns the current row of the given resultSet as a map of column labels to values.
+     */
+    public Map<String, Object> toMap(ResultSet resultSet, StorageDataTypeContext storageDataTypeContext) throws SQLException {
+        Map<String, Object> map = new HashMap<>((int) (columns.length / 0.75f) + 1);
+        for (Column column : columns) {
+            map.put(column.label, storageDataTypeContext.getJavaObject(column.javaType, column.index, resultSet));
+        }
+        return map;
+    }
+
+    private static boolean isFromMapOverridden(Class<? extends Storable> storableClass) {
+        try {
+            return storableClass.getMethod("fromMap", Map.class).getDeclaringClass() != AbstractStorable.class;
+        } catch (NoSuchMethodException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    private static Column resolveColumn(Class<?> storableClass, int index, String label, Class javaType) {
+        try {
+            MethodHandle setter = StorableMetadata.get(storableClass).getSetter(label, javaType);
+            return new Column(index, label, javaType, setter, null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // rows with null values of this column can still be mapped, same as with fromMap
+            return new Column(index, label, javaType, null, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StorableRowMapper{" +
+                "columns=" + Arrays.toString(columns) +
+                ", fromMapOverridden=" + fromMapOverridden +
+                '}';
+    }
+
+    private static final class Column {
+        private final int index;
+        private final String label;
+        private final Class javaType;
+        private final MethodHandle setter;
+        // reason for not having a setter, thrown when a value is set
+        private final Exception setterFailure;
+
+        private Column(int index, String label, Class javaType, MethodHandle setter, Exception setterFailure) {
+            this.index = index;
+            this.label = label;
+            this.javaType = javaType;
+            this.setter = setter;
+            this.setterFailure = setterFailure;
+        }
+
+        private void set(Object storable, Object value) {
+            if (setter == null) {
+                throw new StorageException(setterFailure);
+            }
+            try {
+                setter.invokeExact(storable, value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new StorageException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Column{" +
+                    "index=" + index +
+                    ", label='" + label + '\'' +
+                    ", javaType=" + javaType +
+                    '}';
+        }
+    }
+
+    /**
+     * Storable class and labels and Java types of the columns of a result set, in the order of the columns.
+     */
+    public static final class Key {
+        private final Class<? extends Storable> storableClass;
+        private final String[] columnLabels;
+        private final Class[] columnJavaTypes;
+
+        private Key(Class<? extends Storable> storableClass, String[] columnLabels, Class[] columnJavaTypes) {
+            this.storableClass = storableClass;
+            this.columnLabels = columnLabels;
+            this.columnJavaTypes = columnJavaTypes;
+        }
+
+        public static Key of(Class<? extends Storable> storableClass,
+                             ResultSetMetaData rsMetadata,
+                             StorageDataTypeContext storageDataTypeContext) throws SQLException {
+            int columnCount = rsMetadata.getColumnCount();
+            String[] columnLabels = new String[columnCount];
+            Class[] columnJavaTypes = new Class[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnLabels[i] = rsMetadata.getColumnLabel(i + 1);
+                columnJavaTypes[i] = storageDataTypeContext.getJavaType(rsMetadata, i + 1);
+            }
+            return new Key(storableClass, columnLabels, columnJavaTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (!storableClass.equals(key.storableClass)) return false;
+            if (!Arrays.equals(columnLabels, key.columnLabels)) return false;
+            return Arrays.equals(columnJavaTypes, key.columnJavaTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = storableClass.hashCode();
+            result = 31 * result + Arrays.hashCode(columnLabels);
+            result = 31 * result + Arrays.hashCode(columnJavaTypes);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                    "storableClass=" + storableClass +
+                    ", columnLabels=" + Arrays.toString(columnLabels) +
+                    ", columnJavaTypes=" + Arrays.toString(columnJavaTypes) +
+                    '}';
+        }
+    }
+}
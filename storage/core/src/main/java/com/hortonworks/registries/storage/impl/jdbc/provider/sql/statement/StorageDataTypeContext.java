@@ -36,4 +36,15 @@ public interface StorageDataTypeContext {
      */
 
     Map<String, Object> getMapWithRowContents(ResultSet resultSet, ResultSetMetaData rsMetadata) throws SQLException;
+
+    /**
+     * Returns the Java type of the values of the given column, which is one of the types supported by
+     * {@link #getJavaObject(Class, int, ResultSet)}
+     */
+    Class getJavaType(ResultSetMetaData rsMetadata, int columnIndex) throws SQLException;
+
+    /**
+     * Reads the value of the given column of the current row of the resultSet as an object of the given Java type
+     */
+    Object getJavaObject(Class columnJavaType, int columnIndex, ResultSet resultSet) throws SQLException;
 }
@@ -18,15 +18,16 @@ package com.hortonworks.registries.storage.impl.memory;
 
 import com.google.common.collect.Lists;
 import com.hortonworks.registries.common.QueryParam;
-import com.hortonworks.registries.common.util.ReflectionHelper;
 import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.StorageManager;
+import com.hortonworks.registries.storage.catalog.StorableMetadata;
 import com.hortonworks.registries.storage.exception.AlreadyExistsException;
 import com.hortonworks.registries.storage.exception.StorageException;
 import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.util.StorageUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 //TODO: The synchronization is broken right now, so all the methods don't guarantee the semantics as described in the interface.
 public class InMemoryStorageManager implements StorageManager {
@@ -113,7 +115,7 @@ public class InMemoryStorageManager implements StorageManager {
         boolean res = true;
             for (QueryParam qp : queryParams) {
                 try {
-                    fieldValue = ReflectionHelper.invokeGetter(qp.name, val);
+                    fieldValue = StorableMetadata.get(val.getClass()).invokeGetter(qp.name, val);
                     if (!fieldValue.toString().equals(qp.value)) {
                         return false;
                     }
@@ -154,41 +156,31 @@ public class InMemoryStorageManager implements StorageManager {
         }
 
         if (orderByFields != null && !orderByFields.isEmpty()) {
-            storables.sort((storable1, storable2) -> {
-                try {
-                    for (OrderByField orderByField : orderByFields) {
-                        Comparable value1 = ReflectionHelper.invokeGetter(orderByField.getFieldName(), storable1);
-                        Comparable value2 = ReflectionHelper.invokeGetter(orderByField.getFieldName(), storable2);
-                        int compareTo;
-                        // same values continue
-                        if(value1 == value2) {
-                            continue;
-                        } else if(value1 == null) {
-                            // value2 is non null
-                            compareTo = -1;
-                        } else if(value2 == null) {
-                            // value1 is non null
-                            compareTo = 1;
-                        } else {
-                            // both value and value2 non null
-                            compareTo = value1.compareTo(value2);
-                        }
+            storables.sort((storable1, storable2) -> StorageUtils.compare(storable1, storable2, orderByFields));
+        }
 
-                        if (compareTo == 0) {
-                            continue;
-                        }
-                        return orderByField.isDescending() ? -compareTo : compareTo;
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
+        return storables;
+    }
 
-                // all group by fields are matched means equal
-                return 0;
-            });
+    /**
+     * Streams the matching storables straight from the storage map, without collecting them first.
+     */
+    @Override
+    public <T extends Storable> Stream<T> stream(String namespace, List<QueryParam> queryParams) throws StorageException {
+        Map<PrimaryKey, Storable> storableMap = storageMap.get(namespace);
+        if (storableMap == null) {
+            return Stream.empty();
         }
 
-        return storables;
+        Stream<Storable> storables = storableMap.values().stream();
+        if (queryParams != null) {
+            Class<?> clazz = nameSpaceClassMap.get(namespace);
+            if (clazz == null) {
+                return Stream.empty();
+            }
+            storables = storables.filter(storable -> matches(storable, queryParams, clazz));
+        }
+        return storables.map(storable -> (T) storable);
     }
 
     @Override
@@ -226,6 +218,7 @@ public class InMemoryStorageManager implements StorageManager {
 
     @Override
     public void registerStorables(Collection<Class<? extends Storable>> classes) throws StorageException {
+        StorableMetadata.register(classes);
     }
 
 }
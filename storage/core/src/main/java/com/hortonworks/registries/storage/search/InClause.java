@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hortonworks.registries.storage.search;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+
+/**
+ * Restricts the results of a {@link SearchQuery} to the ones with a value of a field which is among the values of a
+ * field of the results of another search query. Only the name space and the where clause of that search query are used.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InClause implements Serializable {
+    private static final long serialVersionUID = -3538316524893713624L;
+
+    private String fieldName;
+    private SearchQuery subQuery;
+    private String subQueryFieldName;
+
+    private InClause() {
+    }
+
+    InClause(String fieldName, SearchQuery subQuery, String subQueryFieldName) {
+        this.fieldName = fieldName;
+        this.subQuery = subQuery;
+        this.subQueryFieldName = subQueryFieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public SearchQuery getSubQuery() {
+        return subQuery;
+    }
+
+    public String getSubQueryFieldName() {
+        return subQueryFieldName;
+    }
+
+    @Override
+    public String toString() {
+        return "InClause{" +
+                "fieldName='" + fieldName + '\'' +
+                ", subQuery=" + subQuery +
+                ", subQueryFieldName='" + subQueryFieldName + '\'' +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        InClause inClause = (InClause) o;
+
+        if (fieldName != null ? !fieldName.equals(inClause.fieldName) : inClause.fieldName != null) return false;
+        if (subQuery != null ? !subQuery.equals(inClause.subQuery) : inClause.subQuery != null) return false;
+        return subQueryFieldName != null ? subQueryFieldName.equals(inClause.subQueryFieldName) : inClause.subQueryFieldName == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = fieldName != null ? fieldName.hashCode() : 0;
+        result = 31 * result + (subQuery != null ? subQuery.hashCode() : 0);
+        result = 31 * result + (subQueryFieldName != null ? subQueryFieldName.hashCode() : 0);
+        return result;
+    }
+}
@@ -20,6 +20,7 @@ package com.hortonworks.registries.storage.search;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -33,6 +34,9 @@ public class SearchQuery implements Serializable {
     private String nameSpace;
     private List<OrderBy> orderByFields;
     private WhereClause whereClause;
+    private List<InClause> inClauses;
+    private List<Object> afterValues;
+    private Integer limit;
 
     private SearchQuery() {
     }
@@ -53,6 +57,20 @@ public class SearchQuery implements Serializable {
         return this;
     }
 
+    /**
+     * Restricts the results to the ones with a value of the given field which is among the values of
+     * {@code subQueryFieldName} of the results of the given sub query. Only the name space and the where clause of the
+     * sub query are used. Results are restricted by all the sub queries given with this method.
+     */
+    public SearchQuery in(String fieldName, SearchQuery subQuery, String subQueryFieldName) {
+        if (inClauses == null) {
+            inClauses = new ArrayList<>();
+        }
+
+        inClauses.add(new InClause(fieldName, subQuery, subQueryFieldName));
+        return this;
+    }
+
     public SearchQuery orderBy(OrderBy... orderByFields) {
         if(this.orderByFields != null) {
             throw new IllegalArgumentException("orderBy fields are already defined for this search query.");
@@ -62,6 +80,32 @@ public class SearchQuery implements Serializable {
         return this;
     }
 
+    /**
+     * Restricts the results to the ones coming after the given values of the orderBy fields in their order, which are
+     * generally the values of the last result of the previous page. orderBy fields should end with a unique field, like
+     * the primary key, so that pages do not skip or repeat results. Values should be of the types of their fields.
+     */
+    public SearchQuery after(Object... afterValues) {
+        if(this.afterValues != null) {
+            throw new IllegalArgumentException("after values are already defined for this search query.");
+        }
+
+        this.afterValues = Collections.unmodifiableList(Arrays.asList(afterValues));
+        return this;
+    }
+
+    /**
+     * Returns at most the given number of results.
+     */
+    public SearchQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit should be greater than zero but it is " + limit);
+        }
+
+        this.limit = limit;
+        return this;
+    }
+
     public String getNameSpace() {
         return nameSpace;
     }
@@ -74,12 +118,27 @@ public class SearchQuery implements Serializable {
         return whereClause;
     }
 
+    public List<InClause> getInClauses() {
+        return inClauses;
+    }
+
+    public List<Object> getAfterValues() {
+        return afterValues;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
     @Override
     public String toString() {
         return "SearchQuery{" +
                 "nameSpace='" + nameSpace + '\'' +
                 ", orderByFields=" + orderByFields +
                 ", clause=" + whereClause +
+                ", inClauses=" + inClauses +
+                ", afterValues=" + afterValues +
+                ", limit=" + limit +
                 '}';
     }
 
@@ -93,7 +152,10 @@ public class SearchQuery implements Serializable {
         if (nameSpace != null ? !nameSpace.equals(that.nameSpace) : that.nameSpace != null) return false;
         if (orderByFields != null ? !orderByFields.equals(that.orderByFields) : that.orderByFields != null)
             return false;
-        return whereClause != null ? whereClause.equals(that.whereClause) : that.whereClause == null;
+        if (whereClause != null ? !whereClause.equals(that.whereClause) : that.whereClause != null) return false;
+        if (inClauses != null ? !inClauses.equals(that.inClauses) : that.inClauses != null) return false;
+        if (afterValues != null ? !afterValues.equals(that.afterValues) : that.afterValues != null) return false;
+        return limit != null ? limit.equals(that.limit) : that.limit == null;
     }
 
     @Override
@@ -101,6 +163,9 @@ public class SearchQuery implements Serializable {
         int result = nameSpace != null ? nameSpace.hashCode() : 0;
         result = 31 * result + (orderByFields != null ? orderByFields.hashCode() : 0);
         result = 31 * result + (whereClause != null ? whereClause.hashCode() : 0);
+        result = 31 * result + (inClauses != null ? inClauses.hashCode() : 0);
+        result = 31 * result + (afterValues != null ? afterValues.hashCode() : 0);
+        result = 31 * result + (limit != null ? limit.hashCode() : 0);
         return result;
     }
 
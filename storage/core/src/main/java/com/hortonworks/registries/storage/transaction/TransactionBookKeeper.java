@@ -69,9 +69,23 @@ public class TransactionBookKeeper {
         return (threadIdToConnectionMap.get(threadId).getTransactionState() & TransactionState.COMMIT.value) == TransactionState.COMMIT.value;
     }
 
-    public void removeTransaction(Long threadId) {
+    public void markCommitted(Long threadId) {
+        if (threadIdToConnectionMap.containsKey(threadId))
+            threadIdToConnectionMap.get(threadId).markCommitted();
+        else
+            throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
+    }
+
+    public void addCompletionListener(Long threadId, TransactionCompletionListener listener) {
+        if (threadIdToConnectionMap.containsKey(threadId))
+            threadIdToConnectionMap.get(threadId).addCompletionListener(listener);
+        else
+            throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
+    }
+
+    public TransactionContext removeTransaction(Long threadId) {
         if(threadIdToConnectionMap.containsKey(threadId)) {
-            threadIdToConnectionMap.remove(threadId);
+            return threadIdToConnectionMap.remove(threadId);
         } else {
             throw new TransactionException(String.format("No transaction is associated with thread id : %s", Long.toString(threadId)));
         }
@@ -0,0 +1,31 @@
+/**
+ * Copyright 2017 Hortonworks.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.transaction;
+
+/**
+ * Listener called when a transaction is completed, it can be used to publish changes made by the transaction to others
+ * only once they are committed.
+ */
+public interface TransactionCompletionListener {
+
+    /**
+     * Called once the transaction is committed or rolled back and its connection is released.
+     *
+     * @param committed true if the transaction is committed, false if it is rolled back
+     */
+    void onCompletion(boolean committed);
+}
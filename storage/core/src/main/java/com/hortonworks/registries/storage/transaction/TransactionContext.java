@@ -17,11 +17,15 @@
 package com.hortonworks.registries.storage.transaction;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TransactionContext {
     private int nestedTransactionCount = 1;
     private final Connection connection;
     private int transactionState = TransactionState.INITIALIZED.value;
+    private boolean committed;
+    private final List<TransactionCompletionListener> completionListeners = new ArrayList<>();
 
     public TransactionContext(Connection connection) {
         this.connection = connection;
@@ -50,4 +54,20 @@ public class TransactionContext {
     public void recordState(TransactionState state) {
         transactionState |= state.value;
     }
+
+    public void markCommitted() {
+        this.committed = true;
+    }
+
+    public boolean isCommitted() {
+        return this.committed;
+    }
+
+    public void addCompletionListener(TransactionCompletionListener listener) {
+        this.completionListeners.add(listener);
+    }
+
+    public List<TransactionCompletionListener> getCompletionListeners() {
+        return this.completionListeners;
+    }
 }
@@ -19,10 +19,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hortonworks.registries.common.QueryParam;
 import com.hortonworks.registries.common.exception.DuplicateEntityException;
 import com.hortonworks.registries.common.util.ReflectionHelper;
+import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.Storable;
 import com.hortonworks.registries.storage.annotation.SearchableField;
 import com.hortonworks.registries.storage.annotation.StorableEntity;
 import com.hortonworks.registries.storage.annotation.VersionField;
+import com.hortonworks.registries.storage.catalog.StorableMetadata;
+import com.hortonworks.registries.storage.exception.StorageException;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.IOException;
@@ -31,6 +34,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -105,7 +109,7 @@ public final class StorageUtils {
         List<Pair<Field, Object>> res = new ArrayList<>();
         for (Field field : storable.getClass().getDeclaredFields()) {
             if (field.getAnnotation(clazz) != null) {
-                Object val = ReflectionHelper.invokeGetter(field.getName(), storable);
+                Object val = StorableMetadata.get(storable.getClass()).invokeGetter(field.getName(), storable);
                 if (val != null) {
                     res.add(Pair.of(field, val));
                 }
@@ -113,4 +117,113 @@ public final class StorageUtils {
         }
         return res;
     }
+
+    /**
+     * Validates the paging parameters of {@code StorageManager#find(String, List, List, List, int)}.
+     *
+     * @throws IllegalArgumentException when {@code limit} is not positive or {@code afterValues} are not given for
+     *                                  each of the {@code orderByFields}
+     */
+    public static void validatePage(List<OrderByField> orderByFields, List<Object> afterValues, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit should be greater than zero but it is " + limit);
+        }
+        if (afterValues != null && (orderByFields == null || orderByFields.size() != afterValues.size())) {
+            throw new IllegalArgumentException("after values " + afterValues + " should be given for each of the orderBy fields " + orderByFields);
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} of the given storables, which are ordered by the given {@code orderByFields}, that
+     * come after the given {@code afterValues} of those fields.
+     */
+    public static <T extends Storable> Collection<T> page(Collection<T> storables,
+                                                          List<OrderByField> orderByFields,
+                                                          List<Object> afterValues,
+                                                          int limit) {
+        List<T> page = new ArrayList<>(Math.min(limit, storables.size()));
+        for (T storable : storables) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (afterValues == null || compare(storable, afterValues, orderByFields) > 0) {
+                page.add(storable);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns the values of the given field of the given storables.
+     */
+    public static Set<Object> getValues(Collection<? extends Storable> storables, String fieldName) {
+        Set<Object> values = new HashSet<>();
+        for (Storable storable : storables) {
+            values.add(getValue(storable, fieldName));
+        }
+        return values;
+    }
+
+    /**
+     * Returns the given storables with a value of the given field which is among the given values, in their order.
+     */
+    public static <T extends Storable> List<T> filterIn(Collection<T> storables, String fieldName, Set<Object> values) {
+        List<T> result = new ArrayList<>();
+        for (T storable : storables) {
+            if (values.contains(getValue(storable, fieldName))) {
+                result.add(storable);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares the given storables by the values of the given {@code orderByFields}, null values come first.
+     */
+    public static int compare(Storable storable1, Storable storable2, List<OrderByField> orderByFields) {
+        return compare(storable1, getValues(storable2, orderByFields), orderByFields);
+    }
+
+    private static int compare(Storable storable, List<Object> values, List<OrderByField> orderByFields) {
+        for (int i = 0; i < orderByFields.size(); i++) {
+            OrderByField orderByField = orderByFields.get(i);
+            int compareTo = compareValues(getValue(storable, orderByField.getFieldName()), values.get(i));
+            if (compareTo != 0) {
+                return orderByField.isDescending() ? -compareTo : compareTo;
+            }
+        }
+        // all order by fields are matched means equal
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object value1, Object value2) {
+        if (value1 == value2) {
+            return 0;
+        } else if (value1 == null) {
+            return -1;
+        } else if (value2 == null) {
+            return 1;
+        }
+        return ((Comparable) value1).compareTo(value2);
+    }
+
+    private static List<Object> getValues(Storable storable, List<OrderByField> orderByFields) {
+        if (orderByFields.size() == 1) {
+            return Collections.singletonList(getValue(storable, orderByFields.get(0).getFieldName()));
+        }
+        List<Object> values = new ArrayList<>(orderByFields.size());
+        for (OrderByField orderByField : orderByFields) {
+            values.add(getValue(storable, orderByField.getFieldName()));
+        }
+        return values;
+    }
+
+    private static Object getValue(Storable storable, String fieldName) {
+        try {
+            return StorableMetadata.get(storable.getClass()).invokeGetter(fieldName, storable);
+        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+            throw new StorageException(e);
+        }
+    }
 }
@@ -115,6 +115,19 @@ public abstract class AbstractStoreManagerTest {
         }
     }
 
+    @Test
+    public void testAddAll_DistinctStorables_AllAdded() {
+        for (StorableTest test : storableTests) {
+            List<Storable> storables = Lists.newArrayList(test.getStorableList().get(0),
+                                                          test.getStorableList().get(2),
+                                                          test.getStorableList().get(3));
+            getStorageManager().addAll(storables);
+            for (Storable storable : storables) {
+                Assert.assertEquals(storable, getStorageManager().get(storable.getStorableKey()));
+            }
+        }
+    }
+
     @Test
     public void testRemove_NonExistentStorable_null() {
         for (StorableTest test : storableTests) {
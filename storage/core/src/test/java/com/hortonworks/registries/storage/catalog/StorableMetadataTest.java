@@ -0,0 +1,196 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package com.hortonworks.registries.storage.catalog;
+
+import com.hortonworks.registries.common.Schema;
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.annotation.SchemaIgnore;
+import com.hortonworks.registries.storage.exception.StorageException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ *
+ */
+public class StorableMetadataTest {
+
+    @Test
+    public void testToMapAndFromMap() {
+        TestStorable storable = new TestStorable();
+        storable.setId(1L);
+        storable.setName("foo");
+        storable.setCount(2);
+        storable.setValue("bar");
+
+        Map<String, Object> map = storable.toMap();
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("id", 1L);
+        expected.put("name", "foo");
+        expected.put("count", 2);
+        expected.put("value", "bar");
+        expected.put("ignored", null);
+        Assert.assertEquals(expected, map);
+
+        TestStorable copy = (TestStorable) new TestStorable().fromMap(map);
+        Assert.assertEquals(Long.valueOf(1L), copy.getId());
+        Assert.assertEquals("foo", copy.getName());
+        Assert.assertEquals(Integer.valueOf(2), copy.getCount());
+        // set with the setter accepting a super type of the value
+        Assert.assertEquals("bar", copy.getValue());
+    }
+
+    @Test
+    public void testSchemaOfFieldTypes() {
+        Schema schema = new TypedStorable().getSchema();
+        Assert.assertEquals(new HashSet<>(Schema.of(new Schema.Field("id", Schema.Type.LONG),
+                                                    new Schema.Field("count", Schema.Type.INTEGER)).getFields()),
+                            new HashSet<>(schema.getFields()));
+        // schema of each call can be changed without affecting others
+        schema.setFields(new ArrayList<>());
+        Assert.assertEquals(2, new TypedStorable().getSchema().getFields().size());
+    }
+
+    @Test
+    public void testSchemaOfFieldValues() {
+        TestStorable storable = new TestStorable();
+        storable.setValue(5L);
+        Assert.assertEquals(Schema.Type.LONG, getType(storable.getSchema(), "value"));
+
+        storable.setValue("five");
+        Assert.assertEquals(Schema.Type.STRING, getType(storable.getSchema(), "value"));
+        Assert.assertNull(getType(storable.getSchema(), "ignored"));
+    }
+
+    @Test(expected = StorageException.class)
+    public void testToMapWithoutGetter() {
+        new WithoutGetterStorable().toMap();
+    }
+
+    @Test(expected = StorageException.class)
+    public void testFromMapWithoutSetter() {
+        new TestStorable().fromMap(Collections.singletonMap("unknown", "foo"));
+    }
+
+    private Schema.Type getType(Schema schema, String name) {
+        for (Schema.Field field : schema.getFields()) {
+            if (field.getName().equals(name)) {
+                return field.getType();
+            }
+        }
+        return null;
+    }
+
+    public static class TestStorable extends AbstractStorable {
+        private Long id;
+        private String name;
+        private Integer count;
+        private Object value;
+        @SchemaIgnore
+        private Object ignored;
+
+        @Override
+        public String getNameSpace() {
+            return "test";
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return null;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(Object value) {
+            this.value = value;
+        }
+
+        public Object getIgnored() {
+            return ignored;
+        }
+    }
+
+    public static class TypedStorable extends AbstractStorable {
+        private Long id;
+        private int count;
+
+        @Override
+        public String getNameSpace() {
+            return "typed";
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return null;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    public static class WithoutGetterStorable extends AbstractStorable {
+        private String name;
+
+        @Override
+        public String getNameSpace() {
+            return "withoutGetter";
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return null;
+        }
+    }
+}
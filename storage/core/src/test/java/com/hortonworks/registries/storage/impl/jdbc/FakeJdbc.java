@@ -0,0 +1,214 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc;
+
+import com.hortonworks.registries.storage.impl.jdbc.connection.ConnectionBuilder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fake JDBC connections, statements and result sets which record how they are used by the query executors, for the
+ * tests which do not need a database. Statements return the rows given with {@link #withRows(String[], int[], Object[]...)}
+ * and the columns of a row can only be read by their index. Methods which are not used by the query executors throw
+ * {@link UnsupportedOperationException}.
+ */
+public class FakeJdbc {
+    private final List<Connection> connections = new ArrayList<>();
+    private final List<PreparedStatement> preparedStatements = new ArrayList<>();
+    private final List<ResultSet> resultSets = new ArrayList<>();
+    private final Set<Object> closedResources = new HashSet<>();
+    private final List<String> events = new ArrayList<>();
+    private String[] columnLabels = {};
+    private int[] columnTypes = {};
+    private List<Object[]> rows = Collections.emptyList();
+    private Integer fetchSize;
+
+    /**
+     * Sets the columns and the rows of the result sets of the statements.
+     */
+    public FakeJdbc withRows(String[] columnLabels, int[] columnTypes, Object[]... rows) {
+        this.columnLabels = columnLabels;
+        this.columnTypes = columnTypes;
+        this.rows = Arrays.asList(rows);
+        return this;
+    }
+
+    public ConnectionBuilder newConnectionBuilder() {
+        return newProxy(ConnectionBuilder.class, (proxy, method, args) -> {
+            if (method.getName().equals("getConnection")) {
+                return newConnection();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    public Connection newConnection() {
+        boolean[] autoCommit = {true};
+        int[] transactionIsolation = new int[1];
+        Connection connection = newProxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return newPreparedStatement();
+                case "setTransactionIsolation":
+                    transactionIsolation[0] = (Integer) args[0];
+                    return null;
+                case "getTransactionIsolation":
+                    return transactionIsolation[0];
+                case "setAutoCommit":
+                    autoCommit[0] = (Boolean) args[0];
+                    return null;
+                case "getAutoCommit":
+                    return autoCommit[0];
+                case "commit":
+                case "rollback":
+                    events.add(method.getName());
+                    return null;
+                case "isClosed":
+                    return closedResources.contains(proxy);
+                case "close":
+                    events.add("close");
+                    return handleCommonMethod(proxy, method, args);
+                default:
+                    return handleCommonMethod(proxy, method, args);
+            }
+        });
+        connections.add(connection);
+        return connection;
+    }
+
+    public PreparedStatement newPreparedStatement() {
+        PreparedStatement preparedStatement = newProxy(PreparedStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "setFetchSize":
+                    fetchSize = (Integer) args[0];
+                    return null;
+                case "executeQuery":
+                    return newResultSet(columnLabels, columnTypes, rows);
+                default:
+                    return handleCommonMethod(proxy, method, args);
+            }
+        });
+        preparedStatements.add(preparedStatement);
+        return preparedStatement;
+    }
+
+    /**
+     * Returns a result set of the given rows, which is positioned before the first row.
+     */
+    public ResultSet newResultSet(String[] columnLabels, int[] columnTypes, List<Object[]> rows) {
+        ResultSetMetaData rsMetadata = newProxy(ResultSetMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return columnLabels.length;
+                case "getColumnLabel":
+                    return columnLabels[(Integer) args[0] - 1];
+                case "getColumnType":
+                    return columnTypes[(Integer) args[0] - 1];
+                case "getPrecision":
+                    return 0;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        Iterator<Object[]> rowIterator = rows.iterator();
+        Object[][] row = new Object[1][];
+        ResultSet resultSet = newProxy(ResultSet.class, (proxy, method, args) -> {
+            if (method.getName().equals("next")) {
+                row[0] = rowIterator.hasNext() ? rowIterator.next() : null;
+                return row[0] != null;
+            }
+            if (method.getName().equals("getMetaData")) {
+                return rsMetadata;
+            }
+            // values are read by column index with any of the getters
+            if (method.getName().startsWith("get") && args != null && args.length == 1 && args[0] instanceof Integer) {
+                return row[0][(Integer) args[0] - 1];
+            }
+            return handleCommonMethod(proxy, method, args);
+        });
+        resultSets.add(resultSet);
+        return resultSet;
+    }
+
+    public List<Connection> getConnections() {
+        return connections;
+    }
+
+    public List<PreparedStatement> getPreparedStatements() {
+        return preparedStatements;
+    }
+
+    public List<ResultSet> getResultSets() {
+        return resultSets;
+    }
+
+    /**
+     * Returns the connections, statements and result sets which are closed.
+     */
+    public Set<Object> getClosedResources() {
+        return closedResources;
+    }
+
+    /**
+     * Returns the commits, rollbacks and closes of the connections in their order. Tests can add their own events to
+     * check their order with the ones of the connections.
+     */
+    public List<String> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the last fetch size set on a statement, or null if none is set.
+     */
+    public Integer getFetchSize() {
+        return fetchSize;
+    }
+
+    private Object handleCommonMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "close":
+                closedResources.add(proxy);
+                return null;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return proxy.getClass().getInterfaces()[0].getSimpleName() + "@" + System.identityHashCode(proxy);
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T newProxy(Class<T> type, InvocationHandler invocationHandler) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, invocationHandler);
+    }
+}
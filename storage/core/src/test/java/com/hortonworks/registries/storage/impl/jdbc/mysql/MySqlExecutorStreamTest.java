@@ -0,0 +1,114 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc.mysql;
+
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.StorableFactory;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+import com.hortonworks.registries.storage.impl.jdbc.FakeJdbc;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ *
+ */
+public class MySqlExecutorStreamTest {
+    private static final List<Long> IDS = Arrays.asList(1L, 2L, 3L);
+
+    private final FakeJdbc fakeJdbc = new FakeJdbc().withRows(new String[]{"id"},
+                                                             new int[]{Types.BIGINT},
+                                                             IDS.stream().map(id -> new Object[]{id}).toArray(Object[][]::new));
+    private final Set<Object> closedResources = fakeJdbc.getClosedResources();
+    private MySqlExecutor mySqlExecutor;
+
+    @Before
+    public void setup() {
+        StorableFactory storableFactory = new StorableFactory();
+        storableFactory.addStorableClasses(Collections.singletonList(TestStorable.class));
+        mySqlExecutor = new MySqlExecutor(new ExecutionConfig(-1), fakeJdbc.newConnectionBuilder());
+        mySqlExecutor.setStorableFactory(storableFactory);
+    }
+
+    @Test
+    public void testRowsAreStreamedWithStreamingFetchSize() throws Exception {
+        try (Stream<TestStorable> storables = mySqlExecutor.stream(TestStorable.NAME_SPACE)) {
+            Assert.assertEquals(Integer.valueOf(Integer.MIN_VALUE), fakeJdbc.getFetchSize());
+            Assert.assertEquals(IDS, storables.map(TestStorable::getId).collect(Collectors.toList()));
+            // resources are released once all the rows are read
+            Assert.assertEquals(getUsedResources(), closedResources);
+        }
+    }
+
+    @Test
+    public void testResourcesAreReleasedWhenStreamIsClosed() throws Exception {
+        Stream<TestStorable> storables = mySqlExecutor.stream(TestStorable.NAME_SPACE);
+        Iterator<TestStorable> iterator = storables.iterator();
+        Assert.assertEquals(IDS.get(0), iterator.next().getId());
+        Assert.assertTrue(closedResources.isEmpty());
+
+        storables.close();
+        Assert.assertEquals(getUsedResources(), closedResources);
+    }
+
+    // rows are streamed with a single connection, statement and result set
+    private Set<Object> getUsedResources() {
+        Assert.assertEquals(1, fakeJdbc.getConnections().size());
+        Assert.assertEquals(1, fakeJdbc.getPreparedStatements().size());
+        Assert.assertEquals(1, fakeJdbc.getResultSets().size());
+        return new HashSet<>(Arrays.asList(fakeJdbc.getResultSets().get(0),
+                                           fakeJdbc.getPreparedStatements().get(0),
+                                           fakeJdbc.getConnections().get(0)));
+    }
+
+    public static class TestStorable extends AbstractStorable {
+        private static final String NAME_SPACE = "test";
+        private Long id;
+
+        @Override
+        public String getNameSpace() {
+            return NAME_SPACE;
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return null;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc.mysql;
+
+import com.hortonworks.registries.common.transaction.TransactionIsolation;
+import com.hortonworks.registries.storage.impl.jdbc.FakeJdbc;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.factory.MySqlExecutor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ */
+public class MySqlExecutorTransactionTest {
+    private final FakeJdbc fakeJdbc = new FakeJdbc();
+    // events of the connections and of the completion listeners in their order
+    private final List<String> events = fakeJdbc.getEvents();
+    private MySqlExecutor mySqlExecutor;
+
+    @Before
+    public void setup() {
+        mySqlExecutor = new MySqlExecutor(new ExecutionConfig(-1), fakeJdbc.newConnectionBuilder());
+    }
+
+    @Test
+    public void testCompletionListenerIsCalledAfterCommit() throws Exception {
+        mySqlExecutor.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        mySqlExecutor.registerTransactionCompletionListener(committed -> events.add("completed:" + committed));
+        Assert.assertEquals(Collections.emptyList(), events);
+
+        mySqlExecutor.commitTransaction();
+        Assert.assertEquals(Arrays.asList("commit", "close", "completed:true"), events);
+    }
+
+    @Test
+    public void testCompletionListenerIsCalledAfterRollback() throws Exception {
+        mySqlExecutor.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        mySqlExecutor.registerTransactionCompletionListener(committed -> events.add("completed:" + committed));
+
+        mySqlExecutor.rollbackTransaction();
+        Assert.assertEquals(Arrays.asList("rollback", "close", "completed:false"), events);
+    }
+
+    @Test
+    public void testCompletionListenerIsCalledWhenOuterTransactionIsCompleted() throws Exception {
+        mySqlExecutor.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        mySqlExecutor.beginTransaction(TransactionIsolation.SERIALIZABLE);
+        mySqlExecutor.registerTransactionCompletionListener(committed -> events.add("completed:" + committed));
+        mySqlExecutor.commitTransaction();
+        Assert.assertEquals(Collections.emptyList(), events);
+
+        // failing listeners do not stop the others
+        mySqlExecutor.registerTransactionCompletionListener(committed -> {
+            throw new IllegalStateException("listener failure");
+        });
+        mySqlExecutor.registerTransactionCompletionListener(committed -> events.add("completed again:" + committed));
+        mySqlExecutor.commitTransaction();
+        Assert.assertEquals(Arrays.asList("commit", "close", "completed:true", "completed again:true"), events);
+    }
+
+    @Test
+    public void testCompletionListenerIsCalledWithoutTransaction() throws Exception {
+        mySqlExecutor.registerTransactionCompletionListener(committed -> events.add("completed:" + committed));
+        Assert.assertEquals(Collections.singletonList("completed:true"), events);
+    }
+}
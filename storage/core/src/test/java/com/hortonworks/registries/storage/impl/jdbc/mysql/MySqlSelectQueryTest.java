@@ -22,6 +22,10 @@ import com.hortonworks.registries.storage.OrderByField;
 import com.hortonworks.registries.storage.PrimaryKey;
 import com.hortonworks.registries.storage.StorableKey;
 import com.hortonworks.registries.storage.impl.jdbc.provider.mysql.query.MySqlSelectQuery;
+import com.hortonworks.registries.storage.search.OrderBy;
+import com.hortonworks.registries.storage.search.SearchQuery;
+import com.hortonworks.registries.storage.search.WhereClause;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -71,4 +75,53 @@ public class MySqlSelectQueryTest {
         Assert.assertEquals("SELECT * FROM topic WHERE `foo` = ? ORDER BY `foo` DESC, ORDER BY `bar` ASC", parametrizedSql);
 
     }
+
+    @Test
+    public void testSearchQueryWithAfterValuesAndLimit() throws Exception {
+        Schema.Field name = new Schema.Field("name", Schema.Type.STRING);
+        Schema.Field version = new Schema.Field("version", Schema.Type.INTEGER);
+        Schema.Field id = new Schema.Field("id", Schema.Type.LONG);
+        SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace)
+                                             .where(WhereClause.begin().eq("name", "foo").combine())
+                                             .orderBy(OrderBy.asc("version"), OrderBy.desc("id"))
+                                             .after(2, 10L)
+                                             .limit(5);
+        MySqlSelectQuery mySqlSelectQuery = new MySqlSelectQuery(searchQuery, Schema.of(name, version, id));
+
+        Assert.assertEquals("SELECT * FROM `topic` WHERE ( `name` = ? ) AND ((`version` > ?) OR (`version` = ? AND `id` < ?))"
+                                    + " ORDER BY `version` ASC , `id` DESC  LIMIT 5",
+                            mySqlSelectQuery.getParametrizedSql());
+        // values are bound in the order of their parameters, the same field can be bound more than once
+        Assert.assertEquals(Arrays.asList(Pair.of(name, "foo"), Pair.of(version, 2), Pair.of(version, 2), Pair.of(id, 10L)),
+                            mySqlSelectQuery.getBindings());
+    }
+
+    @Test
+    public void testSearchQueryWithInClauses() throws Exception {
+        Schema.Field id = new Schema.Field("id", Schema.Type.LONG);
+        SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace)
+                                             .in("id", SearchQuery.searchFrom("field")
+                                                                  .where(WhereClause.begin().eq("name", "foo").combine()), "topicId")
+                                             .in("id", SearchQuery.searchFrom("cluster_topic"), "topicId")
+                                             .orderBy(OrderBy.asc("id"))
+                                             .after(10L)
+                                             .limit(5);
+        MySqlSelectQuery mySqlSelectQuery = new MySqlSelectQuery(searchQuery, Schema.of(id));
+
+        Assert.assertEquals("SELECT * FROM `topic` WHERE (`id` IN (SELECT `topicId` FROM `field` WHERE  `name` = ? ))"
+                                    + " AND (`id` IN (SELECT `topicId` FROM `cluster_topic`)) AND ((`id` > ?))"
+                                    + " ORDER BY `id` ASC  LIMIT 5",
+                            mySqlSelectQuery.getParametrizedSql());
+        // values of the sub queries are bound with the types of the values
+        Assert.assertEquals(Arrays.asList(Pair.of(new Schema.Field("name", Schema.Type.STRING), "foo"), Pair.of(id, 10L)),
+                            mySqlSelectQuery.getBindings());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchQueryWithAfterValuesOfMissingOrderByFields() throws Exception {
+        SearchQuery searchQuery = SearchQuery.searchFrom(nameSpace)
+                                             .orderBy(OrderBy.asc("version"))
+                                             .after(2, 10L);
+        new MySqlSelectQuery(searchQuery, Schema.of(new Schema.Field("version", Schema.Type.INTEGER))).getParametrizedSql();
+    }
 }
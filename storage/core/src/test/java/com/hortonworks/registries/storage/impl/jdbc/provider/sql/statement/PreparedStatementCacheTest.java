@@ -0,0 +1,82 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement;
+
+import com.hortonworks.registries.storage.impl.jdbc.FakeJdbc;
+import com.hortonworks.registries.storage.impl.jdbc.config.ExecutionConfig;
+import com.hortonworks.registries.storage.impl.jdbc.provider.sql.query.SqlSelectQuery;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ *
+ */
+public class PreparedStatementCacheTest {
+    private final FakeJdbc fakeJdbc = new FakeJdbc();
+    private final List<PreparedStatement> preparedStatements = fakeJdbc.getPreparedStatements();
+    private final Set<Object> closedStatements = fakeJdbc.getClosedResources();
+    private PreparedStatementCacheMetrics metrics;
+    private PreparedStatementCache preparedStatementCache;
+
+    @Before
+    public void setup() {
+        metrics = new PreparedStatementCacheMetrics();
+        preparedStatementCache = new PreparedStatementCache(fakeJdbc.newConnection(),
+                                                            new ExecutionConfig(-1),
+                                                            new DefaultStorageDataTypeContext(),
+                                                            2,
+                                                            metrics);
+    }
+
+    @Test
+    public void testStatementsAreReusedForSameSql() throws Exception {
+        PreparedStatement statement = preparedStatementCache.get(new SqlSelectQuery("foo"), false)
+                                                            .getPreparedStatement(new SqlSelectQuery("foo"));
+        Assert.assertSame(statement, preparedStatementCache.get(new SqlSelectQuery("foo"), false)
+                                                           .getPreparedStatement(new SqlSelectQuery("foo")));
+        Assert.assertNotSame(statement, preparedStatementCache.get(new SqlSelectQuery("foo"), true)
+                                                              .getPreparedStatement(new SqlSelectQuery("foo")));
+
+        Assert.assertEquals(2, preparedStatements.size());
+        Assert.assertEquals(1, metrics.getHits());
+        Assert.assertEquals(2, metrics.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedStatementIsClosedWhenFull() throws Exception {
+        preparedStatementCache.get(new SqlSelectQuery("foo"), false);
+        preparedStatementCache.get(new SqlSelectQuery("bar"), false);
+        preparedStatementCache.get(new SqlSelectQuery("foo"), false);
+        preparedStatementCache.get(new SqlSelectQuery("baz"), false);
+
+        Assert.assertEquals(2, preparedStatementCache.size());
+        Assert.assertEquals(1, metrics.getEvictions());
+        // statement of bar is the least recently used one
+        Assert.assertEquals(Collections.singleton(preparedStatements.get(1)), closedStatements);
+
+        preparedStatementCache.close();
+        Assert.assertEquals(0, preparedStatementCache.size());
+        Assert.assertEquals(new HashSet<>(preparedStatements), closedStatements);
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2016 Hortonworks.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package com.hortonworks.registries.storage.impl.jdbc.provider.sql.statement;
+
+import com.hortonworks.registries.storage.PrimaryKey;
+import com.hortonworks.registries.storage.Storable;
+import com.hortonworks.registries.storage.catalog.AbstractStorable;
+import com.hortonworks.registries.storage.exception.StorageException;
+import com.hortonworks.registries.storage.impl.jdbc.FakeJdbc;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ */
+public class StorableRowMapperTest {
+    private static final String[] LABELS = {"id", "name", "description"};
+    private static final int[] TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR};
+
+    private final StorageDataTypeContext storageDataTypeContext = new DefaultStorageDataTypeContext();
+
+    @Test
+    public void testRowsAreMappedByColumnIndex() throws Exception {
+        ResultSet resultSet = newResultSet(LABELS, TYPES, 5L, "foo", null);
+        StorableRowMapper rowMapper = StorableRowMapper.of(StorableRowMapper.Key.of(TestStorable.class,
+                                                                                    resultSet.getMetaData(),
+                                                                                    storageDataTypeContext));
+
+        TestStorable storable = new TestStorable();
+        storable.setDescription("unchanged");
+        Assert.assertSame(storable, rowMapper.map(resultSet, storable, storageDataTypeContext));
+        Assert.assertEquals(Long.valueOf(5L), storable.getId());
+        Assert.assertEquals("foo", storable.getName());
+        // null values are not set, same as with fromMap
+        Assert.assertEquals("unchanged", storable.getDescription());
+    }
+
+    @Test
+    public void testStorablesOverridingFromMapArePopulatedWithMap() throws Exception {
+        ResultSet resultSet = newResultSet(LABELS, TYPES, 5L, "foo", "bar");
+        StorableRowMapper rowMapper = StorableRowMapper.of(StorableRowMapper.Key.of(FromMapStorable.class,
+                                                                                    resultSet.getMetaData(),
+                                                                                    storageDataTypeContext));
+
+        FromMapStorable storable = rowMapper.map(resultSet, new FromMapStorable(), storageDataTypeContext);
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("id", 5L);
+        expected.put("name", "foo");
+        expected.put("description", "bar");
+        Assert.assertEquals(expected, storable.map);
+    }
+
+    @Test
+    public void testColumnsWithoutSetter() throws Exception {
+        String[] labels = {"id", "unknown"};
+        int[] types = {Types.BIGINT, Types.VARCHAR};
+        StorableRowMapper rowMapper = StorableRowMapper.of(StorableRowMapper.Key.of(TestStorable.class,
+                                                                                    newResultSet(labels, types).getMetaData(),
+                                                                                    storageDataTypeContext));
+
+        TestStorable storable = rowMapper.map(newResultSet(labels, types, 5L, null), new TestStorable(), storageDataTypeContext);
+        Assert.assertEquals(Long.valueOf(5L), storable.getId());
+
+        try {
+            rowMapper.map(newResultSet(labels, types, 5L, "foo"), new TestStorable(), storageDataTypeContext);
+            Assert.fail("StorageException should have been thrown");
+        } catch (StorageException e) {
+            Assert.assertTrue(e.getCause() instanceof NoSuchMethodException);
+        }
+    }
+
+    @Test
+    public void testKeysOfSameColumnsAreEqual() throws Exception {
+        Assert.assertEquals(StorableRowMapper.Key.of(TestStorable.class, newResultSet(LABELS, TYPES).getMetaData(), storageDataTypeContext),
+                            StorableRowMapper.Key.of(TestStorable.class, newResultSet(LABELS, TYPES).getMetaData(), storageDataTypeContext));
+        Assert.assertNotEquals(StorableRowMapper.Key.of(TestStorable.class, newResultSet(LABELS, TYPES).getMetaData(), storageDataTypeContext),
+                               StorableRowMapper.Key.of(FromMapStorable.class, newResultSet(LABELS, TYPES).getMetaData(), storageDataTypeContext));
+    }
+
+    // result set positioned on a row with the given values, which can only be read by column index
+    private ResultSet newResultSet(String[] labels, int[] types, Object... row) throws SQLException {
+        ResultSet resultSet = new FakeJdbc().newResultSet(labels, types, Collections.singletonList(row));
+        resultSet.next();
+        return resultSet;
+    }
+
+    public static class TestStorable extends AbstractStorable {
+        private Long id;
+        private String name;
+        private Object description;
+
+        @Override
+        public String getNameSpace() {
+            return "test";
+        }
+
+        @Override
+        public PrimaryKey getPrimaryKey() {
+            return null;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Object getDescription() {
+            return description;
+        }
+
+        // setter of a super type of the column type
+        public void setDescription(Object description) {
+            this.description = description;
+        }
+    }
+
+    public static class FromMapStorable extends TestStorable {
+        private Map<String, Object> map;
+
+        @Override
+        public Storable fromMap(Map<String, Object> map) {
+            this.map = map;
+            return this;
+        }
+    }
+}